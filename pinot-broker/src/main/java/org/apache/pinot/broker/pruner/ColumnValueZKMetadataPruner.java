@@ -0,0 +1,217 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.pruner;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.apache.pinot.common.data.FieldSpec.DataType;
+import org.apache.pinot.common.metadata.segment.ColumnValueMetadata;
+import org.apache.pinot.common.metadata.segment.OfflineSegmentZKMetadata;
+import org.apache.pinot.common.metadata.segment.SegmentColumnValueMetadata;
+import org.apache.pinot.common.metadata.segment.SegmentZKMetadata;
+import org.apache.pinot.common.request.FilterOperator;
+import org.apache.pinot.common.utils.request.FilterQueryTree;
+import org.apache.pinot.core.common.predicate.RangePredicate;
+import org.apache.pinot.core.segment.index.readers.BloomFilterReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Implementation of {@link SegmentZKMetadataPruner} that prunes segment based on the column min/max values and bloom
+ * filters stored in the offline segment ZK metadata:
+ * <ul>
+ *   <li> Walks the filter query tree and compares the EQUALITY and RANGE predicates against the column min/max values,
+ *   and checks the value of the EQUALITY predicates against the column bloom filters. </li>
+ *   <li> Prunes segment when none of its documents can satisfy the predicate(s) in the query. </li>
+ * </ul>
+ * <p>This is the broker side counterpart of the server side ColumnValueSegmentPruner, and it never prunes a segment
+ * when the column value metadata is missing or the predicate value cannot be parsed.
+ */
+@ThreadSafe
+public class ColumnValueZKMetadataPruner implements SegmentZKMetadataPruner {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ColumnValueZKMetadataPruner.class);
+
+  // Cache of the deserialized bloom filters. Keys are weakly referenced (compared by identity) so that the bloom filters
+  // are released together with the segment ZK metadata holding them.
+  private final Cache<ColumnValueMetadata, BloomFilterReader> _bloomFilterCache =
+      CacheBuilder.newBuilder().weakKeys().build();
+
+  @Override
+  public boolean prune(SegmentZKMetadata segmentZKMetadata, SegmentPrunerContext prunerContext) {
+    if (!(segmentZKMetadata instanceof OfflineSegmentZKMetadata)) {
+      return false;
+    }
+    SegmentColumnValueMetadata columnValueMetadata =
+        ((OfflineSegmentZKMetadata) segmentZKMetadata).getColumnValueMetadata();
+    if (columnValueMetadata == null) {
+      return false;
+    }
+
+    FilterQueryTree filterQueryTree = prunerContext.getFilterQueryTree();
+    if (filterQueryTree == null) {
+      return false;
+    }
+    return pruneSegment(filterQueryTree, columnValueMetadata.getColumnValueMap());
+  }
+
+  /**
+   * Helper method to prune a segment based on the filter query tree and column value metadata.
+   *
+   * @param filterQueryTree Filter tree for the predicates in the query
+   * @param columnValueMap Map of column name to value metadata for the column.
+   *
+   * @return True if the segment can be pruned, false otherwise.
+   */
+  private boolean pruneSegment(FilterQueryTree filterQueryTree, Map<String, ColumnValueMetadata> columnValueMap) {
+    List<FilterQueryTree> children = filterQueryTree.getChildren();
+
+    // Non-leaf node
+    if (children != null && !children.isEmpty()) {
+      return pruneNonLeaf(filterQueryTree, columnValueMap);
+    }
+
+    // Leaf node
+    FilterOperator filterOperator = filterQueryTree.getOperator();
+    if (filterOperator != FilterOperator.EQUALITY && filterOperator != FilterOperator.RANGE) {
+      return false;
+    }
+    ColumnValueMetadata metadata = columnValueMap.get(filterQueryTree.getColumn());
+    if (metadata == null) {
+      return false;
+    }
+    DataType dataType = metadata.getDataType();
+    Comparable minValue = getValue(metadata.getMinValue(), dataType);
+    Comparable maxValue = getValue(metadata.getMaxValue(), dataType);
+    if (minValue == null || maxValue == null) {
+      return false;
+    }
+
+    if (filterOperator == FilterOperator.EQUALITY) {
+      Comparable value = getValue(filterQueryTree.getValue().get(0), dataType);
+      if (value == null) {
+        return false;
+      }
+      if (value.compareTo(minValue) < 0 || value.compareTo(maxValue) > 0) {
+        return true;
+      }
+      BloomFilterReader bloomFilterReader = getBloomFilter(metadata);
+      return bloomFilterReader != null && !bloomFilterReader.mightContain(value);
+    }
+
+    // RANGE
+    RangePredicate rangePredicate = new RangePredicate(null, filterQueryTree.getValue());
+    String lowerBoundary = rangePredicate.getLowerBoundary();
+    if (!lowerBoundary.equals(RangePredicate.UNBOUNDED)) {
+      Comparable lowerBoundaryValue = getValue(lowerBoundary, dataType);
+      if (lowerBoundaryValue != null) {
+        int result = lowerBoundaryValue.compareTo(maxValue);
+        if (result > 0 || (result == 0 && !rangePredicate.includeLowerBoundary())) {
+          return true;
+        }
+      }
+    }
+    String upperBoundary = rangePredicate.getUpperBoundary();
+    if (!upperBoundary.equals(RangePredicate.UNBOUNDED)) {
+      Comparable upperBoundaryValue = getValue(upperBoundary, dataType);
+      if (upperBoundaryValue != null) {
+        int result = upperBoundaryValue.compareTo(minValue);
+        return result < 0 || (result == 0 && !rangePredicate.includeUpperBoundary());
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Given a non leaf filter query tree node prunes it as follows:
+   * <ul>
+   *   <li> For 'AND', node is pruned as long as at least one child can prune it. </li>
+   *   <li> For 'OR', node is pruned as long as all children can prune it. </li>
+   * </ul>
+   */
+  @SuppressWarnings("Duplicates")
+  private boolean pruneNonLeaf(FilterQueryTree filterQueryTree, Map<String, ColumnValueMetadata> columnValueMap) {
+    List<FilterQueryTree> children = filterQueryTree.getChildren();
+    FilterOperator filterOperator = filterQueryTree.getOperator();
+    switch (filterOperator) {
+      case AND:
+        for (FilterQueryTree child : children) {
+          if (pruneSegment(child, columnValueMap)) {
+            return true;
+          }
+        }
+        return false;
+
+      case OR:
+        for (FilterQueryTree child : children) {
+          if (!pruneSegment(child, columnValueMap)) {
+            return false;
+          }
+        }
+        return true;
+
+      default:
+        return false;
+    }
+  }
+
+  @Nullable
+  private BloomFilterReader getBloomFilter(ColumnValueMetadata metadata) {
+    String bloomFilter = metadata.getBloomFilter();
+    if (bloomFilter == null) {
+      return null;
+    }
+    try {
+      return _bloomFilterCache.get(metadata, () -> new BloomFilterReader(Base64.getDecoder().decode(bloomFilter)));
+    } catch (Exception e) {
+      LOGGER.warn("Caught exception while deserializing bloom filter from segment ZK metadata, skipping it", e);
+      return null;
+    }
+  }
+
+  /**
+   * Returns the value of the given data type for the given string, or {@code null} if it cannot be parsed.
+   */
+  @Nullable
+  private static Comparable getValue(String input, DataType dataType) {
+    try {
+      switch (dataType) {
+        case INT:
+          return Integer.valueOf(input);
+        case LONG:
+          return Long.valueOf(input);
+        case FLOAT:
+          return Float.valueOf(input);
+        case DOUBLE:
+          return Double.valueOf(input);
+        case STRING:
+          return input;
+        default:
+          return null;
+      }
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+}
@@ -33,6 +33,7 @@ public class SegmentZKMetadataPrunerProvider {
 
   static {
     PRUNER_MAP.put("partitionzkmetadatapruner", PartitionZKMetadataPruner.class);
+    PRUNER_MAP.put("columnvaluezkmetadatapruner", ColumnValueZKMetadataPruner.class);
   }
 
   /**
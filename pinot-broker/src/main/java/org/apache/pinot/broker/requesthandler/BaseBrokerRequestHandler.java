@@ -20,9 +20,11 @@ package org.apache.pinot.broker.requesthandler;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Splitter;
+import java.io.File;
 import java.net.InetAddress;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -37,12 +39,14 @@ import org.apache.pinot.broker.broker.AccessControlFactory;
 import org.apache.pinot.broker.queryquota.TableQueryQuotaManager;
 import org.apache.pinot.broker.routing.RoutingTable;
 import org.apache.pinot.broker.routing.RoutingTableLookupRequest;
+import org.apache.pinot.broker.routing.ServerLatencyTracker;
 import org.apache.pinot.broker.routing.TimeBoundaryService;
 import org.apache.pinot.common.config.TableNameBuilder;
 import org.apache.pinot.common.exception.QueryException;
 import org.apache.pinot.common.metrics.BrokerMeter;
 import org.apache.pinot.common.metrics.BrokerMetrics;
 import org.apache.pinot.common.metrics.BrokerQueryPhase;
+import org.apache.pinot.common.request.AggregationInfo;
 import org.apache.pinot.common.request.BrokerRequest;
 import org.apache.pinot.common.request.FilterOperator;
 import org.apache.pinot.common.request.FilterQuery;
@@ -50,6 +54,7 @@ import org.apache.pinot.common.request.FilterQueryMap;
 import org.apache.pinot.common.response.BrokerResponse;
 import org.apache.pinot.common.response.broker.BrokerResponseNative;
 import org.apache.pinot.common.utils.CommonConstants;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunctionType;
 import org.apache.pinot.core.query.reduce.BrokerReduceService;
 import org.apache.pinot.pql.parsers.Pql2Compiler;
 import org.slf4j.Logger;
@@ -75,7 +80,9 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
 
   protected final AtomicLong _requestIdGenerator = new AtomicLong();
   protected final BrokerRequestOptimizer _brokerRequestOptimizer = new BrokerRequestOptimizer();
-  protected final BrokerReduceService _brokerReduceService = new BrokerReduceService();
+  protected final BrokerReduceService _brokerReduceService;
+  protected final ServerLatencyTracker _serverLatencyTracker;
+  protected final CompiledQueryCache _compiledQueryCache;
 
   protected final String _brokerId;
   protected final long _brokerTimeoutMs;
@@ -96,9 +103,21 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
     _brokerTimeoutMs = config.getLong(CONFIG_OF_BROKER_TIMEOUT_MS, DEFAULT_BROKER_TIMEOUT_MS);
     _queryResponseLimit = config.getInt(CONFIG_OF_BROKER_QUERY_RESPONSE_LIMIT, DEFAULT_BROKER_QUERY_RESPONSE_LIMIT);
     _queryLogLength = config.getInt(CONFIG_OF_BROKER_QUERY_LOG_LENGTH, DEFAULT_BROKER_QUERY_LOG_LENGTH);
-
-    LOGGER.info("Broker Id: {}, timeout: {}ms, query response limit: {}, query log length: {}", _brokerId,
-        _brokerTimeoutMs, _queryResponseLimit, _queryLogLength);
+    double serverLatencySmoothingFactor = config
+        .getDouble(CONFIG_OF_BROKER_SERVER_LATENCY_SMOOTHING_FACTOR, DEFAULT_BROKER_SERVER_LATENCY_SMOOTHING_FACTOR);
+    long serverLatencyDecayHalfLifeMs = config
+        .getLong(CONFIG_OF_BROKER_SERVER_LATENCY_DECAY_HALF_LIFE_MS, DEFAULT_BROKER_SERVER_LATENCY_DECAY_HALF_LIFE_MS);
+    _serverLatencyTracker = new ServerLatencyTracker(serverLatencySmoothingFactor, serverLatencyDecayHalfLifeMs);
+    int queryCacheSize = config.getInt(CONFIG_OF_BROKER_QUERY_CACHE_SIZE, DEFAULT_BROKER_QUERY_CACHE_SIZE);
+    _compiledQueryCache = queryCacheSize > 0 ? new CompiledQueryCache(queryCacheSize, brokerMetrics) : null;
+    long distinctCountMemoryBudgetBytes = config
+        .getLong(CONFIG_OF_BROKER_DISTINCT_COUNT_MEMORY_BUDGET_BYTES, DEFAULT_BROKER_DISTINCT_COUNT_MEMORY_BUDGET_BYTES);
+    File distinctCountSpillDir =
+        new File(config.getString(CONFIG_OF_BROKER_DISTINCT_COUNT_SPILL_DIR, System.getProperty("java.io.tmpdir")));
+    _brokerReduceService = new BrokerReduceService(distinctCountMemoryBudgetBytes, distinctCountSpillDir);
+
+    LOGGER.info("Broker Id: {}, timeout: {}ms, query response limit: {}, query log length: {}, query cache size: {}",
+        _brokerId, _brokerTimeoutMs, _queryResponseLimit, _queryLogLength, queryCacheSize);
   }
 
   private String getDefaultBrokerId() {
@@ -127,7 +146,11 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
     long compilationStartTimeNs = System.nanoTime();
     BrokerRequest brokerRequest;
     try {
-      brokerRequest = REQUEST_COMPILER.compileToBrokerRequest(query);
+      if (_compiledQueryCache != null) {
+        brokerRequest = _compiledQueryCache.compileToBrokerRequest(query);
+      } else {
+        brokerRequest = REQUEST_COMPILER.compileToBrokerRequest(query);
+      }
     } catch (Exception e) {
       LOGGER.info("Caught exception while compiling request {}: {}, {}", requestId, query, e.getMessage());
       _brokerMetrics.addMeteredGlobalValue(BrokerMeter.REQUEST_COMPILATION_EXCEPTIONS, 1);
@@ -217,6 +240,16 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
       LOGGER.debug("Debug options are set to: {} for request {}: {}", debugOptions, requestId, query);
       brokerRequest.setDebugOptions(debugOptions);
     }
+    if (hasDistinctCount(brokerRequest)) {
+      // Tell the servers that the broker can read the DISTINCTCOUNT intermediate results as bitmaps. Servers that do
+      // not recognize the option keep sending value sets, which the broker can also read
+      Map<String, String> queryOptions = brokerRequest.getQueryOptions();
+      if (queryOptions == null) {
+        queryOptions = new HashMap<>();
+        brokerRequest.setQueryOptions(queryOptions);
+      }
+      queryOptions.put(CommonConstants.Broker.Request.QueryOptionKey.DISTINCT_COUNT_BITMAP, "true");
+    }
 
     // Optimize the query
     // TODO: get time column name from schema or table config so that we can apply it for REALTIME only case
@@ -246,7 +279,8 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
     Map<String, List<String>> offlineRoutingTable = null;
     Map<String, List<String>> realtimeRoutingTable = null;
     if (offlineBrokerRequest != null) {
-      offlineRoutingTable = _routingTable.getRoutingTable(new RoutingTableLookupRequest(offlineBrokerRequest));
+      offlineRoutingTable = _routingTable
+          .getRoutingTable(new RoutingTableLookupRequest(offlineBrokerRequest, _serverLatencyTracker));
       if (offlineRoutingTable.isEmpty()) {
         LOGGER.debug("No OFFLINE server found for request {}: {}", requestId, query);
         offlineBrokerRequest = null;
@@ -254,7 +288,8 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
       }
     }
     if (realtimeBrokerRequest != null) {
-      realtimeRoutingTable = _routingTable.getRoutingTable(new RoutingTableLookupRequest(realtimeBrokerRequest));
+      realtimeRoutingTable = _routingTable
+          .getRoutingTable(new RoutingTableLookupRequest(realtimeBrokerRequest, _serverLatencyTracker));
       if (realtimeRoutingTable.isEmpty()) {
         LOGGER.debug("No REALTIME server found for request {}: {}", requestId, query);
         realtimeBrokerRequest = null;
@@ -307,6 +342,17 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
     return brokerResponse;
   }
 
+  /**
+   * Marks the requests to the servers in the given routing table submitted in the server latency tracker.
+   */
+  protected void markServerRequestsSubmitted(@Nullable Map<String, List<String>> routingTable) {
+    if (routingTable != null) {
+      for (String serverInstanceName : routingTable.keySet()) {
+        _serverLatencyTracker.markRequestSubmitted(serverInstanceName);
+      }
+    }
+  }
+
   /**
    * Broker side validation on the broker request.
    * <p>Throw RuntimeException if query does not pass validation.
@@ -334,6 +380,23 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
     }
   }
 
+  /**
+   * Helper method to check whether the broker request contains a DISTINCTCOUNT or DISTINCTCOUNTMV aggregation.
+   */
+  private static boolean hasDistinctCount(BrokerRequest brokerRequest) {
+    if (!brokerRequest.isSetAggregationsInfo()) {
+      return false;
+    }
+    for (AggregationInfo aggregationInfo : brokerRequest.getAggregationsInfo()) {
+      String aggregationType = aggregationInfo.getAggregationType();
+      if (aggregationType.equalsIgnoreCase(AggregationFunctionType.DISTINCTCOUNT.getName())
+          || aggregationType.equalsIgnoreCase(AggregationFunctionType.DISTINCTCOUNTMV.getName())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Helper method to get the time column name for the OFFLINE table name from the time boundary service, or
    * <code>null</code> if the time boundary service does not have the information.
@@ -0,0 +1,386 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.requesthandler;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.apache.pinot.common.metrics.BrokerMeter;
+import org.apache.pinot.common.metrics.BrokerMetrics;
+import org.apache.pinot.common.request.BrokerRequest;
+import org.apache.pinot.common.request.FilterOperator;
+import org.apache.pinot.common.request.FilterQuery;
+import org.apache.pinot.pql.parsers.Pql2CompilationException;
+import org.apache.pinot.pql.parsers.Pql2Compiler;
+
+
+/**
+ * The {@code CompiledQueryCache} class caches the compiled {@link BrokerRequest} of the queries, keyed on the query
+ * with the literals of the WHERE clause stripped out, so that queries of the same shape (e.g. dashboard queries with
+ * only the time range changing) are not parsed again.
+ * <p>On a cache miss, the query is compiled as usual, and the query with its WHERE clause literals replaced by markers
+ * is compiled into a template. The template is cached only if binding the literals of the query into it gives the same
+ * broker request as the one compiled from the query, otherwise the query shape is cached as not parameterizable.
+ * <p>On a cache hit, the template is copied and the markers in the filter values are replaced by the literals of the
+ * query (converted the same way as the compiler does).
+ * <p>NOTE: only the compilation is saved. The broker request optimizer still runs on every query, cached or not,
+ * because its output depends on the literals (e.g. merged ranges, de-duplicated IN values) and on the table config.
+ * Only the literals of the WHERE clause are parameterized, queries that differ in any other literal (e.g. TOP, LIMIT,
+ * HAVING) are cached separately.
+ * <p>The cache is disabled by default, and can be enabled with
+ * {@link org.apache.pinot.common.utils.CommonConstants.Broker#CONFIG_OF_BROKER_QUERY_CACHE_SIZE}.
+ */
+@ThreadSafe
+public class CompiledQueryCache {
+  private static final Pql2Compiler COMPILER = new Pql2Compiler();
+  private static final char MARKER = '\u0001';
+  private static final BrokerRequest NOT_PARAMETERIZABLE = new BrokerRequest();
+
+  private final Cache<String, BrokerRequest> _templateCache;
+  private final BrokerMetrics _brokerMetrics;
+  private final LongAdder _numHits = new LongAdder();
+  private final LongAdder _numMisses = new LongAdder();
+
+  public CompiledQueryCache(int maxSize, BrokerMetrics brokerMetrics) {
+    Preconditions.checkArgument(maxSize > 0, "Max cache size must be positive, got: %s", maxSize);
+    _templateCache = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    _brokerMetrics = brokerMetrics;
+    _brokerMetrics.addCallbackGauge("queryCacheHitRatioPercent", this::getHitRatioPercent);
+  }
+
+  /**
+   * Compiles the given query into a {@link BrokerRequest}. The returned broker request is not shared and can be
+   * modified by the caller.
+   *
+   * @throws Pql2CompilationException If the query cannot be compiled
+   */
+  public BrokerRequest compileToBrokerRequest(String query)
+      throws Pql2CompilationException {
+    ParameterizedQuery parameterizedQuery = ParameterizedQuery.parse(query);
+    if (parameterizedQuery == null) {
+      recordMiss();
+      return COMPILER.compileToBrokerRequest(query);
+    }
+
+    BrokerRequest template = _templateCache.getIfPresent(parameterizedQuery._key);
+    if (template != null && template != NOT_PARAMETERIZABLE) {
+      String[] values = parameterizedQuery.getValues();
+      if (values != null) {
+        recordHit();
+        return bind(template, values);
+      }
+    }
+
+    recordMiss();
+    BrokerRequest brokerRequest = COMPILER.compileToBrokerRequest(query);
+    if (template == null) {
+      _templateCache.put(parameterizedQuery._key, compileTemplate(parameterizedQuery, brokerRequest));
+    }
+    return brokerRequest;
+  }
+
+  @VisibleForTesting
+  long getNumHits() {
+    return _numHits.sum();
+  }
+
+  @VisibleForTesting
+  long getNumMisses() {
+    return _numMisses.sum();
+  }
+
+  private long getHitRatioPercent() {
+    long numHits = _numHits.sum();
+    long numQueries = numHits + _numMisses.sum();
+    return numQueries > 0 ? numHits * 100 / numQueries : 0;
+  }
+
+  private void recordHit() {
+    _numHits.increment();
+    _brokerMetrics.addMeteredGlobalValue(BrokerMeter.QUERY_CACHE_HITS, 1);
+  }
+
+  private void recordMiss() {
+    _numMisses.increment();
+    _brokerMetrics.addMeteredGlobalValue(BrokerMeter.QUERY_CACHE_MISSES, 1);
+  }
+
+  /**
+   * Compiles the template for the given query, and verifies it against the broker request compiled from the query.
+   * Returns {@link #NOT_PARAMETERIZABLE} if the template cannot be used for the query shape.
+   */
+  private static BrokerRequest compileTemplate(ParameterizedQuery parameterizedQuery, BrokerRequest brokerRequest) {
+    String[] values = parameterizedQuery.getValues();
+    if (values == null) {
+      return NOT_PARAMETERIZABLE;
+    }
+    BrokerRequest template;
+    try {
+      template = COMPILER.compileToBrokerRequest(parameterizedQuery._markedQuery);
+    } catch (Exception e) {
+      return NOT_PARAMETERIZABLE;
+    }
+    return brokerRequest.equals(bind(template, values)) ? template : NOT_PARAMETERIZABLE;
+  }
+
+  private static BrokerRequest bind(BrokerRequest template, String[] values) {
+    BrokerRequest brokerRequest = template.deepCopy();
+    if (brokerRequest.isSetFilterQuery()) {
+      bind(brokerRequest.getFilterQuery(), values);
+    }
+    if (brokerRequest.isSetFilterSubQueryMap()) {
+      for (FilterQuery filterQuery : brokerRequest.getFilterSubQueryMap().getFilterQueryMap().values()) {
+        bind(filterQuery, values);
+      }
+    }
+    return brokerRequest;
+  }
+
+  private static void bind(FilterQuery filterQuery, String[] values) {
+    List<String> filterValues = filterQuery.getValue();
+    if (filterValues == null) {
+      return;
+    }
+    int numFilterValues = filterValues.size();
+    List<String> boundFilterValues = new ArrayList<>(numFilterValues);
+    for (String filterValue : filterValues) {
+      boundFilterValues.add(replaceMarkers(filterValue, values));
+    }
+    // Values of IN/NOT_IN predicates are de-duplicated by the compiler
+    FilterOperator operator = filterQuery.getOperator();
+    if (operator == FilterOperator.IN || operator == FilterOperator.NOT_IN) {
+      boundFilterValues = new ArrayList<>(new HashSet<>(boundFilterValues));
+    }
+    filterQuery.setValue(boundFilterValues);
+  }
+
+  private static String replaceMarkers(String filterValue, String[] values) {
+    int markerStart = filterValue.indexOf(MARKER);
+    if (markerStart < 0) {
+      return filterValue;
+    }
+    StringBuilder stringBuilder = new StringBuilder();
+    int start = 0;
+    while (markerStart >= 0) {
+      int markerEnd = filterValue.indexOf(MARKER, markerStart + 1);
+      stringBuilder.append(filterValue, start, markerStart)
+          .append(values[Integer.parseInt(filterValue.substring(markerStart + 1, markerEnd))]);
+      start = markerEnd + 1;
+      markerStart = filterValue.indexOf(MARKER, start);
+    }
+    return stringBuilder.append(filterValue, start, filterValue.length()).toString();
+  }
+
+  /**
+   * Query with the literals of the WHERE clause extracted. The tokens are recognized the same way as the PQL2 lexer
+   * does for string literals, integer/floating point literals (with optional sign) and identifiers.
+   */
+  @VisibleForTesting
+  static class ParameterizedQuery {
+    enum LiteralType {
+      STRING, INTEGER, FLOATING_POINT
+    }
+
+    // Query with each literal replaced by its type, used as the cache key
+    final String _key;
+    // Query with each literal replaced by a string literal holding its marked index, compiled into the template
+    final String _markedQuery;
+    final List<String> _literals;
+    final List<LiteralType> _literalTypes;
+
+    private ParameterizedQuery(String key, String markedQuery, List<String> literals, List<LiteralType> literalTypes) {
+      _key = key;
+      _markedQuery = markedQuery;
+      _literals = literals;
+      _literalTypes = literalTypes;
+    }
+
+    /**
+     * Returns the parameterized query, or {@code null} if the query cannot be tokenized (e.g. unterminated quote).
+     */
+    @Nullable
+    static ParameterizedQuery parse(String query) {
+      int length = query.length();
+      StringBuilder key = new StringBuilder(length);
+      StringBuilder markedQuery = new StringBuilder(length);
+      List<String> literals = new ArrayList<>();
+      List<LiteralType> literalTypes = new ArrayList<>();
+      boolean inWhereClause = false;
+
+      int i = 0;
+      while (i < length) {
+        char c = query.charAt(i);
+        int end;
+        LiteralType literalType = null;
+        if (c == '\'' || c == '"') {
+          // String literal, where the quote character is escaped by doubling it
+          end = i + 1;
+          while (true) {
+            if (end >= length) {
+              return null;
+            }
+            if (query.charAt(end) == c) {
+              if (end + 1 < length && query.charAt(end + 1) == c) {
+                end += 2;
+                continue;
+              }
+              break;
+            }
+            end++;
+          }
+          end++;
+          literalType = LiteralType.STRING;
+        } else if (c == '`') {
+          // Quoted identifier
+          end = query.indexOf('`', i + 1);
+          if (end < 0) {
+            return null;
+          }
+          end++;
+        } else if (isIdentifierStart(query, i)) {
+          end = i + 1;
+          while (end < length && isIdentifierPart(query.charAt(end))) {
+            end++;
+          }
+          String word = query.substring(i, end);
+          if (word.equalsIgnoreCase("WHERE")) {
+            inWhereClause = true;
+          } else if (isEndOfWhereClause(word)) {
+            inWhereClause = false;
+          }
+        } else if (isNumberStart(query, i)) {
+          end = i;
+          if (c == '+' || c == '-') {
+            end++;
+          }
+          int integerPartStart = end;
+          while (end < length && isDigit(query.charAt(end))) {
+            end++;
+          }
+          boolean hasIntegerPart = end > integerPartStart;
+          literalType = LiteralType.INTEGER;
+          if (end < length && query.charAt(end) == '.' && (hasIntegerPart || isDigit(query.charAt(end + 1)))) {
+            end++;
+            while (end < length && isDigit(query.charAt(end))) {
+              end++;
+            }
+            literalType = LiteralType.FLOATING_POINT;
+          }
+        } else {
+          end = i + 1;
+        }
+
+        if (literalType != null && inWhereClause) {
+          key.append('?').append(literalType.ordinal());
+          markedQuery.append('\'').append(MARKER).append(literals.size()).append(MARKER).append('\'');
+          literals.add(query.substring(i, end));
+          literalTypes.add(literalType);
+        } else {
+          key.append(query, i, end);
+          markedQuery.append(query, i, end);
+        }
+        i = end;
+      }
+      return new ParameterizedQuery(key.toString(), markedQuery.toString(), literals, literalTypes);
+    }
+
+    /**
+     * Returns the literal values converted the same way as the compiler does, or {@code null} if any of them cannot be
+     * converted.
+     */
+    @Nullable
+    String[] getValues() {
+      int numLiterals = _literals.size();
+      String[] values = new String[numLiterals];
+      try {
+        for (int i = 0; i < numLiterals; i++) {
+          String literal = _literals.get(i);
+          switch (_literalTypes.get(i)) {
+            case STRING:
+              String quote = literal.substring(0, 1);
+              values[i] = literal.substring(1, literal.length() - 1).replace(quote + quote, quote);
+              break;
+            case INTEGER:
+              values[i] = Long.toString(Long.parseLong(literal));
+              break;
+            case FLOATING_POINT:
+              values[i] = Double.toString(Double.valueOf(literal));
+              break;
+            default:
+              throw new IllegalStateException();
+          }
+          if (values[i].indexOf(MARKER) >= 0) {
+            return null;
+          }
+        }
+      } catch (NumberFormatException e) {
+        return null;
+      }
+      return values;
+    }
+
+    private static boolean isEndOfWhereClause(String word) {
+      return word.equalsIgnoreCase("GROUP") || word.equalsIgnoreCase("ORDER") || word.equalsIgnoreCase("HAVING")
+          || word.equalsIgnoreCase("LIMIT") || word.equalsIgnoreCase("TOP") || word.equalsIgnoreCase("OPTION");
+    }
+
+    private static boolean isIdentifierStart(String query, int index) {
+      char c = query.charAt(index);
+      if (c == '$') {
+        return index + 1 < query.length() && isLetterOrUnderscore(query.charAt(index + 1));
+      }
+      return isLetterOrUnderscore(c);
+    }
+
+    private static boolean isLetterOrUnderscore(char c) {
+      return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean isIdentifierPart(char c) {
+      return isLetterOrUnderscore(c) || isDigit(c) || c == '-';
+    }
+
+    private static boolean isNumberStart(String query, int index) {
+      int length = query.length();
+      char c = query.charAt(index);
+      if (c == '+' || c == '-') {
+        index++;
+        if (index >= length) {
+          return false;
+        }
+        c = query.charAt(index);
+      }
+      if (isDigit(c)) {
+        return true;
+      }
+      return c == '.' && index + 1 < length && isDigit(query.charAt(index + 1));
+    }
+
+    private static boolean isDigit(char c) {
+      return c >= '0' && c <= '9';
+    }
+  }
+}
@@ -23,6 +23,7 @@ import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.util.HashedWheelTimer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -31,6 +32,7 @@ import java.util.Map.Entry;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.commons.configuration.Configuration;
@@ -145,38 +147,49 @@ public class ConnectionPoolBrokerRequestHandler extends BaseBrokerRequestHandler
     String realtimeTableName = null;
     CompositeFuture<byte[]> offlineCompositeFuture = null;
     CompositeFuture<byte[]> realtimeCompositeFuture = null;
-    if (offlineBrokerRequest != null) {
-      assert offlineRoutingTable != null;
-      offlineTableName = offlineBrokerRequest.getQuerySource().getTableName();
-      offlineCompositeFuture =
-          scatterBrokerRequest(requestId, offlineBrokerRequest, offlineRoutingTable, true, timeoutMs,
-              scatterGatherStats, phaseTimes);
-    }
-    if (realtimeBrokerRequest != null) {
-      assert realtimeRoutingTable != null;
-      realtimeTableName = realtimeBrokerRequest.getQuerySource().getTableName();
-      realtimeCompositeFuture =
-          scatterBrokerRequest(requestId, realtimeBrokerRequest, realtimeRoutingTable, false, timeoutMs,
-              scatterGatherStats, phaseTimes);
-    }
-
-    // Step 2: gather response from the servers
+    long scatterStartTimeNs = System.nanoTime();
+    markServerRequestsSubmitted(offlineRoutingTable);
+    markServerRequestsSubmitted(realtimeRoutingTable);
     int numServersQueried = 0;
-    long gatherStartTimeNs = System.nanoTime();
+    long gatherStartTimeNs;
     List<ProcessingException> processingExceptions = new ArrayList<>();
     Map<ServerInstance, byte[]> offlineServerResponseMap = null;
     Map<ServerInstance, byte[]> realtimeServerResponseMap = null;
-    if (offlineCompositeFuture != null) {
-      numServersQueried += offlineCompositeFuture.getNumFutures();
-      offlineServerResponseMap =
-          gatherServerResponses(offlineCompositeFuture, scatterGatherStats, true, offlineTableName,
-              processingExceptions);
-    }
-    if (realtimeCompositeFuture != null) {
-      numServersQueried += realtimeCompositeFuture.getNumFutures();
-      realtimeServerResponseMap =
-          gatherServerResponses(realtimeCompositeFuture, scatterGatherStats, false, realtimeTableName,
-              processingExceptions);
+    try {
+      if (offlineBrokerRequest != null) {
+        assert offlineRoutingTable != null;
+        offlineTableName = offlineBrokerRequest.getQuerySource().getTableName();
+        offlineCompositeFuture =
+            scatterBrokerRequest(requestId, offlineBrokerRequest, offlineRoutingTable, true, timeoutMs,
+                scatterGatherStats, phaseTimes);
+      }
+      if (realtimeBrokerRequest != null) {
+        assert realtimeRoutingTable != null;
+        realtimeTableName = realtimeBrokerRequest.getQuerySource().getTableName();
+        realtimeCompositeFuture =
+            scatterBrokerRequest(requestId, realtimeBrokerRequest, realtimeRoutingTable, false, timeoutMs,
+                scatterGatherStats, phaseTimes);
+      }
+
+      // Step 2: gather response from the servers
+      gatherStartTimeNs = System.nanoTime();
+      if (offlineCompositeFuture != null) {
+        numServersQueried += offlineCompositeFuture.getNumFutures();
+        offlineServerResponseMap =
+            gatherServerResponses(offlineCompositeFuture, scatterGatherStats, true, offlineTableName,
+                processingExceptions);
+      }
+      if (realtimeCompositeFuture != null) {
+        numServersQueried += realtimeCompositeFuture.getNumFutures();
+        realtimeServerResponseMap =
+            gatherServerResponses(realtimeCompositeFuture, scatterGatherStats, false, realtimeTableName,
+                processingExceptions);
+      }
+    } finally {
+      // Always pair with the submitted marks, so that a failed scatter-gather does not leave the servers in-flight
+      long scatterGatherTimeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - scatterStartTimeNs);
+      markServerRequestsCompleted(offlineRoutingTable, offlineCompositeFuture, scatterGatherTimeMs);
+      markServerRequestsCompleted(realtimeRoutingTable, realtimeCompositeFuture, scatterGatherTimeMs);
     }
     if ((offlineServerResponseMap == null) && (realtimeServerResponseMap == null)) {
       // No response gathered
@@ -286,6 +299,23 @@ public class ConnectionPoolBrokerRequestHandler extends BaseBrokerRequestHandler
     }
   }
 
+  /**
+   * Marks the requests to the servers in the given routing table completed in the server latency tracker. Servers not
+   * responding are charged with the whole scatter-gather time.
+   */
+  private void markServerRequestsCompleted(@Nullable Map<String, List<String>> routingTable,
+      @Nullable CompositeFuture<byte[]> compositeFuture, long scatterGatherTimeMs) {
+    if (routingTable != null) {
+      Map<ServerInstance, Long> responseTimes =
+          compositeFuture != null ? compositeFuture.getResponseTimes() : Collections.emptyMap();
+      for (String serverInstanceName : routingTable.keySet()) {
+        Long responseTimeMs = responseTimes.get(ServerInstance.forInstanceName(serverInstanceName));
+        _serverLatencyTracker
+            .markRequestCompleted(serverInstanceName, responseTimeMs != null ? responseTimeMs : scatterGatherTimeMs);
+      }
+    }
+  }
+
   /**
    * De-serialize the server responses, put the de-serialized data table into the data table map passed in, append
    * processing exceptions to the processing exception list passed in, and return the total response size from pinot
@@ -18,9 +18,11 @@
  */
 package org.apache.pinot.broker.requesthandler;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.commons.configuration.Configuration;
@@ -40,10 +42,14 @@ import org.apache.pinot.common.response.broker.BrokerResponseNative;
 import org.apache.pinot.common.utils.CommonConstants.Helix.TableType;
 import org.apache.pinot.common.utils.DataTable;
 import org.apache.pinot.core.transport.AsyncQueryResponse;
+import org.apache.pinot.core.transport.HedgedRequest;
+import org.apache.pinot.core.transport.HedgedRequestListener;
 import org.apache.pinot.core.transport.QueryRouter;
 import org.apache.pinot.core.transport.Server;
 import org.apache.pinot.core.transport.ServerResponse;
 
+import static org.apache.pinot.common.utils.CommonConstants.Broker.*;
+
 
 /**
  * The <code>SingleConnectionBrokerRequestHandler</code> class is a thread-safe broker request handler using a single
@@ -52,12 +58,30 @@ import org.apache.pinot.core.transport.ServerResponse;
 @ThreadSafe
 public class SingleConnectionBrokerRequestHandler extends BaseBrokerRequestHandler {
   private final QueryRouter _queryRouter;
+  private final double _hedgedRequestLatencyPercentile;
+  private final long _hedgedRequestMinDelayMs;
+  // Tracks the requests in flight on the backup servers of the hedged requests
+  private final HedgedRequestListener _hedgedRequestListener = new HedgedRequestListener() {
+    @Override
+    public void onHedgedRequestSent(Server backupServer) {
+      _serverLatencyTracker.markRequestSubmitted(backupServer.getInstanceName());
+    }
+
+    @Override
+    public void onHedgedRequestCompleted(Server backupServer, long latencyMs) {
+      _serverLatencyTracker.markRequestCompleted(backupServer.getInstanceName(), latencyMs);
+    }
+  };
 
   public SingleConnectionBrokerRequestHandler(Configuration config, RoutingTable routingTable,
       TimeBoundaryService timeBoundaryService, AccessControlFactory accessControlFactory,
       TableQueryQuotaManager tableQueryQuotaManager, BrokerMetrics brokerMetrics) {
     super(config, routingTable, timeBoundaryService, accessControlFactory, tableQueryQuotaManager, brokerMetrics);
     _queryRouter = new QueryRouter(_brokerId, brokerMetrics);
+    _hedgedRequestLatencyPercentile = config
+        .getDouble(CONFIG_OF_BROKER_HEDGED_REQUEST_LATENCY_PERCENTILE, DEFAULT_BROKER_HEDGED_REQUEST_LATENCY_PERCENTILE);
+    _hedgedRequestMinDelayMs =
+        config.getLong(CONFIG_OF_BROKER_HEDGED_REQUEST_MIN_DELAY_MS, DEFAULT_BROKER_HEDGED_REQUEST_MIN_DELAY_MS);
   }
 
   @Override
@@ -79,12 +103,36 @@ public class SingleConnectionBrokerRequestHandler extends BaseBrokerRequestHandl
 
     String rawTableName = TableNameBuilder.extractRawTableName(originalBrokerRequest.getQuerySource().getTableName());
     long scatterGatherStartTimeNs = System.nanoTime();
-    AsyncQueryResponse asyncQueryResponse = _queryRouter
-        .submitQuery(requestId, rawTableName, offlineBrokerRequest, offlineRoutingTable, realtimeBrokerRequest,
-            realtimeRoutingTable, timeoutMs);
-    Map<Server, ServerResponse> response = asyncQueryResponse.getResponse();
-    _brokerMetrics
-        .addPhaseTiming(rawTableName, BrokerQueryPhase.SCATTER_GATHER, System.nanoTime() - scatterGatherStartTimeNs);
+    Map<Server, HedgedRequest> hedgedRequestMap = null;
+    if (_hedgedRequestLatencyPercentile > 0) {
+      hedgedRequestMap = new HashMap<>();
+      if (offlineBrokerRequest != null) {
+        addHedgedRequests(offlineBrokerRequest.getQuerySource().getTableName(), offlineRoutingTable, TableType.OFFLINE,
+            timeoutMs, hedgedRequestMap);
+      }
+      if (realtimeBrokerRequest != null) {
+        addHedgedRequests(realtimeBrokerRequest.getQuerySource().getTableName(), realtimeRoutingTable,
+            TableType.REALTIME, timeoutMs, hedgedRequestMap);
+      }
+    }
+    markServerRequestsSubmitted(offlineRoutingTable);
+    markServerRequestsSubmitted(realtimeRoutingTable);
+    AsyncQueryResponse asyncQueryResponse;
+    Map<Server, ServerResponse> response = Collections.emptyMap();
+    long scatterGatherTimeNs;
+    try {
+      asyncQueryResponse = _queryRouter
+          .submitQuery(requestId, rawTableName, offlineBrokerRequest, offlineRoutingTable, realtimeBrokerRequest,
+              realtimeRoutingTable, timeoutMs, hedgedRequestMap, _hedgedRequestListener);
+      response = asyncQueryResponse.getResponse();
+    } finally {
+      // Always pair with the submitted marks, so that a failed scatter-gather does not leave the servers in-flight
+      scatterGatherTimeNs = System.nanoTime() - scatterGatherStartTimeNs;
+      long scatterGatherTimeMs = TimeUnit.NANOSECONDS.toMillis(scatterGatherTimeNs);
+      markServerRequestsCompleted(offlineRoutingTable, TableType.OFFLINE, response, scatterGatherTimeMs);
+      markServerRequestsCompleted(realtimeRoutingTable, TableType.REALTIME, response, scatterGatherTimeMs);
+    }
+    _brokerMetrics.addPhaseTiming(rawTableName, BrokerQueryPhase.SCATTER_GATHER, scatterGatherTimeNs);
     // TODO Use scatterGatherStats as serverStats
     serverStats.setServerStats(asyncQueryResponse.getStats());
 
@@ -127,4 +175,51 @@ public class SingleConnectionBrokerRequestHandler extends BaseBrokerRequestHandl
 
     return brokerResponse;
   }
+
+  /**
+   * Adds a hedged request for each server in the routing table that has enough latency history and another server
+   * hosting all its segments. The hedged request is sent when the server does not respond within the configured
+   * percentile of its recent latency.
+   */
+  private void addHedgedRequests(String tableNameWithType, Map<String, List<String>> routingTable,
+      TableType tableType, long timeoutMs, Map<Server, HedgedRequest> hedgedRequestMap) {
+    for (Map.Entry<String, List<String>> entry : routingTable.entrySet()) {
+      String serverInstanceName = entry.getKey();
+      long latencyPercentileMs =
+          _serverLatencyTracker.getLatencyPercentileMs(serverInstanceName, _hedgedRequestLatencyPercentile);
+      if (latencyPercentileMs < 0) {
+        continue;
+      }
+      long delayMs = Math.max(latencyPercentileMs, _hedgedRequestMinDelayMs);
+      if (delayMs >= timeoutMs) {
+        continue;
+      }
+      String backupServerInstanceName = _routingTable
+          .getBackupServer(tableNameWithType, serverInstanceName, entry.getValue(), _serverLatencyTracker);
+      if (backupServerInstanceName != null) {
+        hedgedRequestMap.put(new Server(serverInstanceName, tableType),
+            new HedgedRequest(new Server(backupServerInstanceName, tableType), delayMs));
+      }
+    }
+  }
+
+  /**
+   * Marks the requests to the servers in the given routing table completed in the server latency tracker. Servers not
+   * responding are charged with the whole scatter-gather time.
+   */
+  private void markServerRequestsCompleted(@Nullable Map<String, List<String>> routingTable, TableType tableType,
+      Map<Server, ServerResponse> response, long scatterGatherTimeMs) {
+    if (routingTable != null) {
+      for (String serverInstanceName : routingTable.keySet()) {
+        ServerResponse serverResponse = response.get(new Server(serverInstanceName, tableType));
+        long latencyMs = scatterGatherTimeMs;
+        if (serverResponse != null && serverResponse.getDataTable() != null) {
+          // NOTE: when the hedged request wins, the response delay is the time waited on the primary server (a lower
+          // bound of its latency). The latency of the backup server is recorded by the hedged request listener.
+          latencyMs = serverResponse.getResponseDelayMs();
+        }
+        _serverLatencyTracker.markRequestCompleted(serverInstanceName, latencyMs);
+      }
+    }
+  }
 }
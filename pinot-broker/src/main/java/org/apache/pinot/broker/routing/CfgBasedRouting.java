@@ -20,6 +20,7 @@ package org.apache.pinot.broker.routing;
 
 import java.util.List;
 import java.util.Map;
+import javax.annotation.Nullable;
 import org.apache.pinot.transport.config.PerTableRoutingConfig;
 import org.apache.pinot.transport.config.RoutingTableConfig;
 import org.slf4j.Logger;
@@ -51,6 +52,13 @@ public class CfgBasedRouting implements RoutingTable {
     return cfg.buildRequestRoutingMap();
   }
 
+  @Nullable
+  @Override
+  public String getBackupServer(String tableName, String server, List<String> segments,
+      @Nullable ServerLatencyTracker serverLatencyTracker) {
+    return null;
+  }
+
   @Override
   public boolean routingTableExists(String tableName) {
     return _cfg.getPerTableRoutingCfg().containsKey(tableName);
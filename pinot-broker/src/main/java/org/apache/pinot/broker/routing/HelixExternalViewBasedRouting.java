@@ -30,6 +30,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import org.apache.commons.configuration.Configuration;
 import org.apache.helix.AccessOption;
 import org.apache.helix.HelixDataAccessor;
@@ -103,6 +104,17 @@ public class HelixExternalViewBasedRouting implements RoutingTable {
     return routingTableBuilder.getRoutingTable(request, _segmentSelectorMap.get(tableName));
   }
 
+  @Nullable
+  @Override
+  public String getBackupServer(String tableName, String server, List<String> segments,
+      @Nullable ServerLatencyTracker serverLatencyTracker) {
+    RoutingTableBuilder routingTableBuilder = _routingTableBuilderMap.get(tableName);
+    if (routingTableBuilder == null) {
+      return null;
+    }
+    return routingTableBuilder.getBackupServer(server, segments, serverLatencyTracker);
+  }
+
   @Override
   public boolean routingTableExists(String tableName) {
     return _routingTableBuilderMap.containsKey(tableName);
@@ -385,6 +397,11 @@ public class HelixExternalViewBasedRouting implements RoutingTable {
     _lastKnownExternalViewVersionMap.remove(tableName);
     _lastKnownInstanceConfigsForTable.remove(tableName);
     _timeBoundaryService.remove(tableName);
+    if (_brokerMetrics != null) {
+      // Table metrics are recorded with both the table name with type and the raw table name
+      _brokerMetrics.removeTableMetrics(tableName);
+      _brokerMetrics.removeTableMetrics(TableNameBuilder.extractRawTableName(tableName));
+    }
 
     // Remove table from all instances
     synchronized (_tablesForInstance) {
@@ -20,6 +20,7 @@ package org.apache.pinot.broker.routing;
 
 import java.util.List;
 import java.util.Map;
+import javax.annotation.Nullable;
 
 
 /**
@@ -35,6 +36,20 @@ public interface RoutingTable {
    */
   Map<String, List<String>> getRoutingTable(RoutingTableLookupRequest request);
 
+  /**
+   * Get a server other than the given server which hosts all the given segments, which can be used as the target of
+   * hedged requests.
+   *
+   * @param tableName Table name
+   * @param server Server the segments are routed to
+   * @param segments Segments routed to the server
+   * @param serverLatencyTracker Server latency tracker used to pick the fastest backup server if available
+   * @return Backup server, or null if no other server hosts all the segments
+   */
+  @Nullable
+  String getBackupServer(String tableName, String server, List<String> segments,
+      @Nullable ServerLatencyTracker serverLatencyTracker);
+
   /**
    * Return whether the routing table for the given table exists.
    *
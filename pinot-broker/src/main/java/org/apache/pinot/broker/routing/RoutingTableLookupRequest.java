@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.apache.pinot.common.request.BrokerRequest;
 import org.apache.pinot.common.request.QuerySource;
 
@@ -37,6 +38,7 @@ public class RoutingTableLookupRequest {
   private final BrokerRequest _brokerRequest;
   private final String _tableName;
   private final List<String> _routingOptions;
+  private final ServerLatencyTracker _serverLatencyTracker;
 
   @Nonnull
   public BrokerRequest getBrokerRequest() {
@@ -53,8 +55,22 @@ public class RoutingTableLookupRequest {
     return _routingOptions;
   }
 
+  /**
+   * Returns the server latency tracker used for adaptive routing, or {@code null} if not available.
+   */
+  @Nullable
+  public ServerLatencyTracker getServerLatencyTracker() {
+    return _serverLatencyTracker;
+  }
+
   public RoutingTableLookupRequest(@Nonnull BrokerRequest brokerRequest) {
+    this(brokerRequest, null);
+  }
+
+  public RoutingTableLookupRequest(@Nonnull BrokerRequest brokerRequest,
+      @Nullable ServerLatencyTracker serverLatencyTracker) {
     _brokerRequest = brokerRequest;
+    _serverLatencyTracker = serverLatencyTracker;
     _tableName = brokerRequest.getQuerySource().getTableName();
 
     Map<String, String> debugOptions = brokerRequest.getDebugOptions();
@@ -68,6 +84,11 @@ public class RoutingTableLookupRequest {
 
   @VisibleForTesting
   public RoutingTableLookupRequest(@Nonnull String tableName) {
+    this(tableName, null);
+  }
+
+  @VisibleForTesting
+  public RoutingTableLookupRequest(@Nonnull String tableName, @Nullable ServerLatencyTracker serverLatencyTracker) {
     _brokerRequest = new BrokerRequest();
     QuerySource querySource = new QuerySource();
     querySource.setTableName(tableName);
@@ -75,5 +96,6 @@ public class RoutingTableLookupRequest {
 
     _tableName = tableName;
     _routingOptions = Collections.emptyList();
+    _serverLatencyTracker = serverLatencyTracker;
   }
 }
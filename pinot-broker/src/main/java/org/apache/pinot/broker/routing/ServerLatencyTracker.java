@@ -0,0 +1,180 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.routing;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.concurrent.ThreadSafe;
+
+
+/**
+ * The {@code ServerLatencyTracker} class keeps an exponentially weighted moving average of the response time and the
+ * number of in-flight requests for each server, keyed by server instance name (e.g. {@code Server_localhost_8098}).
+ * <p>The latency estimate decays towards 0 while a server does not receive any response so that a server which was
+ * slow (e.g. during a GC pause) eventually gets queried again and its estimate refreshed.
+ * <p>The expected latency of a server is used by the routing table builders to pick among replicas when adaptive
+ * routing is enabled. The percentile of the recent latencies of a server is used to decide when to send hedged
+ * requests.
+ */
+@ThreadSafe
+public class ServerLatencyTracker {
+  // Number of recent latencies kept per server to compute the latency percentile
+  private static final int NUM_RECENT_LATENCIES = 128;
+  // Minimum number of latencies required to compute the latency percentile
+  private static final int MIN_NUM_LATENCIES_FOR_PERCENTILE = 16;
+  // Number of new latencies recorded before the cached latency percentile gets recomputed
+  private static final int NUM_LATENCIES_PER_PERCENTILE_REFRESH = 8;
+
+  private final double _smoothingFactor;
+  private final long _decayHalfLifeMs;
+  private final ConcurrentHashMap<String, ServerLatencyStats> _serverLatencyStatsMap = new ConcurrentHashMap<>();
+
+  /**
+   * @param smoothingFactor Weight of the latest response time in the moving average, in range (0, 1]
+   * @param decayHalfLifeMs Half life of the latency estimate when the server does not respond to any request
+   */
+  public ServerLatencyTracker(double smoothingFactor, long decayHalfLifeMs) {
+    Preconditions.checkArgument(smoothingFactor > 0 && smoothingFactor <= 1,
+        "Smoothing factor must be in range (0, 1], got: %s", smoothingFactor);
+    Preconditions.checkArgument(decayHalfLifeMs > 0, "Decay half life must be positive, got: %s", decayHalfLifeMs);
+    _smoothingFactor = smoothingFactor;
+    _decayHalfLifeMs = decayHalfLifeMs;
+  }
+
+  /**
+   * Marks a request sent to the given server.
+   * <p>Each call must be followed by a call to {@link #markRequestCompleted(String, long)}.
+   */
+  public void markRequestSubmitted(String serverInstanceName) {
+    getServerLatencyStats(serverInstanceName)._numInFlightRequests.incrementAndGet();
+  }
+
+  /**
+   * Marks a request to the given server completed, and records its latency.
+   * <p>For requests timed out or failed, the timeout should be passed in as the latency to penalize the server.
+   */
+  public void markRequestCompleted(String serverInstanceName, long latencyMs) {
+    markRequestCompleted(serverInstanceName, latencyMs, System.currentTimeMillis());
+  }
+
+  /**
+   * Returns the expected latency in milliseconds for a new request sent to the given server, which is the decayed
+   * latency estimate scaled by the number of requests queued up in front of it.
+   * <p>Servers without any history have the lowest expected latency so that they can be picked up quickly.
+   */
+  public double getExpectedLatencyMs(String serverInstanceName) {
+    ServerLatencyStats serverLatencyStats = _serverLatencyStatsMap.get(serverInstanceName);
+    if (serverLatencyStats == null) {
+      return 1.0;
+    }
+    double latencyEstimateMs = serverLatencyStats.getLatencyEstimateMs(System.currentTimeMillis());
+    return (latencyEstimateMs + 1.0) * (1 + serverLatencyStats._numInFlightRequests.get());
+  }
+
+  /**
+   * Returns the given percentile (in range (0, 100]) of the recent latencies of the given server, or {@code -1} if there
+   * are not enough latencies recorded for the server.
+   */
+  public long getLatencyPercentileMs(String serverInstanceName, double percentile) {
+    ServerLatencyStats serverLatencyStats = _serverLatencyStatsMap.get(serverInstanceName);
+    return serverLatencyStats != null ? serverLatencyStats.getLatencyPercentileMs(percentile) : -1;
+  }
+
+  @VisibleForTesting
+  int getNumInFlightRequests(String serverInstanceName) {
+    ServerLatencyStats serverLatencyStats = _serverLatencyStatsMap.get(serverInstanceName);
+    return serverLatencyStats != null ? serverLatencyStats._numInFlightRequests.get() : 0;
+  }
+
+  @VisibleForTesting
+  double getLatencyEstimateMs(String serverInstanceName, long currentTimeMs) {
+    ServerLatencyStats serverLatencyStats = _serverLatencyStatsMap.get(serverInstanceName);
+    return serverLatencyStats != null ? serverLatencyStats.getLatencyEstimateMs(currentTimeMs) : 0.0;
+  }
+
+  @VisibleForTesting
+  void markRequestCompleted(String serverInstanceName, long latencyMs, long currentTimeMs) {
+    ServerLatencyStats serverLatencyStats = getServerLatencyStats(serverInstanceName);
+    serverLatencyStats._numInFlightRequests.decrementAndGet();
+    serverLatencyStats.update(latencyMs, currentTimeMs);
+  }
+
+  private ServerLatencyStats getServerLatencyStats(String serverInstanceName) {
+    return _serverLatencyStatsMap.computeIfAbsent(serverInstanceName, k -> new ServerLatencyStats());
+  }
+
+  private class ServerLatencyStats {
+    final AtomicInteger _numInFlightRequests = new AtomicInteger();
+
+    // Guarded by this
+    double _latencyEstimateMs = Double.NaN;
+    long _lastUpdateTimeMs;
+    final long[] _recentLatenciesMs = new long[NUM_RECENT_LATENCIES];
+    long _numLatencies;
+    long _numLatenciesAtLastPercentile;
+    double _lastPercentile;
+    long _lastPercentileValueMs = -1;
+
+    synchronized void update(long latencyMs, long currentTimeMs) {
+      _recentLatenciesMs[(int) (_numLatencies++ % NUM_RECENT_LATENCIES)] = latencyMs;
+      if (Double.isNaN(_latencyEstimateMs)) {
+        _latencyEstimateMs = latencyMs;
+      } else {
+        _latencyEstimateMs =
+            _smoothingFactor * latencyMs + (1 - _smoothingFactor) * getDecayedEstimate(currentTimeMs);
+      }
+      _lastUpdateTimeMs = Math.max(_lastUpdateTimeMs, currentTimeMs);
+    }
+
+    synchronized long getLatencyPercentileMs(double percentile) {
+      if (_numLatencies < MIN_NUM_LATENCIES_FOR_PERCENTILE) {
+        return -1;
+      }
+      if (percentile != _lastPercentile
+          || _numLatencies - _numLatenciesAtLastPercentile >= NUM_LATENCIES_PER_PERCENTILE_REFRESH) {
+        int numLatencies = (int) Math.min(_numLatencies, NUM_RECENT_LATENCIES);
+        long[] sortedLatenciesMs = Arrays.copyOf(_recentLatenciesMs, numLatencies);
+        Arrays.sort(sortedLatenciesMs);
+        int index = (int) Math.ceil(percentile / 100 * numLatencies) - 1;
+        _lastPercentileValueMs = sortedLatenciesMs[Math.max(0, Math.min(index, numLatencies - 1))];
+        _lastPercentile = percentile;
+        _numLatenciesAtLastPercentile = _numLatencies;
+      }
+      return _lastPercentileValueMs;
+    }
+
+    synchronized double getLatencyEstimateMs(long currentTimeMs) {
+      if (Double.isNaN(_latencyEstimateMs)) {
+        return 0.0;
+      }
+      return getDecayedEstimate(currentTimeMs);
+    }
+
+    private double getDecayedEstimate(long currentTimeMs) {
+      long idleTimeMs = currentTimeMs - _lastUpdateTimeMs;
+      if (idleTimeMs <= 0) {
+        return _latencyEstimateMs;
+      }
+      return _latencyEstimateMs * Math.pow(0.5, (double) idleTimeMs / _decayHalfLifeMs);
+    }
+  }
+}
@@ -22,12 +22,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import org.apache.commons.configuration.Configuration;
 import org.apache.helix.ZNRecord;
 import org.apache.helix.store.zk.ZkHelixPropertyStore;
 import org.apache.pinot.common.config.TableConfig;
 import org.apache.pinot.common.metrics.BrokerMetrics;
+import org.roaringbitmap.RoaringBitmap;
 
 
 /**
@@ -46,18 +46,24 @@ public class BalancedRandomRoutingTableBuilder extends BaseRoutingTableBuilder {
     _numRoutingTables = configuration.getInt(NUM_ROUTING_TABLES_KEY, DEFAULT_NUM_ROUTING_TABLES);
   }
 
+  @Override
+  protected boolean isIncrementalUpdateSupported() {
+    return true;
+  }
+
+  @Override
   protected List<Map<String, List<String>>> computeRoutingTablesFromSegmentToServersMap(
       Map<String, List<String>> segmentToServersMap) {
     List<Map<String, List<String>>> routingTables = new ArrayList<>(_numRoutingTables);
-    Set<String> segmentsToQuery = segmentToServersMap.keySet();
 
+    // Build the routing tables directly as bitmaps of segment ids
     for (int i = 0; i < _numRoutingTables; i++) {
-      Map<String, List<String>> routingTable = new HashMap<>();
-      for (String segmentName : segmentsToQuery) {
-        List<String> servers = segmentToServersMap.get(segmentName);
-        routingTable.get(getServerWithLeastSegmentsAssigned(servers, routingTable)).add(segmentName);
+      Map<String, RoaringBitmap> serverToSegmentIdsMap = new HashMap<>();
+      for (Map.Entry<String, List<String>> entry : segmentToServersMap.entrySet()) {
+        getSegmentIdsForServerWithLeastSegmentsAssigned(entry.getValue(), serverToSegmentIdsMap)
+            .add(getSegmentId(entry.getKey()));
       }
-      routingTables.add(routingTable);
+      routingTables.add(getCompactRoutingTable(serverToSegmentIdsMap));
     }
     return routingTables;
   }
@@ -20,17 +20,20 @@ package org.apache.pinot.broker.routing.builder;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
 import org.apache.commons.configuration.Configuration;
 import org.apache.helix.ZNRecord;
 import org.apache.helix.store.zk.ZkHelixPropertyStore;
 import org.apache.pinot.broker.pruner.SegmentPrunerContext;
 import org.apache.pinot.broker.pruner.SegmentZKMetadataPrunerService;
 import org.apache.pinot.broker.routing.RoutingTableLookupRequest;
+import org.apache.pinot.broker.routing.ServerLatencyTracker;
 import org.apache.pinot.broker.routing.selector.SegmentSelector;
 import org.apache.pinot.common.config.TableConfig;
 import org.apache.pinot.common.metadata.segment.SegmentZKMetadata;
@@ -140,6 +143,35 @@ public abstract class BasePartitionAwareRoutingTableBuilder implements RoutingTa
     throw new UnsupportedOperationException("Partition aware routing table cannot be pre-computed");
   }
 
+  @Nullable
+  @Override
+  public String getBackupServer(String server, List<String> segments,
+      @Nullable ServerLatencyTracker serverLatencyTracker) {
+    Map<String, Map<Integer, String>> segmentToReplicaToServerMap = _segmentToReplicaToServerMap;
+    if (segmentToReplicaToServerMap == null || segments.isEmpty()) {
+      return null;
+    }
+
+    // Find the servers hosting all the segments (usually the servers of the same partition in other replica groups)
+    Set<String> candidateServers = null;
+    for (String segmentName : segments) {
+      Map<Integer, String> replicaToServerMap = segmentToReplicaToServerMap.get(segmentName);
+      if (replicaToServerMap == null) {
+        return null;
+      }
+      if (candidateServers == null) {
+        candidateServers = new HashSet<>(replicaToServerMap.values());
+        candidateServers.remove(server);
+      } else {
+        candidateServers.retainAll(replicaToServerMap.values());
+      }
+      if (candidateServers.isEmpty()) {
+        return null;
+      }
+    }
+    return BaseRoutingTableBuilder.pickBackupServer(candidateServers, serverLatencyTracker, _random);
+  }
+
   protected void handleNoServingHost(String segmentName) {
     LOGGER.error("Found no server hosting segment {} for table {}", segmentName, _tableName);
     if (_brokerMetrics != null) {
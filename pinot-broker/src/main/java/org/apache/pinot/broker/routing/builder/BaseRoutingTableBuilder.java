@@ -18,25 +18,31 @@
  */
 package org.apache.pinot.broker.routing.builder;
 
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.annotation.Nullable;
 import org.apache.commons.configuration.Configuration;
 import org.apache.helix.ZNRecord;
 import org.apache.helix.model.ExternalView;
 import org.apache.helix.model.InstanceConfig;
 import org.apache.helix.store.zk.ZkHelixPropertyStore;
 import org.apache.pinot.broker.routing.RoutingTableLookupRequest;
+import org.apache.pinot.broker.routing.ServerLatencyTracker;
 import org.apache.pinot.broker.routing.selector.SegmentSelector;
 import org.apache.pinot.common.config.RoutingConfig;
 import org.apache.pinot.common.config.TableConfig;
 import org.apache.pinot.common.metrics.BrokerMeter;
 import org.apache.pinot.common.metrics.BrokerMetrics;
 import org.apache.pinot.common.utils.CommonConstants;
+import org.roaringbitmap.RoaringBitmap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,18 +52,28 @@ import org.slf4j.LoggerFactory;
  */
 public abstract class BaseRoutingTableBuilder implements RoutingTableBuilder {
   private static final Logger LOGGER = LoggerFactory.getLogger(BaseRoutingTableBuilder.class);
+  private static final int DEFAULT_NUM_ADAPTIVE_ROUTING_CANDIDATES = 3;
+  // Maximum number of segments changed since the last full rebuild (as a fraction of the total number of segments) for
+  // the pre-computed routing tables to be updated incrementally, so that the balance of the routing tables does not
+  // degrade over time
+  private static final double MAX_INCREMENTAL_UPDATE_RATIO = 0.1;
 
   protected final Random _random = new Random();
   private BrokerMetrics _brokerMetrics;
   private String _tableName;
   private boolean _enableDynamicComputing;
+  private boolean _enableAdaptiveRouting;
+  private boolean _enableHedgedRequests;
+  private int _numAdaptiveRoutingCandidates = DEFAULT_NUM_ADAPTIVE_ROUTING_CANDIDATES;
 
-  // Set variable as volatile so all threads can get the up-to-date routing tables
-  // Routing tables are used for storing pre-computed routing table
-  protected volatile List<Map<String, List<String>>> _routingTables;
+  // Set variable as volatile so all threads can get the up-to-date routing state. The pre-computed routing tables and
+  // the mapping of segment to servers are published together so that readers never mix two external views
+  private volatile RoutingState _routingState;
 
-  // A mapping of segments to servers is used for dynamic routing table building process
-  protected volatile Map<String, List<String>> _segmentToServersMap;
+  // Interned segment ids for the pre-computed routing tables, only accessed when computing the routing tables
+  private final Object2IntOpenHashMap<String> _segmentIdMap = new Object2IntOpenHashMap<>();
+  private String[] _segmentNames = new String[0];
+  private int _numSegmentsChangedSinceFullRebuild;
 
   @Override
   public void init(Configuration configuration, TableConfig tableConfig, ZkHelixPropertyStore<ZNRecord> propertyStore,
@@ -73,16 +89,33 @@ public abstract class BaseRoutingTableBuilder implements RoutingTableBuilder {
       if (_enableDynamicComputing) {
         LOGGER.info("Dynamic routing table computation is enabled for table {}", _tableName);
       }
+      _enableHedgedRequests = Boolean.valueOf(routingOption.get(RoutingConfig.ENABLE_HEDGED_REQUESTS_KEY));
+      if (_enableHedgedRequests) {
+        LOGGER.info("Hedged requests are enabled for table {}", _tableName);
+      }
+      _enableAdaptiveRouting = Boolean.valueOf(routingOption.get(RoutingConfig.ENABLE_ADAPTIVE_ROUTING_KEY));
+      if (_enableAdaptiveRouting) {
+        String numCandidates = routingOption.get(RoutingConfig.NUM_ADAPTIVE_ROUTING_CANDIDATES_KEY);
+        if (numCandidates != null) {
+          _numAdaptiveRoutingCandidates = Integer.parseInt(numCandidates);
+        }
+        LOGGER.info("Adaptive routing is enabled for table {} with {} candidate routing tables", _tableName,
+            _numAdaptiveRoutingCandidates);
+      }
     }
   }
 
   protected static String getServerWithLeastSegmentsAssigned(List<String> servers,
       Map<String, List<String>> routingTable) {
-    Collections.shuffle(servers);
+    // Start from a random server so that ties are broken randomly (the list of servers is shared between segments and
+    // should not be shuffled)
+    int numServers = servers.size();
+    int startIndex = ThreadLocalRandom.current().nextInt(numServers);
 
     String selectedServer = null;
     int minNumSegmentsAssigned = Integer.MAX_VALUE;
-    for (String server : servers) {
+    for (int i = 0; i < numServers; i++) {
+      String server = servers.get((startIndex + i) % numServers);
       List<String> segments = routingTable.get(server);
       if (segments == null) {
         routingTable.put(server, new ArrayList<>());
@@ -112,25 +145,340 @@ public abstract class BaseRoutingTableBuilder implements RoutingTableBuilder {
   }
 
   @Override
-  public void computeOnExternalViewChange(String tableName, ExternalView externalView,
+  public synchronized void computeOnExternalViewChange(String tableName, ExternalView externalView,
       List<InstanceConfig> instanceConfigs) {
     Map<String, List<String>> segmentToServersMap =
-        computeSegmentToServersMapFromExternalView(externalView, instanceConfigs);
+        internServerLists(computeSegmentToServersMapFromExternalView(externalView, instanceConfigs));
 
     if (_enableDynamicComputing) {
       // When dynamic computing is enabled, cache the mapping
-      _segmentToServersMap = segmentToServersMap;
+      _routingState = new RoutingState(null, segmentToServersMap, null);
     } else {
-      // Otherwise, we cache the pre-computed routing tables
-      List<Map<String, List<String>>> routingTables = computeRoutingTablesFromSegmentToServersMap(segmentToServersMap);
-      _routingTables = routingTables;
+      // Otherwise, we cache the pre-computed routing tables, and only apply the delta of the external view when
+      // possible
+      List<Map<String, List<String>>> routingTables = null;
+      RoutingState previousRoutingState = _routingState;
+      if (previousRoutingState != null && previousRoutingState._routingTables != null
+          && isIncrementalUpdateSupported()) {
+        routingTables = updateRoutingTables(previousRoutingState._segmentToServersMap, segmentToServersMap,
+            previousRoutingState._routingTables);
+      }
+      if (routingTables == null) {
+        assignSegmentIds(segmentToServersMap);
+        routingTables = computeRoutingTablesFromSegmentToServersMap(segmentToServersMap);
+      }
+
+      // The mapping is also required to look up the backup servers for hedged requests, and the segment ids are
+      // required to filter the routing tables with the selected segments
+      Object2IntOpenHashMap<String> segmentIdMap;
+      if (previousRoutingState != null && routingTables == previousRoutingState._routingTables) {
+        segmentIdMap = previousRoutingState._segmentIdMap;
+      } else {
+        segmentIdMap = new Object2IntOpenHashMap<>(_segmentIdMap);
+        segmentIdMap.defaultReturnValue(-1);
+      }
+      _routingState = new RoutingState(routingTables, segmentToServersMap, segmentIdMap);
+    }
+  }
+
+  /**
+   * Returns whether the pre-computed routing tables can be updated incrementally by re-assigning only the segments
+   * changed in the external view to the least loaded server in each routing table. Routing table builders with extra
+   * constraints on the segments assigned to each server should not support incremental update.
+   */
+  protected boolean isIncrementalUpdateSupported() {
+    return false;
+  }
+
+  /**
+   * Replaces the lists of servers with a single shared instance for each distinct list, so that only one list is kept
+   * per replica set instead of one per segment.
+   */
+  private static Map<String, List<String>> internServerLists(Map<String, List<String>> segmentToServersMap) {
+    Map<List<String>, List<String>> internedServerLists = new HashMap<>();
+    for (Map.Entry<String, List<String>> entry : segmentToServersMap.entrySet()) {
+      entry.setValue(internedServerLists.computeIfAbsent(entry.getValue(), k -> k));
+    }
+    return segmentToServersMap;
+  }
+
+  /**
+   * Interns the segment names into dense integer ids before a full rebuild of the pre-computed routing tables, so that
+   * the routing tables can be built directly in the compact representation: the segments assigned to each server are
+   * stored as a bitmap of segment ids, and all the routing tables share the same array of segment names.
+   */
+  private void assignSegmentIds(Map<String, List<String>> segmentToServersMap) {
+    _segmentIdMap.clear();
+    _segmentIdMap.defaultReturnValue(-1);
+    String[] segmentNames = new String[segmentToServersMap.size()];
+    int segmentId = 0;
+    for (String segmentName : segmentToServersMap.keySet()) {
+      _segmentIdMap.put(segmentName, segmentId);
+      segmentNames[segmentId++] = segmentName;
+    }
+    _segmentNames = segmentNames;
+    _numSegmentsChangedSinceFullRebuild = 0;
+  }
+
+  /**
+   * Returns the segment id of the given segment, only valid while computing the pre-computed routing tables.
+   */
+  protected int getSegmentId(String segmentName) {
+    return _segmentIdMap.getInt(segmentName);
+  }
+
+  /**
+   * Returns the compact routing table for the given mapping of server to segment ids. The bitmaps should not be
+   * modified afterwards.
+   */
+  protected Map<String, List<String>> getCompactRoutingTable(Map<String, RoaringBitmap> serverToSegmentIdsMap) {
+    Map<String, List<String>> routingTable = new HashMap<>();
+    for (Map.Entry<String, RoaringBitmap> entry : serverToSegmentIdsMap.entrySet()) {
+      RoaringBitmap segmentIds = entry.getValue();
+      segmentIds.runOptimize();
+      routingTable.put(entry.getKey(), new SegmentIdList(_segmentNames, segmentIds));
+    }
+    return routingTable;
+  }
+
+  /**
+   * Converts a routing table built with lists of segment names into the compact representation. Routing table
+   * builders that need the segment names while building a routing table should convert it as soon as it is built, so
+   * that only one routing table is kept uncompacted at a time.
+   */
+  protected Map<String, List<String>> compactRoutingTable(Map<String, List<String>> routingTable) {
+    Map<String, RoaringBitmap> serverToSegmentIdsMap = new HashMap<>();
+    for (Map.Entry<String, List<String>> entry : routingTable.entrySet()) {
+      RoaringBitmap segmentIds = new RoaringBitmap();
+      for (String segmentName : entry.getValue()) {
+        segmentIds.add(_segmentIdMap.getInt(segmentName));
+      }
+      serverToSegmentIdsMap.put(entry.getKey(), segmentIds);
+    }
+    return getCompactRoutingTable(serverToSegmentIdsMap);
+  }
+
+  /**
+   * Returns the server with the least segments assigned in the given mapping of server to segment ids, breaking ties
+   * randomly. The bitmap for the selected server is created if it does not exist.
+   */
+  protected static RoaringBitmap getSegmentIdsForServerWithLeastSegmentsAssigned(List<String> servers,
+      Map<String, RoaringBitmap> serverToSegmentIdsMap) {
+    int numServers = servers.size();
+    int startIndex = ThreadLocalRandom.current().nextInt(numServers);
+
+    RoaringBitmap selectedSegmentIds = null;
+    int minNumSegmentsAssigned = Integer.MAX_VALUE;
+    for (int i = 0; i < numServers; i++) {
+      String server = servers.get((startIndex + i) % numServers);
+      RoaringBitmap segmentIds = serverToSegmentIdsMap.get(server);
+      if (segmentIds == null) {
+        segmentIds = new RoaringBitmap();
+        serverToSegmentIdsMap.put(server, segmentIds);
+        return segmentIds;
+      } else {
+        int numSegmentsAssigned = segmentIds.getCardinality();
+        if (numSegmentsAssigned < minNumSegmentsAssigned) {
+          minNumSegmentsAssigned = numSegmentsAssigned;
+          selectedSegmentIds = segmentIds;
+        }
+      }
     }
+    return selectedSegmentIds;
+  }
+
+  /**
+   * Updates the pre-computed routing tables by applying only the delta between the previous and the current mapping of
+   * segment to servers: the removed segments and the segments with changed servers are removed from the routing tables,
+   * then the added segments and the segments with changed servers are assigned to the server with the least segments
+   * assigned in each routing table. The bitmaps of the servers not affected are shared with the previous routing
+   * tables.
+   *
+   * @return the updated routing tables, or {@code null} if a full rebuild is required
+   */
+  @Nullable
+  private List<Map<String, List<String>>> updateRoutingTables(Map<String, List<String>> previousSegmentToServersMap,
+      Map<String, List<String>> segmentToServersMap, List<Map<String, List<String>>> previousRoutingTables) {
+    // Compute the delta
+    List<String> segmentsToRemove = new ArrayList<>();
+    List<String> segmentsToAssign = new ArrayList<>();
+    int numSegmentsChanged = 0;
+    for (Map.Entry<String, List<String>> entry : previousSegmentToServersMap.entrySet()) {
+      String segmentName = entry.getKey();
+      List<String> servers = segmentToServersMap.get(segmentName);
+      if (servers == null) {
+        segmentsToRemove.add(segmentName);
+        numSegmentsChanged++;
+      } else if (!servers.equals(entry.getValue())) {
+        segmentsToRemove.add(segmentName);
+        segmentsToAssign.add(segmentName);
+        numSegmentsChanged++;
+      }
+    }
+    List<String> segmentsToAdd = new ArrayList<>();
+    for (String segmentName : segmentToServersMap.keySet()) {
+      if (!previousSegmentToServersMap.containsKey(segmentName)) {
+        segmentsToAdd.add(segmentName);
+        numSegmentsChanged++;
+      }
+    }
+    if (numSegmentsChanged == 0) {
+      return previousRoutingTables;
+    }
+    if (_numSegmentsChangedSinceFullRebuild + numSegmentsChanged
+        > MAX_INCREMENTAL_UPDATE_RATIO * segmentToServersMap.size()) {
+      return null;
+    }
+    _numSegmentsChangedSinceFullRebuild += numSegmentsChanged;
+
+    // Update the segment ids, where ids of the removed segments are not reused until the next full rebuild so that the
+    // previous routing tables stay valid
+    int numSegmentsToRemove = segmentsToRemove.size();
+    int[] segmentIdsToRemove = new int[numSegmentsToRemove];
+    for (int i = 0; i < numSegmentsToRemove; i++) {
+      segmentIdsToRemove[i] = _segmentIdMap.getInt(segmentsToRemove.get(i));
+    }
+    int numSegmentIds = _segmentNames.length;
+    String[] segmentNames = Arrays.copyOf(_segmentNames, numSegmentIds + segmentsToAdd.size());
+    for (String segmentName : segmentsToRemove) {
+      if (!segmentToServersMap.containsKey(segmentName)) {
+        segmentNames[_segmentIdMap.removeInt(segmentName)] = null;
+      }
+    }
+    for (String segmentName : segmentsToAdd) {
+      _segmentIdMap.put(segmentName, numSegmentIds);
+      segmentNames[numSegmentIds++] = segmentName;
+    }
+    _segmentNames = segmentNames;
+    segmentsToAssign.addAll(segmentsToAdd);
+
+    List<Map<String, List<String>>> routingTables = new ArrayList<>(previousRoutingTables.size());
+    for (Map<String, List<String>> previousRoutingTable : previousRoutingTables) {
+      Map<String, RoaringBitmap> serverToSegmentIdsMap = new HashMap<>();
+      for (Map.Entry<String, List<String>> entry : previousRoutingTable.entrySet()) {
+        serverToSegmentIdsMap.put(entry.getKey(), ((SegmentIdList) entry.getValue()).getSegmentIds());
+      }
+      // Copy the bitmaps on the first modification
+      Set<String> modifiedServers = new HashSet<>();
+
+      for (int segmentId : segmentIdsToRemove) {
+        for (Map.Entry<String, RoaringBitmap> entry : serverToSegmentIdsMap.entrySet()) {
+          if (entry.getValue().contains(segmentId)) {
+            getModifiableSegmentIds(entry.getKey(), serverToSegmentIdsMap, modifiedServers).remove(segmentId);
+            break;
+          }
+        }
+      }
+
+      for (String segmentName : segmentsToAssign) {
+        List<String> servers = segmentToServersMap.get(segmentName);
+        int numServers = servers.size();
+        // Start from a random server so that ties are broken randomly
+        int startIndex = _random.nextInt(numServers);
+        String selectedServer = null;
+        int minNumSegmentsAssigned = Integer.MAX_VALUE;
+        for (int i = 0; i < numServers; i++) {
+          String server = servers.get((startIndex + i) % numServers);
+          RoaringBitmap segmentIds = serverToSegmentIdsMap.get(server);
+          if (segmentIds != null) {
+            int numSegmentsAssigned = segmentIds.getCardinality();
+            if (numSegmentsAssigned < minNumSegmentsAssigned) {
+              minNumSegmentsAssigned = numSegmentsAssigned;
+              selectedServer = server;
+            }
+          }
+        }
+        // Add a new server into the routing table if none of the servers is in it
+        if (selectedServer == null) {
+          selectedServer = servers.get(startIndex);
+        }
+        getModifiableSegmentIds(selectedServer, serverToSegmentIdsMap, modifiedServers)
+            .add(_segmentIdMap.getInt(segmentName));
+      }
+
+      Map<String, List<String>> routingTable = new HashMap<>();
+      for (Map.Entry<String, RoaringBitmap> entry : serverToSegmentIdsMap.entrySet()) {
+        RoaringBitmap segmentIds = entry.getValue();
+        if (!segmentIds.isEmpty()) {
+          if (modifiedServers.contains(entry.getKey())) {
+            segmentIds.runOptimize();
+          }
+          routingTable.put(entry.getKey(), new SegmentIdList(segmentNames, segmentIds));
+        }
+      }
+      routingTables.add(routingTable);
+    }
+    return routingTables;
+  }
+
+  private static RoaringBitmap getModifiableSegmentIds(String server, Map<String, RoaringBitmap> serverToSegmentIdsMap,
+      Set<String> modifiedServers) {
+    if (modifiedServers.add(server)) {
+      RoaringBitmap segmentIds = serverToSegmentIdsMap.get(server);
+      segmentIds = segmentIds != null ? segmentIds.clone() : new RoaringBitmap();
+      serverToSegmentIdsMap.put(server, segmentIds);
+      return segmentIds;
+    }
+    return serverToSegmentIdsMap.get(server);
+  }
+
+  @Nullable
+  @Override
+  public String getBackupServer(String server, List<String> segments,
+      @Nullable ServerLatencyTracker serverLatencyTracker) {
+    RoutingState routingState = _routingState;
+    if (routingState == null || segments.isEmpty()) {
+      return null;
+    }
+    Map<String, List<String>> segmentToServersMap = routingState._segmentToServersMap;
+
+    // Find the servers hosting all the segments
+    Set<String> candidateServers = null;
+    for (String segmentName : segments) {
+      List<String> servers = segmentToServersMap.get(segmentName);
+      if (servers == null) {
+        return null;
+      }
+      if (candidateServers == null) {
+        candidateServers = new HashSet<>(servers);
+        candidateServers.remove(server);
+      } else {
+        candidateServers.retainAll(servers);
+      }
+      if (candidateServers.isEmpty()) {
+        return null;
+      }
+    }
+    return pickBackupServer(candidateServers, serverLatencyTracker, _random);
+  }
+
+  /**
+   * Picks the server with the lowest expected latency among the candidate servers if the server latency tracker is
+   * available, or a random server otherwise.
+   */
+  static String pickBackupServer(Set<String> candidateServers, @Nullable ServerLatencyTracker serverLatencyTracker,
+      Random random) {
+    List<String> servers = new ArrayList<>(candidateServers);
+    if (serverLatencyTracker == null) {
+      return servers.get(random.nextInt(servers.size()));
+    }
+    String selectedServer = null;
+    double minExpectedLatencyMs = Double.MAX_VALUE;
+    for (String server : servers) {
+      double expectedLatencyMs = serverLatencyTracker.getExpectedLatencyMs(server);
+      if (expectedLatencyMs < minExpectedLatencyMs) {
+        minExpectedLatencyMs = expectedLatencyMs;
+        selectedServer = server;
+      }
+    }
+    return selectedServer;
   }
 
   public Map<String, List<String>> getRoutingTable(RoutingTableLookupRequest request, SegmentSelector segmentSelector) {
+    // Copy the pointer for snapshot since the pointer for routing state can change at anytime
+    RoutingState routingState = _routingState;
+    Map<String, List<String>> segmentToServersMap = routingState._segmentToServersMap;
     if (_enableDynamicComputing) {
-      // Copy the pointer for snapshot since the pointer for segment to servers map can change at anytime
-      Map<String, List<String>> segmentToServersMap = _segmentToServersMap;
 
       // Selecting segments only required for processing a query
       Set<String> segmentsToQuery = segmentToServersMap.keySet();
@@ -139,16 +487,87 @@ public abstract class BaseRoutingTableBuilder implements RoutingTableBuilder {
       }
 
       // Compute the final routing table
+      ServerLatencyTracker serverLatencyTracker = request.getServerLatencyTracker();
+      if (_enableAdaptiveRouting && serverLatencyTracker != null) {
+        return computeAdaptiveDynamicRoutingTable(segmentToServersMap, segmentsToQuery, serverLatencyTracker);
+      }
       return computeDynamicRoutingTable(segmentToServersMap, segmentsToQuery);
     }
 
     // Return a pre-computed routing table if we don't use dynamic computing
-    return _routingTables.get(_random.nextInt(_routingTables.size()));
+    List<Map<String, List<String>>> routingTables = routingState._routingTables;
+    ServerLatencyTracker serverLatencyTracker = request.getServerLatencyTracker();
+    Map<String, List<String>> routingTable;
+    if (_enableAdaptiveRouting && serverLatencyTracker != null) {
+      routingTable = selectAdaptiveRoutingTable(routingTables, serverLatencyTracker);
+    } else {
+      routingTable = routingTables.get(_random.nextInt(routingTables.size()));
+    }
+    if (segmentSelector != null) {
+      Set<String> segments = segmentToServersMap.keySet();
+      Set<String> segmentsToQuery = segmentSelector.selectSegments(request, segments);
+      // Skip the filtering when no segment is pruned
+      if (segmentsToQuery != segments && segmentsToQuery.size() != segments.size()) {
+        routingTable = filterRoutingTable(routingTable, segmentsToQuery, routingState._segmentIdMap);
+      }
+    }
+    return routingTable;
+  }
+
+  /**
+   * Returns a copy of the given pre-computed routing table that only contains the given segments to query. The cost is
+   * proportional to the number of segments to query instead of the number of segments in the routing table: the segment
+   * ids to query are looked up and intersected with the bitmap of segment ids of each server.
+   */
+  private static Map<String, List<String>> filterRoutingTable(Map<String, List<String>> routingTable,
+      Set<String> segmentsToQuery, Object2IntOpenHashMap<String> segmentIdMap) {
+    RoaringBitmap segmentIdsToQuery = new RoaringBitmap();
+    for (String segment : segmentsToQuery) {
+      int segmentId = segmentIdMap.getInt(segment);
+      if (segmentId >= 0) {
+        segmentIdsToQuery.add(segmentId);
+      }
+    }
+    Map<String, List<String>> filteredRoutingTable = new HashMap<>();
+    for (Map.Entry<String, List<String>> entry : routingTable.entrySet()) {
+      SegmentIdList segments = ((SegmentIdList) entry.getValue()).filter(segmentIdsToQuery);
+      if (!segments.isEmpty()) {
+        filteredRoutingTable.put(entry.getKey(), segments);
+      }
+    }
+    return filteredRoutingTable;
+  }
+
+  /**
+   * Picks a few pre-computed routing tables at random, and returns the one with the lowest expected latency. The
+   * expected latency of a routing table is the highest expected latency among the servers it queries, since the query
+   * has to wait for all of them.
+   * <p>Sampling only a few routing tables (instead of evaluating all of them) keeps the lookup cheap, and also avoids
+   * sending all the queries to the same replicas before the latency estimates get updated.
+   */
+  private Map<String, List<String>> selectAdaptiveRoutingTable(List<Map<String, List<String>>> routingTables,
+      ServerLatencyTracker serverLatencyTracker) {
+    int numRoutingTables = routingTables.size();
+    Map<String, List<String>> selectedRoutingTable = null;
+    double minExpectedLatencyMs = Double.MAX_VALUE;
+    for (int i = 0; i < _numAdaptiveRoutingCandidates; i++) {
+      Map<String, List<String>> routingTable = routingTables.get(_random.nextInt(numRoutingTables));
+      double expectedLatencyMs = 0.0;
+      for (String server : routingTable.keySet()) {
+        expectedLatencyMs = Math.max(expectedLatencyMs, serverLatencyTracker.getExpectedLatencyMs(server));
+      }
+      if (expectedLatencyMs < minExpectedLatencyMs) {
+        minExpectedLatencyMs = expectedLatencyMs;
+        selectedRoutingTable = routingTable;
+      }
+    }
+    return selectedRoutingTable;
   }
 
   @Override
   public List<Map<String, List<String>>> getRoutingTables() {
-    return _routingTables;
+    RoutingState routingState = _routingState;
+    return routingState != null ? routingState._routingTables : null;
   }
 
   /**
@@ -170,6 +589,58 @@ public abstract class BaseRoutingTableBuilder implements RoutingTableBuilder {
     return routingTable;
   }
 
+  /**
+   * Computes a routing table on-the-fly using a mapping of segment to servers and the server latency estimates.
+   * Segments are grouped by the set of servers hosting them, and within each group every segment is assigned to the
+   * server with the lowest expected latency given the segments already assigned to it, so that slow servers get
+   * proportionally fewer segments.
+   *
+   * @param segmentsToQuery a list of segments that need to be processed for a particular query
+   * @param serverLatencyTracker tracker of the server latency estimates
+   * @return a routing table
+   */
+  public Map<String, List<String>> computeAdaptiveDynamicRoutingTable(Map<String, List<String>> segmentToServersMap,
+      Set<String> segmentsToQuery, ServerLatencyTracker serverLatencyTracker) {
+    // Group the segments by the servers hosting them
+    Map<List<String>, List<String>> serversToSegmentsMap = new HashMap<>();
+    for (String segmentName : segmentsToQuery) {
+      List<String> servers = segmentToServersMap.get(segmentName);
+      if (servers == null) {
+        // Segment selected but not served (e.g. removed from the external view after being selected)
+        LOGGER.warn("Skipping segment {} without serving server for table {}", segmentName, _tableName);
+        continue;
+      }
+      serversToSegmentsMap.computeIfAbsent(servers, k -> new ArrayList<>()).add(segmentName);
+    }
+
+    Map<String, List<String>> routingTable = new HashMap<>();
+    Map<String, Double> expectedLatencyMap = new HashMap<>();
+    for (Map.Entry<List<String>, List<String>> entry : serversToSegmentsMap.entrySet()) {
+      List<String> servers = entry.getKey();
+      int numServers = servers.size();
+      for (String segmentName : entry.getValue()) {
+        // Start from a random server so that ties are broken randomly
+        int startIndex = _random.nextInt(numServers);
+        String selectedServer = null;
+        double minCost = Double.MAX_VALUE;
+        for (int i = 0; i < numServers; i++) {
+          String server = servers.get((startIndex + i) % numServers);
+          double expectedLatencyMs =
+              expectedLatencyMap.computeIfAbsent(server, serverLatencyTracker::getExpectedLatencyMs);
+          List<String> segments = routingTable.get(server);
+          int numSegmentsAssigned = segments != null ? segments.size() : 0;
+          double cost = expectedLatencyMs * (numSegmentsAssigned + 1);
+          if (cost < minCost) {
+            minCost = cost;
+            selectedServer = server;
+          }
+        }
+        routingTable.computeIfAbsent(selectedServer, k -> new ArrayList<>()).add(segmentName);
+      }
+    }
+    return routingTable;
+  }
+
   /**
    * Given an external view and a list of instance configs, computes the mapping of segment to servers. The mapping
    * will be cached if we use dynamic routing. By default, this will check ONLINE segments and active servers.
@@ -204,10 +675,32 @@ public abstract class BaseRoutingTableBuilder implements RoutingTableBuilder {
   /**
    * Given a mapping of segment to servers, compute a list of final routing tables that will be cached when
    * we use pre-computing routing.
+   * <p>The routing tables should be built in the compact representation (see {@link #getCompactRoutingTable(Map)}) with
+   * the segment ids from {@link #getSegmentId(String)}.
    *
    * @param segmentToServersMap a mapping of segment to servers
    * @return a list of final routing tables
    */
   protected abstract List<Map<String, List<String>>> computeRoutingTablesFromSegmentToServersMap(
       Map<String, List<String>> segmentToServersMap);
+
+  /**
+   * Immutable snapshot of the routing state computed from one external view.
+   */
+  private static class RoutingState {
+    // Pre-computed routing tables, null when dynamic computing is enabled
+    final List<Map<String, List<String>>> _routingTables;
+    // Mapping of segment to servers, used for dynamic routing table building process, hedged requests, and to compute
+    // the delta of the external view for the incremental update of the pre-computed routing tables
+    final Map<String, List<String>> _segmentToServersMap;
+    // Read-only copy of the segment ids used by the pre-computed routing tables, null when dynamic computing is enabled
+    final Object2IntOpenHashMap<String> _segmentIdMap;
+
+    RoutingState(@Nullable List<Map<String, List<String>>> routingTables,
+        Map<String, List<String>> segmentToServersMap, @Nullable Object2IntOpenHashMap<String> segmentIdMap) {
+      _routingTables = routingTables;
+      _segmentToServersMap = segmentToServersMap;
+      _segmentIdMap = segmentIdMap;
+    }
+  }
 }
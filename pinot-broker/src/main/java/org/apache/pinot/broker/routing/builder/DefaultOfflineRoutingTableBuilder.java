@@ -22,12 +22,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import javax.annotation.Nullable;
 import org.apache.commons.configuration.Configuration;
 import org.apache.helix.ZNRecord;
 import org.apache.helix.model.ExternalView;
 import org.apache.helix.model.InstanceConfig;
 import org.apache.helix.store.zk.ZkHelixPropertyStore;
 import org.apache.pinot.broker.routing.RoutingTableLookupRequest;
+import org.apache.pinot.broker.routing.ServerLatencyTracker;
 import org.apache.pinot.broker.routing.selector.SegmentSelector;
 import org.apache.pinot.common.config.TableConfig;
 import org.apache.pinot.common.metrics.BrokerMetrics;
@@ -130,6 +132,13 @@ public class DefaultOfflineRoutingTableBuilder implements RoutingTableBuilder {
     return _routingTableBuilder.getRoutingTable(request, segmentSelector);
   }
 
+  @Nullable
+  @Override
+  public String getBackupServer(String server, List<String> segments,
+      @Nullable ServerLatencyTracker serverLatencyTracker) {
+    return _routingTableBuilder.getBackupServer(server, segments, serverLatencyTracker);
+  }
+
   @Override
   public List<Map<String, List<String>>> getRoutingTables() {
     return _routingTableBuilder.getRoutingTables();
@@ -22,12 +22,14 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import javax.annotation.Nullable;
 import org.apache.commons.configuration.Configuration;
 import org.apache.helix.ZNRecord;
 import org.apache.helix.model.ExternalView;
 import org.apache.helix.model.InstanceConfig;
 import org.apache.helix.store.zk.ZkHelixPropertyStore;
 import org.apache.pinot.broker.routing.RoutingTableLookupRequest;
+import org.apache.pinot.broker.routing.ServerLatencyTracker;
 import org.apache.pinot.broker.routing.selector.SegmentSelector;
 import org.apache.pinot.common.config.TableConfig;
 import org.apache.pinot.common.metrics.BrokerMetrics;
@@ -104,6 +106,20 @@ public class DefaultRealtimeRoutingTableBuilder implements RoutingTableBuilder {
     }
   }
 
+  @Nullable
+  @Override
+  public String getBackupServer(String server, List<String> segments,
+      @Nullable ServerLatencyTracker serverLatencyTracker) {
+    String backupServer = null;
+    if (_hasLLC) {
+      backupServer = _realtimeLLCRoutingTableBuilder.getBackupServer(server, segments, serverLatencyTracker);
+    }
+    if (backupServer == null && _hasHLC) {
+      backupServer = _realtimeHLCRoutingTableBuilder.getBackupServer(server, segments, serverLatencyTracker);
+    }
+    return backupServer;
+  }
+
   @Override
   public List<Map<String, List<String>>> getRoutingTables() {
     if (_hasLLC) {
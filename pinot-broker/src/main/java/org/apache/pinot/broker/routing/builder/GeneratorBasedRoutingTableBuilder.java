@@ -46,7 +46,7 @@ public abstract class GeneratorBasedRoutingTableBuilder extends BaseRoutingTable
   /**
    * Generates a routing table, decorated with a metric.
    *
-   * @return A pair of a routing table and its associated metric.
+   * @return A pair of a compact routing table and its associated metric.
    */
   private Pair<Map<String, List<String>>, Float> generateRoutingTableWithMetric(
       Map<String, List<String>> segmentToServersMap) {
@@ -70,7 +70,8 @@ public abstract class GeneratorBasedRoutingTableBuilder extends BaseRoutingTable
       variance += difference * difference;
     }
 
-    return new ImmutablePair<>(routingTable, variance);
+    // Only keep the compact routing table so that at most one routing table is uncompacted at a time
+    return new ImmutablePair<>(compactRoutingTable(routingTable), variance);
   }
 
   Map<String, List<String>> generateRoutingTable(Map<String, List<String>> segmentToServersMap) {
@@ -304,6 +305,13 @@ public abstract class GeneratorBasedRoutingTableBuilder extends BaseRoutingTable
     return routingTables;
   }
 
+  @Override
+  protected boolean isIncrementalUpdateSupported() {
+    // The segments added or moved are assigned to the least loaded server within each routing table (or a new server if
+    // none of the servers in the routing table can serve it), which keeps the segment coverage of every routing table
+    return true;
+  }
+
   /**
    * Returns the number of target servers per query
    */
@@ -28,6 +28,7 @@ import org.apache.helix.model.InstanceConfig;
 import org.apache.pinot.common.utils.CommonConstants;
 import org.apache.pinot.common.utils.HLCSegmentName;
 import org.apache.pinot.common.utils.SegmentName;
+import org.roaringbitmap.RoaringBitmap;
 
 
 public class HighLevelConsumerBasedRoutingTableBuilder extends BaseRoutingTableBuilder {
@@ -59,21 +60,23 @@ public class HighLevelConsumerBasedRoutingTableBuilder extends BaseRoutingTableB
   protected List<Map<String, List<String>>> computeRoutingTablesFromSegmentToServersMap(
       Map<String, List<String>> segmentsToServerMap) {
     List<Map<String, List<String>>> routingTables = new ArrayList<>();
-    Map<String, Map<String, List<String>>> groupIdToRouting = new HashMap<>();
+    Map<String, Map<String, RoaringBitmap>> groupIdToRouting = new HashMap<>();
     for (Map.Entry<String, List<String>> entry : segmentsToServerMap.entrySet()) {
       String segmentName = entry.getKey();
       HLCSegmentName hlcSegmentName = new HLCSegmentName(segmentName);
       String groupId = hlcSegmentName.getGroupId();
-      Map<String, List<String>> routingTableForGroupId =
+      Map<String, RoaringBitmap> routingTableForGroupId =
           groupIdToRouting.computeIfAbsent(groupId, k -> new HashMap<>());
 
+      int segmentId = getSegmentId(segmentName);
       List<String> servers = entry.getValue();
       for (String serverName : servers) {
-        List<String> segmentsForServer = routingTableForGroupId.computeIfAbsent(serverName, k -> new ArrayList<>());
-        segmentsForServer.add(segmentName);
+        routingTableForGroupId.computeIfAbsent(serverName, k -> new RoaringBitmap()).add(segmentId);
       }
     }
-    routingTables.addAll(groupIdToRouting.values());
+    for (Map<String, RoaringBitmap> routingTableForGroupId : groupIdToRouting.values()) {
+      routingTables.add(getCompactRoutingTable(routingTableForGroupId));
+    }
     return routingTables;
   }
 
@@ -20,12 +20,14 @@ package org.apache.pinot.broker.routing.builder;
 
 import java.util.List;
 import java.util.Map;
+import javax.annotation.Nullable;
 import org.apache.commons.configuration.Configuration;
 import org.apache.helix.ZNRecord;
 import org.apache.helix.model.ExternalView;
 import org.apache.helix.model.InstanceConfig;
 import org.apache.helix.store.zk.ZkHelixPropertyStore;
 import org.apache.pinot.broker.routing.RoutingTableLookupRequest;
+import org.apache.pinot.broker.routing.ServerLatencyTracker;
 import org.apache.pinot.broker.routing.selector.SegmentSelector;
 import org.apache.pinot.common.config.TableConfig;
 import org.apache.pinot.common.metrics.BrokerMetrics;
@@ -56,6 +58,13 @@ public interface RoutingTableBuilder {
    */
   Map<String, List<String>> getRoutingTable(RoutingTableLookupRequest request, SegmentSelector segmentSelector);
 
+  /**
+   * Get a server other than the given server which hosts all the given segments, or null if there is no such server or
+   * the routing table builder does not support it.
+   */
+  @Nullable
+  String getBackupServer(String server, List<String> segments, @Nullable ServerLatencyTracker serverLatencyTracker);
+
   /**
    * Get all pre-computed routing tables.
    */
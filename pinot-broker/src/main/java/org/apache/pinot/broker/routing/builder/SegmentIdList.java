@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.routing.builder;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+
+/**
+ * The {@code SegmentIdList} class is an immutable list of segment names backed by a bitmap of interned segment ids.
+ * <p>The pre-computed routing tables keep one bitmap per server instead of a list of segment names, and all the
+ * routing tables built from the same external view share the same array of segment names, which significantly reduces
+ * the memory footprint for tables with a large number of segments. Bitmaps not affected by an incremental update are
+ * shared with the previous routing tables.
+ */
+final class SegmentIdList extends AbstractList<String> {
+  private final String[] _segmentNames;
+  private final RoaringBitmap _segmentIds;
+  private final int _size;
+
+  /**
+   * @param segmentNames Array from segment id to segment name
+   * @param segmentIds Bitmap of the segment ids, which should not be modified afterwards
+   */
+  SegmentIdList(String[] segmentNames, RoaringBitmap segmentIds) {
+    _segmentNames = segmentNames;
+    _segmentIds = segmentIds;
+    _size = segmentIds.getCardinality();
+  }
+
+  RoaringBitmap getSegmentIds() {
+    return _segmentIds;
+  }
+
+  /**
+   * Returns a new list that only contains the given segment ids.
+   */
+  SegmentIdList filter(RoaringBitmap segmentIdsToKeep) {
+    return new SegmentIdList(_segmentNames, RoaringBitmap.and(_segmentIds, segmentIdsToKeep));
+  }
+
+  @Override
+  public String get(int index) {
+    if (index < 0 || index >= _size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + _size);
+    }
+    return _segmentNames[_segmentIds.select(index)];
+  }
+
+  @Override
+  public int size() {
+    return _size;
+  }
+
+  @Override
+  public Iterator<String> iterator() {
+    IntIterator intIterator = _segmentIds.getIntIterator();
+    return new Iterator<String>() {
+      @Override
+      public boolean hasNext() {
+        return intIterator.hasNext();
+      }
+
+      @Override
+      public String next() {
+        if (!intIterator.hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return _segmentNames[intIterator.next()];
+      }
+    };
+  }
+}
@@ -0,0 +1,208 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.routing.selector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.helix.AccessOption;
+import org.apache.helix.ZNRecord;
+import org.apache.helix.store.zk.ZkHelixPropertyStore;
+import org.apache.pinot.broker.pruner.SegmentPrunerContext;
+import org.apache.pinot.broker.pruner.SegmentZKMetadataPrunerService;
+import org.apache.pinot.broker.routing.RoutingTableLookupRequest;
+import org.apache.pinot.common.config.TableConfig;
+import org.apache.pinot.common.metadata.ZKMetadataProvider;
+import org.apache.pinot.common.metadata.segment.OfflineSegmentZKMetadata;
+import org.apache.pinot.common.metadata.segment.SegmentColumnValueMetadata;
+import org.apache.pinot.common.request.FilterOperator;
+import org.apache.pinot.common.utils.request.FilterQueryTree;
+import org.apache.zookeeper.data.Stat;
+
+
+/**
+ * Segment selector that prunes the segments of an offline table based on the column min/max values and bloom filters
+ * stored in the segment ZK metadata (published by the controller for the columns configured as segment pruning
+ * columns).
+ * <p>The segment ZK metadata is cached, and refreshed on external view changes. Only the ZK metadata of new segments
+ * and segments with a changed ZNode version is fetched. A segment refresh does not change the external view, so the
+ * cached ZK metadata of a refreshed segment is only updated on the next external view change of the table.
+ * <p>If all the segments are pruned, one segment is still selected so that the servers return a properly formed empty
+ * response.
+ */
+public class ColumnValueSegmentSelector implements SegmentSelector {
+  private static final String COLUMN_VALUE_ZK_METADATA_PRUNER = "ColumnValueZKMetadataPruner";
+
+  private final SegmentZKMetadataPrunerService _prunerService =
+      new SegmentZKMetadataPrunerService(new String[]{COLUMN_VALUE_ZK_METADATA_PRUNER});
+
+  private String _tableNameWithType;
+  private ZkHelixPropertyStore<ZNRecord> _propertyStore;
+  private volatile SegmentZKMetadataCache _segmentZKMetadataCache =
+      new SegmentZKMetadataCache(Collections.emptyMap(), Collections.emptySet());
+
+  @Override
+  public void init(TableConfig tableConfig, ZkHelixPropertyStore<ZNRecord> propertyStore) {
+    _tableNameWithType = tableConfig.getTableName();
+    _propertyStore = propertyStore;
+  }
+
+  @Override
+  public synchronized void computeOnExternalViewChange() {
+    List<String> segments = ZKMetadataProvider.getSegments(_propertyStore, _tableNameWithType);
+    int numSegments = segments.size();
+    List<String> segmentZKMetadataPaths = new ArrayList<>(numSegments);
+    for (String segment : segments) {
+      segmentZKMetadataPaths.add(ZKMetadataProvider.constructPropertyStorePathForSegment(_tableNameWithType, segment));
+    }
+    Stat[] stats = _propertyStore.getStats(segmentZKMetadataPaths, AccessOption.PERSISTENT);
+
+    // Reuse the cached segment ZK metadata if the ZNode version did not change
+    Map<String, CachedSegmentZKMetadata> previousSegmentZKMetadataMap = _segmentZKMetadataCache._segmentZKMetadataMap;
+    Map<String, CachedSegmentZKMetadata> segmentZKMetadataMap = new HashMap<>();
+    List<String> pathsToFetch = new ArrayList<>();
+    for (int i = 0; i < numSegments; i++) {
+      Stat stat = stats[i];
+      if (stat == null) {
+        continue;
+      }
+      String segment = segments.get(i);
+      CachedSegmentZKMetadata cachedSegmentZKMetadata = previousSegmentZKMetadataMap.get(segment);
+      if (cachedSegmentZKMetadata != null && cachedSegmentZKMetadata._version == stat.getVersion()) {
+        segmentZKMetadataMap.put(segment, cachedSegmentZKMetadata);
+      } else {
+        pathsToFetch.add(segmentZKMetadataPaths.get(i));
+      }
+    }
+    if (!pathsToFetch.isEmpty()) {
+      List<ZNRecord> znRecords = _propertyStore.get(pathsToFetch, null, AccessOption.PERSISTENT);
+      for (ZNRecord znRecord : znRecords) {
+        if (znRecord != null) {
+          segmentZKMetadataMap.put(znRecord.getId(),
+              new CachedSegmentZKMetadata(new OfflineSegmentZKMetadata(znRecord), znRecord.getVersion()));
+        }
+      }
+    }
+
+    // Collect the columns with value metadata, so that queries not filtering on them can skip the pruning
+    Set<String> prunableColumns = new HashSet<>();
+    for (CachedSegmentZKMetadata cachedSegmentZKMetadata : segmentZKMetadataMap.values()) {
+      SegmentColumnValueMetadata columnValueMetadata =
+          cachedSegmentZKMetadata._segmentZKMetadata.getColumnValueMetadata();
+      if (columnValueMetadata != null) {
+        prunableColumns.addAll(columnValueMetadata.getColumnValueMap().keySet());
+      }
+    }
+    _segmentZKMetadataCache = new SegmentZKMetadataCache(segmentZKMetadataMap, prunableColumns);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>Returns the input set itself when no segment is pruned, so that the caller can skip filtering the routing table.
+   */
+  @Override
+  public Set<String> selectSegments(RoutingTableLookupRequest request, Set<String> segmentsToQuery) {
+    SegmentZKMetadataCache segmentZKMetadataCache = _segmentZKMetadataCache;
+    if (segmentZKMetadataCache._prunableColumns.isEmpty()) {
+      return segmentsToQuery;
+    }
+    SegmentPrunerContext prunerContext = new SegmentPrunerContext(request.getBrokerRequest());
+    FilterQueryTree filterQueryTree = prunerContext.getFilterQueryTree();
+    if (filterQueryTree == null || !mightPrune(filterQueryTree, segmentZKMetadataCache._prunableColumns)) {
+      return segmentsToQuery;
+    }
+
+    Map<String, CachedSegmentZKMetadata> segmentZKMetadataMap = segmentZKMetadataCache._segmentZKMetadataMap;
+    List<String> prunedSegments = new ArrayList<>();
+    for (String segment : segmentsToQuery) {
+      CachedSegmentZKMetadata cachedSegmentZKMetadata = segmentZKMetadataMap.get(segment);
+      if (cachedSegmentZKMetadata != null && _prunerService.prune(cachedSegmentZKMetadata._segmentZKMetadata,
+          prunerContext)) {
+        prunedSegments.add(segment);
+      }
+    }
+    if (prunedSegments.isEmpty()) {
+      return segmentsToQuery;
+    }
+    Set<String> selectedSegments = new HashSet<>(segmentsToQuery);
+    selectedSegments.removeAll(prunedSegments);
+    if (selectedSegments.isEmpty()) {
+      selectedSegments.add(prunedSegments.get(0));
+    }
+    return selectedSegments;
+  }
+
+  /**
+   * Returns whether the filter might prune any segment, i.e. whether it has an EQUALITY or RANGE predicate on a column
+   * with value metadata that has to match for the filter to match (mirrors the AND/OR handling of the pruner).
+   */
+  private static boolean mightPrune(FilterQueryTree filterQueryTree, Set<String> prunableColumns) {
+    List<FilterQueryTree> children = filterQueryTree.getChildren();
+    if (children == null || children.isEmpty()) {
+      FilterOperator filterOperator = filterQueryTree.getOperator();
+      return (filterOperator == FilterOperator.EQUALITY || filterOperator == FilterOperator.RANGE) && prunableColumns
+          .contains(filterQueryTree.getColumn());
+    }
+    switch (filterQueryTree.getOperator()) {
+      case AND:
+        for (FilterQueryTree child : children) {
+          if (mightPrune(child, prunableColumns)) {
+            return true;
+          }
+        }
+        return false;
+      case OR:
+        for (FilterQueryTree child : children) {
+          if (!mightPrune(child, prunableColumns)) {
+            return false;
+          }
+        }
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Immutable snapshot of the cached segment ZK metadata and the columns with value metadata.
+   */
+  private static class SegmentZKMetadataCache {
+    final Map<String, CachedSegmentZKMetadata> _segmentZKMetadataMap;
+    final Set<String> _prunableColumns;
+
+    SegmentZKMetadataCache(Map<String, CachedSegmentZKMetadata> segmentZKMetadataMap, Set<String> prunableColumns) {
+      _segmentZKMetadataMap = segmentZKMetadataMap;
+      _prunableColumns = prunableColumns;
+    }
+  }
+
+  private static class CachedSegmentZKMetadata {
+    final OfflineSegmentZKMetadata _segmentZKMetadata;
+    final int _version;
+
+    CachedSegmentZKMetadata(OfflineSegmentZKMetadata segmentZKMetadata, int version) {
+      _segmentZKMetadata = segmentZKMetadata;
+      _version = version;
+    }
+  }
+}
@@ -20,7 +20,10 @@ package org.apache.pinot.broker.routing.selector;
 
 import org.apache.helix.ZNRecord;
 import org.apache.helix.store.zk.ZkHelixPropertyStore;
+import java.util.List;
+import org.apache.pinot.common.config.IndexingConfig;
 import org.apache.pinot.common.config.TableConfig;
+import org.apache.pinot.common.utils.CommonConstants;
 
 
 /**
@@ -42,6 +45,15 @@ public class SegmentSelectorProvider {
    */
   public SegmentSelector getSegmentSelector(TableConfig tableConfig) {
     // TODO: add the support for merged segment selector once merge config is updated.
+    if (tableConfig.getTableType() == CommonConstants.Helix.TableType.OFFLINE) {
+      IndexingConfig indexingConfig = tableConfig.getIndexingConfig();
+      List<String> segmentPruningColumns = indexingConfig != null ? indexingConfig.getSegmentPruningColumns() : null;
+      if (segmentPruningColumns != null && !segmentPruningColumns.isEmpty()) {
+        SegmentSelector segmentSelector = new ColumnValueSegmentSelector();
+        segmentSelector.init(tableConfig, _propertyStore);
+        return segmentSelector;
+      }
+    }
     return null;
   }
 }
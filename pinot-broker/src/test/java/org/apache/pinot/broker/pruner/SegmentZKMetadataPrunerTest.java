@@ -18,15 +18,24 @@
  */
 package org.apache.pinot.broker.pruner;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import junit.framework.Assert;
+import org.apache.pinot.common.data.FieldSpec.DataType;
 import org.apache.pinot.common.metadata.segment.ColumnPartitionMetadata;
+import org.apache.pinot.common.metadata.segment.ColumnValueMetadata;
 import org.apache.pinot.common.metadata.segment.OfflineSegmentZKMetadata;
+import org.apache.pinot.common.metadata.segment.SegmentColumnValueMetadata;
 import org.apache.pinot.common.metadata.segment.SegmentPartitionMetadata;
 import org.apache.pinot.common.metadata.segment.SegmentZKMetadata;
 import org.apache.pinot.common.request.BrokerRequest;
+import org.apache.pinot.core.bloom.BloomFilter;
+import org.apache.pinot.core.bloom.SegmentBloomFilterFactory;
 import org.apache.pinot.pql.parsers.Pql2Compiler;
 import org.testng.annotations.Test;
 
@@ -39,6 +48,9 @@ public class SegmentZKMetadataPrunerTest {
   private static final String PARTITION_COLUMN = "partition";
   private static final String PARTITION_FUNCTION_NAME = "modulo";
   private static final String PRUNER_NAME = "partitionzkmetadatapruner";
+  private static final String COLUMN_VALUE_PRUNER_NAME = "columnvaluezkmetadatapruner";
+  private static final String INT_COLUMN = "intColumn";
+  private static final String STRING_COLUMN = "stringColumn";
 
   @Test
   public void testPruner() {
@@ -61,4 +73,67 @@ public class SegmentZKMetadataPrunerTest {
       Assert.assertEquals(prunerService.prune(metadata, prunerContext), (actualPartition != expectedPartition));
     }
   }
+
+  @Test
+  public void testColumnValuePruner()
+      throws IOException {
+    OfflineSegmentZKMetadata metadata = new OfflineSegmentZKMetadata();
+    SegmentZKMetadataPrunerService prunerService =
+        new SegmentZKMetadataPrunerService(new String[]{COLUMN_VALUE_PRUNER_NAME});
+
+    // Without column value metadata, nothing should be pruned
+    Assert.assertFalse(prunerService.prune(metadata, getPrunerContext("intColumn = 0")));
+
+    BloomFilter bloomFilter = SegmentBloomFilterFactory.createSegmentBloomFilter(10, 0.001);
+    for (String value : new String[]{"a", "c", "e"}) {
+      bloomFilter.add(value);
+    }
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    try (DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream)) {
+      dataOutputStream.writeInt(bloomFilter.getBloomFilterType().getValue());
+      dataOutputStream.writeInt(bloomFilter.getVersion());
+      bloomFilter.writeTo(dataOutputStream);
+    }
+    String serializedBloomFilter = Base64.getEncoder().encodeToString(byteArrayOutputStream.toByteArray());
+
+    Map<String, ColumnValueMetadata> columnValueMap = new HashMap<>();
+    columnValueMap.put(INT_COLUMN, new ColumnValueMetadata(DataType.INT, "10", "20", null));
+    columnValueMap.put(STRING_COLUMN, new ColumnValueMetadata(DataType.STRING, "a", "e", serializedBloomFilter));
+    metadata.setColumnValueMetadata(new SegmentColumnValueMetadata(columnValueMap));
+
+    // EQUALITY on min/max value
+    Assert.assertTrue(prunerService.prune(metadata, getPrunerContext("intColumn = 9")));
+    Assert.assertFalse(prunerService.prune(metadata, getPrunerContext("intColumn = 10")));
+    Assert.assertFalse(prunerService.prune(metadata, getPrunerContext("intColumn = 20")));
+    Assert.assertTrue(prunerService.prune(metadata, getPrunerContext("intColumn = 21")));
+
+    // EQUALITY on bloom filter
+    Assert.assertFalse(prunerService.prune(metadata, getPrunerContext("stringColumn = 'c'")));
+    Assert.assertTrue(prunerService.prune(metadata, getPrunerContext("stringColumn = 'b'")));
+    Assert.assertTrue(prunerService.prune(metadata, getPrunerContext("stringColumn = 'f'")));
+
+    // RANGE
+    Assert.assertTrue(prunerService.prune(metadata, getPrunerContext("intColumn > 20")));
+    Assert.assertFalse(prunerService.prune(metadata, getPrunerContext("intColumn >= 20")));
+    Assert.assertTrue(prunerService.prune(metadata, getPrunerContext("intColumn < 10")));
+    Assert.assertFalse(prunerService.prune(metadata, getPrunerContext("intColumn <= 10")));
+    Assert.assertFalse(prunerService.prune(metadata, getPrunerContext("intColumn BETWEEN 0 AND 15")));
+    Assert.assertTrue(prunerService.prune(metadata, getPrunerContext("intColumn BETWEEN 21 AND 30")));
+
+    // AND/OR
+    Assert.assertTrue(prunerService.prune(metadata, getPrunerContext("intColumn = 15 AND stringColumn = 'b'")));
+    Assert.assertFalse(prunerService.prune(metadata, getPrunerContext("intColumn = 15 OR stringColumn = 'b'")));
+    Assert.assertTrue(prunerService.prune(metadata, getPrunerContext("intColumn = 5 OR stringColumn = 'b'")));
+
+    // Columns without value metadata, unsupported predicates and unparsable values should not prune the segment
+    Assert.assertFalse(prunerService.prune(metadata, getPrunerContext("otherColumn = 0")));
+    Assert.assertFalse(prunerService.prune(metadata, getPrunerContext("intColumn IN (0, 1)")));
+    Assert.assertFalse(prunerService.prune(metadata, getPrunerContext("intColumn = 'abc'")));
+  }
+
+  private static SegmentPrunerContext getPrunerContext(String filter) {
+    BrokerRequest brokerRequest =
+        new Pql2Compiler().compileToBrokerRequest("select count(*) from myTable where " + filter);
+    return new SegmentPrunerContext(brokerRequest);
+  }
 }
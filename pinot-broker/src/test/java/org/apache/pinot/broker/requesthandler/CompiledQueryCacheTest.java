@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.requesthandler;
+
+import com.yammer.metrics.core.MetricsRegistry;
+import java.util.Arrays;
+import org.apache.pinot.common.metrics.BrokerMetrics;
+import org.apache.pinot.common.request.BrokerRequest;
+import org.apache.pinot.pql.parsers.Pql2CompilationException;
+import org.apache.pinot.pql.parsers.Pql2Compiler;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ * Unit test for {@link CompiledQueryCache}
+ */
+public class CompiledQueryCacheTest {
+  private static final Pql2Compiler COMPILER = new Pql2Compiler();
+
+  @Test
+  public void testParameterizedQuery() {
+    CompiledQueryCache.ParameterizedQuery parameterizedQuery = CompiledQueryCache.ParameterizedQuery
+        .parse("SELECT COUNT(*) FROM myTable WHERE a = 'it''s' AND b BETWEEN -1 AND .5 AND c-1 > 2.0 TOP 10");
+    Assert.assertNotNull(parameterizedQuery);
+    Assert.assertEquals(parameterizedQuery._literals, Arrays.asList("'it''s'", "-1", ".5", "2.0"));
+    Assert.assertEquals(parameterizedQuery.getValues(), new String[]{"it's", "-1", "0.5", "2.0"});
+    Assert.assertEquals(parameterizedQuery._key,
+        "SELECT COUNT(*) FROM myTable WHERE a = ?0 AND b BETWEEN ?1 AND ?2 AND c-1 > ?2 TOP 10");
+
+    // Unterminated quote
+    Assert.assertNull(CompiledQueryCache.ParameterizedQuery.parse("SELECT * FROM myTable WHERE a = 'foo"));
+  }
+
+  @Test
+  public void testCompileToBrokerRequest() {
+    CompiledQueryCache compiledQueryCache = new CompiledQueryCache(100, new BrokerMetrics(new MetricsRegistry()));
+
+    String[][] queryGroups = new String[][]{
+        // Queries of the same shape with different literals
+        {
+            "SELECT COUNT(*) FROM myTable WHERE time > 100 AND time <= 200",
+            "SELECT COUNT(*) FROM myTable WHERE time > 150 AND time <= 300",
+            "SELECT COUNT(*) FROM myTable WHERE time > -5 AND time <= 007"
+        },
+        {
+            "SELECT SUM(m) FROM myTable WHERE d IN ('a', 'b', 'c') GROUP BY e TOP 5",
+            "SELECT SUM(m) FROM myTable WHERE d IN ('x', 'x', 'y') GROUP BY e TOP 5"
+        },
+        {
+            "SELECT * FROM myTable WHERE a BETWEEN 1.5 AND 2 OR b <> \"foo\" LIMIT 10",
+            "SELECT * FROM myTable WHERE a BETWEEN 3. AND 4 OR b <> \"bar\"\"s\" LIMIT 10"
+        },
+        {
+            "SELECT * FROM myTable WHERE REGEXP_LIKE(a, 'f.*') AND 5 < b",
+            "SELECT * FROM myTable WHERE REGEXP_LIKE(a, 'g.*') AND 6 < b"
+        },
+        // Queries without WHERE clause literals
+        {"SELECT MAX(a) FROM myTable", "SELECT MAX(a) FROM myTable"}
+    };
+    long expectedNumHits = 0;
+    long expectedNumMisses = 0;
+    for (String[] queries : queryGroups) {
+      for (int i = 0; i < queries.length; i++) {
+        String query = queries[i];
+        BrokerRequest brokerRequest = compiledQueryCache.compileToBrokerRequest(query);
+        Assert.assertEquals(brokerRequest, COMPILER.compileToBrokerRequest(query), query);
+        if (i == 0) {
+          expectedNumMisses++;
+        } else {
+          expectedNumHits++;
+        }
+        Assert.assertEquals(compiledQueryCache.getNumHits(), expectedNumHits);
+        Assert.assertEquals(compiledQueryCache.getNumMisses(), expectedNumMisses);
+      }
+    }
+
+    // The returned broker requests should not share state with the cached template
+    String query = "SELECT COUNT(*) FROM myTable WHERE time > 100 AND time <= 200";
+    compiledQueryCache.compileToBrokerRequest(query).getQuerySource().setTableName("myTable_OFFLINE");
+    Assert.assertEquals(compiledQueryCache.compileToBrokerRequest(query), COMPILER.compileToBrokerRequest(query));
+
+    // Invalid queries should fail the same way as without cache
+    try {
+      compiledQueryCache.compileToBrokerRequest("SELECT COUNT(*) FROM myTable WHERE time > 99999999999999999999");
+      Assert.fail();
+    } catch (Pql2CompilationException e) {
+      // Expected
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.routing;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class ServerLatencyTrackerTest {
+  private static final String SERVER = "Server_localhost_1234";
+  private static final double DELTA = 1e-6;
+
+  @Test
+  public void testLatencyEstimate() {
+    ServerLatencyTracker serverLatencyTracker = new ServerLatencyTracker(0.5, 1000L);
+    Assert.assertEquals(serverLatencyTracker.getLatencyEstimateMs(SERVER, 0L), 0.0, DELTA);
+
+    // First response initializes the estimate
+    serverLatencyTracker.markRequestSubmitted(SERVER);
+    Assert.assertEquals(serverLatencyTracker.getNumInFlightRequests(SERVER), 1);
+    serverLatencyTracker.markRequestCompleted(SERVER, 100L, 0L);
+    Assert.assertEquals(serverLatencyTracker.getNumInFlightRequests(SERVER), 0);
+    Assert.assertEquals(serverLatencyTracker.getLatencyEstimateMs(SERVER, 0L), 100.0, DELTA);
+
+    // Following responses are smoothed
+    serverLatencyTracker.markRequestSubmitted(SERVER);
+    serverLatencyTracker.markRequestCompleted(SERVER, 200L, 0L);
+    Assert.assertEquals(serverLatencyTracker.getLatencyEstimateMs(SERVER, 0L), 150.0, DELTA);
+
+    // Estimate decays when idle
+    Assert.assertEquals(serverLatencyTracker.getLatencyEstimateMs(SERVER, 1000L), 75.0, DELTA);
+    Assert.assertEquals(serverLatencyTracker.getLatencyEstimateMs(SERVER, 2000L), 37.5, DELTA);
+  }
+
+  @Test
+  public void testExpectedLatency() {
+    ServerLatencyTracker serverLatencyTracker = new ServerLatencyTracker(1.0, Long.MAX_VALUE);
+    Assert.assertEquals(serverLatencyTracker.getExpectedLatencyMs(SERVER), 1.0, DELTA);
+
+    serverLatencyTracker.markRequestSubmitted(SERVER);
+    serverLatencyTracker.markRequestCompleted(SERVER, 9L);
+    Assert.assertEquals(serverLatencyTracker.getExpectedLatencyMs(SERVER), 10.0, DELTA);
+
+    // In-flight requests increase the expected latency
+    serverLatencyTracker.markRequestSubmitted(SERVER);
+    serverLatencyTracker.markRequestSubmitted(SERVER);
+    Assert.assertEquals(serverLatencyTracker.getExpectedLatencyMs(SERVER), 30.0, DELTA);
+  }
+
+  @Test
+  public void testLatencyPercentile() {
+    ServerLatencyTracker serverLatencyTracker = new ServerLatencyTracker(0.5, 1000L);
+    Assert.assertEquals(serverLatencyTracker.getLatencyPercentileMs(SERVER, 90), -1);
+
+    // Not enough latencies recorded
+    for (int i = 1; i < 16; i++) {
+      serverLatencyTracker.markRequestSubmitted(SERVER);
+      serverLatencyTracker.markRequestCompleted(SERVER, i);
+    }
+    Assert.assertEquals(serverLatencyTracker.getLatencyPercentileMs(SERVER, 90), -1);
+
+    for (int i = 16; i <= 100; i++) {
+      serverLatencyTracker.markRequestSubmitted(SERVER);
+      serverLatencyTracker.markRequestCompleted(SERVER, i);
+    }
+    Assert.assertEquals(serverLatencyTracker.getLatencyPercentileMs(SERVER, 90), 90);
+    Assert.assertEquals(serverLatencyTracker.getLatencyPercentileMs(SERVER, 50), 50);
+    Assert.assertEquals(serverLatencyTracker.getLatencyPercentileMs(SERVER, 100), 100);
+  }
+}
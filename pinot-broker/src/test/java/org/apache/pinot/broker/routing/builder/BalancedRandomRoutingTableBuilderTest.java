@@ -24,10 +24,15 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.helix.ZNRecord;
 import org.apache.helix.model.ExternalView;
 import org.apache.helix.model.InstanceConfig;
+import org.apache.helix.store.zk.ZkHelixPropertyStore;
 import org.apache.pinot.broker.routing.RoutingTableLookupRequest;
+import org.apache.pinot.broker.routing.ServerLatencyTracker;
+import org.apache.pinot.broker.routing.selector.SegmentSelector;
 import org.apache.pinot.common.config.TableConfig;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -95,6 +100,192 @@ public class BalancedRandomRoutingTableBuilderTest {
     Assert.assertEquals(segmentsInRoutingTable, expectedSegments);
   }
 
+  @Test
+  public void testAdaptiveRouting() {
+    String tableNameWithType = "testTable_OFFLINE";
+    String slowServer = "Server_1.2.3.4_1234";
+    ServerLatencyTracker serverLatencyTracker = new ServerLatencyTracker(1.0, Long.MAX_VALUE);
+    serverLatencyTracker.markRequestSubmitted(slowServer);
+    serverLatencyTracker.markRequestCompleted(slowServer, 10_000L);
+    for (String server : new String[]{"Server_1.2.3.5_2345", "Server_1.2.3.6_3456"}) {
+      serverLatencyTracker.markRequestSubmitted(server);
+      serverLatencyTracker.markRequestCompleted(server, 10L);
+    }
+    RoutingTableLookupRequest request = new RoutingTableLookupRequest(tableNameWithType, serverLatencyTracker);
+
+    // Use a single segment so that each pre-computed routing table only contains one server
+    ExternalView externalView = new ExternalView("dummy");
+    externalView.setState("segment_1", "Server_1.2.3.4_1234", "ONLINE");
+    externalView.setState("segment_1", "Server_1.2.3.5_2345", "ONLINE");
+    externalView.setState("segment_1", "Server_1.2.3.6_3456", "ONLINE");
+
+    for (boolean enableDynamicComputing : new boolean[]{false, true}) {
+      BalancedRandomRoutingTableBuilder routingTableBuilder = new BalancedRandomRoutingTableBuilder();
+      TableConfig tableConfig =
+          RoutingTableBuilderTestUtil.getAdaptiveRoutingTableConfig(tableNameWithType, enableDynamicComputing);
+      routingTableBuilder.init(new BaseConfiguration(), tableConfig, null, null);
+      routingTableBuilder.computeOnExternalViewChange("dummy", externalView, getDummyInstanceConfigs());
+
+      // With dynamic computing, the slow server should never be picked; with pre-computed routing tables, the slow
+      // server should be avoided when any of the sampled routing tables does not contain it
+      int numRoutingTablesWithSlowServer = 0;
+      for (int i = 0; i < 100; i++) {
+        Map<String, List<String>> routingTable = routingTableBuilder.getRoutingTable(request, null);
+        Set<String> segmentsInRoutingTable = new HashSet<>();
+        for (List<String> segments : routingTable.values()) {
+          segmentsInRoutingTable.addAll(segments);
+        }
+        Assert.assertEquals(segmentsInRoutingTable, externalView.getPartitionSet());
+        if (routingTable.containsKey(slowServer)) {
+          numRoutingTablesWithSlowServer++;
+        }
+      }
+      if (enableDynamicComputing) {
+        Assert.assertEquals(numRoutingTablesWithSlowServer, 0);
+      } else {
+        Assert.assertTrue(numRoutingTablesWithSlowServer < 100);
+      }
+    }
+  }
+
+  @Test
+  public void testAdaptiveDynamicRoutingWithMissingSegment() {
+    String tableNameWithType = "testTable_OFFLINE";
+    BalancedRandomRoutingTableBuilder routingTableBuilder = new BalancedRandomRoutingTableBuilder();
+    TableConfig tableConfig = RoutingTableBuilderTestUtil.getAdaptiveRoutingTableConfig(tableNameWithType, true);
+    routingTableBuilder.init(new BaseConfiguration(), tableConfig, null, null);
+    ExternalView externalView = getDummyExternalView();
+    routingTableBuilder.computeOnExternalViewChange("dummy", externalView, getDummyInstanceConfigs());
+
+    // Segment selector returning a segment that is not in the external view should not fail the routing
+    SegmentSelector segmentSelector = getSegmentSelector(segmentsToQuery -> {
+      Set<String> selectedSegments = new HashSet<>(segmentsToQuery);
+      selectedSegments.add("missingSegment");
+      return selectedSegments;
+    });
+    RoutingTableLookupRequest request =
+        new RoutingTableLookupRequest(tableNameWithType, new ServerLatencyTracker(1.0, Long.MAX_VALUE));
+    Map<String, List<String>> routingTable = routingTableBuilder.getRoutingTable(request, segmentSelector);
+    assertRoutingTableCoversSegments(routingTable, externalView.getPartitionSet());
+  }
+
+  @Test
+  public void testPreComputedRoutingWithSegmentSelector() {
+    String[] servers = new String[]{"Server_1.2.3.4_1234", "Server_1.2.3.5_2345", "Server_1.2.3.6_3456"};
+    int numSegments = 100;
+    ExternalView externalView = new ExternalView("dummy");
+    for (int i = 0; i < numSegments; i++) {
+      for (String server : servers) {
+        externalView.setState("segment_" + i, server, "ONLINE");
+      }
+    }
+    BalancedRandomRoutingTableBuilder routingTableBuilder = new BalancedRandomRoutingTableBuilder();
+    routingTableBuilder.computeOnExternalViewChange("dummy", externalView, getDummyInstanceConfigs());
+    RoutingTableLookupRequest request = new RoutingTableLookupRequest("testTable_OFFLINE");
+
+    // Selector not pruning any segment should return one of the pre-computed routing tables without copying
+    Map<String, List<String>> routingTable =
+        routingTableBuilder.getRoutingTable(request, getSegmentSelector(segmentsToQuery -> segmentsToQuery));
+    boolean isPreComputedRoutingTable = false;
+    for (Map<String, List<String>> preComputedRoutingTable : routingTableBuilder.getRoutingTables()) {
+      if (routingTable == preComputedRoutingTable) {
+        isPreComputedRoutingTable = true;
+        break;
+      }
+    }
+    Assert.assertTrue(isPreComputedRoutingTable);
+
+    // Selector pruning segments
+    Set<String> selectedSegments = new HashSet<>();
+    for (int i = 0; i < 10; i++) {
+      selectedSegments.add("segment_" + i);
+    }
+    SegmentSelector segmentSelector = getSegmentSelector(segmentsToQuery -> selectedSegments);
+    assertRoutingTableCoversSegments(routingTableBuilder.getRoutingTable(request, segmentSelector), selectedSegments);
+
+    // Segments added by an incremental update should be selectable
+    externalView.setState("segment_" + numSegments, servers[0], "ONLINE");
+    routingTableBuilder.computeOnExternalViewChange("dummy", externalView, getDummyInstanceConfigs());
+    selectedSegments.add("segment_" + numSegments);
+    routingTable = routingTableBuilder.getRoutingTable(request, segmentSelector);
+    assertRoutingTableCoversSegments(routingTable, selectedSegments);
+    Assert.assertTrue(routingTable.get(servers[0]).contains("segment_" + numSegments));
+  }
+
+  @Test
+  public void testIncrementalUpdate() {
+    String[] servers = new String[]{"Server_1.2.3.4_1234", "Server_1.2.3.5_2345", "Server_1.2.3.6_3456"};
+    int numSegments = 100;
+    ExternalView externalView = new ExternalView("dummy");
+    for (int i = 0; i < numSegments; i++) {
+      for (String server : servers) {
+        externalView.setState("segment_" + i, server, "ONLINE");
+      }
+    }
+
+    BalancedRandomRoutingTableBuilder routingTableBuilder = new BalancedRandomRoutingTableBuilder();
+    routingTableBuilder.computeOnExternalViewChange("dummy", externalView, getDummyInstanceConfigs());
+    List<Map<String, List<String>>> previousRoutingTables = routingTableBuilder.getRoutingTables();
+    Set<String> previousSegments = new HashSet<>(externalView.getPartitionSet());
+
+    // Same external view should not change the routing tables
+    routingTableBuilder.computeOnExternalViewChange("dummy", externalView, getDummyInstanceConfigs());
+    Assert.assertSame(routingTableBuilder.getRoutingTables(), previousRoutingTables);
+
+    // Remove one segment, add one segment and move one segment to a single server
+    ExternalView newExternalView = new ExternalView("dummy");
+    for (int i = 1; i <= numSegments; i++) {
+      if (i == 1) {
+        newExternalView.setState("segment_" + i, servers[0], "ONLINE");
+      } else {
+        for (String server : servers) {
+          newExternalView.setState("segment_" + i, server, "ONLINE");
+        }
+      }
+    }
+    routingTableBuilder.computeOnExternalViewChange("dummy", newExternalView, getDummyInstanceConfigs());
+    List<Map<String, List<String>>> routingTables = routingTableBuilder.getRoutingTables();
+    Assert.assertEquals(routingTables.size(), previousRoutingTables.size());
+    for (Map<String, List<String>> routingTable : routingTables) {
+      assertRoutingTableCoversSegments(routingTable, newExternalView.getPartitionSet());
+      Assert.assertTrue(routingTable.get(servers[0]).contains("segment_1"));
+    }
+
+    // Previous routing tables should not be affected
+    for (Map<String, List<String>> previousRoutingTable : previousRoutingTables) {
+      assertRoutingTableCoversSegments(previousRoutingTable, previousSegments);
+    }
+  }
+
+  private static SegmentSelector getSegmentSelector(Function<Set<String>, Set<String>> selectFunction) {
+    return new SegmentSelector() {
+      @Override
+      public void init(TableConfig tableConfig, ZkHelixPropertyStore<ZNRecord> propertyStore) {
+      }
+
+      @Override
+      public void computeOnExternalViewChange() {
+      }
+
+      @Override
+      public Set<String> selectSegments(RoutingTableLookupRequest request, Set<String> segmentsToQuery) {
+        return selectFunction.apply(segmentsToQuery);
+      }
+    };
+  }
+
+  private void assertRoutingTableCoversSegments(Map<String, List<String>> routingTable, Set<String> expectedSegments) {
+    Set<String> segmentsInRoutingTable = new HashSet<>();
+    int numSegments = 0;
+    for (List<String> segments : routingTable.values()) {
+      segmentsInRoutingTable.addAll(segments);
+      numSegments += segments.size();
+    }
+    Assert.assertEquals(segmentsInRoutingTable, expectedSegments);
+    // Each segment should be assigned to exactly one server
+    Assert.assertEquals(numSegments, expectedSegments.size());
+  }
+
   private ExternalView getDummyExternalView() {
     ExternalView externalView = new ExternalView("dummy");
     externalView.setState("segment_1", "Server_1.2.3.4_1234", "ONLINE");
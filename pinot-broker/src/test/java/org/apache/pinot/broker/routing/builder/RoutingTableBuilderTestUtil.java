@@ -41,4 +41,14 @@ public class RoutingTableBuilderTestUtil {
     routingConfig.setRoutingTableBuilderOptions(routingTableBuilderOptions);
     return new TableConfig.Builder(tableType).setTableName(tableName).setRoutingConfig(routingConfig).build();
   }
+
+  public static TableConfig getAdaptiveRoutingTableConfig(String tableName, boolean enableDynamicComputing) {
+    TableType tableType = TableNameBuilder.getTableTypeFromTableName(tableName);
+    RoutingConfig routingConfig = new RoutingConfig();
+    Map<String, String> routingTableBuilderOptions = new HashMap<>();
+    routingTableBuilderOptions.put(RoutingConfig.ENABLE_DYNAMIC_COMPUTING_KEY, Boolean.toString(enableDynamicComputing));
+    routingTableBuilderOptions.put(RoutingConfig.ENABLE_ADAPTIVE_ROUTING_KEY, "true");
+    routingConfig.setRoutingTableBuilderOptions(routingTableBuilderOptions);
+    return new TableConfig.Builder(tableType).setTableName(tableName).setRoutingConfig(routingConfig).build();
+  }
 }
@@ -49,6 +49,22 @@ public class IndexingConfig {
   @ConfigKey("bloomFilterColumns")
   private List<String> _bloomFilterColumns = new ArrayList<>();
 
+  // Type of the bloom filters created for the bloom filter columns (GUAVA_ON_HEAP if not set). Only set it to
+  // OFF_HEAP_BLOCKED once all the servers, minions and brokers are able to read that type
+  @ConfigKey("bloomFilterType")
+  private String _bloomFilterType;
+
+  @ConfigKey("rangeIndexColumns")
+  private List<String> _rangeIndexColumns = new ArrayList<>();
+
+  @ConfigKey("textIndexColumns")
+  private List<String> _textIndexColumns = new ArrayList<>();
+
+  // Columns whose min/max values (and bloom filters if available) are published into the segment ZK metadata so that
+  // the broker can prune segments with them
+  @ConfigKey("segmentPruningColumns")
+  private List<String> _segmentPruningColumns;
+
   @ConfigKey("loadMode")
   private String _loadMode;
 
@@ -87,6 +103,10 @@ public class IndexingConfig {
   @ConfigKey("aggregateMetrics")
   private boolean _aggregateMetrics;
 
+  // Allows the segment creator to use the front-coded dictionary for STRING columns where it saves space
+  @ConfigKey("enableFrontCodedStringDictionary")
+  private boolean _enableFrontCodedStringDictionary;
+
   public List<String> getInvertedIndexColumns() {
     return _invertedIndexColumns;
   }
@@ -127,6 +147,38 @@ public class IndexingConfig {
     this._bloomFilterColumns = _bloomFilterColumns;
   }
 
+  public String getBloomFilterType() {
+    return _bloomFilterType;
+  }
+
+  public void setBloomFilterType(String bloomFilterType) {
+    _bloomFilterType = bloomFilterType;
+  }
+
+  public List<String> getRangeIndexColumns() {
+    return _rangeIndexColumns;
+  }
+
+  public void setRangeIndexColumns(List<String> rangeIndexColumns) {
+    _rangeIndexColumns = rangeIndexColumns;
+  }
+
+  public List<String> getTextIndexColumns() {
+    return _textIndexColumns;
+  }
+
+  public void setTextIndexColumns(List<String> textIndexColumns) {
+    _textIndexColumns = textIndexColumns;
+  }
+
+  public List<String> getSegmentPruningColumns() {
+    return _segmentPruningColumns;
+  }
+
+  public void setSegmentPruningColumns(List<String> segmentPruningColumns) {
+    _segmentPruningColumns = segmentPruningColumns;
+  }
+
   public String getLoadMode() {
     return _loadMode;
   }
@@ -223,6 +275,14 @@ public class IndexingConfig {
     return _aggregateMetrics;
   }
 
+  public boolean isEnableFrontCodedStringDictionary() {
+    return _enableFrontCodedStringDictionary;
+  }
+
+  public void setEnableFrontCodedStringDictionary(boolean enableFrontCodedStringDictionary) {
+    _enableFrontCodedStringDictionary = enableFrontCodedStringDictionary;
+  }
+
   @Override
   public String toString() {
     final StringBuilder result = new StringBuilder();
@@ -279,7 +339,12 @@ public class IndexingConfig {
         .isEqual(_onHeapDictionaryColumns, that._onHeapDictionaryColumns) && EqualityUtils
         .isEqual(_starTreeIndexSpec, that._starTreeIndexSpec) && EqualityUtils
         .isEqual(_segmentPartitionConfig, that._segmentPartitionConfig) && EqualityUtils
-        .isEqual(_bloomFilterColumns, that._bloomFilterColumns);
+        .isEqual(_bloomFilterColumns, that._bloomFilterColumns) && EqualityUtils
+        .isEqual(_bloomFilterType, that._bloomFilterType) && EqualityUtils
+        .isEqual(_rangeIndexColumns, that._rangeIndexColumns) && EqualityUtils
+        .isEqual(_textIndexColumns, that._textIndexColumns) && EqualityUtils
+        .isEqual(_segmentPruningColumns, that._segmentPruningColumns) && EqualityUtils
+        .isEqual(_enableFrontCodedStringDictionary, that._enableFrontCodedStringDictionary);
   }
 
   @Override
@@ -298,6 +363,11 @@ public class IndexingConfig {
     result = EqualityUtils.hashCodeOf(result, _starTreeIndexSpec);
     result = EqualityUtils.hashCodeOf(result, _segmentPartitionConfig);
     result = EqualityUtils.hashCodeOf(result, _bloomFilterColumns);
+    result = EqualityUtils.hashCodeOf(result, _bloomFilterType);
+    result = EqualityUtils.hashCodeOf(result, _rangeIndexColumns);
+    result = EqualityUtils.hashCodeOf(result, _textIndexColumns);
+    result = EqualityUtils.hashCodeOf(result, _segmentPruningColumns);
+    result = EqualityUtils.hashCodeOf(result, _enableFrontCodedStringDictionary);
     return result;
   }
 }
@@ -27,6 +27,9 @@ import org.apache.pinot.common.utils.EqualityUtils;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class RoutingConfig {
   public static final String ENABLE_DYNAMIC_COMPUTING_KEY = "enableDynamicComputing";
+  public static final String ENABLE_ADAPTIVE_ROUTING_KEY = "enableAdaptiveRouting";
+  public static final String NUM_ADAPTIVE_ROUTING_CANDIDATES_KEY = "numAdaptiveRoutingCandidates";
+  public static final String ENABLE_HEDGED_REQUESTS_KEY = "enableHedgedRequests";
 
   @ConfigKey("routingTableBuilderName")
   private String _routingTableBuilderName;
@@ -406,6 +406,9 @@ public class TableConfig {
     private List<String> _noDictionaryColumns;
     private List<String> _onHeapDictionaryColumns;
     private List<String> _bloomFilterColumns;
+    private String _bloomFilterType;
+    private List<String> _rangeIndexColumns;
+    private List<String> _textIndexColumns;
     private Map<String, String> _streamConfigs;
     private String _streamPartitionAssignmentStrategy = DEFAULT_STREAM_PARTITION_ASSIGNMENT_STRATEGY;
 
@@ -525,6 +528,21 @@ public class TableConfig {
       return this;
     }
 
+    public Builder setBloomFilterType(String bloomFilterType) {
+      _bloomFilterType = bloomFilterType;
+      return this;
+    }
+
+    public Builder setRangeIndexColumns(List<String> rangeIndexColumns) {
+      _rangeIndexColumns = rangeIndexColumns;
+      return this;
+    }
+
+    public Builder setTextIndexColumns(List<String> textIndexColumns) {
+      _textIndexColumns = textIndexColumns;
+      return this;
+    }
+
     public Builder setNoDictionaryColumns(List<String> noDictionaryColumns) {
       _noDictionaryColumns = noDictionaryColumns;
       return this;
@@ -600,6 +618,9 @@ public class TableConfig {
       indexingConfig.setOnHeapDictionaryColumns(_onHeapDictionaryColumns);
       indexingConfig.setStreamConfigs(_streamConfigs);
       indexingConfig.setBloomFilterColumns(_bloomFilterColumns);
+      indexingConfig.setBloomFilterType(_bloomFilterType);
+      indexingConfig.setRangeIndexColumns(_rangeIndexColumns);
+      indexingConfig.setTextIndexColumns(_textIndexColumns);
       StreamConsumptionConfig streamConsumptionConfig = new StreamConsumptionConfig();
       streamConsumptionConfig.setStreamPartitionAssignmentStrategy(_streamPartitionAssignmentStrategy);
       indexingConfig.setStreamConsumptionConfig(streamConsumptionConfig);
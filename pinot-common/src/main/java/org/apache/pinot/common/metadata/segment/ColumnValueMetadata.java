@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.common.metadata.segment;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import javax.annotation.Nullable;
+import org.apache.pinot.common.data.FieldSpec.DataType;
+import org.apache.pinot.common.utils.EqualityUtils;
+
+
+/**
+ * Class for value related column metadata used by the broker to prune segments:
+ * <ul>
+ *   <li>Data type of the column</li>
+ *   <li>Min/max value of the column in the segment</li>
+ *   <li>Optional Base64 encoded serialized bloom filter of the column</li>
+ * </ul>
+ */
+@SuppressWarnings("unused") // Suppress incorrect warning, as methods are used for json ser/de.
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ColumnValueMetadata {
+  private final DataType _dataType;
+  private final String _minValue;
+  private final String _maxValue;
+  private final String _bloomFilter;
+
+  /**
+   * Constructor for the class.
+   *
+   * @param dataType Data type of the column
+   * @param minValue String representation of the min value of the column
+   * @param maxValue String representation of the max value of the column
+   * @param bloomFilter Base64 encoded serialized bloom filter of the column, or null if not available
+   */
+  public ColumnValueMetadata(@JsonProperty("dataType") DataType dataType, @JsonProperty("minValue") String minValue,
+      @JsonProperty("maxValue") String maxValue, @JsonProperty("bloomFilter") @Nullable String bloomFilter) {
+    _dataType = dataType;
+    _minValue = minValue;
+    _maxValue = maxValue;
+    _bloomFilter = bloomFilter;
+  }
+
+  public DataType getDataType() {
+    return _dataType;
+  }
+
+  public String getMinValue() {
+    return _minValue;
+  }
+
+  public String getMaxValue() {
+    return _maxValue;
+  }
+
+  @Nullable
+  public String getBloomFilter() {
+    return _bloomFilter;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (EqualityUtils.isSameReference(this, obj)) {
+      return true;
+    }
+    if (EqualityUtils.isNullOrNotSameClass(this, obj)) {
+      return false;
+    }
+    ColumnValueMetadata that = (ColumnValueMetadata) obj;
+    return EqualityUtils.isEqual(_dataType, that._dataType) && EqualityUtils.isEqual(_minValue, that._minValue)
+        && EqualityUtils.isEqual(_maxValue, that._maxValue) && EqualityUtils.isEqual(_bloomFilter, that._bloomFilter);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = EqualityUtils.hashCodeOf(_dataType);
+    result = EqualityUtils.hashCodeOf(result, _minValue);
+    result = EqualityUtils.hashCodeOf(result, _maxValue);
+    result = EqualityUtils.hashCodeOf(result, _bloomFilter);
+    return result;
+  }
+}
@@ -18,10 +18,14 @@
  */
 package org.apache.pinot.common.metadata.segment;
 
+import java.io.IOException;
 import java.util.Map;
+import javax.annotation.Nullable;
 import org.apache.helix.ZNRecord;
 import org.apache.pinot.common.utils.CommonConstants;
 import org.apache.pinot.common.utils.CommonConstants.Segment.SegmentType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import static org.apache.pinot.common.utils.EqualityUtils.hashCodeOf;
 import static org.apache.pinot.common.utils.EqualityUtils.isEqual;
@@ -30,10 +34,12 @@ import static org.apache.pinot.common.utils.EqualityUtils.isSameReference;
 
 
 public class OfflineSegmentZKMetadata extends SegmentZKMetadata {
+  private static final Logger LOGGER = LoggerFactory.getLogger(OfflineSegmentZKMetadata.class);
 
   private String _downloadUrl = null;
   private long _pushTime = Long.MIN_VALUE;
   private long _refreshTime = Long.MIN_VALUE;
+  private SegmentColumnValueMetadata _columnValueMetadata;
 
   public OfflineSegmentZKMetadata() {
     setSegmentType(SegmentType.OFFLINE);
@@ -45,6 +51,16 @@ public class OfflineSegmentZKMetadata extends SegmentZKMetadata {
     _downloadUrl = znRecord.getSimpleField(CommonConstants.Segment.Offline.DOWNLOAD_URL);
     _pushTime = znRecord.getLongField(CommonConstants.Segment.Offline.PUSH_TIME, Long.MIN_VALUE);
     _refreshTime = znRecord.getLongField(CommonConstants.Segment.Offline.REFRESH_TIME, Long.MIN_VALUE);
+
+    try {
+      String columnValueMetadataJson = znRecord.getSimpleField(CommonConstants.Segment.Offline.COLUMN_VALUE_METADATA);
+      if (columnValueMetadataJson != null) {
+        _columnValueMetadata = SegmentColumnValueMetadata.fromJsonString(columnValueMetadataJson);
+      }
+    } catch (IOException e) {
+      LOGGER.error("Exception caught while reading column value info from zk metadata for segment '{}', dropped.",
+          getSegmentName(), e);
+    }
   }
 
   public String getDownloadUrl() {
@@ -71,12 +87,31 @@ public class OfflineSegmentZKMetadata extends SegmentZKMetadata {
     _refreshTime = currentTimeMillis;
   }
 
+  @Nullable
+  public SegmentColumnValueMetadata getColumnValueMetadata() {
+    return _columnValueMetadata;
+  }
+
+  public void setColumnValueMetadata(@Nullable SegmentColumnValueMetadata columnValueMetadata) {
+    _columnValueMetadata = columnValueMetadata;
+  }
+
   @Override
   public ZNRecord toZNRecord() {
     ZNRecord znRecord = super.toZNRecord();
     znRecord.setSimpleField(CommonConstants.Segment.Offline.DOWNLOAD_URL, _downloadUrl);
     znRecord.setLongField(CommonConstants.Segment.Offline.PUSH_TIME, _pushTime);
     znRecord.setLongField(CommonConstants.Segment.Offline.REFRESH_TIME, _refreshTime);
+    if (_columnValueMetadata != null) {
+      try {
+        znRecord.setSimpleField(CommonConstants.Segment.Offline.COLUMN_VALUE_METADATA,
+            _columnValueMetadata.toJsonString());
+      } catch (IOException e) {
+        LOGGER.error(
+            "Exception caught while writing column value metadata into ZNRecord for segment '{}', will be dropped",
+            getSegmentName(), e);
+      }
+    }
     return znRecord;
   }
 
@@ -111,7 +146,8 @@ public class OfflineSegmentZKMetadata extends SegmentZKMetadata {
 
     OfflineSegmentZKMetadata metadata = (OfflineSegmentZKMetadata) segmentMetadata;
     return super.equals(metadata) && isEqual(_pushTime, metadata._pushTime) && isEqual(_refreshTime,
-        metadata._refreshTime) && isEqual(_downloadUrl, metadata._downloadUrl);
+        metadata._refreshTime) && isEqual(_downloadUrl, metadata._downloadUrl) && isEqual(_columnValueMetadata,
+        metadata._columnValueMetadata);
   }
 
   @Override
@@ -120,6 +156,7 @@ public class OfflineSegmentZKMetadata extends SegmentZKMetadata {
     result = hashCodeOf(result, _downloadUrl);
     result = hashCodeOf(result, _pushTime);
     result = hashCodeOf(result, _refreshTime);
+    result = hashCodeOf(result, _columnValueMetadata);
     return result;
   }
 
@@ -130,6 +167,14 @@ public class OfflineSegmentZKMetadata extends SegmentZKMetadata {
     configMap.put(CommonConstants.Segment.Offline.PUSH_TIME, Long.toString(_pushTime));
     configMap.put(CommonConstants.Segment.Offline.REFRESH_TIME, Long.toString(_refreshTime));
     configMap.put(CommonConstants.Segment.SEGMENT_TYPE, SegmentType.OFFLINE.toString());
+    if (_columnValueMetadata != null) {
+      try {
+        configMap.put(CommonConstants.Segment.Offline.COLUMN_VALUE_METADATA, _columnValueMetadata.toJsonString());
+      } catch (IOException e) {
+        LOGGER.error("Exception caught while converting column value metadata into JSON for segment '{}', dropped",
+            getSegmentName(), e);
+      }
+    }
     return configMap;
   }
 }
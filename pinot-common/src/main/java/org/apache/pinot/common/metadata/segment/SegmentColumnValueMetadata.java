@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.common.metadata.segment;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import org.apache.pinot.common.utils.JsonUtils;
+
+
+/**
+ * Class for column value metadata (min/max value and bloom filter) of the selected columns of a segment, which is
+ * stored in the segment ZK metadata so that the broker can prune segments without querying the servers.
+ */
+@SuppressWarnings("unused") // Suppress incorrect warning, as methods are used for json ser/de.
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SegmentColumnValueMetadata {
+  private final Map<String, ColumnValueMetadata> _columnValueMap;
+
+  /**
+   * Constructor for the class.
+   *
+   * @param columnValueMap Column name to ColumnValueMetadata map.
+   */
+  public SegmentColumnValueMetadata(
+      @Nonnull @JsonProperty("columnValueMap") Map<String, ColumnValueMetadata> columnValueMap) {
+    Preconditions.checkNotNull(columnValueMap);
+    _columnValueMap = columnValueMap;
+  }
+
+  /**
+   * Returns the map from column name to column's value metadata.
+   *
+   * @return Map from column name to its value metadata.
+   */
+  public Map<String, ColumnValueMetadata> getColumnValueMap() {
+    return _columnValueMap;
+  }
+
+  /**
+   * Given a JSON string, de-serialize and return an instance of {@link SegmentColumnValueMetadata}
+   *
+   * @param jsonString Input JSON string
+   * @return Instance of {@link SegmentColumnValueMetadata} built from the input string.
+   */
+  public static SegmentColumnValueMetadata fromJsonString(String jsonString)
+      throws IOException {
+    return JsonUtils.stringToObject(jsonString, SegmentColumnValueMetadata.class);
+  }
+
+  /**
+   * Returns the JSON equivalent of the object.
+   *
+   * @return JSON string equivalent of the object.
+   */
+  public String toJsonString()
+      throws IOException {
+    return JsonUtils.objectToString(this);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    SegmentColumnValueMetadata that = (SegmentColumnValueMetadata) o;
+    return _columnValueMap.equals(that._columnValueMap);
+  }
+
+  @Override
+  public int hashCode() {
+    return _columnValueMap.hashCode();
+  }
+}
@@ -49,6 +49,16 @@ public abstract class AbstractMetrics<QP extends AbstractMetrics.QueryPhase, M e
 
   private final Map<String, AtomicLong> _gaugeValues = new ConcurrentHashMap<String, AtomicLong>();
 
+  // Meters and timers resolved from the metrics registry, cached per table (and for global metrics) so that recording a
+  // value does not build the metric name nor look up the metrics registry. Timers are keyed by query phase or timer.
+  // The entries of a table are removed by removeTableMetrics() when the table is dropped.
+  private final ConcurrentHashMap<M, com.yammer.metrics.core.Meter> _globalMeters = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, ConcurrentHashMap<M, com.yammer.metrics.core.Meter>> _tableMeters =
+      new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<T, com.yammer.metrics.core.Timer> _globalTimers = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, ConcurrentHashMap<Object, com.yammer.metrics.core.Timer>> _tableTimers =
+      new ConcurrentHashMap<>();
+
   protected final boolean _global;
 
   public AbstractMetrics(String metricPrefix, MetricsRegistry metricsRegistry, Class clazz) {
@@ -97,8 +107,12 @@ public abstract class AbstractMetrics<QP extends AbstractMetrics.QueryPhase, M e
    * @param timeUnit The time unit of the duration
    */
   public void addPhaseTiming(BrokerRequest request, QP phase, long duration, TimeUnit timeUnit) {
-    String fullTimerName = buildMetricName(request, phase.getQueryPhaseName());
-    addValueToTimer(fullTimerName, duration, timeUnit);
+    String tableName = getTableName(request);
+    if (tableName != null) {
+      getTableTimer(tableName, phase).update(duration, timeUnit);
+    } else {
+      addValueToTimer(buildMetricName(request, phase.getQueryPhaseName()), duration, timeUnit);
+    }
   }
 
   public void addPhaseTiming(BrokerRequest request, QP phase, long nanos) {
@@ -106,8 +120,7 @@ public abstract class AbstractMetrics<QP extends AbstractMetrics.QueryPhase, M e
   }
 
   public void addPhaseTiming(String tableName, QP phase, long duration, TimeUnit timeUnit) {
-    String fullTimerName = _metricPrefix + getTableName(tableName) + "." + phase.getQueryPhaseName();
-    addValueToTimer(fullTimerName, duration, timeUnit);
+    getTableTimer(tableName, phase).update(duration, timeUnit);
   }
 
   public void addPhaseTiming(String tableName, QP phase, long nanos) {
@@ -123,16 +136,18 @@ public abstract class AbstractMetrics<QP extends AbstractMetrics.QueryPhase, M e
    * @param timeUnit The log time duration time unit
    */
   public void addTimedTableValue(final String tableName, T timer, final long duration, final TimeUnit timeUnit) {
-    final String fullTimerName = _metricPrefix + getTableName(tableName) + "." + timer.getTimerName();
-    addValueToTimer(fullTimerName, duration, timeUnit);
+    getTableTimer(tableName, timer).update(duration, timeUnit);
   }
 
   /**
    * Logs the timing for a global timer
    */
   public void addTimedValue(T timer, final long duration, final TimeUnit timeUnit) {
-    final String fullTimerName = _metricPrefix + timer.getTimerName();
-    addValueToTimer(fullTimerName, duration, timeUnit);
+    com.yammer.metrics.core.Timer yammerTimer = _globalTimers.get(timer);
+    if (yammerTimer == null) {
+      yammerTimer = _globalTimers.computeIfAbsent(timer, k -> newTimer(_metricPrefix + k.getTimerName()));
+    }
+    yammerTimer.update(duration, timeUnit);
   }
 
   /**
@@ -143,11 +158,91 @@ public abstract class AbstractMetrics<QP extends AbstractMetrics.QueryPhase, M e
    * @param timeUnit The log time duration time unit
    */
   private void addValueToTimer(String fullTimerName, final long duration, final TimeUnit timeUnit) {
-    final MetricName metricName = new MetricName(_clazz, fullTimerName);
-    com.yammer.metrics.core.Timer timer =
-        MetricsHelper.newTimer(_metricsRegistry, metricName, TimeUnit.MILLISECONDS, TimeUnit.SECONDS);
-    MetricsHelper.newTimer(_metricsRegistry, metricName, TimeUnit.MILLISECONDS, TimeUnit.SECONDS)
-        .update(duration, timeUnit);
+    newTimer(fullTimerName).update(duration, timeUnit);
+  }
+
+  private com.yammer.metrics.core.Timer newTimer(String fullTimerName) {
+    return MetricsHelper.newTimer(_metricsRegistry, new MetricName(_clazz, fullTimerName), TimeUnit.MILLISECONDS,
+        TimeUnit.SECONDS);
+  }
+
+  private com.yammer.metrics.core.Meter newMeter(String fullMeterName, M meter) {
+    return MetricsHelper.newMeter(_metricsRegistry, new MetricName(_clazz, fullMeterName), meter.getUnit(),
+        TimeUnit.SECONDS);
+  }
+
+  /**
+   * Returns the cached timer for the given table and query phase or timer, resolves it from the metrics registry on the
+   * first call.
+   */
+  private com.yammer.metrics.core.Timer getTableTimer(@Nullable String tableName, Object phaseOrTimer) {
+    String key = String.valueOf(tableName);
+    ConcurrentHashMap<Object, com.yammer.metrics.core.Timer> timers = _tableTimers.get(key);
+    if (timers == null) {
+      timers = _tableTimers.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+    }
+    com.yammer.metrics.core.Timer yammerTimer = timers.get(phaseOrTimer);
+    if (yammerTimer == null) {
+      yammerTimer = timers.computeIfAbsent(phaseOrTimer, k -> {
+        String timerName =
+            k instanceof QueryPhase ? ((QueryPhase) k).getQueryPhaseName() : ((AbstractMetrics.Timer) k).getTimerName();
+        return newTimer(_metricPrefix + getTableName(tableName) + "." + timerName);
+      });
+    }
+    return yammerTimer;
+  }
+
+  /**
+   * Returns the cached meter for the given table and meter, resolves it from the metrics registry on the first call.
+   */
+  private com.yammer.metrics.core.Meter getTableMeter(@Nullable String tableName, M meter) {
+    String key = String.valueOf(tableName);
+    ConcurrentHashMap<M, com.yammer.metrics.core.Meter> meters = _tableMeters.get(key);
+    if (meters == null) {
+      meters = _tableMeters.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+    }
+    com.yammer.metrics.core.Meter yammerMeter = meters.get(meter);
+    if (yammerMeter == null) {
+      yammerMeter = meters
+          .computeIfAbsent(meter, k -> newMeter(_metricPrefix + getTableName(tableName) + "." + k.getMeterName(), k));
+    }
+    return yammerMeter;
+  }
+
+  /**
+   * Removes the cached meters and timers of the given table (e.g. when the table is dropped), so that the caches do not
+   * keep the tables that no longer exist. The metrics stay registered in the metrics registry, and are resolved again
+   * from the registry if the table is used again.
+   *
+   * @param tableName The table name used to record the metrics
+   */
+  public void removeTableMetrics(String tableName) {
+    _tableMeters.remove(tableName);
+    _tableTimers.remove(tableName);
+  }
+
+  @VisibleForTesting
+  boolean hasCachedTableMetrics(String tableName) {
+    return _tableMeters.containsKey(tableName) || _tableTimers.containsKey(tableName);
+  }
+
+  private com.yammer.metrics.core.Meter getGlobalMeter(M meter) {
+    com.yammer.metrics.core.Meter yammerMeter = _globalMeters.get(meter);
+    if (yammerMeter == null) {
+      yammerMeter = _globalMeters.computeIfAbsent(meter, k -> newMeter(_metricPrefix + k.getMeterName(), k));
+    }
+    return yammerMeter;
+  }
+
+  /**
+   * Returns the table name of the given broker request, or {@code null} if not available.
+   */
+  @Nullable
+  private static String getTableName(@Nullable BrokerRequest request) {
+    if (request != null && request.getQuerySource() != null) {
+      return request.getQuerySource().getTableName();
+    }
+    return null;
   }
 
   /**
@@ -158,8 +253,9 @@ public abstract class AbstractMetrics<QP extends AbstractMetrics.QueryPhase, M e
    * @return The complete metric name
    */
   private String buildMetricName(@Nullable BrokerRequest request, String metricName) {
-    if (request != null && request.getQuerySource() != null && request.getQuerySource().getTableName() != null) {
-      return _metricPrefix + getTableName(request.getQuerySource().getTableName()) + "." + metricName;
+    String tableName = getTableName(request);
+    if (tableName != null) {
+      return _metricPrefix + getTableName(tableName) + "." + metricName;
     } else {
       return _metricPrefix + "unknown." + metricName;
     }
@@ -209,13 +305,7 @@ public abstract class AbstractMetrics<QP extends AbstractMetrics.QueryPhase, M e
       reusedMeter.mark(unitCount);
       return reusedMeter;
     } else {
-      final String fullMeterName;
-      String meterName = meter.getMeterName();
-      fullMeterName = _metricPrefix + meterName;
-      final MetricName metricName = new MetricName(_clazz, fullMeterName);
-
-      final com.yammer.metrics.core.Meter newMeter =
-          MetricsHelper.newMeter(_metricsRegistry, metricName, meter.getUnit(), TimeUnit.SECONDS);
+      final com.yammer.metrics.core.Meter newMeter = getGlobalMeter(meter);
       newMeter.mark(unitCount);
       return newMeter;
     }
@@ -245,25 +335,14 @@ public abstract class AbstractMetrics<QP extends AbstractMetrics.QueryPhase, M e
       reusedMeter.mark(unitCount);
       return reusedMeter;
     } else {
-      final String fullMeterName;
-      String meterName = meter.getMeterName();
-      fullMeterName = _metricPrefix + getTableName(tableName) + "." + meterName;
-      final MetricName metricName = new MetricName(_clazz, fullMeterName);
-
-      final com.yammer.metrics.core.Meter newMeter =
-          MetricsHelper.newMeter(_metricsRegistry, metricName, meter.getUnit(), TimeUnit.SECONDS);
+      final com.yammer.metrics.core.Meter newMeter = getTableMeter(tableName, meter);
       newMeter.mark(unitCount);
       return newMeter;
     }
   }
 
   public com.yammer.metrics.core.Meter getMeteredTableValue(final String tableName, final M meter) {
-    final String fullMeterName;
-    String meterName = meter.getMeterName();
-    fullMeterName = _metricPrefix + getTableName(tableName) + "." + meterName;
-    final MetricName metricName = new MetricName(_clazz, fullMeterName);
-
-    return MetricsHelper.newMeter(_metricsRegistry, metricName, meter.getUnit(), TimeUnit.SECONDS);
+    return getTableMeter(tableName, meter);
   }
 
   /**
@@ -274,15 +353,16 @@ public abstract class AbstractMetrics<QP extends AbstractMetrics.QueryPhase, M e
    * @param unitCount The number of units to add to the meter
    */
   public void addMeteredQueryValue(final BrokerRequest request, final M meter, final long unitCount) {
-    final String fullMeterName;
-    String meterName = meter.getMeterName();
-    if (request != null) {
-      fullMeterName = buildMetricName(request, meterName);
+    if (request == null) {
+      getGlobalMeter(meter).mark(unitCount);
+      return;
+    }
+    String tableName = getTableName(request);
+    if (tableName != null) {
+      getTableMeter(tableName, meter).mark(unitCount);
     } else {
-      fullMeterName = _metricPrefix + meterName;
+      newMeter(buildMetricName(request, meter.getMeterName()), meter).mark(unitCount);
     }
-    final MetricName metricName = new MetricName(_clazz, fullMeterName);
-    MetricsHelper.newMeter(_metricsRegistry, metricName, meter.getUnit(), TimeUnit.SECONDS).mark(unitCount);
   }
 
   /**
@@ -34,6 +34,9 @@ public enum BrokerMeter implements AbstractMetrics.Meter {
   // These metrics track the exceptions caught during query execution in broker side.
   // PQL compile phase.
   REQUEST_COMPILATION_EXCEPTIONS("exceptions", true),
+  // Queries compiled by binding the literals into a cached query template, and queries compiled from scratch.
+  QUERY_CACHE_HITS("queries", true),
+  QUERY_CACHE_MISSES("queries", true),
   // Get resource phase.
   RESOURCE_MISSING_EXCEPTIONS("exceptions", true),
   // Query validation phase.
@@ -41,6 +44,8 @@ public enum BrokerMeter implements AbstractMetrics.Meter {
   // Scatter phase.
   NO_SERVER_FOUND_EXCEPTIONS("exceptions", false),
   REQUEST_SEND_EXCEPTIONS("exceptions", false),
+  // Speculative requests re-issued to a backup server because the primary server is slow to respond.
+  HEDGED_REQUESTS_SENT("requests", false),
   // Gather phase.
   RESPONSE_FETCH_EXCEPTIONS("exceptions", false),
   // Response deserialize phase.
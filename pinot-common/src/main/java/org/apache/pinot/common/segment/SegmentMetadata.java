@@ -87,6 +87,10 @@ public interface SegmentMetadata {
 
   String getBloomFilterFileName(String column);
 
+  String getBitmapRangeIndexFileName(String column);
+
+  String getNgramTextIndexFileName(String column);
+
   String getCreatorName();
 
   char getPaddingCharacter();
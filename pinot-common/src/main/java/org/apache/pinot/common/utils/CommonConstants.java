@@ -122,6 +122,32 @@ public class CommonConstants {
         "pinot.broker.refresh.timeBoundaryInfo.sleepInterval";
     public static final long DEFAULT_BROKER_REFRESH_TIMEBOUNDARY_INFO_SLEEP_INTERVAL_MS = 10000L;
 
+    // Smoothing factor and idle decay half life of the per server latency estimate used by adaptive routing
+    public static final String CONFIG_OF_BROKER_SERVER_LATENCY_SMOOTHING_FACTOR =
+        "pinot.broker.serverLatency.smoothingFactor";
+    public static final double DEFAULT_BROKER_SERVER_LATENCY_SMOOTHING_FACTOR = 0.2;
+    public static final String CONFIG_OF_BROKER_SERVER_LATENCY_DECAY_HALF_LIFE_MS =
+        "pinot.broker.serverLatency.decayHalfLifeMs";
+    public static final long DEFAULT_BROKER_SERVER_LATENCY_DECAY_HALF_LIFE_MS = 30_000L;
+    // Percentile of the recent latency of a server after which a hedged request is sent to a backup server (only for
+    // tables with hedged requests enabled), 0 to disable hedged requests
+    public static final String CONFIG_OF_BROKER_HEDGED_REQUEST_LATENCY_PERCENTILE =
+        "pinot.broker.hedgedRequest.latencyPercentile";
+    public static final double DEFAULT_BROKER_HEDGED_REQUEST_LATENCY_PERCENTILE = 0;
+    public static final String CONFIG_OF_BROKER_HEDGED_REQUEST_MIN_DELAY_MS = "pinot.broker.hedgedRequest.minDelayMs";
+    public static final long DEFAULT_BROKER_HEDGED_REQUEST_MIN_DELAY_MS = 10L;
+    // Maximum number of compiled query templates (keyed on the query with the filter literals stripped out) cached by
+    // the broker, 0 to disable the cache (disabled by default)
+    public static final String CONFIG_OF_BROKER_QUERY_CACHE_SIZE = "pinot.broker.query.cache.size";
+    public static final int DEFAULT_BROKER_QUERY_CACHE_SIZE = 0;
+    // Memory budget for the merged DISTINCTCOUNT result of an aggregation-only query, beyond which the merged result is
+    // spilled to the spill directory (or approximated with HyperLogLog if allowed by the query option). It does not
+    // bound the server responses, which are already fully on heap when they are merged
+    public static final String CONFIG_OF_BROKER_DISTINCT_COUNT_MEMORY_BUDGET_BYTES =
+        "pinot.broker.distinctCount.memoryBudgetBytes";
+    public static final long DEFAULT_BROKER_DISTINCT_COUNT_MEMORY_BUDGET_BYTES = 64 * 1024 * 1024L;
+    public static final String CONFIG_OF_BROKER_DISTINCT_COUNT_SPILL_DIR = "pinot.broker.distinctCount.spillDir";
+
     public static class Request {
       public static final String PQL = "pql";
       public static final String TRACE = "trace";
@@ -129,6 +155,10 @@ public class CommonConstants {
 
       public static class QueryOptionKey {
         public static final String PRESERVE_TYPE = "preserveType";
+        public static final String APPROXIMATE_DISTINCT_COUNT = "approximateDistinctCount";
+        // Set by the broker to tell the servers that it can read the DISTINCTCOUNT intermediate results as bitmaps.
+        // Servers that do not recognize it keep sending value sets, which the broker can also read
+        public static final String DISTINCT_COUNT_BITMAP = "distinctCountBitmap";
       }
     }
   }
@@ -240,6 +270,7 @@ public class CommonConstants {
       public static final String DOWNLOAD_URL = "segment.offline.download.url";
       public static final String PUSH_TIME = "segment.offline.push.time";
       public static final String REFRESH_TIME = "segment.offline.refresh.time";
+      public static final String COLUMN_VALUE_METADATA = "segment.offline.column.value.metadata";
     }
 
     public static final String SEGMENT_NAME = "segment.name";
@@ -158,7 +158,7 @@ public class RequestUtils {
   public static Set<String> extractFilterColumns(FilterQueryTree root) {
     Set<String> filterColumns = new HashSet<>();
     if (root.getChildren() == null) {
-      filterColumns.add(root.getColumn());
+      addFilterColumns(root.getColumn(), filterColumns);
     } else {
       Stack<FilterQueryTree> stack = new Stack<>();
       stack.add(root);
@@ -166,7 +166,7 @@ public class RequestUtils {
         FilterQueryTree node = stack.pop();
         for (FilterQueryTree child : node.getChildren()) {
           if (child.getChildren() == null) {
-            filterColumns.add(child.getColumn());
+            addFilterColumns(child.getColumn(), filterColumns);
           } else {
             stack.push(child);
           }
@@ -176,6 +176,21 @@ public class RequestUtils {
     return filterColumns;
   }
 
+  /**
+   * Returns whether the given filter column is a transform expression (e.g. div(foo,'1000')) instead of a column.
+   */
+  public static boolean isExpression(String filterColumn) {
+    return filterColumn.indexOf('(') >= 0;
+  }
+
+  private static void addFilterColumns(String filterColumn, Set<String> filterColumns) {
+    if (isExpression(filterColumn)) {
+      TransformExpressionTree.compileToExpressionTree(filterColumn).getColumns(filterColumns);
+    } else {
+      filterColumns.add(filterColumn);
+    }
+  }
+
   /**
    * Extracts all columns from the given expressions.
    */
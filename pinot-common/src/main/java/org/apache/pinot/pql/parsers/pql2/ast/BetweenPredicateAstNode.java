@@ -62,14 +62,15 @@ public class BetweenPredicateAstNode extends PredicateAstNode {
 
   @Override
   public FilterQueryTree buildFilterQueryTree() {
-    if (_identifier == null) {
+    String column = getFilterColumn();
+    if (column == null) {
       throw new Pql2CompilationException("Between predicate has no identifier");
     }
     if (getChildren().size() == 2) {
       try {
         LiteralAstNode left = (LiteralAstNode) getChildren().get(0);
         LiteralAstNode right = (LiteralAstNode) getChildren().get(1);
-        return new FilterQueryTree(_identifier,
+        return new FilterQueryTree(column,
             Collections.singletonList("[" + left.getValueAsString() + "\t\t" + right.getValueAsString() + "]"),
             FilterOperator.RANGE, null);
       } catch (ClassCastException e) {
@@ -123,20 +123,21 @@ public class ComparisonPredicateAstNode extends PredicateAstNode {
 
   @Override
   public FilterQueryTree buildFilterQueryTree() {
-    if (_identifier == null) {
+    String column = getFilterColumn();
+    if (column == null) {
       throw new Pql2CompilationException("Comparison predicate has no identifier");
     }
 
     if ("=".equals(_operand)) {
-      if (_identifier != null && _literal != null) {
-        return new FilterQueryTree(_identifier, Collections.singletonList(_literal.getValueAsString()),
+      if (_literal != null) {
+        return new FilterQueryTree(column, Collections.singletonList(_literal.getValueAsString()),
             FilterOperator.EQUALITY, null);
       } else {
         throw new Pql2CompilationException("Comparison is not between a column and a constant");
       }
     } else if ("<>".equals(_operand) || "!=".equals(_operand)) {
-      if (_identifier != null && _literal != null) {
-        return new FilterQueryTree(_identifier, Collections.singletonList(_literal.getValueAsString()),
+      if (_literal != null) {
+        return new FilterQueryTree(column, Collections.singletonList(_literal.getValueAsString()),
             FilterOperator.NOT, null);
       } else {
         throw new Pql2CompilationException("Comparison is not between a column and a constant");
@@ -147,11 +148,7 @@ public class ComparisonPredicateAstNode extends PredicateAstNode {
         throw new Pql2CompilationException("The comparison operator is not valid/is not supported for HAVING query");
       }
 
-      if (_identifier != null) {
-        return new FilterQueryTree(_identifier, Collections.singletonList(comparison), FilterOperator.RANGE, null);
-      } else {
-        throw new Pql2CompilationException("One column is needed for comparison.");
-      }
+      return new FilterQueryTree(column, Collections.singletonList(comparison), FilterOperator.RANGE, null);
     }
   }
 
@@ -88,7 +88,8 @@ public class InPredicateAstNode extends PredicateAstNode {
 
   @Override
   public FilterQueryTree buildFilterQueryTree() {
-    if (_identifier == null) {
+    String column = getFilterColumn();
+    if (column == null) {
       throw new Pql2CompilationException("IN predicate has no identifier");
     }
 
@@ -108,7 +109,7 @@ public class InPredicateAstNode extends PredicateAstNode {
       filterOperator = FilterOperator.IN;
     }
 
-    return new FilterQueryTree(_identifier, new ArrayList<>(values), filterOperator, null);
+    return new FilterQueryTree(column, new ArrayList<>(values), filterOperator, null);
   }
 
   @Override
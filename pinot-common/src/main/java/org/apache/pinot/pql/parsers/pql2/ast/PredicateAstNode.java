@@ -18,6 +18,7 @@
  */
 package org.apache.pinot.pql.parsers.pql2.ast;
 
+import org.apache.pinot.common.request.transform.TransformExpressionTree;
 import org.apache.pinot.common.utils.request.FilterQueryTree;
 import org.apache.pinot.common.utils.request.HavingQueryTree;
 
@@ -73,4 +74,20 @@ public abstract class PredicateAstNode extends BaseAstNode {
   public String getIdentifier() {
     return _identifier;
   }
+
+  /**
+   * Returns the column of the filter query tree for this predicate, which is either the identifier, or the standard
+   * expression of the transform function call (e.g. WHERE div(foo, 1000) > 5), or null if there is none.
+   *
+   * @return The identifier or the standard expression of the function call, or null if there is none
+   */
+  protected String getFilterColumn() {
+    if (_identifier != null) {
+      return _identifier;
+    }
+    if (_function != null) {
+      return TransformExpressionTree.getStandardExpression(_function);
+    }
+    return null;
+  }
 }
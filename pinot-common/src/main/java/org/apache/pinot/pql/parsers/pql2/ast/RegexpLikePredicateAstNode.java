@@ -31,19 +31,22 @@ import org.apache.pinot.pql.parsers.Pql2CompilationException;
 
 public class RegexpLikePredicateAstNode extends PredicateAstNode {
   private static final String SEPERATOR = "\t\t";
-  private String _identifier;
 
   @Override
   public void addChild(AstNode childNode) {
     if (childNode instanceof IdentifierAstNode) {
-      if (_identifier == null) {
+      if (_identifier == null && _function == null) {
         IdentifierAstNode node = (IdentifierAstNode) childNode;
         _identifier = node.getName();
       } else {
         throw new Pql2CompilationException("REGEXP_LIKE predicate has more than one identifier.");
       }
     } else if (childNode instanceof FunctionCallAstNode) {
-      throw new Pql2CompilationException("REGEXP_LIKE operator can not be called for a function.");
+      if (_identifier == null && _function == null) {
+        _function = (FunctionCallAstNode) childNode;
+      } else {
+        throw new Pql2CompilationException("REGEXP_LIKE predicate has more than one identifier.");
+      }
     } else {
       super.addChild(childNode);
     }
@@ -51,7 +54,8 @@ public class RegexpLikePredicateAstNode extends PredicateAstNode {
 
   @Override
   public FilterQueryTree buildFilterQueryTree() {
-    if (_identifier == null) {
+    String column = getFilterColumn();
+    if (column == null) {
       throw new Pql2CompilationException("REGEXP_LIKE predicate has no identifier");
     }
 
@@ -71,7 +75,7 @@ public class RegexpLikePredicateAstNode extends PredicateAstNode {
     String[] valueArray = values.toArray(new String[values.size()]);
     FilterOperator filterOperator = FilterOperator.REGEXP_LIKE;
     List<String> value = Collections.singletonList(StringUtil.join(SEPERATOR, valueArray));
-    return new FilterQueryTree(_identifier, value, filterOperator, null);
+    return new FilterQueryTree(column, value, filterOperator, null);
   }
 
   @Override
@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.common.metrics;
+
+import com.yammer.metrics.core.Meter;
+import com.yammer.metrics.core.Metric;
+import com.yammer.metrics.core.MetricName;
+import com.yammer.metrics.core.MetricsRegistry;
+import com.yammer.metrics.core.Timer;
+import java.util.concurrent.TimeUnit;
+import org.apache.pinot.common.request.BrokerRequest;
+import org.apache.pinot.common.request.QuerySource;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ * Tests that the cached meters and timers of {@link AbstractMetrics} are the ones registered in the metrics registry.
+ */
+public class AbstractMetricsTest {
+
+  @Test
+  public void testCachedMetrics() {
+    MetricsRegistry metricsRegistry = new MetricsRegistry();
+    BrokerMetrics brokerMetrics = new BrokerMetrics(metricsRegistry);
+
+    brokerMetrics.addMeteredTableValue("myTable", BrokerMeter.QUERIES, 1);
+    brokerMetrics.addMeteredTableValue("myTable", BrokerMeter.QUERIES, 2);
+    Meter tableMeter = (Meter) getMetric(metricsRegistry, "pinot.broker.myTable.queries");
+    Assert.assertEquals(tableMeter.count(), 3);
+    Assert.assertSame(brokerMetrics.getMeteredTableValue("myTable", BrokerMeter.QUERIES), tableMeter);
+
+    brokerMetrics.addMeteredGlobalValue(BrokerMeter.UNCAUGHT_GET_EXCEPTIONS, 5);
+    Assert.assertEquals(((Meter) getMetric(metricsRegistry, "pinot.broker.uncaughtGetExceptions")).count(), 5);
+
+    BrokerRequest brokerRequest = new BrokerRequest();
+    QuerySource querySource = new QuerySource();
+    querySource.setTableName("myTable");
+    brokerRequest.setQuerySource(querySource);
+    brokerMetrics.addMeteredQueryValue(brokerRequest, BrokerMeter.QUERIES, 1);
+    Assert.assertEquals(tableMeter.count(), 4);
+
+    brokerMetrics.addPhaseTiming("myTable", BrokerQueryPhase.REDUCE, 1000L);
+    brokerMetrics.addPhaseTiming(brokerRequest, BrokerQueryPhase.REDUCE, 1000L);
+    Assert.assertEquals(((Timer) getMetric(metricsRegistry, "pinot.broker.myTable.reduce")).count(), 2);
+
+    brokerMetrics.addTimedValue(BrokerTimer.ROUTING_TABLE_UPDATE_TIME, 1L, TimeUnit.MILLISECONDS);
+    brokerMetrics.addTimedValue(BrokerTimer.ROUTING_TABLE_UPDATE_TIME, 1L, TimeUnit.MILLISECONDS);
+    Assert.assertEquals(((Timer) getMetric(metricsRegistry, "pinot.broker.routingTableUpdateTime")).count(), 2);
+
+    // Global metrics should aggregate all the tables
+    MetricsRegistry globalMetricsRegistry = new MetricsRegistry();
+    BrokerMetrics globalBrokerMetrics = new BrokerMetrics(globalMetricsRegistry, true);
+    globalBrokerMetrics.addMeteredTableValue("myTable", BrokerMeter.QUERIES, 1);
+    globalBrokerMetrics.addMeteredTableValue("myOtherTable", BrokerMeter.QUERIES, 1);
+    Assert.assertEquals(((Meter) getMetric(globalMetricsRegistry, "pinot.broker.allTables.queries")).count(), 2);
+  }
+
+  @Test
+  public void testRemoveTableMetrics() {
+    MetricsRegistry metricsRegistry = new MetricsRegistry();
+    BrokerMetrics brokerMetrics = new BrokerMetrics(metricsRegistry);
+
+    brokerMetrics.addMeteredTableValue("myTable", BrokerMeter.QUERIES, 1);
+    brokerMetrics.addPhaseTiming("myTable", BrokerQueryPhase.REDUCE, 1000L);
+    brokerMetrics.addMeteredTableValue("myOtherTable", BrokerMeter.QUERIES, 1);
+    Assert.assertTrue(brokerMetrics.hasCachedTableMetrics("myTable"));
+    Assert.assertTrue(brokerMetrics.hasCachedTableMetrics("myOtherTable"));
+
+    // Only the metrics of the removed table should be evicted from the cache
+    brokerMetrics.removeTableMetrics("myTable");
+    Assert.assertFalse(brokerMetrics.hasCachedTableMetrics("myTable"));
+    Assert.assertTrue(brokerMetrics.hasCachedTableMetrics("myOtherTable"));
+
+    // Recording a value after the removal should resolve the same metrics from the registry again
+    Meter tableMeter = (Meter) getMetric(metricsRegistry, "pinot.broker.myTable.queries");
+    brokerMetrics.addMeteredTableValue("myTable", BrokerMeter.QUERIES, 1);
+    Assert.assertSame(brokerMetrics.getMeteredTableValue("myTable", BrokerMeter.QUERIES), tableMeter);
+    Assert.assertEquals(tableMeter.count(), 2);
+    brokerMetrics.addPhaseTiming("myTable", BrokerQueryPhase.REDUCE, 1000L);
+    Assert.assertEquals(((Timer) getMetric(metricsRegistry, "pinot.broker.myTable.reduce")).count(), 2);
+    Assert.assertTrue(brokerMetrics.hasCachedTableMetrics("myTable"));
+  }
+
+  private static Metric getMetric(MetricsRegistry metricsRegistry, String name) {
+    Metric metric = metricsRegistry.allMetrics().get(new MetricName(BrokerMetrics.class, name));
+    Assert.assertNotNull(metric, name);
+    return metric;
+  }
+}
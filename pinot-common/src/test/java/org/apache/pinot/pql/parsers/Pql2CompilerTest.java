@@ -18,13 +18,17 @@
  */
 package org.apache.pinot.pql.parsers;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import org.apache.pinot.common.request.AggregationInfo;
 import org.apache.pinot.common.request.BrokerRequest;
 import org.apache.pinot.common.request.FilterOperator;
 import org.apache.pinot.common.request.GroupBy;
 import org.apache.pinot.common.request.transform.TransformExpressionTree;
+import org.apache.pinot.common.utils.request.FilterQueryTree;
+import org.apache.pinot.common.utils.request.RequestUtils;
 import org.apache.pinot.pql.parsers.pql2.ast.TopAstNode;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -238,4 +242,23 @@ public class Pql2CompilerTest {
     Assert.assertEquals(expressions.size(), 1);
     Assert.assertEquals(expressions.get(0), "sub('foo',bar)");
   }
+
+  @Test
+  public void testFilterOnExpression() {
+    BrokerRequest brokerRequest = COMPILER.compileToBrokerRequest(
+        "SELECT COUNT(*) FROM table WHERE DIV(foo, 1000) > 5 AND LOWER(bar) IN ('a', 'b') AND REGEXP_LIKE(UPPER(bar), 'A.*')");
+    FilterQueryTree filterQueryTree = RequestUtils.generateFilterQueryTree(brokerRequest);
+    Assert.assertEquals(filterQueryTree.getOperator(), FilterOperator.AND);
+    List<FilterQueryTree> children = filterQueryTree.getChildren();
+    Assert.assertEquals(children.size(), 3);
+    Assert.assertEquals(children.get(0).getColumn(), "div(foo,'1000')");
+    Assert.assertEquals(children.get(0).getOperator(), FilterOperator.RANGE);
+    Assert.assertEquals(children.get(0).getValue(), Collections.singletonList("(5\t\t*)"));
+    Assert.assertEquals(children.get(1).getColumn(), "lower(bar)");
+    Assert.assertEquals(children.get(1).getOperator(), FilterOperator.IN);
+    Assert.assertEquals(children.get(2).getColumn(), "upper(bar)");
+    Assert.assertEquals(children.get(2).getOperator(), FilterOperator.REGEXP_LIKE);
+    Assert.assertTrue(RequestUtils.isExpression(children.get(0).getColumn()));
+    Assert.assertEquals(RequestUtils.extractFilterColumns(filterQueryTree), new HashSet<>(Arrays.asList("foo", "bar")));
+  }
 }
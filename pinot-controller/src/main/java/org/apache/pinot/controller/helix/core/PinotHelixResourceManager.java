@@ -1451,7 +1451,8 @@ public class PinotHelixResourceManager {
     // NOTE: must first set the segment ZK metadata before trying to update ideal state because server will need the
     // segment ZK metadata to download and load the segment
     OfflineSegmentZKMetadata offlineSegmentZKMetadata = new OfflineSegmentZKMetadata();
-    offlineSegmentZKMetadata = ZKMetadataUtils.updateSegmentMetadata(offlineSegmentZKMetadata, segmentMetadata);
+    offlineSegmentZKMetadata = ZKMetadataUtils.updateSegmentMetadata(offlineSegmentZKMetadata, segmentMetadata,
+        getSegmentPruningColumns(offlineTableName));
     offlineSegmentZKMetadata.setDownloadUrl(downloadUrl);
     offlineSegmentZKMetadata.setCrypterName(crypter);
     offlineSegmentZKMetadata.setPushTime(System.currentTimeMillis());
@@ -1465,6 +1466,18 @@ public class PinotHelixResourceManager {
     LOGGER.info("Added segment: {} of table: {} to ideal state", segmentName, offlineTableName);
   }
 
+  /**
+   * Returns the columns whose min/max values should be published into the segment ZK metadata for broker side pruning.
+   */
+  @Nullable
+  private List<String> getSegmentPruningColumns(String offlineTableName) {
+    TableConfig tableConfig = ZKMetadataProvider.getOfflineTableConfig(_propertyStore, offlineTableName);
+    if (tableConfig == null) {
+      return null;
+    }
+    return tableConfig.getIndexingConfig().getSegmentPruningColumns();
+  }
+
   public ZNRecord getSegmentMetadataZnRecord(String tableNameWithType, String segmentName) {
     return ZKMetadataProvider.getZnRecord(_propertyStore,
         ZKMetadataProvider.constructPropertyStorePathForSegment(tableNameWithType, segmentName));
@@ -1486,7 +1499,8 @@ public class PinotHelixResourceManager {
     // NOTE: must first set the segment ZK metadata before trying to refresh because server will pick up the
     // latest segment ZK metadata and compare with local segment metadata to decide whether to download the new
     // segment or load from local
-    offlineSegmentZKMetadata = ZKMetadataUtils.updateSegmentMetadata(offlineSegmentZKMetadata, segmentMetadata);
+    offlineSegmentZKMetadata = ZKMetadataUtils.updateSegmentMetadata(offlineSegmentZKMetadata, segmentMetadata,
+        getSegmentPruningColumns(offlineTableName));
     offlineSegmentZKMetadata.setRefreshTime(System.currentTimeMillis());
     if (!ZKMetadataProvider.setOfflineSegmentZKMetadata(_propertyStore, offlineSegmentZKMetadata)) {
       throw new RuntimeException(
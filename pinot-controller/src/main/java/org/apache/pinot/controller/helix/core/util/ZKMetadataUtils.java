@@ -18,24 +18,53 @@
  */
 package org.apache.pinot.controller.helix.core.util;
 
+import java.io.File;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import javax.annotation.Nullable;
+import org.apache.pinot.common.data.FieldSpec.DataType;
 import org.apache.pinot.common.metadata.segment.ColumnPartitionMetadata;
+import org.apache.pinot.common.metadata.segment.ColumnValueMetadata;
 import org.apache.pinot.common.metadata.segment.OfflineSegmentZKMetadata;
+import org.apache.pinot.common.metadata.segment.SegmentColumnValueMetadata;
 import org.apache.pinot.common.metadata.segment.SegmentPartitionMetadata;
+import org.apache.pinot.common.segment.ReadMode;
 import org.apache.pinot.common.segment.SegmentMetadata;
 import org.apache.pinot.common.utils.CommonConstants.Segment.SegmentType;
 import org.apache.pinot.core.data.partition.PartitionFunction;
 import org.apache.pinot.core.segment.index.ColumnMetadata;
 import org.apache.pinot.core.segment.index.SegmentMetadataImpl;
+import org.apache.pinot.core.segment.memory.PinotDataBuffer;
+import org.apache.pinot.core.segment.store.ColumnIndexType;
+import org.apache.pinot.core.segment.store.SegmentDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
 public class ZKMetadataUtils {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ZKMetadataUtils.class);
+
+  // Min/max values longer than this are not published into the segment ZK metadata to keep the ZNode small
+  private static final int MAX_VALUE_LENGTH_IN_ZK_METADATA = 256;
+  // Bloom filters larger than this are not published into the segment ZK metadata to keep the ZNode small
+  private static final int MAX_BLOOM_FILTER_SIZE_IN_ZK_METADATA = 4096;
+
   private ZKMetadataUtils() {
   }
 
   public static OfflineSegmentZKMetadata updateSegmentMetadata(OfflineSegmentZKMetadata offlineSegmentZKMetadata,
       SegmentMetadata segmentMetadata) {
+    return updateSegmentMetadata(offlineSegmentZKMetadata, segmentMetadata, null);
+  }
+
+  /**
+   * Updates the segment ZK metadata with the segment metadata. For the given segment pruning columns, also publishes
+   * the min/max value and the bloom filter (if small enough) of the column so that the broker can prune the segment.
+   */
+  public static OfflineSegmentZKMetadata updateSegmentMetadata(OfflineSegmentZKMetadata offlineSegmentZKMetadata,
+      SegmentMetadata segmentMetadata, @Nullable List<String> segmentPruningColumns) {
     offlineSegmentZKMetadata.setSegmentName(segmentMetadata.getName());
     offlineSegmentZKMetadata.setTableName(segmentMetadata.getTableName());
     offlineSegmentZKMetadata.setIndexVersion(segmentMetadata.getVersion());
@@ -71,6 +100,78 @@ public class ZKMetadataUtils {
       offlineSegmentZKMetadata.setPartitionMetadata(new SegmentPartitionMetadata(columnPartitionMap));
     }
 
+    // Extract column value metadata for the segment pruning columns (if any), and set it into segment ZK metadata.
+    // NOTE: always reset it so that stale values from the previous version of a refreshed segment are not kept.
+    Map<String, ColumnValueMetadata> columnValueMap = new HashMap<>();
+    if (segmentPruningColumns != null && segmentMetadata instanceof SegmentMetadataImpl) {
+      SegmentMetadataImpl metadata = (SegmentMetadataImpl) segmentMetadata;
+      for (String column : segmentPruningColumns) {
+        ColumnMetadata columnMetadata = metadata.getColumnMetadataFor(column);
+        if (columnMetadata != null) {
+          ColumnValueMetadata columnValueMetadata = getColumnValueMetadata(metadata, columnMetadata);
+          if (columnValueMetadata != null) {
+            columnValueMap.put(column, columnValueMetadata);
+          }
+        }
+      }
+    }
+    offlineSegmentZKMetadata
+        .setColumnValueMetadata(columnValueMap.isEmpty() ? null : new SegmentColumnValueMetadata(columnValueMap));
+
     return offlineSegmentZKMetadata;
   }
+
+  @Nullable
+  private static ColumnValueMetadata getColumnValueMetadata(SegmentMetadataImpl segmentMetadata,
+      ColumnMetadata columnMetadata) {
+    DataType dataType = columnMetadata.getDataType();
+    if (dataType != DataType.INT && dataType != DataType.LONG && dataType != DataType.FLOAT
+        && dataType != DataType.DOUBLE && dataType != DataType.STRING) {
+      return null;
+    }
+    Comparable minValue = columnMetadata.getMinValue();
+    Comparable maxValue = columnMetadata.getMaxValue();
+    if (minValue == null || maxValue == null) {
+      return null;
+    }
+    String minValueString = minValue.toString();
+    String maxValueString = maxValue.toString();
+    if (minValueString.length() > MAX_VALUE_LENGTH_IN_ZK_METADATA
+        || maxValueString.length() > MAX_VALUE_LENGTH_IN_ZK_METADATA) {
+      return null;
+    }
+    return new ColumnValueMetadata(dataType, minValueString, maxValueString,
+        getBloomFilter(segmentMetadata, columnMetadata.getColumnName()));
+  }
+
+  /**
+   * Returns the Base64 encoded bloom filter of the column if the segment has one and it is small enough, or
+   * {@code null} otherwise.
+   */
+  @Nullable
+  private static String getBloomFilter(SegmentMetadataImpl segmentMetadata, String column) {
+    File indexDir = segmentMetadata.getIndexDir();
+    if (indexDir == null) {
+      return null;
+    }
+    try (SegmentDirectory segmentDirectory = SegmentDirectory
+        .createFromLocalFS(indexDir, segmentMetadata, ReadMode.heap);
+        SegmentDirectory.Reader reader = segmentDirectory.createReader()) {
+      if (!reader.hasIndexFor(column, ColumnIndexType.BLOOM_FILTER)) {
+        return null;
+      }
+      PinotDataBuffer bloomFilterBuffer = reader.getIndexFor(column, ColumnIndexType.BLOOM_FILTER);
+      long bloomFilterSize = bloomFilterBuffer.size();
+      if (bloomFilterSize > MAX_BLOOM_FILTER_SIZE_IN_ZK_METADATA) {
+        return null;
+      }
+      byte[] bloomFilterBytes = new byte[(int) bloomFilterSize];
+      bloomFilterBuffer.copyTo(0, bloomFilterBytes);
+      return Base64.getEncoder().encodeToString(bloomFilterBytes);
+    } catch (Exception e) {
+      LOGGER.warn("Caught exception while reading bloom filter for column: {} of segment: {}, skipping it", column,
+          segmentMetadata.getName(), e);
+      return null;
+    }
+  }
 }
@@ -28,7 +28,8 @@ import java.util.Map;
 public enum BloomFilterType {
   // NOTE: Do not change the value of bloom filter type when adding a new type since we are writing/checking type value
   // when serializing/deserializing a bloom filter
-  GUAVA_ON_HEAP(1);
+  GUAVA_ON_HEAP(1),
+  OFF_HEAP_BLOCKED(2);
 
   private int _value;
   private static Map<Integer, BloomFilterType> _bloomFilterTypeMap = new HashMap<>();
@@ -0,0 +1,191 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.bloom;
+
+import com.google.common.base.Preconditions;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import org.apache.pinot.core.segment.memory.PinotDataBuffer;
+
+
+/**
+ * Blocked bloom filter that can be probed directly from a {@link PinotDataBuffer} without being deserialized on heap.
+ * <p>The bits are split into blocks of 512 bits (64 bytes, one cache line), and all the bits for a value are set within
+ * a single block, so that each probe only reads one block.
+ * <p>Serialized format (big-endian):
+ * <ul>
+ *   <li>Number of hash functions (int)</li>
+ *   <li>Number of blocks (int)</li>
+ *   <li>Blocks, each of 8 longs</li>
+ * </ul>
+ * <p>The bloom filter is backed by a long array on heap when it is created or read from an input stream, and by the
+ * data buffer when it is loaded from a segment.
+ */
+public class OffHeapBlockedBloomFilter implements BloomFilter {
+  // Increment the version when the bloom filter implementation becomes backward incompatible
+  private static final int VERSION = 1;
+
+  private static final int HEADER_SIZE = 2 * Integer.BYTES;
+  private static final int NUM_LONGS_PER_BLOCK = 8;
+  private static final int BLOCK_SIZE_IN_BITS = NUM_LONGS_PER_BLOCK * Long.SIZE;
+  private static final int BLOCK_SIZE_IN_BYTES = NUM_LONGS_PER_BLOCK * Long.BYTES;
+  // Each block has 512 (2^9) bits, so the bit index within a block takes 9 bits
+  private static final int BIT_INDEX_SHIFT = Integer.SIZE - 9;
+  private static final int MAX_NUM_HASH_FUNCTIONS = 16;
+
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private int _numHashFunctions;
+  private int _numBlocks;
+  private long[] _bits;
+  private PinotDataBuffer _dataBuffer;
+
+  public OffHeapBlockedBloomFilter() {
+  }
+
+  public OffHeapBlockedBloomFilter(int cardinality, double maxFalsePosProbability) {
+    long numBits = BloomFilterUtil.computeNumBits(Math.max(cardinality, 1), maxFalsePosProbability);
+    _numBlocks = (int) Math.max(numBits / BLOCK_SIZE_IN_BITS, 1);
+    _numHashFunctions = Math.min(
+        BloomFilterUtil.computeNumberOfHashFunctions(Math.max(cardinality, 1), (long) _numBlocks * BLOCK_SIZE_IN_BITS),
+        MAX_NUM_HASH_FUNCTIONS);
+    _bits = new long[_numBlocks * NUM_LONGS_PER_BLOCK];
+  }
+
+  /**
+   * Loads the bloom filter from the given data buffer (serialized bloom filter without the type and version header).
+   * <p>The data buffer is not copied, and is probed directly for each lookup.
+   */
+  public OffHeapBlockedBloomFilter(PinotDataBuffer dataBuffer) {
+    _numHashFunctions = dataBuffer.getInt(0);
+    _numBlocks = dataBuffer.getInt(Integer.BYTES);
+    Preconditions.checkState(dataBuffer.size() >= HEADER_SIZE + (long) _numBlocks * BLOCK_SIZE_IN_BYTES,
+        "Bloom filter data buffer is too small for %s blocks", _numBlocks);
+    _dataBuffer = dataBuffer;
+  }
+
+  @Override
+  public int getVersion() {
+    return VERSION;
+  }
+
+  @Override
+  public BloomFilterType getBloomFilterType() {
+    return BloomFilterType.OFF_HEAP_BLOCKED;
+  }
+
+  @Override
+  public void add(Object input) {
+    Preconditions.checkState(_bits != null, "Cannot add value to a bloom filter loaded from data buffer");
+    long hash = hash(input.toString());
+    int blockOffset = getBlockIndex(hash) * NUM_LONGS_PER_BLOCK;
+    int hash1 = (int) hash;
+    int hash2 = (int) fmix64(hash);
+    for (int i = 0; i < _numHashFunctions; i++) {
+      int bitIndex = (hash1 + i * hash2) >>> BIT_INDEX_SHIFT;
+      _bits[blockOffset + (bitIndex >>> 6)] |= 1L << bitIndex;
+    }
+  }
+
+  @Override
+  public boolean mightContain(Object input) {
+    long hash = hash(input.toString());
+    int blockIndex = getBlockIndex(hash);
+    int hash1 = (int) hash;
+    int hash2 = (int) fmix64(hash);
+    if (_dataBuffer != null) {
+      long blockOffset = HEADER_SIZE + (long) blockIndex * BLOCK_SIZE_IN_BYTES;
+      for (int i = 0; i < _numHashFunctions; i++) {
+        int bitIndex = (hash1 + i * hash2) >>> BIT_INDEX_SHIFT;
+        if ((_dataBuffer.getLong(blockOffset + ((bitIndex >>> 6) << 3)) & (1L << bitIndex)) == 0) {
+          return false;
+        }
+      }
+    } else {
+      int blockOffset = blockIndex * NUM_LONGS_PER_BLOCK;
+      for (int i = 0; i < _numHashFunctions; i++) {
+        int bitIndex = (hash1 + i * hash2) >>> BIT_INDEX_SHIFT;
+        if ((_bits[blockOffset + (bitIndex >>> 6)] & (1L << bitIndex)) == 0) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void writeTo(OutputStream out)
+      throws IOException {
+    Preconditions.checkState(_bits != null, "Cannot write a bloom filter loaded from data buffer");
+    DataOutputStream dataOutputStream = new DataOutputStream(out);
+    dataOutputStream.writeInt(_numHashFunctions);
+    dataOutputStream.writeInt(_numBlocks);
+    byte[] bytes = new byte[_numBlocks * BLOCK_SIZE_IN_BYTES];
+    ByteBuffer.wrap(bytes).asLongBuffer().put(_bits);
+    dataOutputStream.write(bytes);
+    dataOutputStream.flush();
+  }
+
+  @Override
+  public void readFrom(InputStream in)
+      throws IOException {
+    DataInputStream dataInputStream = new DataInputStream(in);
+    _numHashFunctions = dataInputStream.readInt();
+    _numBlocks = dataInputStream.readInt();
+    byte[] bytes = new byte[_numBlocks * BLOCK_SIZE_IN_BYTES];
+    dataInputStream.readFully(bytes);
+    _bits = new long[_numBlocks * NUM_LONGS_PER_BLOCK];
+    ByteBuffer.wrap(bytes).asLongBuffer().get(_bits);
+    _dataBuffer = null;
+  }
+
+  /**
+   * Maps the upper 32 bits of the hash to a block index without using modulo.
+   */
+  private int getBlockIndex(long hash) {
+    return (int) (((hash >>> 32) * _numBlocks) >>> 32);
+  }
+
+  /**
+   * 64-bit FNV-1a hash of the characters of the input, followed by the MurmurHash3 finalizer to spread the bits.
+   * <p>NOTE: The hash is part of the serialized format, do not change it without incrementing the version.
+   */
+  private static long hash(String input) {
+    long hash = FNV_OFFSET_BASIS;
+    int length = input.length();
+    for (int i = 0; i < length; i++) {
+      hash = (hash ^ input.charAt(i)) * FNV_PRIME;
+    }
+    return fmix64(hash ^ length);
+  }
+
+  private static long fmix64(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
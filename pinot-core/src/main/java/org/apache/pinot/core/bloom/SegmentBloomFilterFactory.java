@@ -18,21 +18,45 @@
  */
 package org.apache.pinot.core.bloom;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import org.apache.pinot.core.segment.memory.PinotDataBuffer;
+
+
 /**
  * Factory for bloom filter
  */
 public class SegmentBloomFilterFactory {
 
   /**
-   * Factory used when creating a new bloom filter
+   * Factory used when creating a new bloom filter of the default type ({@link BloomFilterType#GUAVA_ON_HEAP}), which
+   * can be read by all the components
    *
    * @param cardinality cardinality of column
    * @param maxFalsePosProbability maximum false positive probability
    * @return a bloom filter
    */
   public static BloomFilter createSegmentBloomFilter(int cardinality, double maxFalsePosProbability) {
-    // TODO: when we add more types of bloom filter, we will need to add a new config and wire in here
-    return new GuavaOnHeapBloomFilter(cardinality, maxFalsePosProbability);
+    return createSegmentBloomFilter(BloomFilterType.GUAVA_ON_HEAP, cardinality, maxFalsePosProbability);
+  }
+
+  /**
+   * Factory used when creating a new bloom filter of the given type
+   *
+   * @param type a bloom filter type
+   * @param cardinality cardinality of column
+   * @param maxFalsePosProbability maximum false positive probability
+   * @return a bloom filter
+   */
+  public static BloomFilter createSegmentBloomFilter(BloomFilterType type, int cardinality,
+      double maxFalsePosProbability) {
+    switch (type) {
+      case GUAVA_ON_HEAP:
+        return new GuavaOnHeapBloomFilter(cardinality, maxFalsePosProbability);
+      case OFF_HEAP_BLOCKED:
+        return new OffHeapBlockedBloomFilter(cardinality, maxFalsePosProbability);
+    }
+    throw new RuntimeException("Invalid bloom filter type: " + type.toString());
   }
 
   /**
@@ -45,7 +69,30 @@ public class SegmentBloomFilterFactory {
     switch (type) {
       case GUAVA_ON_HEAP:
         return new GuavaOnHeapBloomFilter();
+      case OFF_HEAP_BLOCKED:
+        return new OffHeapBlockedBloomFilter();
     }
     throw new RuntimeException("Invalid bloom filter type: " + type.toString());
   }
+
+  /**
+   * Factory used when loading a bloom filter from a segment
+   * <p>The off-heap bloom filters are probed directly from the data buffer, while the on-heap bloom filters are
+   * deserialized from a copy of the data buffer.
+   *
+   * @param type a bloom filter type
+   * @param dataBuffer data buffer for the serialized bloom filter (without the type and version header)
+   * @return a bloom filter based on the given type
+   */
+  public static BloomFilter loadSegmentBloomFilter(BloomFilterType type, PinotDataBuffer dataBuffer)
+      throws IOException {
+    if (type == BloomFilterType.OFF_HEAP_BLOCKED) {
+      return new OffHeapBlockedBloomFilter(dataBuffer);
+    }
+    BloomFilter bloomFilter = createSegmentBloomFilter(type);
+    byte[] bytes = new byte[(int) dataBuffer.size()];
+    dataBuffer.copyTo(0, bytes);
+    bloomFilter.readFrom(new ByteArrayInputStream(bytes));
+    return bloomFilter;
+  }
 }
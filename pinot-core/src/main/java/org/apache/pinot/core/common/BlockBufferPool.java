@@ -0,0 +1,264 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.common;
+
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * The <code>BlockBufferPool</code> class is a per-thread pool of the single-valued value buffers used to process the
+ * blocks of a segment (e.g. the buffers in {@link DataBlockCache} and the transform function results).
+ * <p>Buffers are only pooled between {@link #open()} and {@link #close()} on the executing thread, which bracket the
+ * execution of a segment. All the buffers leased within the scope are returned to the pool when the scope is closed,
+ * so the leased buffers must not be referenced after the segment finishes processing. Outside of any scope, the lease
+ * methods simply allocate new buffers.
+ * <p>The scope is opened by the combine operators around the execution of each segment, instead of by the
+ * {@link org.apache.pinot.core.operator.ProjectionOperator} around each projection block. The {@link DataBlockCache}
+ * and the transform functions lease their buffers once per segment and reuse them for all the blocks of the segment,
+ * and the values of a block are still read after the block is produced. A scope per projection block would return the
+ * buffers to the pool while they are still in use, and an operator that stops early (e.g. selection with LIMIT) would
+ * not close a scope opened by the projection. The segment level scope covers the whole lifecycle of the buffers.
+ * <p>This class is NOT thread-safe, always access it through {@link #getThreadLocalPool()}.
+ */
+public class BlockBufferPool {
+  // Maximum number of bytes of the buffers kept in the pool for each thread
+  public static final long MAX_POOLED_BYTES_PER_THREAD = 32L * 1024 * 1024;
+
+  // Estimated size of an object reference
+  private static final int REFERENCE_SIZE = 8;
+
+  private static final ThreadLocal<BlockBufferPool> THREAD_LOCAL_POOL = ThreadLocal.withInitial(BlockBufferPool::new);
+
+  // Statistics aggregated over all threads, updated when a scope is closed
+  private static final AtomicLong NUM_HITS = new AtomicLong();
+  private static final AtomicLong NUM_MISSES = new AtomicLong();
+  private static final AtomicLong BYTES_SAVED = new AtomicLong();
+
+  private enum BufferType {
+    INT(Integer.BYTES), LONG(Long.BYTES), FLOAT(Float.BYTES), DOUBLE(Double.BYTES), STRING(REFERENCE_SIZE);
+
+    final int _valueSize;
+
+    BufferType(int valueSize) {
+      _valueSize = valueSize;
+    }
+  }
+
+  private final List<ArrayDeque<Object>> _freeBuffers = new ArrayList<>(BufferType.values().length);
+  private final List<Object> _leasedBuffers = new ArrayList<>();
+  private final List<BufferType> _leasedBufferTypes = new ArrayList<>();
+  private long _pooledBytes;
+  private int _depth;
+
+  private long _numHits;
+  private long _numMisses;
+  private long _bytesSaved;
+
+  private BlockBufferPool() {
+    for (int i = 0; i < BufferType.values().length; i++) {
+      _freeBuffers.add(new ArrayDeque<>());
+    }
+  }
+
+  /**
+   * Returns the buffer pool for the current thread.
+   */
+  public static BlockBufferPool getThreadLocalPool() {
+    return THREAD_LOCAL_POOL.get();
+  }
+
+  /**
+   * Opens a scope on the current thread, within which the leased buffers are pooled. Scopes can be nested, and the
+   * buffers are returned to the pool when the outermost scope is closed.
+   */
+  public void open() {
+    _depth++;
+  }
+
+  /**
+   * Closes a scope opened by {@link #open()}. When the outermost scope is closed, all the buffers leased within the
+   * scope are returned to the pool (up to {@link #MAX_POOLED_BYTES_PER_THREAD}).
+   */
+  public void close() {
+    if (_depth == 0) {
+      throw new IllegalStateException("Buffer pool scope is not open");
+    }
+    if (--_depth > 0) {
+      return;
+    }
+
+    int numLeasedBuffers = _leasedBuffers.size();
+    for (int i = 0; i < numLeasedBuffers; i++) {
+      Object buffer = _leasedBuffers.get(i);
+      BufferType bufferType = _leasedBufferTypes.get(i);
+      long numBytes = getNumBytes(buffer, bufferType);
+      if (_pooledBytes + numBytes <= MAX_POOLED_BYTES_PER_THREAD) {
+        if (bufferType == BufferType.STRING) {
+          // Do not hold the string values in the pool
+          Arrays.fill((String[]) buffer, null);
+        }
+        _freeBuffers.get(bufferType.ordinal()).push(buffer);
+        _pooledBytes += numBytes;
+      }
+    }
+    _leasedBuffers.clear();
+    _leasedBufferTypes.clear();
+
+    NUM_HITS.addAndGet(_numHits);
+    NUM_MISSES.addAndGet(_numMisses);
+    BYTES_SAVED.addAndGet(_bytesSaved);
+    _numHits = 0;
+    _numMisses = 0;
+    _bytesSaved = 0;
+  }
+
+  /**
+   * Leases an int buffer of at least the given length. The content of the buffer is undefined.
+   */
+  public int[] leaseIntBuffer(int length) {
+    int[] buffer = (int[]) leaseFromPool(BufferType.INT, length);
+    if (buffer == null) {
+      buffer = new int[length];
+      recordLease(buffer, BufferType.INT);
+    }
+    return buffer;
+  }
+
+  /**
+   * Leases a long buffer of at least the given length. The content of the buffer is undefined.
+   */
+  public long[] leaseLongBuffer(int length) {
+    long[] buffer = (long[]) leaseFromPool(BufferType.LONG, length);
+    if (buffer == null) {
+      buffer = new long[length];
+      recordLease(buffer, BufferType.LONG);
+    }
+    return buffer;
+  }
+
+  /**
+   * Leases a float buffer of at least the given length. The content of the buffer is undefined.
+   */
+  public float[] leaseFloatBuffer(int length) {
+    float[] buffer = (float[]) leaseFromPool(BufferType.FLOAT, length);
+    if (buffer == null) {
+      buffer = new float[length];
+      recordLease(buffer, BufferType.FLOAT);
+    }
+    return buffer;
+  }
+
+  /**
+   * Leases a double buffer of at least the given length. The content of the buffer is undefined.
+   */
+  public double[] leaseDoubleBuffer(int length) {
+    double[] buffer = (double[]) leaseFromPool(BufferType.DOUBLE, length);
+    if (buffer == null) {
+      buffer = new double[length];
+      recordLease(buffer, BufferType.DOUBLE);
+    }
+    return buffer;
+  }
+
+  /**
+   * Leases a String buffer of at least the given length. The content of the buffer is undefined.
+   */
+  public String[] leaseStringBuffer(int length) {
+    String[] buffer = (String[]) leaseFromPool(BufferType.STRING, length);
+    if (buffer == null) {
+      buffer = new String[length];
+      recordLease(buffer, BufferType.STRING);
+    }
+    return buffer;
+  }
+
+  /**
+   * Returns the total number of leases served from the pool.
+   */
+  public static long getNumHits() {
+    return NUM_HITS.get();
+  }
+
+  /**
+   * Returns the total number of leases that required allocating a new buffer.
+   */
+  public static long getNumMisses() {
+    return NUM_MISSES.get();
+  }
+
+  /**
+   * Returns the total number of bytes of buffer allocation saved by the pool.
+   */
+  public static long getBytesSaved() {
+    return BYTES_SAVED.get();
+  }
+
+  /**
+   * Returns the percentage of leases served from the pool.
+   */
+  public static long getHitRatioPercent() {
+    long numHits = NUM_HITS.get();
+    long numLeases = numHits + NUM_MISSES.get();
+    return numLeases > 0 ? numHits * 100 / numLeases : 0;
+  }
+
+  /**
+   * Returns a pooled buffer of the given type with at least the given length, or <code>null</code> if there is no such
+   * buffer or the scope is not open.
+   */
+  private Object leaseFromPool(BufferType bufferType, int length) {
+    if (_depth == 0) {
+      return null;
+    }
+    Iterator<Object> iterator = _freeBuffers.get(bufferType.ordinal()).iterator();
+    while (iterator.hasNext()) {
+      Object buffer = iterator.next();
+      // Shorter buffers are kept in the pool for the shorter leases
+      if (Array.getLength(buffer) >= length) {
+        iterator.remove();
+        long numBytes = getNumBytes(buffer, bufferType);
+        _pooledBytes -= numBytes;
+        _leasedBuffers.add(buffer);
+        _leasedBufferTypes.add(bufferType);
+        _numHits++;
+        _bytesSaved += (long) length * bufferType._valueSize;
+        return buffer;
+      }
+    }
+    _numMisses++;
+    return null;
+  }
+
+  private void recordLease(Object buffer, BufferType bufferType) {
+    if (_depth > 0) {
+      _leasedBuffers.add(buffer);
+      _leasedBufferTypes.add(bufferType);
+    }
+  }
+
+  private static long getNumBytes(Object buffer, BufferType bufferType) {
+    return (long) Array.getLength(buffer) * bufferType._valueSize;
+  }
+}
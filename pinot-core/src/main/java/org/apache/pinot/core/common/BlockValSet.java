@@ -19,6 +19,7 @@
 package org.apache.pinot.core.common;
 
 import org.apache.pinot.common.data.FieldSpec.DataType;
+import org.apache.pinot.core.segment.index.readers.Dictionary;
 
 
 public interface BlockValSet {
@@ -27,6 +28,11 @@ public interface BlockValSet {
 
   DataType getValueType();
 
+  /**
+   * Returns the dictionary for the dictionary ids, or <code>null</code> if the values are not dictionary-encoded.
+   */
+  Dictionary getDictionary();
+
   /**
    * DOCUMENT ID BASED APIs
    */
@@ -31,7 +31,8 @@ import org.apache.pinot.core.plan.DocIdSetPlanNode;
 /**
  * This class serves as a block level cache for column dictionary Ids and values. Using this class can prevent fetching
  * data for the same column multiple times. This class allocate resources on demand, and reuse them as much as possible
- * to prevent garbage collection.
+ * to prevent garbage collection. The single-valued buffers are leased from the {@link BlockBufferPool} of the executing
+ * thread.
  */
 @SuppressWarnings("Duplicates")
 public class DataBlockCache {
@@ -84,7 +85,7 @@ public class DataBlockCache {
     int[] dictIds = (int[]) _dictIdsMap.get(column);
     if (_columnDictIdLoaded.add(column)) {
       if (dictIds == null) {
-        dictIds = new int[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+        dictIds = BlockBufferPool.getThreadLocalPool().leaseIntBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
         _dictIdsMap.put(column, dictIds);
       }
       _dataFetcher.fetchDictIds(column, _docIds, _length, dictIds);
@@ -103,7 +104,7 @@ public class DataBlockCache {
     int[] intValues = (int[]) _valuesMap.get(key);
     if (_columnValueLoaded.add(key)) {
       if (intValues == null) {
-        intValues = new int[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+        intValues = BlockBufferPool.getThreadLocalPool().leaseIntBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
         _valuesMap.put(key, intValues);
       }
       _dataFetcher.fetchIntValues(column, _docIds, _length, intValues);
@@ -122,7 +123,7 @@ public class DataBlockCache {
     long[] longValues = (long[]) _valuesMap.get(key);
     if (_columnValueLoaded.add(key)) {
       if (longValues == null) {
-        longValues = new long[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+        longValues = BlockBufferPool.getThreadLocalPool().leaseLongBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
         _valuesMap.put(key, longValues);
       }
       _dataFetcher.fetchLongValues(column, _docIds, _length, longValues);
@@ -141,7 +142,7 @@ public class DataBlockCache {
     float[] floatValues = (float[]) _valuesMap.get(key);
     if (_columnValueLoaded.add(key)) {
       if (floatValues == null) {
-        floatValues = new float[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+        floatValues = BlockBufferPool.getThreadLocalPool().leaseFloatBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
         _valuesMap.put(key, floatValues);
       }
       _dataFetcher.fetchFloatValues(column, _docIds, _length, floatValues);
@@ -160,7 +161,7 @@ public class DataBlockCache {
     double[] doubleValues = (double[]) _valuesMap.get(key);
     if (_columnValueLoaded.add(key)) {
       if (doubleValues == null) {
-        doubleValues = new double[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+        doubleValues = BlockBufferPool.getThreadLocalPool().leaseDoubleBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
         _valuesMap.put(key, doubleValues);
       }
       _dataFetcher.fetchDoubleValues(column, _docIds, _length, doubleValues);
@@ -179,7 +180,7 @@ public class DataBlockCache {
     String[] stringValues = (String[]) _valuesMap.get(key);
     if (_columnValueLoaded.add(key)) {
       if (stringValues == null) {
-        stringValues = new String[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+        stringValues = BlockBufferPool.getThreadLocalPool().leaseStringBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
         _valuesMap.put(key, stringValues);
       }
       _dataFetcher.fetchStringValues(column, _docIds, _length, stringValues);
@@ -334,7 +335,7 @@ public class DataBlockCache {
     int[] numValues = _numValuesMap.get(column);
     if (_columnNumValuesLoaded.add(column)) {
       if (numValues == null) {
-        numValues = new int[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+        numValues = BlockBufferPool.getThreadLocalPool().leaseIntBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
         _numValuesMap.put(column, numValues);
       }
       _dataFetcher.fetchNumValues(column, _docIds, _length, numValues);
@@ -26,17 +26,22 @@ import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
 import it.unimi.dsi.fastutil.ints.IntIterator;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import javax.annotation.Nullable;
 import org.apache.pinot.common.utils.StringUtil;
 import org.apache.pinot.core.query.aggregation.function.customobject.AvgPair;
 import org.apache.pinot.core.query.aggregation.function.customobject.MinMaxRangePair;
 import org.apache.pinot.core.query.aggregation.function.customobject.QuantileDigest;
+import org.roaringbitmap.RoaringBitmap;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 
 
 /**
@@ -58,7 +63,8 @@ public class ObjectSerDeUtils {
     QuantileDigest(7),
     Map(8),
     IntSet(9),
-    TDigest(10);
+    TDigest(10),
+    RoaringBitmap(11);
 
     private int _value;
 
@@ -93,6 +99,8 @@ public class ObjectSerDeUtils {
         return ObjectType.IntSet;
       } else if (value instanceof TDigest) {
         return ObjectType.TDigest;
+      } else if (value instanceof RoaringBitmap) {
+        return ObjectType.RoaringBitmap;
       } else {
         throw new IllegalArgumentException("Unsupported type of value: " + value.getClass().getSimpleName());
       }
@@ -424,9 +432,44 @@ public class ObjectSerDeUtils {
     }
   };
 
+  public static final ObjectSerDe<RoaringBitmap> ROARING_BITMAP_SER_DE = new ObjectSerDe<RoaringBitmap>() {
+
+    @Override
+    public byte[] serialize(RoaringBitmap bitmap) {
+      bitmap.runOptimize();
+      ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(bitmap.serializedSizeInBytes());
+      try (DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream)) {
+        bitmap.serialize(dataOutputStream);
+      } catch (IOException e) {
+        throw new RuntimeException("Caught exception while serializing RoaringBitmap", e);
+      }
+      return byteArrayOutputStream.toByteArray();
+    }
+
+    @Override
+    public RoaringBitmap deserialize(byte[] bytes) {
+      RoaringBitmap bitmap = new RoaringBitmap();
+      try (DataInputStream dataInputStream = new DataInputStream(new ByteArrayInputStream(bytes))) {
+        bitmap.deserialize(dataInputStream);
+      } catch (IOException e) {
+        throw new RuntimeException("Caught exception while de-serializing RoaringBitmap", e);
+      }
+      return bitmap;
+    }
+
+    @Override
+    public RoaringBitmap deserialize(ByteBuffer byteBuffer) {
+      // The serialized size is read from the bitmap header so that only the bytes of the bitmap are consumed
+      int size = new ImmutableRoaringBitmap(byteBuffer.slice()).serializedSizeInBytes();
+      byte[] bytes = new byte[size];
+      byteBuffer.get(bytes);
+      return deserialize(bytes);
+    }
+  };
+
   // NOTE: DO NOT change the order, it has to be the same order as the ObjectType
   private static final ObjectSerDe[] SER_DES =
-      {STRING_SER_DE, LONG_SER_DE, DOUBLE_SER_DE, DOUBLE_ARRAY_LIST_SER_DE, AVG_PAIR_SER_DE, MIN_MAX_RANGE_PAIR_SER_DE, HYPER_LOG_LOG_SER_DE, QUANTILE_DIGEST_SER_DE, MAP_SER_DE, INT_SET_SER_DE, TDIGEST_SER_DE};
+      {STRING_SER_DE, LONG_SER_DE, DOUBLE_SER_DE, DOUBLE_ARRAY_LIST_SER_DE, AVG_PAIR_SER_DE, MIN_MAX_RANGE_PAIR_SER_DE, HYPER_LOG_LOG_SER_DE, QUANTILE_DIGEST_SER_DE, MAP_SER_DE, INT_SET_SER_DE, TDIGEST_SER_DE, ROARING_BITMAP_SER_DE};
 
   public static byte[] serialize(Object value) {
     return serialize(value, ObjectType.getObjectType(value)._value);
@@ -458,4 +501,47 @@ public class ObjectSerDeUtils {
   public static <T> T deserialize(ByteBuffer byteBuffer, int objectTypeValue) {
     return (T) SER_DES[objectTypeValue].deserialize(byteBuffer);
   }
+
+  /**
+   * Serializes the key-value pairs at the given indexes (or all the key-value pairs if the indexes are
+   * <code>null</code>) in the same format as {@link #MAP_SER_DE}, without building the map. The keys should be unique.
+   * <p>The serialized bytes can be de-serialized as {@link ObjectType#Map}.
+   */
+  public static byte[] serializeAsMap(Object[] keys, Object[] values, int size, @Nullable int[] indexes) {
+    // Directly return the size (0) for empty map
+    if (size == 0) {
+      return new byte[Integer.BYTES];
+    }
+
+    // No need to close these 2 streams
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
+
+    try {
+      // Write the size of the map
+      dataOutputStream.writeInt(size);
+
+      // First write the key type and value type
+      int firstIndex = indexes != null ? indexes[0] : 0;
+      int keyTypeValue = ObjectType.getObjectType(keys[firstIndex]).getValue();
+      int valueTypeValue = ObjectType.getObjectType(values[firstIndex]).getValue();
+      dataOutputStream.writeInt(keyTypeValue);
+      dataOutputStream.writeInt(valueTypeValue);
+      // Then write each key-value pair
+      for (int i = 0; i < size; i++) {
+        int index = indexes != null ? indexes[i] : i;
+        byte[] keyBytes = serialize(keys[index], keyTypeValue);
+        dataOutputStream.writeInt(keyBytes.length);
+        dataOutputStream.write(keyBytes);
+
+        byte[] valueBytes = serialize(values[index], valueTypeValue);
+        dataOutputStream.writeInt(valueBytes.length);
+        dataOutputStream.write(valueBytes);
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Caught exception while serializing Map", e);
+    }
+
+    return byteArrayOutputStream.toByteArray();
+  }
 }
@@ -173,13 +173,20 @@ public class DataTableBuilder {
 
   public void setColumn(int colId, @Nonnull Object value)
       throws IOException {
+    ObjectSerDeUtils.ObjectType objectType = ObjectSerDeUtils.ObjectType.getObjectType(value);
+    setColumn(colId, objectType, ObjectSerDeUtils.serialize(value, objectType));
+  }
+
+  /**
+   * Sets an object column with the value already serialized by {@link ObjectSerDeUtils}.
+   */
+  public void setColumn(int colId, @Nonnull ObjectSerDeUtils.ObjectType objectType, @Nonnull byte[] serializedValue)
+      throws IOException {
     _currentRowDataByteBuffer.position(_columnOffsets[colId]);
     _currentRowDataByteBuffer.putInt(_variableSizeDataByteArrayOutputStream.size());
-    int objectTypeValue = ObjectSerDeUtils.ObjectType.getObjectType(value).getValue();
-    byte[] bytes = ObjectSerDeUtils.serialize(value, objectTypeValue);
-    _currentRowDataByteBuffer.putInt(bytes.length);
-    _variableSizeDataOutputStream.writeInt(objectTypeValue);
-    _variableSizeDataByteArrayOutputStream.write(bytes);
+    _currentRowDataByteBuffer.putInt(serializedValue.length);
+    _variableSizeDataOutputStream.writeInt(objectType.getValue());
+    _variableSizeDataByteArrayOutputStream.write(serializedValue);
   }
 
   public void setColumn(int colId, @Nonnull byte[] values) {
@@ -77,6 +77,8 @@ public class SegmentGeneratorConfig {
   private Set<String> _rawIndexCreationColumns = new HashSet<>();
   private Map<String, ChunkCompressorFactory.CompressionType> _rawIndexCompressionType = new HashMap<>();
   private List<String> _invertedIndexCreationColumns = new ArrayList<>();
+  private List<String> _rangeIndexCreationColumns = new ArrayList<>();
+  private List<String> _textIndexCreationColumns = new ArrayList<>();
   private List<String> _columnSortOrder = new ArrayList<>();
   private String _dataDir = null;
   private String _inputFilePath = null;
@@ -108,6 +110,8 @@ public class SegmentGeneratorConfig {
   private String _simpleDateFormat = null;
   // Use on-heap or off-heap memory to generate index (currently only affect inverted index and star-tree v2)
   private boolean _onHeap = false;
+  // Use front-coded dictionary for STRING columns where it saves space
+  private boolean _enableFrontCodedStringDictionary = false;
 
   public SegmentGeneratorConfig() {
   }
@@ -124,6 +128,8 @@ public class SegmentGeneratorConfig {
     _rawIndexCreationColumns.addAll(config._rawIndexCreationColumns);
     _rawIndexCompressionType.putAll(config._rawIndexCompressionType);
     _invertedIndexCreationColumns.addAll(config._invertedIndexCreationColumns);
+    _rangeIndexCreationColumns.addAll(config._rangeIndexCreationColumns);
+    _textIndexCreationColumns.addAll(config._textIndexCreationColumns);
     _columnSortOrder.addAll(config._columnSortOrder);
     _dataDir = config._dataDir;
     _inputFilePath = config._inputFilePath;
@@ -154,6 +160,7 @@ public class SegmentGeneratorConfig {
     _timeColumnType = config._timeColumnType;
     _simpleDateFormat = config._simpleDateFormat;
     _onHeap = config._onHeap;
+    _enableFrontCodedStringDictionary = config._enableFrontCodedStringDictionary;
   }
 
   /**
@@ -207,6 +214,18 @@ public class SegmentGeneratorConfig {
       _invertedIndexCreationColumns = indexingConfig.getInvertedIndexColumns();
     }
 
+    List<String> rangeIndexColumns = indexingConfig.getRangeIndexColumns();
+    if (rangeIndexColumns != null) {
+      _rangeIndexCreationColumns.addAll(rangeIndexColumns);
+    }
+
+    List<String> textIndexColumns = indexingConfig.getTextIndexColumns();
+    if (textIndexColumns != null) {
+      _textIndexCreationColumns.addAll(textIndexColumns);
+    }
+
+    _enableFrontCodedStringDictionary = indexingConfig.isEnableFrontCodedStringDictionary();
+
     SegmentsValidationAndRetentionConfig validationConfig = tableConfig.getValidationConfig();
     _hllConfig = validationConfig.getHllConfig();
   }
@@ -255,6 +274,14 @@ public class SegmentGeneratorConfig {
     return _invertedIndexCreationColumns;
   }
 
+  public List<String> getRangeIndexCreationColumns() {
+    return _rangeIndexCreationColumns;
+  }
+
+  public List<String> getTextIndexCreationColumns() {
+    return _textIndexCreationColumns;
+  }
+
   public List<String> getColumnSortOrder() {
     return _columnSortOrder;
   }
@@ -269,6 +296,16 @@ public class SegmentGeneratorConfig {
     _invertedIndexCreationColumns.addAll(indexCreationColumns);
   }
 
+  public void setRangeIndexCreationColumns(List<String> rangeIndexCreationColumns) {
+    Preconditions.checkNotNull(rangeIndexCreationColumns);
+    _rangeIndexCreationColumns.addAll(rangeIndexCreationColumns);
+  }
+
+  public void setTextIndexCreationColumns(List<String> textIndexCreationColumns) {
+    Preconditions.checkNotNull(textIndexCreationColumns);
+    _textIndexCreationColumns.addAll(textIndexCreationColumns);
+  }
+
   public void setColumnSortOrder(List<String> sortOrder) {
     Preconditions.checkNotNull(sortOrder);
     _columnSortOrder.addAll(sortOrder);
@@ -562,6 +599,14 @@ public class SegmentGeneratorConfig {
     _onHeap = onHeap;
   }
 
+  public boolean isEnableFrontCodedStringDictionary() {
+    return _enableFrontCodedStringDictionary;
+  }
+
+  public void setEnableFrontCodedStringDictionary(boolean enableFrontCodedStringDictionary) {
+    _enableFrontCodedStringDictionary = enableFrontCodedStringDictionary;
+  }
+
   public Map<String, ChunkCompressorFactory.CompressionType> getRawIndexCompressionType() {
     return _rawIndexCompressionType;
   }
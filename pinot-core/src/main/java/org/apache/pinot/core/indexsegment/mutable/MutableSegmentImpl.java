@@ -31,6 +31,9 @@ import org.apache.pinot.common.data.FieldSpec;
 import org.apache.pinot.common.data.Schema;
 import org.apache.pinot.common.segment.SegmentMetadata;
 import org.apache.pinot.common.utils.NetUtil;
+import org.apache.pinot.core.bloom.BloomFilter;
+import org.apache.pinot.core.bloom.BloomFilterUtil;
+import org.apache.pinot.core.bloom.SegmentBloomFilterFactory;
 import org.apache.pinot.core.data.GenericRow;
 import org.apache.pinot.core.indexsegment.IndexSegmentUtils;
 import org.apache.pinot.core.io.reader.DataFileReader;
@@ -43,6 +46,7 @@ import org.apache.pinot.core.realtime.impl.dictionary.MutableDictionary;
 import org.apache.pinot.core.realtime.impl.dictionary.MutableDictionaryFactory;
 import org.apache.pinot.core.realtime.impl.invertedindex.RealtimeInvertedIndexReader;
 import org.apache.pinot.core.segment.creator.impl.V1Constants;
+import org.apache.pinot.core.segment.creator.impl.bloom.BloomFilterCreator;
 import org.apache.pinot.core.segment.index.SegmentMetadataImpl;
 import org.apache.pinot.core.segment.index.data.source.ColumnDataSource;
 import org.apache.pinot.core.segment.index.readers.BloomFilterReader;
@@ -83,6 +87,8 @@ public class MutableSegmentImpl implements MutableSegment {
   private final Map<String, DataFileReader> _indexReaderWriterMap = new HashMap<>();
   private final Map<String, Integer> _maxNumValuesMap = new HashMap<>();
   private final Map<String, RealtimeInvertedIndexReader> _invertedIndexMap = new HashMap<>();
+  // Bloom filters are updated before the document becomes queryable (before updating _numDocsIndexed)
+  private final Map<String, BloomFilter> _mutableBloomFilterMap = new HashMap<>();
   private final Map<String, BloomFilterReader> _bloomFilterMap = new HashMap<>();
   private final IdMap<FixedIntArray> _recordIdMap;
   private boolean _aggregateMetrics;
@@ -123,6 +129,7 @@ public class MutableSegmentImpl implements MutableSegment {
     Set<String> noDictionaryColumns = config.getNoDictionaryColumns();
 
     Set<String> invertedIndexColumns = config.getInvertedIndexColumns();
+    Set<String> bloomFilterColumns = config.getBloomFilterColumns();
     int avgNumMultiValues = config.getAvgNumMultiValues();
 
     // Initialize for each column
@@ -175,6 +182,24 @@ public class MutableSegmentImpl implements MutableSegment {
       if (invertedIndexColumns.contains(column)) {
         _invertedIndexMap.put(column, new RealtimeInvertedIndexReader());
       }
+
+      // Bloom filter cannot be resized while consuming, so it is sized with the capacity (upper bound of the
+      // cardinality) instead of the estimated cardinality, and capped to 1MB same as the offline bloom filter
+      // NOTE: Same as the offline bloom filter, BYTES columns are not supported because the segment pruner cannot
+      //       convert the query values to BYTES.
+      if (bloomFilterColumns.contains(column)) {
+        if (dataType == FieldSpec.DataType.BYTES) {
+          _logger.warn("Bloom filter is not supported for BYTES column: {}, skip creating it", column);
+        } else {
+          double maxFalsePosProbability = BloomFilterUtil
+              .computeMaxFalsePositiveProbabilityForNumBits(_capacity, BloomFilterCreator.MB_IN_BITS,
+                  BloomFilterCreator.DEFAULT_MAX_FALSE_POS_PROBABILITY);
+          BloomFilter bloomFilter =
+              SegmentBloomFilterFactory.createSegmentBloomFilter(_capacity, maxFalsePosProbability);
+          _mutableBloomFilterMap.put(column, bloomFilter);
+          _bloomFilterMap.put(column, new BloomFilterReader(bloomFilter));
+        }
+      }
     }
 
     // Metric aggregation can be enabled only if config is specified, and all dimensions have dictionary,
@@ -198,6 +223,7 @@ public class MutableSegmentImpl implements MutableSegment {
   public boolean index(GenericRow row) {
     // Update dictionary first
     Map<String, Object> dictIdMap = updateDictionary(row);
+    updateBloomFilter(row);
 
     int numDocs = _numDocsIndexed;
 
@@ -264,6 +290,20 @@ public class MutableSegmentImpl implements MutableSegment {
     return dictIdMap;
   }
 
+  private void updateBloomFilter(GenericRow row) {
+    for (Map.Entry<String, BloomFilter> entry : _mutableBloomFilterMap.entrySet()) {
+      Object value = row.getValue(entry.getKey());
+      BloomFilter bloomFilter = entry.getValue();
+      if (value instanceof Object[]) {
+        for (Object object : (Object[]) value) {
+          bloomFilter.add(object);
+        }
+      } else {
+        bloomFilter.add(value);
+      }
+    }
+  }
+
   private void addForwardIndex(GenericRow row, int docId, Map<String, Object> dictIdMap) {
     // Store dictionary Id(s) for columns with dictionary
     for (FieldSpec fieldSpec : _schema.getAllFieldSpecs()) {
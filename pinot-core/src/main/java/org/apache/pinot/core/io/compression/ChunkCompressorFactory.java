@@ -28,8 +28,12 @@ public class ChunkCompressorFactory {
 
   }
 
+  /**
+   * NOTE: the value is persisted in the header of the raw index, and readers resolve it by ordinal, so new compression
+   * types must be appended with the next value.
+   */
   public enum CompressionType {
-    PASS_THROUGH(0), SNAPPY(1);
+    PASS_THROUGH(0), SNAPPY(1), LZ4(2), DEFLATE(3);
 
     private final int _value;
 
@@ -57,6 +61,12 @@ public class ChunkCompressorFactory {
       case SNAPPY:
         return new SnappyCompressor();
 
+      case LZ4:
+        return new LZ4Compressor();
+
+      case DEFLATE:
+        return new DeflateCompressor();
+
       default:
         throw new IllegalArgumentException("Illegal compressor name " + compressionType);
     }
@@ -76,6 +86,12 @@ public class ChunkCompressorFactory {
       case SNAPPY:
         return new SnappyDecompressor();
 
+      case LZ4:
+        return new LZ4Decompressor();
+
+      case DEFLATE:
+        return new DeflateDecompressor();
+
       default:
         throw new IllegalArgumentException("Illegal compressor name " + compressionType);
     }
@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.io.compression;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+
+/**
+ * Implementation of {@link ChunkCompressor} using DEFLATE (zlib), which gives a higher compression ratio than Snappy
+ * and LZ4 at the cost of slower decompression. This is useful for large and rarely accessed columns where the storage
+ * and page cache footprint matters more than the decompression speed.
+ * <p>The data is copied through reusable buffers as {@link Deflater} only works on byte arrays. The compressor is
+ * used by a single writer, hence not thread-safe.
+ */
+public class DeflateCompressor implements ChunkCompressor {
+  private final Deflater _deflater = new Deflater();
+
+  private byte[] _uncompressed = new byte[0];
+  private byte[] _compressed = new byte[0];
+
+  @Override
+  public int compress(ByteBuffer inUncompressed, ByteBuffer outCompressed)
+      throws IOException {
+    int uncompressedSize = inUncompressed.remaining();
+    if (_uncompressed.length < uncompressedSize) {
+      _uncompressed = new byte[uncompressedSize];
+      // Incompressible data only grows by a few bytes per 16KB block
+      _compressed = new byte[uncompressedSize + (uncompressedSize >> 10) + 64];
+    }
+    inUncompressed.get(_uncompressed, 0, uncompressedSize);
+
+    _deflater.reset();
+    _deflater.setInput(_uncompressed, 0, uncompressedSize);
+    _deflater.finish();
+    int compressedSize = 0;
+    while (!_deflater.finished()) {
+      if (compressedSize == _compressed.length) {
+        _compressed = Arrays.copyOf(_compressed, _compressed.length * 2);
+      }
+      compressedSize += _deflater.deflate(_compressed, compressedSize, _compressed.length - compressedSize);
+    }
+    outCompressed.put(_compressed, 0, compressedSize);
+
+    // Make the output ByteBuffer ready for read.
+    outCompressed.flip();
+    return compressedSize;
+  }
+}
@@ -0,0 +1,68 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.io.compression;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+
+/**
+ * Implementation of {@link ChunkDecompressor} using DEFLATE (zlib).
+ * <p>The decompressor is shared by all the threads reading the same column, so the {@link Inflater} and the buffers
+ * used to copy the data from and to byte arrays are thread-local.
+ */
+public class DeflateDecompressor implements ChunkDecompressor {
+  private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+  private static final ThreadLocal<byte[][]> BUFFERS = ThreadLocal.withInitial(() -> new byte[2][0]);
+
+  @Override
+  public int decompress(ByteBuffer compressedInput, ByteBuffer decompressedOutput)
+      throws IOException {
+    byte[][] buffers = BUFFERS.get();
+    int compressedSize = compressedInput.remaining();
+    if (buffers[0].length < compressedSize) {
+      buffers[0] = new byte[compressedSize];
+    }
+    compressedInput.get(buffers[0], 0, compressedSize);
+
+    int maxDecompressedSize = decompressedOutput.remaining();
+    if (buffers[1].length < maxDecompressedSize) {
+      buffers[1] = new byte[maxDecompressedSize];
+    }
+    Inflater inflater = INFLATER.get();
+    inflater.reset();
+    inflater.setInput(buffers[0], 0, compressedSize);
+    int decompressedSize;
+    try {
+      decompressedSize = inflater.inflate(buffers[1], 0, maxDecompressedSize);
+    } catch (DataFormatException e) {
+      throw new IOException("Caught exception while decompressing DEFLATE chunk", e);
+    }
+    if (!inflater.finished()) {
+      throw new IOException("Decompressed DEFLATE chunk does not fit into buffer of size: " + maxDecompressedSize);
+    }
+    decompressedOutput.put(buffers[1], 0, decompressedSize);
+
+    // Flip the output ByteBuffer for reading.
+    decompressedOutput.flip();
+    return decompressedSize;
+  }
+}
@@ -0,0 +1,58 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.io.compression;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import net.jpountz.lz4.LZ4Factory;
+
+
+/**
+ * Implementation of {@link ChunkCompressor} using LZ4, which trades some compression ratio for very fast
+ * decompression.
+ * <p>The LZ4 library only works on byte arrays, so the data is copied through reusable buffers. The compressor is
+ * used by a single writer, hence not thread-safe.
+ */
+public class LZ4Compressor implements ChunkCompressor {
+  private static final net.jpountz.lz4.LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+
+  private byte[] _uncompressed = new byte[0];
+  private byte[] _compressed = new byte[0];
+
+  @Override
+  public int compress(ByteBuffer inUncompressed, ByteBuffer outCompressed)
+      throws IOException {
+    int uncompressedSize = inUncompressed.remaining();
+    if (_uncompressed.length < uncompressedSize) {
+      _uncompressed = new byte[uncompressedSize];
+    }
+    inUncompressed.get(_uncompressed, 0, uncompressedSize);
+
+    int maxCompressedSize = COMPRESSOR.maxCompressedLength(uncompressedSize);
+    if (_compressed.length < maxCompressedSize) {
+      _compressed = new byte[maxCompressedSize];
+    }
+    int compressedSize = COMPRESSOR.compress(_uncompressed, 0, uncompressedSize, _compressed, 0, maxCompressedSize);
+    outCompressed.put(_compressed, 0, compressedSize);
+
+    // Make the output ByteBuffer ready for read.
+    outCompressed.flip();
+    return compressedSize;
+  }
+}
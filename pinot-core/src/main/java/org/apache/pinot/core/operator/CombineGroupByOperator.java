@@ -34,6 +34,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.pinot.common.exception.QueryException;
 import org.apache.pinot.common.request.BrokerRequest;
 import org.apache.pinot.common.response.ProcessingException;
+import org.apache.pinot.core.common.BlockBufferPool;
 import org.apache.pinot.core.common.Operator;
 import org.apache.pinot.core.operator.blocks.IntermediateResultsBlock;
 import org.apache.pinot.core.query.aggregation.AggregationFunctionContext;
@@ -116,8 +117,15 @@ public class CombineGroupByOperator extends BaseOperator<IntermediateResultsBloc
           AggregationGroupByResult aggregationGroupByResult;
 
           try {
-            IntermediateResultsBlock intermediateResultsBlock =
-                (IntermediateResultsBlock) _operators.get(index).nextBlock();
+            IntermediateResultsBlock intermediateResultsBlock;
+            // Return the leased block buffers to the pool after processing the segment
+            BlockBufferPool bufferPool = BlockBufferPool.getThreadLocalPool();
+            bufferPool.open();
+            try {
+              intermediateResultsBlock = (IntermediateResultsBlock) _operators.get(index).nextBlock();
+            } finally {
+              bufferPool.close();
+            }
 
             // Merge processing exceptions.
             List<ProcessingException> processingExceptionsToMerge = intermediateResultsBlock.getProcessingExceptions();
@@ -171,13 +179,27 @@ public class CombineGroupByOperator extends BaseOperator<IntermediateResultsBloc
         return new IntermediateResultsBlock(new TimeoutException(errorMessage));
       }
 
-      // Trim the results map.
+      // Index the combined groups by group id, and store the intermediate results for each aggregation function.
+      int numCombinedGroups = resultsMap.size();
+      String[] groupKeys = new String[numCombinedGroups];
+      Object[][] intermediateResults = new Object[numAggregationFunctions][numCombinedGroups];
+      int groupId = 0;
+      for (Map.Entry<String, Object[]> entry : resultsMap.entrySet()) {
+        groupKeys[groupId] = entry.getKey();
+        Object[] results = entry.getValue();
+        for (int i = 0; i < numAggregationFunctions; i++) {
+          intermediateResults[i][groupId] = results[i];
+        }
+        groupId++;
+      }
+
+      // Trim the results, the surviving groups are serialized directly into the data table.
       AggregationGroupByTrimmingService aggregationGroupByTrimmingService =
           new AggregationGroupByTrimmingService(aggregationFunctions, (int) _brokerRequest.getGroupBy().getTopN());
-      List<Map<String, Object>> trimmedResults =
-          aggregationGroupByTrimmingService.trimIntermediateResultsMap(resultsMap);
+      int[][] trimmedGroupIds =
+          aggregationGroupByTrimmingService.trimIntermediateResults(intermediateResults, numCombinedGroups);
       IntermediateResultsBlock mergedBlock =
-          new IntermediateResultsBlock(aggregationFunctionContexts, trimmedResults, true);
+          new IntermediateResultsBlock(aggregationFunctionContexts, groupKeys, intermediateResults, trimmedGroupIds);
 
       // Set the processing exceptions.
       if (!mergedProcessingExceptions.isEmpty()) {
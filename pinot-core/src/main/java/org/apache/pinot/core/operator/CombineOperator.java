@@ -27,11 +27,16 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.pinot.common.exception.QueryException;
 import org.apache.pinot.common.request.BrokerRequest;
+import org.apache.pinot.common.request.Selection;
 import org.apache.pinot.core.common.Block;
+import org.apache.pinot.core.common.BlockBufferPool;
 import org.apache.pinot.core.common.Operator;
 import org.apache.pinot.core.operator.blocks.IntermediateResultsBlock;
+import org.apache.pinot.core.operator.query.DictionaryBasedAggregationOperator;
+import org.apache.pinot.core.operator.query.MetadataBasedAggregationOperator;
 import org.apache.pinot.core.query.reduce.CombineService;
 import org.apache.pinot.core.util.trace.TraceCallable;
 import org.apache.pinot.core.util.trace.TraceRunnable;
@@ -41,6 +46,8 @@ import org.slf4j.LoggerFactory;
 
 /**
  * The <code>CombineOperator</code> class is the operator to combine selection results and aggregation only results.
+ * <p>For selection only queries, the remaining segments are not processed once enough rows have been collected across
+ * all the segments. Operators answering from the segment metadata or dictionaries are combined on the current thread.
  */
 public class CombineOperator extends BaseOperator<IntermediateResultsBlock> {
   private static final Logger LOGGER = LoggerFactory.getLogger(CombineOperator.class);
@@ -50,6 +57,8 @@ public class CombineOperator extends BaseOperator<IntermediateResultsBlock> {
   private final BrokerRequest _brokerRequest;
   private final ExecutorService _executorService;
   private final long _timeOutMs;
+  // Number of rows to collect for selection only queries, or -1 if all the segments need to be processed
+  private final long _numRowsToCollect;
   //Make this configurable
   //These two control the parallelism on a per query basis, depending on the number of segments to process
   private static final int MIN_THREADS_PER_QUERY;
@@ -69,10 +78,23 @@ public class CombineOperator extends BaseOperator<IntermediateResultsBlock> {
     _executorService = executorService;
     _brokerRequest = brokerRequest;
     _timeOutMs = timeOutMs;
+
+    Selection selection = brokerRequest.getSelections();
+    if (selection != null && !selection.isSetSelectionSortSequence()) {
+      _numRowsToCollect = selection.getSize();
+    } else {
+      _numRowsToCollect = -1;
+    }
   }
 
   @Override
   protected IntermediateResultsBlock getNextBlock() {
+    if (isMetadataBased()) {
+      IntermediateResultsBlock mergedBlock = combineOnCurrentThread();
+      setExecutionStatistics(mergedBlock);
+      return mergedBlock;
+    }
+
     final long startTime = System.currentTimeMillis();
     final long queryEndTime = System.currentTimeMillis() + _timeOutMs;
     final int numOperators = _operators.size();
@@ -89,6 +111,8 @@ public class CombineOperator extends BaseOperator<IntermediateResultsBlock> {
     }
 
     final BlockingQueue<Block> blockingQueue = new ArrayBlockingQueue<>(numGroups);
+    // Number of rows collected across all the segments for selection only queries
+    final AtomicLong numRowsCollected = new AtomicLong();
     // Submit operators.
     for (final List<Operator> operatorGroup : operatorGroups) {
       _executorService.submit(new TraceRunnable() {
@@ -97,7 +121,23 @@ public class CombineOperator extends BaseOperator<IntermediateResultsBlock> {
           IntermediateResultsBlock mergedBlock = null;
           try {
             for (Operator operator : operatorGroup) {
-              IntermediateResultsBlock blockToMerge = (IntermediateResultsBlock) operator.nextBlock();
+              // Skip the remaining segments once enough rows have been collected (always process the first segment
+              // so that each group has a result block)
+              if (mergedBlock != null && _numRowsToCollect >= 0 && numRowsCollected.get() >= _numRowsToCollect) {
+                break;
+              }
+              IntermediateResultsBlock blockToMerge;
+              // Return the leased block buffers to the pool after processing each segment
+              BlockBufferPool bufferPool = BlockBufferPool.getThreadLocalPool();
+              bufferPool.open();
+              try {
+                blockToMerge = (IntermediateResultsBlock) operator.nextBlock();
+              } finally {
+                bufferPool.close();
+              }
+              if (_numRowsToCollect >= 0 && blockToMerge.getSelectionResult() != null) {
+                numRowsCollected.addAndGet(blockToMerge.getSelectionResult().size());
+              }
               if (mergedBlock == null) {
                 mergedBlock = blockToMerge;
               } else {
@@ -177,6 +217,51 @@ public class CombineOperator extends BaseOperator<IntermediateResultsBlock> {
           new IntermediateResultsBlock(QueryException.getException(QueryException.EXECUTION_TIMEOUT_ERROR, e));
     }
 
+    setExecutionStatistics(mergedBlock);
+    return mergedBlock;
+  }
+
+  /**
+   * Returns whether all the operators answer the query from the segment metadata or dictionaries, in which case the
+   * segments can be combined without the overhead of scheduling tasks.
+   */
+  private boolean isMetadataBased() {
+    if (_operators.isEmpty()) {
+      return false;
+    }
+    for (Operator operator : _operators) {
+      if (!(operator instanceof MetadataBasedAggregationOperator)
+          && !(operator instanceof DictionaryBasedAggregationOperator)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private IntermediateResultsBlock combineOnCurrentThread() {
+    IntermediateResultsBlock mergedBlock = null;
+    try {
+      for (Operator operator : _operators) {
+        IntermediateResultsBlock blockToMerge = (IntermediateResultsBlock) operator.nextBlock();
+        if (mergedBlock == null) {
+          mergedBlock = blockToMerge;
+        } else {
+          try {
+            CombineService.mergeTwoBlocks(_brokerRequest, mergedBlock, blockToMerge);
+          } catch (Exception e) {
+            LOGGER.error("Caught exception while merging two blocks.", e);
+            mergedBlock.addToProcessingExceptions(QueryException.getException(QueryException.MERGE_RESPONSE_ERROR, e));
+          }
+        }
+      }
+    } catch (Exception e) {
+      LOGGER.error("Caught exception while executing query.", e);
+      mergedBlock = new IntermediateResultsBlock(e);
+    }
+    return mergedBlock;
+  }
+
+  private void setExecutionStatistics(IntermediateResultsBlock mergedBlock) {
     // Update execution statistics.
     ExecutionStatistics executionStatistics = new ExecutionStatistics();
     for (Operator operator : _operators) {
@@ -191,8 +276,6 @@ public class CombineOperator extends BaseOperator<IntermediateResultsBlock> {
     mergedBlock.setNumTotalRawDocs(executionStatistics.getNumTotalRawDocs());
     mergedBlock.setNumSegmentsProcessed(executionStatistics.getNumSegmentsProcessed());
     mergedBlock.setNumSegmentsMatched(executionStatistics.getNumSegmentsMatched());
-
-    return mergedBlock;
   }
 
   @Override
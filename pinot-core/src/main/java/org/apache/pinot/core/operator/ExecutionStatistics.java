@@ -42,6 +42,19 @@ public class ExecutionStatistics {
     _numSegmentsMatched = (numDocsScanned == 0) ? 0 : 1;
   }
 
+  /**
+   * Returns the execution statistics for a segment that was not processed (e.g. skipped once enough rows have been
+   * collected). Such segment only contributes its total docs, and is not counted as processed or matched.
+   *
+   * @param numTotalRawDocs total number of raw docs in the segment.
+   * @return execution statistics for the unprocessed segment.
+   */
+  public static ExecutionStatistics forUnprocessedSegment(long numTotalRawDocs) {
+    ExecutionStatistics executionStatistics = new ExecutionStatistics();
+    executionStatistics._numTotalRawDocs = numTotalRawDocs;
+    return executionStatistics;
+  }
+
   public long getNumDocsScanned() {
     return _numDocsScanned;
   }
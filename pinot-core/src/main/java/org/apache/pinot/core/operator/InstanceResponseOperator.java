@@ -27,14 +27,18 @@ public class InstanceResponseOperator extends BaseOperator<InstanceResponseBlock
   private static final String OPERATOR_NAME = "InstanceResponseOperator";
 
   private final Operator _operator;
+  private final boolean _distinctCountBitmapSupported;
 
-  public InstanceResponseOperator(Operator combinedOperator) {
+  public InstanceResponseOperator(Operator combinedOperator, boolean distinctCountBitmapSupported) {
     _operator = combinedOperator;
+    _distinctCountBitmapSupported = distinctCountBitmapSupported;
   }
 
   @Override
   protected InstanceResponseBlock getNextBlock() {
-    return new InstanceResponseBlock((IntermediateResultsBlock) _operator.nextBlock());
+    IntermediateResultsBlock intermediateResultsBlock = (IntermediateResultsBlock) _operator.nextBlock();
+    intermediateResultsBlock.setDistinctCountBitmapSupported(_distinctCountBitmapSupported);
+    return new InstanceResponseBlock(intermediateResultsBlock);
   }
 
   @Override
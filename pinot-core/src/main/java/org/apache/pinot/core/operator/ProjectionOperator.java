@@ -72,6 +72,8 @@ public class ProjectionOperator extends BaseOperator<ProjectionBlock> {
     if (docIdSetBlock == null) {
       return null;
     } else {
+      // NOTE: The buffers of the data block cache are reused for all the blocks of the segment, so they are returned to
+      // the BlockBufferPool by the combine operators after the segment is processed, instead of per block
       _dataBlockCache.initNewBlock(docIdSetBlock.getDocIdSet(), docIdSetBlock.getSearchableLength());
       return new ProjectionBlock(_dataBlockMap, _dataBlockCache, docIdSetBlock);
     }
@@ -21,6 +21,7 @@ package org.apache.pinot.core.operator.blocks;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nonnull;
@@ -34,11 +35,15 @@ import org.apache.pinot.core.common.BlockDocIdSet;
 import org.apache.pinot.core.common.BlockDocIdValueSet;
 import org.apache.pinot.core.common.BlockMetadata;
 import org.apache.pinot.core.common.BlockValSet;
+import org.apache.pinot.core.common.ObjectSerDeUtils;
 import org.apache.pinot.core.common.datatable.DataTableBuilder;
 import org.apache.pinot.core.common.datatable.DataTableImplV2;
 import org.apache.pinot.core.query.aggregation.AggregationFunctionContext;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunctionType;
+import org.apache.pinot.core.query.aggregation.function.DistinctCountAggregationFunction;
 import org.apache.pinot.core.query.aggregation.groupby.AggregationGroupByResult;
 import org.apache.pinot.core.query.selection.SelectionOperatorUtils;
+import org.roaringbitmap.RoaringBitmap;
 
 
 /**
@@ -51,6 +56,9 @@ public class IntermediateResultsBlock implements Block {
   private List<Object> _aggregationResult;
   private AggregationGroupByResult _aggregationGroupByResult;
   private List<Map<String, Object>> _combinedAggregationGroupByResult;
+  private String[] _groupKeys;
+  private Object[][] _groupByIntermediateResults;
+  private int[][] _trimmedGroupIds;
   private List<ProcessingException> _processingExceptions;
   private long _numDocsScanned;
   private long _numEntriesScannedInFilter;
@@ -59,6 +67,7 @@ public class IntermediateResultsBlock implements Block {
   private long _numSegmentsProcessed;
   private long _numSegmentsMatched;
   private boolean _numGroupsLimitReached;
+  private boolean _distinctCountBitmapSupported;
 
   /**
    * Constructor for selection result.
@@ -85,6 +94,22 @@ public class IntermediateResultsBlock implements Block {
     }
   }
 
+  /**
+   * Constructor for combined aggregation group-by result.
+   *
+   * @param aggregationFunctionContexts Aggregation function contexts
+   * @param groupKeys Group keys indexed by group id
+   * @param groupByIntermediateResults Intermediate results for each aggregation function indexed by group id
+   * @param trimmedGroupIds Ids of the groups to keep for each aggregation function, or <code>null</code> to keep all
+   */
+  public IntermediateResultsBlock(@Nonnull AggregationFunctionContext[] aggregationFunctionContexts,
+      @Nonnull String[] groupKeys, @Nonnull Object[][] groupByIntermediateResults, @Nullable int[][] trimmedGroupIds) {
+    _aggregationFunctionContexts = aggregationFunctionContexts;
+    _groupKeys = groupKeys;
+    _groupByIntermediateResults = groupByIntermediateResults;
+    _trimmedGroupIds = trimmedGroupIds;
+  }
+
   /**
    * Constructor for aggregation group-by result with {@link AggregationGroupByResult}.
    */
@@ -202,6 +227,14 @@ public class IntermediateResultsBlock implements Block {
     _numGroupsLimitReached = numGroupsLimitReached;
   }
 
+  /**
+   * Sets whether the broker can read the DISTINCTCOUNT intermediate results as bitmaps. If not, they are serialized as
+   * value sets, which can be read by the brokers of all versions.
+   */
+  public void setDistinctCountBitmapSupported(boolean distinctCountBitmapSupported) {
+    _distinctCountBitmapSupported = distinctCountBitmapSupported;
+  }
+
   @Nonnull
   public DataTable getDataTable()
       throws Exception {
@@ -213,7 +246,7 @@ public class IntermediateResultsBlock implements Block {
       return getAggregationResultDataTable();
     }
 
-    if (_combinedAggregationGroupByResult != null) {
+    if (_combinedAggregationGroupByResult != null || _groupKeys != null) {
       return getAggregationGroupByResultDataTable();
     }
 
@@ -256,7 +289,11 @@ public class IntermediateResultsBlock implements Block {
           dataTableBuilder.setColumn(i, ((Double) _aggregationResult.get(i)).doubleValue());
           break;
         case OBJECT:
-          dataTableBuilder.setColumn(i, _aggregationResult.get(i));
+          Object aggregationResult = _aggregationResult.get(i);
+          if (!_distinctCountBitmapSupported && aggregationResult instanceof RoaringBitmap) {
+            aggregationResult = DistinctCountAggregationFunction.convertToValueSet((RoaringBitmap) aggregationResult);
+          }
+          dataTableBuilder.setColumn(i, aggregationResult);
           break;
         default:
           throw new UnsupportedOperationException(
@@ -283,7 +320,35 @@ public class IntermediateResultsBlock implements Block {
       dataTableBuilder.startRow();
       AggregationFunctionContext aggregationFunctionContext = _aggregationFunctionContexts[i];
       dataTableBuilder.setColumn(0, aggregationFunctionContext.getAggregationColumnName());
-      dataTableBuilder.setColumn(1, _combinedAggregationGroupByResult.get(i));
+      boolean convertToValueSet = !_distinctCountBitmapSupported && isDistinctCount(aggregationFunctionContext);
+      if (_groupKeys != null) {
+        // Directly serialize the surviving groups as the map from group key to intermediate result
+        int[] groupIds = _trimmedGroupIds != null ? _trimmedGroupIds[i] : null;
+        int numGroups = groupIds != null ? groupIds.length : _groupKeys.length;
+        Object[] intermediateResults = _groupByIntermediateResults[i];
+        if (convertToValueSet) {
+          Object[] valueSets = new Object[intermediateResults.length];
+          for (int j = 0; j < numGroups; j++) {
+            int groupId = groupIds != null ? groupIds[j] : j;
+            valueSets[groupId] =
+                DistinctCountAggregationFunction.convertToValueSet((RoaringBitmap) intermediateResults[groupId]);
+          }
+          intermediateResults = valueSets;
+        }
+        dataTableBuilder.setColumn(1, ObjectSerDeUtils.ObjectType.Map,
+            ObjectSerDeUtils.serializeAsMap(_groupKeys, intermediateResults, numGroups, groupIds));
+      } else {
+        Map<String, Object> intermediateResultMap = _combinedAggregationGroupByResult.get(i);
+        if (convertToValueSet) {
+          Map<String, Object> valueSetMap = new HashMap<>();
+          for (Map.Entry<String, Object> entry : intermediateResultMap.entrySet()) {
+            valueSetMap.put(entry.getKey(),
+                DistinctCountAggregationFunction.convertToValueSet((RoaringBitmap) entry.getValue()));
+          }
+          intermediateResultMap = valueSetMap;
+        }
+        dataTableBuilder.setColumn(1, intermediateResultMap);
+      }
       dataTableBuilder.finishRow();
     }
     DataTable dataTable = dataTableBuilder.build();
@@ -291,6 +356,12 @@ public class IntermediateResultsBlock implements Block {
     return attachMetadataToDataTable(dataTable);
   }
 
+  private static boolean isDistinctCount(AggregationFunctionContext aggregationFunctionContext) {
+    AggregationFunctionType functionType = aggregationFunctionContext.getAggregationFunction().getType();
+    return functionType == AggregationFunctionType.DISTINCTCOUNT
+        || functionType == AggregationFunctionType.DISTINCTCOUNTMV;
+  }
+
   private DataTable getProcessingExceptionsDataTable() {
     return attachMetadataToDataTable(new DataTableImplV2());
   }
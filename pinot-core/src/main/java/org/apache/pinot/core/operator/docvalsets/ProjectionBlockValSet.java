@@ -18,10 +18,12 @@
  */
 package org.apache.pinot.core.operator.docvalsets;
 
+import javax.annotation.Nullable;
 import org.apache.pinot.common.data.FieldSpec;
 import org.apache.pinot.core.common.BaseBlockValSet;
 import org.apache.pinot.core.common.DataBlockCache;
 import org.apache.pinot.core.operator.ProjectionOperator;
+import org.apache.pinot.core.segment.index.readers.Dictionary;
 
 
 /**
@@ -33,6 +35,7 @@ public class ProjectionBlockValSet extends BaseBlockValSet {
   private final DataBlockCache _dataBlockCache;
   private final String _column;
   private final FieldSpec.DataType _dataType;
+  private final Dictionary _dictionary;
 
   /**
    * Constructor for the class.
@@ -41,11 +44,20 @@ public class ProjectionBlockValSet extends BaseBlockValSet {
    *
    * @param dataBlockCache data block cache
    * @param column Projection column.
+   * @param dataType Data type of the column.
+   * @param dictionary Dictionary of the column, or null if the column is not dictionary-encoded.
    */
-  public ProjectionBlockValSet(DataBlockCache dataBlockCache, String column, FieldSpec.DataType dataType) {
+  public ProjectionBlockValSet(DataBlockCache dataBlockCache, String column, FieldSpec.DataType dataType,
+      @Nullable Dictionary dictionary) {
     _dataBlockCache = dataBlockCache;
     _column = column;
     _dataType = dataType;
+    _dictionary = dictionary;
+  }
+
+  @Override
+  public Dictionary getDictionary() {
+    return _dictionary;
   }
 
   @Override
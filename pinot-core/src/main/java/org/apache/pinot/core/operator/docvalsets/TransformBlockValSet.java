@@ -23,6 +23,7 @@ import org.apache.pinot.core.operator.blocks.ProjectionBlock;
 import org.apache.pinot.core.operator.transform.TransformResultMetadata;
 import org.apache.pinot.core.operator.transform.function.TransformFunction;
 import org.apache.pinot.core.plan.DocIdSetPlanNode;
+import org.apache.pinot.core.segment.index.readers.Dictionary;
 
 
 /**
@@ -41,6 +42,11 @@ public class TransformBlockValSet extends BaseBlockValSet {
     _transformFunction = transformFunction;
   }
 
+  @Override
+  public Dictionary getDictionary() {
+    return _transformFunction.getResultMetadata().hasDictionary() ? _transformFunction.getDictionary() : null;
+  }
+
   @Override
   public int[] getDictionaryIdsSV() {
     return _transformFunction.transformToDictIdsSV(_projectionBlock);
@@ -0,0 +1,205 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.filter;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.apache.pinot.common.request.transform.TransformExpressionTree;
+import org.apache.pinot.core.common.DataSource;
+import org.apache.pinot.core.common.Predicate;
+import org.apache.pinot.core.indexsegment.IndexSegment;
+import org.apache.pinot.core.operator.DocIdSetOperator;
+import org.apache.pinot.core.operator.ProjectionOperator;
+import org.apache.pinot.core.operator.blocks.FilterBlock;
+import org.apache.pinot.core.operator.blocks.ProjectionBlock;
+import org.apache.pinot.core.operator.docidsets.BitmapDocIdSet;
+import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluatorProvider;
+import org.apache.pinot.core.operator.transform.TransformResultMetadata;
+import org.apache.pinot.core.operator.transform.function.TransformFunction;
+import org.apache.pinot.core.operator.transform.function.TransformFunctionFactory;
+import org.apache.pinot.core.plan.DocIdSetPlanNode;
+import org.apache.pinot.core.query.exception.BadQueryRequestException;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+
+
+/**
+ * Filter operator for the predicate on a transform expression (e.g. WHERE div(foo, 1000) > 5) that cannot be rewritten
+ * into a predicate on the column. It evaluates the transform function on all the documents of the segment block by
+ * block, and applies a raw value based predicate evaluator on the results.
+ */
+public class ExpressionFilterOperator extends BaseFilterOperator {
+  private static final String OPERATOR_NAME = "ExpressionFilterOperator";
+
+  private final Map<String, DataSource> _dataSourceMap = new HashMap<>();
+  private final TransformFunction _transformFunction;
+  private final PredicateEvaluator _predicateEvaluator;
+  private final int _numDocs;
+
+  public ExpressionFilterOperator(IndexSegment segment, TransformExpressionTree expression, Predicate predicate,
+      int numDocs) {
+    Set<String> columns = new HashSet<>();
+    expression.getColumns(columns);
+    for (String column : columns) {
+      DataSource dataSource = segment.getDataSource(column);
+      if (dataSource == null) {
+        throw new BadQueryRequestException("Failed to find column: " + column + " in the filter expression");
+      }
+      _dataSourceMap.put(column, dataSource);
+    }
+    _transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    _predicateEvaluator = PredicateEvaluatorProvider.getRawValueBasedPredicateEvaluator(predicate,
+        _transformFunction.getResultMetadata().getDataType());
+    _numDocs = numDocs;
+  }
+
+  @Override
+  protected FilterBlock getNextBlock() {
+    MutableRoaringBitmap matchingDocIds = new MutableRoaringBitmap();
+    ProjectionOperator projectionOperator = new ProjectionOperator(_dataSourceMap,
+        new DocIdSetOperator(new MatchAllFilterOperator(_numDocs), DocIdSetPlanNode.MAX_DOC_PER_CALL));
+    ProjectionBlock projectionBlock;
+    while ((projectionBlock = projectionOperator.nextBlock()) != null) {
+      addMatchingDocIds(projectionBlock, matchingDocIds);
+    }
+    return new FilterBlock(new ScannedBitmapDocIdSet(matchingDocIds, _numDocs));
+  }
+
+  private void addMatchingDocIds(ProjectionBlock projectionBlock, MutableRoaringBitmap matchingDocIds) {
+    int[] docIds = projectionBlock.getDocIdSetBlock().getDocIdSet();
+    int numDocs = projectionBlock.getNumDocs();
+    TransformResultMetadata resultMetadata = _transformFunction.getResultMetadata();
+    if (resultMetadata.isSingleValue()) {
+      switch (resultMetadata.getDataType()) {
+        case INT:
+          int[] intValues = _transformFunction.transformToIntValuesSV(projectionBlock);
+          for (int i = 0; i < numDocs; i++) {
+            if (_predicateEvaluator.applySV(intValues[i])) {
+              matchingDocIds.add(docIds[i]);
+            }
+          }
+          break;
+        case LONG:
+          long[] longValues = _transformFunction.transformToLongValuesSV(projectionBlock);
+          for (int i = 0; i < numDocs; i++) {
+            if (_predicateEvaluator.applySV(longValues[i])) {
+              matchingDocIds.add(docIds[i]);
+            }
+          }
+          break;
+        case FLOAT:
+          float[] floatValues = _transformFunction.transformToFloatValuesSV(projectionBlock);
+          for (int i = 0; i < numDocs; i++) {
+            if (_predicateEvaluator.applySV(floatValues[i])) {
+              matchingDocIds.add(docIds[i]);
+            }
+          }
+          break;
+        case DOUBLE:
+          double[] doubleValues = _transformFunction.transformToDoubleValuesSV(projectionBlock);
+          for (int i = 0; i < numDocs; i++) {
+            if (_predicateEvaluator.applySV(doubleValues[i])) {
+              matchingDocIds.add(docIds[i]);
+            }
+          }
+          break;
+        case STRING:
+          String[] stringValues = _transformFunction.transformToStringValuesSV(projectionBlock);
+          for (int i = 0; i < numDocs; i++) {
+            if (_predicateEvaluator.applySV(stringValues[i])) {
+              matchingDocIds.add(docIds[i]);
+            }
+          }
+          break;
+        default:
+          throw new IllegalStateException();
+      }
+    } else {
+      switch (resultMetadata.getDataType()) {
+        case INT:
+          int[][] intValues = _transformFunction.transformToIntValuesMV(projectionBlock);
+          for (int i = 0; i < numDocs; i++) {
+            if (_predicateEvaluator.applyMV(intValues[i], intValues[i].length)) {
+              matchingDocIds.add(docIds[i]);
+            }
+          }
+          break;
+        case LONG:
+          long[][] longValues = _transformFunction.transformToLongValuesMV(projectionBlock);
+          for (int i = 0; i < numDocs; i++) {
+            if (_predicateEvaluator.applyMV(longValues[i], longValues[i].length)) {
+              matchingDocIds.add(docIds[i]);
+            }
+          }
+          break;
+        case FLOAT:
+          float[][] floatValues = _transformFunction.transformToFloatValuesMV(projectionBlock);
+          for (int i = 0; i < numDocs; i++) {
+            if (_predicateEvaluator.applyMV(floatValues[i], floatValues[i].length)) {
+              matchingDocIds.add(docIds[i]);
+            }
+          }
+          break;
+        case DOUBLE:
+          double[][] doubleValues = _transformFunction.transformToDoubleValuesMV(projectionBlock);
+          for (int i = 0; i < numDocs; i++) {
+            if (_predicateEvaluator.applyMV(doubleValues[i], doubleValues[i].length)) {
+              matchingDocIds.add(docIds[i]);
+            }
+          }
+          break;
+        case STRING:
+          String[][] stringValues = _transformFunction.transformToStringValuesMV(projectionBlock);
+          for (int i = 0; i < numDocs; i++) {
+            if (_predicateEvaluator.applyMV(stringValues[i], stringValues[i].length)) {
+              matchingDocIds.add(docIds[i]);
+            }
+          }
+          break;
+        default:
+          throw new IllegalStateException();
+      }
+    }
+  }
+
+  @Override
+  public String getOperatorName() {
+    return OPERATOR_NAME;
+  }
+
+  /**
+   * Bitmap doc id set that reports all the documents of the segment as scanned in filter.
+   */
+  private static class ScannedBitmapDocIdSet extends BitmapDocIdSet {
+    private final int _numDocsScanned;
+
+    ScannedBitmapDocIdSet(ImmutableRoaringBitmap bitmap, int numDocs) {
+      super(new ImmutableRoaringBitmap[]{bitmap}, 0, numDocs - 1, false);
+      _numDocsScanned = numDocs;
+    }
+
+    @Override
+    public long getNumEntriesScannedInFilter() {
+      return _numDocsScanned;
+    }
+  }
+}
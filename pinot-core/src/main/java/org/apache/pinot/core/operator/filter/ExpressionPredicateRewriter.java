@@ -0,0 +1,384 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.filter;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongPredicate;
+import javax.annotation.Nullable;
+import org.apache.pinot.common.data.FieldSpec.DataType;
+import org.apache.pinot.common.request.FilterOperator;
+import org.apache.pinot.common.request.transform.TransformExpressionTree;
+import org.apache.pinot.common.utils.request.FilterQueryTree;
+import org.apache.pinot.core.common.DataSourceMetadata;
+import org.apache.pinot.core.common.Predicate;
+import org.apache.pinot.core.common.predicate.RangePredicate;
+import org.apache.pinot.core.indexsegment.IndexSegment;
+import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluatorProvider;
+import org.apache.pinot.core.operator.transform.function.AdditionTransformFunction;
+import org.apache.pinot.core.operator.transform.function.DivisionTransformFunction;
+import org.apache.pinot.core.operator.transform.function.MultiplicationTransformFunction;
+import org.apache.pinot.core.operator.transform.function.SingleParamMathTransformFunction;
+import org.apache.pinot.core.operator.transform.function.SubtractionTransformFunction;
+import org.apache.pinot.core.operator.transform.function.TimeConversionTransformFunction;
+
+
+/**
+ * The <code>ExpressionPredicateRewriter</code> class rewrites the EQUALITY and RANGE predicates on a monotonic
+ * transform expression of a single-valued INT/LONG column (e.g. WHERE div(foo, 1000) > 5) into a predicate on the
+ * column (e.g. WHERE foo > 5000), so that the sorted index, inverted index and dictionary of the column can be used instead of
+ * evaluating the expression on all the documents.
+ * <p>The supported functions are add, sub, mult and div with literal operands, timeConvert with standard time units,
+ * and floor, ceil, exp, ln and sqrt. Because the expression is monotonic, the column values matching the predicate form
+ * a range, whose boundaries are searched with binary search by evaluating the expression on the column values the same
+ * way as the transform functions do, then verified with the predicate evaluator.
+ * <p>The predicate is not rewritten (and should be evaluated by the {@link ExpressionFilterOperator}) if the expression
+ * is not supported, or the matching column values are empty or not bounded.
+ */
+public class ExpressionPredicateRewriter {
+  private ExpressionPredicateRewriter() {
+  }
+
+  /**
+   * Rewrites the predicate on the given transform expression into a predicate on the column of the expression, or
+   * returns null if it cannot be rewritten.
+   */
+  @Nullable
+  public static FilterQueryTree rewrite(FilterQueryTree filterQueryTree, TransformExpressionTree expression,
+      IndexSegment segment) {
+    FilterOperator filterOperator = filterQueryTree.getOperator();
+    if (filterOperator != FilterOperator.EQUALITY && filterOperator != FilterOperator.RANGE) {
+      return null;
+    }
+    Set<String> columns = new HashSet<>();
+    expression.getColumns(columns);
+    if (columns.size() != 1) {
+      return null;
+    }
+    String column = columns.iterator().next();
+    if (!segment.getColumnNames().contains(column)) {
+      return null;
+    }
+    DataSourceMetadata dataSourceMetadata = segment.getDataSource(column).getDataSourceMetadata();
+    if (!dataSourceMetadata.isSingleValue()) {
+      return null;
+    }
+    long minValue;
+    long maxValue;
+    switch (dataSourceMetadata.getDataType()) {
+      case INT:
+        minValue = Integer.MIN_VALUE;
+        maxValue = Integer.MAX_VALUE;
+        break;
+      case LONG:
+        minValue = Long.MIN_VALUE;
+        maxValue = Long.MAX_VALUE;
+        break;
+      default:
+        return null;
+    }
+
+    try {
+      int direction = getDirection(expression);
+      if (direction == 0) {
+        return null;
+      }
+
+      // Parse the boundaries of the predicate
+      double lower;
+      boolean lowerInclusive;
+      double upper;
+      boolean upperInclusive;
+      if (filterOperator == FilterOperator.EQUALITY) {
+        lower = upper = Double.parseDouble(filterQueryTree.getValue().get(0));
+        lowerInclusive = upperInclusive = true;
+      } else {
+        RangePredicate rangePredicate = new RangePredicate(column, filterQueryTree.getValue());
+        String lowerBoundary = rangePredicate.getLowerBoundary();
+        lower = lowerBoundary.equals(RangePredicate.UNBOUNDED) ? Double.NEGATIVE_INFINITY
+            : Double.parseDouble(lowerBoundary);
+        lowerInclusive = rangePredicate.includeLowerBoundary();
+        String upperBoundary = rangePredicate.getUpperBoundary();
+        upper = upperBoundary.equals(RangePredicate.UNBOUNDED) ? Double.POSITIVE_INFINITY
+            : Double.parseDouble(upperBoundary);
+        upperInclusive = rangePredicate.includeUpperBoundary();
+      }
+
+      // NOTE: NaN (e.g. ln(-1)) is treated as negative infinity to keep the expression monotonic
+      LongPredicate aboveLower = value -> {
+        double result = evaluate(expression, value).doubleValue();
+        if (Double.isNaN(result)) {
+          result = Double.NEGATIVE_INFINITY;
+        }
+        return lowerInclusive ? result >= lower : result > lower;
+      };
+      LongPredicate belowUpper = value -> {
+        double result = evaluate(expression, value).doubleValue();
+        if (Double.isNaN(result)) {
+          result = Double.NEGATIVE_INFINITY;
+        }
+        return upperInclusive ? result <= upper : result < upper;
+      };
+
+      // Search the range of the matching column values
+      LongPredicate lowerMatch = direction > 0 ? aboveLower : belowUpper;
+      LongPredicate upperMismatch = direction > 0 ? belowUpper.negate() : aboveLower.negate();
+      if (!lowerMatch.test(maxValue)) {
+        return null;
+      }
+      long lowerValue = findFirst(minValue, maxValue, lowerMatch);
+      long upperValue;
+      if (upperMismatch.test(maxValue)) {
+        long firstMismatch = findFirst(minValue, maxValue, upperMismatch);
+        if (firstMismatch == minValue) {
+          return null;
+        }
+        upperValue = firstMismatch - 1;
+      } else {
+        upperValue = maxValue;
+      }
+      if (lowerValue > upperValue || (lowerValue == minValue && upperValue == maxValue)) {
+        return null;
+      }
+
+      // Verify the boundaries with the predicate evaluator
+      Predicate predicate = Predicate.newPredicate(filterQueryTree);
+      DataType resultDataType = evaluate(expression, lowerValue) instanceof Long ? DataType.LONG : DataType.DOUBLE;
+      PredicateEvaluator predicateEvaluator =
+          PredicateEvaluatorProvider.getRawValueBasedPredicateEvaluator(predicate, resultDataType);
+      if (!matches(predicateEvaluator, expression, lowerValue) || !matches(predicateEvaluator, expression, upperValue)
+          || (lowerValue != minValue && matches(predicateEvaluator, expression, lowerValue - 1)) || (
+          upperValue != maxValue && matches(predicateEvaluator, expression, upperValue + 1))) {
+        return null;
+      }
+
+      if (lowerValue == upperValue) {
+        return new FilterQueryTree(column, Collections.singletonList(Long.toString(lowerValue)),
+            FilterOperator.EQUALITY, null);
+      }
+      String lowerBoundary = lowerValue == minValue ? RangePredicate.LOWER_EXCLUSIVE + RangePredicate.UNBOUNDED
+          : RangePredicate.LOWER_INCLUSIVE + lowerValue;
+      String upperBoundary = upperValue == maxValue ? RangePredicate.UNBOUNDED + RangePredicate.UPPER_EXCLUSIVE
+          : upperValue + RangePredicate.UPPER_INCLUSIVE;
+      return new FilterQueryTree(column,
+          Collections.singletonList(lowerBoundary + RangePredicate.DELIMITER + upperBoundary), FilterOperator.RANGE,
+          null);
+    } catch (Exception e) {
+      // Fall back to evaluate the expression (e.g. non-numeric predicate value)
+      return null;
+    }
+  }
+
+  /**
+   * Returns the first value in [minValue, maxValue] that matches the predicate, where the predicate is monotonic (does
+   * not match for all the values before the first matching value, and matches for all the values after it) and matches
+   * the max value.
+   */
+  private static long findFirst(long minValue, long maxValue, LongPredicate predicate) {
+    long low = minValue;
+    long high = maxValue;
+    while (low < high) {
+      // Overflow-safe mid point rounding towards negative infinity
+      long mid = (low & high) + ((low ^ high) >> 1);
+      if (predicate.test(mid)) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return low;
+  }
+
+  private static boolean matches(PredicateEvaluator predicateEvaluator, TransformExpressionTree expression,
+      long value) {
+    Number result = evaluate(expression, value);
+    if (result instanceof Long) {
+      return predicateEvaluator.applySV(result.longValue());
+    } else {
+      return predicateEvaluator.applySV(result.doubleValue());
+    }
+  }
+
+  /**
+   * Returns 1 if the expression is non-decreasing with the column value, -1 if it is non-increasing, or 0 if it is not
+   * supported.
+   */
+  private static int getDirection(TransformExpressionTree expression) {
+    switch (expression.getExpressionType()) {
+      case IDENTIFIER:
+        return 1;
+      case LITERAL:
+        return 0;
+      default:
+        break;
+    }
+    List<TransformExpressionTree> children = expression.getChildren();
+    int numChildren = children.size();
+    String functionName = expression.getValue();
+    if (functionName.equalsIgnoreCase(AdditionTransformFunction.FUNCTION_NAME)) {
+      TransformExpressionTree nonLiteralChild = getNonLiteralChild(children);
+      return nonLiteralChild != null ? getDirection(nonLiteralChild) : 0;
+    }
+    if (functionName.equalsIgnoreCase(SubtractionTransformFunction.FUNCTION_NAME)) {
+      if (numChildren != 2) {
+        return 0;
+      }
+      if (isLiteral(children.get(0))) {
+        return -getDirection(children.get(1));
+      } else {
+        return isLiteral(children.get(1)) ? getDirection(children.get(0)) : 0;
+      }
+    }
+    if (functionName.equalsIgnoreCase(MultiplicationTransformFunction.FUNCTION_NAME)) {
+      TransformExpressionTree nonLiteralChild = getNonLiteralChild(children);
+      double literalProduct = getLiteralProduct(children);
+      if (nonLiteralChild == null || literalProduct == 0 || Double.isNaN(literalProduct) || Double.isInfinite(
+          literalProduct)) {
+        return 0;
+      }
+      return literalProduct > 0 ? getDirection(nonLiteralChild) : -getDirection(nonLiteralChild);
+    }
+    if (functionName.equalsIgnoreCase(DivisionTransformFunction.FUNCTION_NAME)) {
+      if (numChildren != 2 || isLiteral(children.get(0)) || !isLiteral(children.get(1))) {
+        return 0;
+      }
+      double divisor = Double.parseDouble(children.get(1).getValue());
+      if (divisor == 0 || Double.isNaN(divisor) || Double.isInfinite(divisor)) {
+        return 0;
+      }
+      return divisor > 0 ? getDirection(children.get(0)) : -getDirection(children.get(0));
+    }
+    if (functionName.equalsIgnoreCase(TimeConversionTransformFunction.FUNCTION_NAME)) {
+      if (numChildren != 3 || isLiteral(children.get(0)) || !isLiteral(children.get(1)) || !isLiteral(
+          children.get(2))) {
+        return 0;
+      }
+      // Throws exception for non-standard time units
+      TimeUnit.valueOf(children.get(1).getValue().toUpperCase());
+      TimeUnit.valueOf(children.get(2).getValue().toUpperCase());
+      return getDirection(children.get(0));
+    }
+    if (isSingleParamMathFunction(functionName)) {
+      return numChildren == 1 ? getDirection(children.get(0)) : 0;
+    }
+    return 0;
+  }
+
+  /**
+   * Evaluates the expression on the column value the same way as the transform functions do. Returns a Long for the
+   * LONG results, or a Double for the DOUBLE results.
+   * <p>Should only be called on the expressions supported by {@link #getDirection(TransformExpressionTree)}.
+   */
+  private static Number evaluate(TransformExpressionTree expression, long value) {
+    if (expression.getExpressionType() == TransformExpressionTree.ExpressionType.IDENTIFIER) {
+      return value;
+    }
+    List<TransformExpressionTree> children = expression.getChildren();
+    String functionName = expression.getValue();
+    if (functionName.equalsIgnoreCase(AdditionTransformFunction.FUNCTION_NAME)) {
+      double literalSum = 0.0;
+      for (TransformExpressionTree child : children) {
+        if (isLiteral(child)) {
+          literalSum += Double.parseDouble(child.getValue());
+        }
+      }
+      return literalSum + evaluate(getNonLiteralChild(children), value).doubleValue();
+    }
+    if (functionName.equalsIgnoreCase(SubtractionTransformFunction.FUNCTION_NAME)) {
+      if (isLiteral(children.get(0))) {
+        return Double.parseDouble(children.get(0).getValue()) - evaluate(children.get(1), value).doubleValue();
+      } else {
+        return evaluate(children.get(0), value).doubleValue() - Double.parseDouble(children.get(1).getValue());
+      }
+    }
+    if (functionName.equalsIgnoreCase(MultiplicationTransformFunction.FUNCTION_NAME)) {
+      return getLiteralProduct(children) * evaluate(getNonLiteralChild(children), value).doubleValue();
+    }
+    if (functionName.equalsIgnoreCase(DivisionTransformFunction.FUNCTION_NAME)) {
+      return evaluate(children.get(0), value).doubleValue() / Double.parseDouble(children.get(1).getValue());
+    }
+    if (functionName.equalsIgnoreCase(TimeConversionTransformFunction.FUNCTION_NAME)) {
+      TimeUnit inputTimeUnit = TimeUnit.valueOf(children.get(1).getValue().toUpperCase());
+      TimeUnit outputTimeUnit = TimeUnit.valueOf(children.get(2).getValue().toUpperCase());
+      return outputTimeUnit.convert(evaluate(children.get(0), value).longValue(), inputTimeUnit);
+    }
+
+    // Single param math functions
+    Number argument = evaluate(children.get(0), value);
+    if (functionName.equalsIgnoreCase(SingleParamMathTransformFunction.CeilTransformFunction.FUNCTION_NAME)) {
+      return argument instanceof Long ? argument : Math.ceil(argument.doubleValue());
+    }
+    if (functionName.equalsIgnoreCase(SingleParamMathTransformFunction.FloorTransformFunction.FUNCTION_NAME)) {
+      return argument instanceof Long ? argument : Math.floor(argument.doubleValue());
+    }
+    if (functionName.equalsIgnoreCase(SingleParamMathTransformFunction.ExpTransformFunction.FUNCTION_NAME)) {
+      return Math.exp(argument.doubleValue());
+    }
+    if (functionName.equalsIgnoreCase(SingleParamMathTransformFunction.LnTransformFunction.FUNCTION_NAME)) {
+      return Math.log(argument.doubleValue());
+    }
+    if (functionName.equalsIgnoreCase(SingleParamMathTransformFunction.SqrtTransformFunction.FUNCTION_NAME)) {
+      return Math.sqrt(argument.doubleValue());
+    }
+    throw new IllegalStateException("Unsupported function: " + functionName);
+  }
+
+  private static boolean isSingleParamMathFunction(String functionName) {
+    return functionName.equalsIgnoreCase(SingleParamMathTransformFunction.CeilTransformFunction.FUNCTION_NAME)
+        || functionName.equalsIgnoreCase(SingleParamMathTransformFunction.FloorTransformFunction.FUNCTION_NAME)
+        || functionName.equalsIgnoreCase(SingleParamMathTransformFunction.ExpTransformFunction.FUNCTION_NAME)
+        || functionName.equalsIgnoreCase(SingleParamMathTransformFunction.LnTransformFunction.FUNCTION_NAME)
+        || functionName.equalsIgnoreCase(SingleParamMathTransformFunction.SqrtTransformFunction.FUNCTION_NAME);
+  }
+
+  private static boolean isLiteral(TransformExpressionTree expression) {
+    return expression.getExpressionType() == TransformExpressionTree.ExpressionType.LITERAL;
+  }
+
+  /**
+   * Returns the only non-literal child, or null if there is not exactly one non-literal child.
+   */
+  @Nullable
+  private static TransformExpressionTree getNonLiteralChild(List<TransformExpressionTree> children) {
+    TransformExpressionTree nonLiteralChild = null;
+    for (TransformExpressionTree child : children) {
+      if (!isLiteral(child)) {
+        if (nonLiteralChild != null) {
+          return null;
+        }
+        nonLiteralChild = child;
+      }
+    }
+    return nonLiteralChild;
+  }
+
+  private static double getLiteralProduct(List<TransformExpressionTree> children) {
+    double literalProduct = 1.0;
+    for (TransformExpressionTree child : children) {
+      if (isLiteral(child)) {
+        literalProduct *= Double.parseDouble(child.getValue());
+      }
+    }
+    return literalProduct;
+  }
+}
@@ -28,6 +28,7 @@ import org.apache.pinot.core.common.DataSource;
 import org.apache.pinot.core.common.DataSourceMetadata;
 import org.apache.pinot.core.common.Predicate;
 import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.RangePredicateEvaluatorFactory.OfflineDictionaryBasedRangePredicateEvaluator;
 
 
 public class FilterOperatorUtils {
@@ -53,11 +54,20 @@ public class FilterOperatorUtils {
     // TODO: make it exclusive
     int endDocId = numDocs - 1;
 
+    // Use range index for RANGE predicate on dictionary-encoded column
+    if (dataSource.getRangeIndex() != null
+        && predicateEvaluator instanceof OfflineDictionaryBasedRangePredicateEvaluator) {
+      return new RangeIndexBasedFilterOperator((OfflineDictionaryBasedRangePredicateEvaluator) predicateEvaluator,
+          dataSource, startDocId, endDocId);
+    }
+
     // Use inverted index if the predicate type is not RANGE or REGEXP_LIKE for efficiency
+    // NOTE: REGEXP_LIKE can use inverted index when the column has text index, which narrows down the dictionary values
+    //       to match against the regex
     DataSourceMetadata dataSourceMetadata = dataSource.getDataSourceMetadata();
     Predicate.Type predicateType = predicateEvaluator.getPredicateType();
-    if (dataSourceMetadata.hasInvertedIndex() && (predicateType != Predicate.Type.RANGE) && (predicateType
-        != Predicate.Type.REGEXP_LIKE)) {
+    if (dataSourceMetadata.hasInvertedIndex() && (predicateType != Predicate.Type.RANGE) && (
+        predicateType != Predicate.Type.REGEXP_LIKE || dataSource.getTextIndex() != null)) {
       if (dataSourceMetadata.isSorted()) {
         return new SortedInvertedIndexBasedFilterOperator(predicateEvaluator, dataSource, startDocId, endDocId);
       } else {
@@ -139,7 +149,8 @@ public class FilterOperatorUtils {
         if (filterOperator instanceof SortedInvertedIndexBasedFilterOperator) {
           return 0;
         }
-        if (filterOperator instanceof BitmapBasedFilterOperator) {
+        if (filterOperator instanceof BitmapBasedFilterOperator
+            || filterOperator instanceof RangeIndexBasedFilterOperator) {
           return 1;
         }
         if (filterOperator instanceof AndFilterOperator) {
@@ -151,6 +162,10 @@ public class FilterOperatorUtils {
         if (filterOperator instanceof ScanBasedFilterOperator) {
           return getScanBasedFilterPriority((ScanBasedFilterOperator) filterOperator, 4, debugOptions);
         }
+        if (filterOperator instanceof ExpressionFilterOperator) {
+          // Evaluates the transform expression on all the documents
+          return 6;
+        }
         throw new IllegalStateException(filterOperator.getClass().getSimpleName()
             + " should not be reordered, remove it from the list before calling this method");
       }
@@ -0,0 +1,131 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.filter;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.pinot.core.common.BlockMultiValIterator;
+import org.apache.pinot.core.common.BlockSingleValIterator;
+import org.apache.pinot.core.common.BlockValSet;
+import org.apache.pinot.core.common.DataSource;
+import org.apache.pinot.core.operator.blocks.FilterBlock;
+import org.apache.pinot.core.operator.docidsets.BitmapDocIdSet;
+import org.apache.pinot.core.operator.filter.predicate.RangePredicateEvaluatorFactory.OfflineDictionaryBasedRangePredicateEvaluator;
+import org.apache.pinot.core.segment.index.readers.BitmapRangeIndexReader;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+
+
+/**
+ * Filter operator for RANGE predicate on column with range index.
+ * <p>The documents of the buckets fully covered by the range are taken from the bucket bitmaps, and only the documents
+ * of the (at most 2) buckets partially covered by the range are checked against the predicate by reading the forward
+ * index.
+ */
+public class RangeIndexBasedFilterOperator extends BaseFilterOperator {
+  private static final String OPERATOR_NAME = "RangeIndexBasedFilterOperator";
+
+  private final OfflineDictionaryBasedRangePredicateEvaluator _predicateEvaluator;
+  private final DataSource _dataSource;
+  private final int _startDocId;
+  // TODO: change it to exclusive
+  // Inclusive
+  private final int _endDocId;
+
+  RangeIndexBasedFilterOperator(OfflineDictionaryBasedRangePredicateEvaluator predicateEvaluator,
+      DataSource dataSource, int startDocId, int endDocId) {
+    // NOTE:
+    // Predicate that is always evaluated as true or false should not be passed into the RangeIndexBasedFilterOperator
+    // for performance concern.
+    // If predicate is always evaluated as true, use MatchAllFilterOperator; if predicate is always evaluated as false,
+    // use EmptyFilterOperator.
+    Preconditions.checkArgument(!predicateEvaluator.isAlwaysTrue() && !predicateEvaluator.isAlwaysFalse());
+
+    _predicateEvaluator = predicateEvaluator;
+    _dataSource = dataSource;
+    _startDocId = startDocId;
+    _endDocId = endDocId;
+  }
+
+  @Override
+  protected FilterBlock getNextBlock() {
+    BitmapRangeIndexReader rangeIndex = _dataSource.getRangeIndex();
+    int startDictId = _predicateEvaluator.getStartDictId();
+    int endDictId = _predicateEvaluator.getEndDictId();
+    int startBucketId = rangeIndex.getBucketId(startDictId);
+    int endBucketId = rangeIndex.getBucketId(endDictId - 1);
+
+    List<ImmutableRoaringBitmap> bitmaps = new ArrayList<>(endBucketId - startBucketId + 2);
+    MutableRoaringBitmap partialMatches = null;
+    for (int bucketId = startBucketId; bucketId <= endBucketId; bucketId++) {
+      ImmutableRoaringBitmap bucketDocIds = rangeIndex.getDocIds(bucketId);
+      if (rangeIndex.getBucketStartDictId(bucketId) >= startDictId
+          && rangeIndex.getBucketStartDictId(bucketId + 1) <= endDictId) {
+        bitmaps.add(bucketDocIds);
+      } else {
+        if (partialMatches == null) {
+          partialMatches = new MutableRoaringBitmap();
+        }
+        addMatchingDocIds(bucketDocIds, partialMatches);
+      }
+    }
+    if (partialMatches != null) {
+      bitmaps.add(partialMatches);
+    }
+
+    return new FilterBlock(
+        new BitmapDocIdSet(bitmaps.toArray(new ImmutableRoaringBitmap[bitmaps.size()]), _startDocId, _endDocId, false));
+  }
+
+  /**
+   * Scans the forward index for the given documents, and adds the ones matching the predicate into the result.
+   */
+  private void addMatchingDocIds(ImmutableRoaringBitmap docIds, MutableRoaringBitmap result) {
+    BlockValSet blockValSet = _dataSource.nextBlock().getBlockValueSet();
+    IntIterator docIdIterator = docIds.getIntIterator();
+    if (_dataSource.getDataSourceMetadata().isSingleValue()) {
+      BlockSingleValIterator valueIterator = (BlockSingleValIterator) blockValSet.iterator();
+      while (docIdIterator.hasNext()) {
+        int docId = docIdIterator.next();
+        valueIterator.skipTo(docId);
+        if (_predicateEvaluator.applySV(valueIterator.nextIntVal())) {
+          result.add(docId);
+        }
+      }
+    } else {
+      BlockMultiValIterator valueIterator = (BlockMultiValIterator) blockValSet.iterator();
+      int[] dictIds = new int[_dataSource.getDataSourceMetadata().getMaxNumMultiValues()];
+      while (docIdIterator.hasNext()) {
+        int docId = docIdIterator.next();
+        valueIterator.skipTo(docId);
+        int length = valueIterator.nextIntVal(dictIds);
+        if (_predicateEvaluator.applyMV(dictIds, length)) {
+          result.add(docId);
+        }
+      }
+    }
+  }
+
+  @Override
+  public String getOperatorName() {
+    return OPERATOR_NAME;
+  }
+}
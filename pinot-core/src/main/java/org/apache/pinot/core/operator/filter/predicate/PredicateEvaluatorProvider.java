@@ -52,29 +52,40 @@ public class PredicateEvaluatorProvider {
             return RangePredicateEvaluatorFactory.newDictionaryBasedEvaluator((RangePredicate) predicate, dictionary);
           case REGEXP_LIKE:
             return RegexpLikePredicateEvaluatorFactory
-                .newDictionaryBasedEvaluator((RegexpLikePredicate) predicate, dictionary);
+                .newDictionaryBasedEvaluator((RegexpLikePredicate) predicate, dictionary, dataSource.getTextIndex());
           default:
             throw new UnsupportedOperationException("Unsupported predicate type: " + predicate.getType());
         }
       } else {
-        DataType dataType = dataSource.getDataSourceMetadata().getDataType();
-        switch (predicate.getType()) {
-          case EQ:
-            return EqualsPredicateEvaluatorFactory.newRawValueBasedEvaluator((EqPredicate) predicate, dataType);
-          case NEQ:
-            return NotEqualsPredicateEvaluatorFactory.newRawValueBasedEvaluator((NEqPredicate) predicate, dataType);
-          case IN:
-            return InPredicateEvaluatorFactory.newRawValueBasedEvaluator((InPredicate) predicate, dataType);
-          case NOT_IN:
-            return NotInPredicateEvaluatorFactory.newRawValueBasedEvaluator((NotInPredicate) predicate, dataType);
-          case RANGE:
-            return RangePredicateEvaluatorFactory.newRawValueBasedEvaluator((RangePredicate) predicate, dataType);
-          case REGEXP_LIKE:
-            return RegexpLikePredicateEvaluatorFactory
-                .newRawValueBasedEvaluator((RegexpLikePredicate) predicate, dataType);
-          default:
-            throw new UnsupportedOperationException("Unsupported predicate type: " + predicate.getType());
-        }
+        return getRawValueBasedPredicateEvaluator(predicate, dataSource.getDataSourceMetadata().getDataType());
+      }
+    } catch (NumberFormatException e) {
+      // This NumberFormatException is caused by passing in a non-numeric string as numeric number in query
+      throw new BadQueryRequestException(e);
+    }
+  }
+
+  /**
+   * Returns a raw value based predicate evaluator for the given predicate and the data type of the values to be
+   * evaluated (e.g. values of a no-dictionary column or results of a transform function).
+   */
+  public static PredicateEvaluator getRawValueBasedPredicateEvaluator(Predicate predicate, DataType dataType) {
+    try {
+      switch (predicate.getType()) {
+        case EQ:
+          return EqualsPredicateEvaluatorFactory.newRawValueBasedEvaluator((EqPredicate) predicate, dataType);
+        case NEQ:
+          return NotEqualsPredicateEvaluatorFactory.newRawValueBasedEvaluator((NEqPredicate) predicate, dataType);
+        case IN:
+          return InPredicateEvaluatorFactory.newRawValueBasedEvaluator((InPredicate) predicate, dataType);
+        case NOT_IN:
+          return NotInPredicateEvaluatorFactory.newRawValueBasedEvaluator((NotInPredicate) predicate, dataType);
+        case RANGE:
+          return RangePredicateEvaluatorFactory.newRawValueBasedEvaluator((RangePredicate) predicate, dataType);
+        case REGEXP_LIKE:
+          return RegexpLikePredicateEvaluatorFactory.newRawValueBasedEvaluator((RegexpLikePredicate) predicate, dataType);
+        default:
+          throw new UnsupportedOperationException("Unsupported predicate type: " + predicate.getType());
       }
     } catch (NumberFormatException e) {
       // This NumberFormatException is caused by passing in a non-numeric string as numeric number in query
@@ -76,7 +76,7 @@ public class RangePredicateEvaluatorFactory {
     }
   }
 
-  private static final class OfflineDictionaryBasedRangePredicateEvaluator extends BaseDictionaryBasedPredicateEvaluator {
+  public static final class OfflineDictionaryBasedRangePredicateEvaluator extends BaseDictionaryBasedPredicateEvaluator {
     final int _startDictId;
     // Exclusive
     final int _endDictId;
@@ -126,6 +126,17 @@ public class RangePredicateEvaluatorFactory {
       }
     }
 
+    public int getStartDictId() {
+      return _startDictId;
+    }
+
+    /**
+     * Returns the end dictionary id (exclusive) of the range.
+     */
+    public int getEndDictId() {
+      return _endDictId;
+    }
+
     @Override
     public Predicate.Type getPredicateType() {
       return Predicate.Type.RANGE;
@@ -270,8 +281,8 @@ public class RangePredicateEvaluatorFactory {
       _includeUpperBoundary = rangePredicate.includeUpperBoundary();
       String lowerBoundary = rangePredicate.getLowerBoundary();
       String upperBoundary = rangePredicate.getUpperBoundary();
-      _lowerBoundary = lowerBoundary.equals("*") ? Integer.MIN_VALUE : Long.parseLong(lowerBoundary);
-      _upperBoundary = upperBoundary.equals("*") ? Integer.MAX_VALUE : Long.parseLong(upperBoundary);
+      _lowerBoundary = lowerBoundary.equals("*") ? Long.MIN_VALUE : Long.parseLong(lowerBoundary);
+      _upperBoundary = upperBoundary.equals("*") ? Long.MAX_VALUE : Long.parseLong(upperBoundary);
     }
 
     @Override
@@ -307,8 +318,8 @@ public class RangePredicateEvaluatorFactory {
       _includeUpperBoundary = rangePredicate.includeUpperBoundary();
       String lowerBoundary = rangePredicate.getLowerBoundary();
       String upperBoundary = rangePredicate.getUpperBoundary();
-      _lowerBoundary = lowerBoundary.equals("*") ? Integer.MIN_VALUE : Float.parseFloat(lowerBoundary);
-      _upperBoundary = upperBoundary.equals("*") ? Integer.MAX_VALUE : Float.parseFloat(upperBoundary);
+      _lowerBoundary = lowerBoundary.equals("*") ? Float.NEGATIVE_INFINITY : Float.parseFloat(lowerBoundary);
+      _upperBoundary = upperBoundary.equals("*") ? Float.POSITIVE_INFINITY : Float.parseFloat(upperBoundary);
     }
 
     @Override
@@ -344,8 +355,8 @@ public class RangePredicateEvaluatorFactory {
       _includeUpperBoundary = rangePredicate.includeUpperBoundary();
       String lowerBoundary = rangePredicate.getLowerBoundary();
       String upperBoundary = rangePredicate.getUpperBoundary();
-      _lowerBoundary = lowerBoundary.equals("*") ? Integer.MIN_VALUE : Double.parseDouble(lowerBoundary);
-      _upperBoundary = upperBoundary.equals("*") ? Integer.MAX_VALUE : Double.parseDouble(upperBoundary);
+      _lowerBoundary = lowerBoundary.equals("*") ? Double.NEGATIVE_INFINITY : Double.parseDouble(lowerBoundary);
+      _upperBoundary = upperBoundary.equals("*") ? Double.POSITIVE_INFINITY : Double.parseDouble(upperBoundary);
     }
 
     @Override
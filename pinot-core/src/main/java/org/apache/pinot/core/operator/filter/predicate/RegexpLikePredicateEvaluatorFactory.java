@@ -22,10 +22,15 @@ import com.google.common.base.Preconditions;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
 import java.util.regex.Pattern;
+import javax.annotation.Nullable;
 import org.apache.pinot.common.data.FieldSpec;
 import org.apache.pinot.core.common.Predicate;
 import org.apache.pinot.core.common.predicate.RegexpLikePredicate;
+import org.apache.pinot.core.segment.creator.impl.text.NgramTokenizer;
 import org.apache.pinot.core.segment.index.readers.Dictionary;
+import org.apache.pinot.core.segment.index.readers.NgramTextIndexReader;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
 
 
 /**
@@ -44,7 +49,21 @@ public class RegexpLikePredicateEvaluatorFactory {
    */
   public static BaseDictionaryBasedPredicateEvaluator newDictionaryBasedEvaluator(
       RegexpLikePredicate regexpLikePredicate, Dictionary dictionary) {
-    return new DictionaryBasedRegexpLikePredicateEvaluator(regexpLikePredicate, dictionary);
+    return new DictionaryBasedRegexpLikePredicateEvaluator(regexpLikePredicate, dictionary, null);
+  }
+
+  /**
+   * Create a new instance of dictionary based REGEXP_LIKE predicate evaluator, which uses the text index (if exists) to
+   * only match the regex against the dictionary values containing the literal parts of the regex.
+   *
+   * @param regexpLikePredicate REGEXP_LIKE predicate to evaluate
+   * @param dictionary Dictionary for the column
+   * @param textIndex Text index for the column, or {@code null} if it does not exist
+   * @return Dictionary based REGEXP_LIKE predicate evaluator
+   */
+  public static BaseDictionaryBasedPredicateEvaluator newDictionaryBasedEvaluator(
+      RegexpLikePredicate regexpLikePredicate, Dictionary dictionary, @Nullable NgramTextIndexReader textIndex) {
+    return new DictionaryBasedRegexpLikePredicateEvaluator(regexpLikePredicate, dictionary, textIndex);
   }
 
   /**
@@ -66,10 +85,38 @@ public class RegexpLikePredicateEvaluatorFactory {
     final Pattern _pattern;
     final Dictionary _dictionary;
     int[] _matchingDictIds;
+    // Only set when the matching dictionary ids are computed from the text index
+    MutableRoaringBitmap _matchingDictIdBitmap;
 
-    public DictionaryBasedRegexpLikePredicateEvaluator(RegexpLikePredicate regexpLikePredicate, Dictionary dictionary) {
-      _pattern = Pattern.compile(regexpLikePredicate.getRegex(), PATTERN_FLAG);
+    public DictionaryBasedRegexpLikePredicateEvaluator(RegexpLikePredicate regexpLikePredicate, Dictionary dictionary,
+        @Nullable NgramTextIndexReader textIndex) {
+      String regex = regexpLikePredicate.getRegex();
+      _pattern = Pattern.compile(regex, PATTERN_FLAG);
       _dictionary = dictionary;
+
+      if (textIndex != null) {
+        long[] requiredGrams = NgramTokenizer.getRequiredGrams(regex);
+        if (requiredGrams != null) {
+          // Only match the regex against the candidate values containing all the required grams
+          MutableRoaringBitmap candidateDictIds = textIndex.getDictIds(requiredGrams);
+          MutableRoaringBitmap matchingDictIdBitmap = new MutableRoaringBitmap();
+          IntIterator iterator = candidateDictIds.getIntIterator();
+          while (iterator.hasNext()) {
+            int dictId = iterator.next();
+            if (_pattern.matcher(dictionary.getStringValue(dictId)).find()) {
+              matchingDictIdBitmap.add(dictId);
+            }
+          }
+          _matchingDictIdBitmap = matchingDictIdBitmap;
+          _matchingDictIds = matchingDictIdBitmap.toArray();
+          int numMatchingDictIds = _matchingDictIds.length;
+          if (numMatchingDictIds == 0) {
+            _alwaysFalse = true;
+          } else if (numMatchingDictIds == dictionary.length()) {
+            _alwaysTrue = true;
+          }
+        }
+      }
     }
 
     @Override
@@ -79,6 +126,9 @@ public class RegexpLikePredicateEvaluatorFactory {
 
     @Override
     public boolean applySV(int dictId) {
+      if (_matchingDictIdBitmap != null) {
+        return _matchingDictIdBitmap.contains(dictId);
+      }
       return _pattern.matcher(_dictionary.getStringValue(dictId)).find();
     }
 
@@ -104,6 +104,10 @@ public class SelectionOnlyOperator extends BaseOperator<IntermediateResultsBlock
 
   @Override
   public ExecutionStatistics getExecutionStatistics() {
+    if (_executionStatistics == null) {
+      // The combine operator skips the segment once enough rows have been collected, still count its total docs
+      return ExecutionStatistics.forUnprocessedSegment(_indexSegment.getSegmentMetadata().getTotalRawDocs());
+    }
     return _executionStatistics;
   }
 }
@@ -28,7 +28,6 @@ import org.apache.pinot.core.indexsegment.IndexSegment;
 import org.apache.pinot.core.operator.BaseOperator;
 import org.apache.pinot.core.operator.ExecutionStatistics;
 import org.apache.pinot.core.operator.ProjectionOperator;
-import org.apache.pinot.core.operator.blocks.DocIdSetBlock;
 import org.apache.pinot.core.operator.blocks.IntermediateResultsBlock;
 import org.apache.pinot.core.operator.blocks.ProjectionBlock;
 import org.apache.pinot.core.query.selection.SelectionOperatorService;
@@ -88,9 +87,10 @@ public class SelectionOrderByOperator extends BaseOperator<IntermediateResultsBl
       for (int i = 0; i < _dataSchema.size(); i++) {
         _blocks[i] = projectionBlock.getBlock(_dataSchema.getColumnName(i));
       }
-      DocIdSetBlock docIdSetBlock = projectionBlock.getDocIdSetBlock();
-      _selectionOperatorService.iterateOnBlocksWithOrdering(docIdSetBlock.getBlockDocIdSet().iterator(), _blocks);
+      _selectionOperatorService.collectSortKeysWithOrdering(projectionBlock);
     }
+    // Only fetch all the selection columns for the final top-N documents
+    _selectionOperatorService.materializeRowsWithOrdering(_blocks);
 
     // Create execution statistics.
     numDocsScanned += _selectionOperatorService.getNumDocsScanned();
@@ -36,6 +36,8 @@ import org.apache.pinot.core.segment.index.readers.Dictionary;
 
 /**
  * Class for evaluating transform expressions.
+ * <p>The common sub-expressions of the expressions share the same transform function, and each distinct expression is
+ * evaluated only once per block no matter how many consumers it has.
  */
 public class TransformOperator extends BaseOperator<TransformBlock> {
   private static final String OPERATOR_NAME = "TransformOperator";
@@ -54,10 +56,7 @@ public class TransformOperator extends BaseOperator<TransformBlock> {
       @Nonnull Set<TransformExpressionTree> expressions) {
     _projectionOperator = projectionOperator;
     _dataSourceMap = projectionOperator.getDataSourceMap();
-    for (TransformExpressionTree expression : expressions) {
-      TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
-      _transformFunctionMap.put(expression, transformFunction);
-    }
+    _transformFunctionMap.putAll(TransformFunctionFactory.get(expressions, _dataSourceMap));
   }
 
   /**
@@ -23,6 +23,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nonnull;
+import org.apache.pinot.core.common.BlockBufferPool;
 import org.apache.pinot.core.common.DataSource;
 import org.apache.pinot.core.operator.blocks.ProjectionBlock;
 import org.apache.pinot.core.operator.transform.TransformResultMetadata;
@@ -68,7 +69,7 @@ public class AdditionTransformFunction extends BaseTransformFunction {
   @Override
   public double[] transformToDoubleValuesSV(@Nonnull ProjectionBlock projectionBlock) {
     if (_sums == null) {
-      _sums = new double[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+      _sums = BlockBufferPool.getThreadLocalPool().leaseDoubleBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
     }
 
     int length = projectionBlock.getNumDocs();
@@ -20,6 +20,7 @@ package org.apache.pinot.core.operator.transform.function;
 
 import javax.annotation.Nonnull;
 import org.apache.pinot.common.data.FieldSpec;
+import org.apache.pinot.core.common.BlockBufferPool;
 import org.apache.pinot.core.operator.blocks.ProjectionBlock;
 import org.apache.pinot.core.operator.transform.TransformResultMetadata;
 import org.apache.pinot.core.plan.DocIdSetPlanNode;
@@ -31,6 +32,8 @@ import org.apache.pinot.core.util.ArrayCopyUtils;
  * Base class for transform function providing the default implementation for all data types.
  */
 public abstract class BaseTransformFunction implements TransformFunction {
+  protected static final TransformResultMetadata INT_SV_NO_DICTIONARY_METADATA =
+      new TransformResultMetadata(FieldSpec.DataType.INT, true, false);
   protected static final TransformResultMetadata LONG_SV_NO_DICTIONARY_METADATA =
       new TransformResultMetadata(FieldSpec.DataType.LONG, true, false);
   protected static final TransformResultMetadata DOUBLE_SV_NO_DICTIONARY_METADATA =
@@ -49,6 +52,21 @@ public abstract class BaseTransformFunction implements TransformFunction {
   private double[][] _doubleValuesMV;
   private String[][] _stringValuesMV;
 
+  /**
+   * Helper method to read the double values of a single-valued argument, where the STRING values are parsed into the
+   * given buffer (the block value sets do not convert STRING values into numbers).
+   */
+  protected static double[] getDoubleValuesSV(TransformFunction argument, ProjectionBlock projectionBlock,
+      double[] stringValueBuffer) {
+    if (argument.getResultMetadata().getDataType() == FieldSpec.DataType.STRING) {
+      String[] stringValues = argument.transformToStringValuesSV(projectionBlock);
+      ArrayCopyUtils.copy(stringValues, stringValueBuffer, projectionBlock.getNumDocs());
+      return stringValueBuffer;
+    } else {
+      return argument.transformToDoubleValuesSV(projectionBlock);
+    }
+  }
+
   @Override
   public Dictionary getDictionary() {
     throw new UnsupportedOperationException();
@@ -67,7 +85,7 @@ public abstract class BaseTransformFunction implements TransformFunction {
   @Override
   public int[] transformToIntValuesSV(@Nonnull ProjectionBlock projectionBlock) {
     if (_intValuesSV == null) {
-      _intValuesSV = new int[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+      _intValuesSV = BlockBufferPool.getThreadLocalPool().leaseIntBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
     }
     int length = projectionBlock.getNumDocs();
     switch (getResultMetadata().getDataType()) {
@@ -95,7 +113,7 @@ public abstract class BaseTransformFunction implements TransformFunction {
   @Override
   public long[] transformToLongValuesSV(@Nonnull ProjectionBlock projectionBlock) {
     if (_longValuesSV == null) {
-      _longValuesSV = new long[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+      _longValuesSV = BlockBufferPool.getThreadLocalPool().leaseLongBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
     }
     int length = projectionBlock.getNumDocs();
     switch (getResultMetadata().getDataType()) {
@@ -123,7 +141,7 @@ public abstract class BaseTransformFunction implements TransformFunction {
   @Override
   public float[] transformToFloatValuesSV(@Nonnull ProjectionBlock projectionBlock) {
     if (_floatValuesSV == null) {
-      _floatValuesSV = new float[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+      _floatValuesSV = BlockBufferPool.getThreadLocalPool().leaseFloatBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
     }
     int length = projectionBlock.getNumDocs();
     switch (getResultMetadata().getDataType()) {
@@ -151,7 +169,7 @@ public abstract class BaseTransformFunction implements TransformFunction {
   @Override
   public double[] transformToDoubleValuesSV(@Nonnull ProjectionBlock projectionBlock) {
     if (_doubleValuesSV == null) {
-      _doubleValuesSV = new double[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+      _doubleValuesSV = BlockBufferPool.getThreadLocalPool().leaseDoubleBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
     }
     int length = projectionBlock.getNumDocs();
     switch (getResultMetadata().getDataType()) {
@@ -179,7 +197,7 @@ public abstract class BaseTransformFunction implements TransformFunction {
   @Override
   public String[] transformToStringValuesSV(@Nonnull ProjectionBlock projectionBlock) {
     if (_stringValuesSV == null) {
-      _stringValuesSV = new String[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+      _stringValuesSV = BlockBufferPool.getThreadLocalPool().leaseStringBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
     }
     int length = projectionBlock.getNumDocs();
     switch (getResultMetadata().getDataType()) {
@@ -0,0 +1,215 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.transform.function;
+
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import org.apache.pinot.core.common.DataSource;
+import org.apache.pinot.core.operator.blocks.ProjectionBlock;
+import org.apache.pinot.core.operator.transform.TransformResultMetadata;
+import org.apache.pinot.core.segment.index.readers.Dictionary;
+
+
+/**
+ * The <code>CachingTransformFunction</code> class wraps a transform function shared by multiple consumers (e.g. the
+ * same expression in several aggregations, or a sub-expression of several expressions), and caches the transform
+ * results of the current projection block so that the expression is evaluated only once per block for each result
+ * type.
+ * <p>The cache is keyed on the identity of the projection block, which is created for each block by the projection
+ * operator. The cached arrays are the buffers of the wrapped transform function, so they are only valid until the next
+ * block is transformed, as for the other transform functions.
+ */
+public class CachingTransformFunction implements TransformFunction {
+  private final TransformFunction _transformFunction;
+
+  private ProjectionBlock _projectionBlock;
+  private int[] _dictIdsSV;
+  private int[][] _dictIdsMV;
+  private int[] _intValuesSV;
+  private long[] _longValuesSV;
+  private float[] _floatValuesSV;
+  private double[] _doubleValuesSV;
+  private String[] _stringValuesSV;
+  private int[][] _intValuesMV;
+  private long[][] _longValuesMV;
+  private float[][] _floatValuesMV;
+  private double[][] _doubleValuesMV;
+  private String[][] _stringValuesMV;
+
+  public CachingTransformFunction(@Nonnull TransformFunction transformFunction) {
+    _transformFunction = transformFunction;
+  }
+
+  /**
+   * Returns the wrapped transform function.
+   */
+  public TransformFunction getTransformFunction() {
+    return _transformFunction;
+  }
+
+  @Override
+  public String getName() {
+    return _transformFunction.getName();
+  }
+
+  @Override
+  public void init(@Nonnull List<TransformFunction> arguments, @Nonnull Map<String, DataSource> dataSourceMap) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public TransformResultMetadata getResultMetadata() {
+    return _transformFunction.getResultMetadata();
+  }
+
+  @Override
+  public Dictionary getDictionary() {
+    return _transformFunction.getDictionary();
+  }
+
+  /**
+   * Helper method to invalidate the cached results when switching to a new projection block.
+   */
+  private void setProjectionBlock(ProjectionBlock projectionBlock) {
+    if (_projectionBlock != projectionBlock) {
+      _projectionBlock = projectionBlock;
+      _dictIdsSV = null;
+      _dictIdsMV = null;
+      _intValuesSV = null;
+      _longValuesSV = null;
+      _floatValuesSV = null;
+      _doubleValuesSV = null;
+      _stringValuesSV = null;
+      _intValuesMV = null;
+      _longValuesMV = null;
+      _floatValuesMV = null;
+      _doubleValuesMV = null;
+      _stringValuesMV = null;
+    }
+  }
+
+  @Override
+  public int[] transformToDictIdsSV(@Nonnull ProjectionBlock projectionBlock) {
+    setProjectionBlock(projectionBlock);
+    if (_dictIdsSV == null) {
+      _dictIdsSV = _transformFunction.transformToDictIdsSV(projectionBlock);
+    }
+    return _dictIdsSV;
+  }
+
+  @Override
+  public int[][] transformToDictIdsMV(@Nonnull ProjectionBlock projectionBlock) {
+    setProjectionBlock(projectionBlock);
+    if (_dictIdsMV == null) {
+      _dictIdsMV = _transformFunction.transformToDictIdsMV(projectionBlock);
+    }
+    return _dictIdsMV;
+  }
+
+  @Override
+  public int[] transformToIntValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    setProjectionBlock(projectionBlock);
+    if (_intValuesSV == null) {
+      _intValuesSV = _transformFunction.transformToIntValuesSV(projectionBlock);
+    }
+    return _intValuesSV;
+  }
+
+  @Override
+  public long[] transformToLongValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    setProjectionBlock(projectionBlock);
+    if (_longValuesSV == null) {
+      _longValuesSV = _transformFunction.transformToLongValuesSV(projectionBlock);
+    }
+    return _longValuesSV;
+  }
+
+  @Override
+  public float[] transformToFloatValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    setProjectionBlock(projectionBlock);
+    if (_floatValuesSV == null) {
+      _floatValuesSV = _transformFunction.transformToFloatValuesSV(projectionBlock);
+    }
+    return _floatValuesSV;
+  }
+
+  @Override
+  public double[] transformToDoubleValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    setProjectionBlock(projectionBlock);
+    if (_doubleValuesSV == null) {
+      _doubleValuesSV = _transformFunction.transformToDoubleValuesSV(projectionBlock);
+    }
+    return _doubleValuesSV;
+  }
+
+  @Override
+  public String[] transformToStringValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    setProjectionBlock(projectionBlock);
+    if (_stringValuesSV == null) {
+      _stringValuesSV = _transformFunction.transformToStringValuesSV(projectionBlock);
+    }
+    return _stringValuesSV;
+  }
+
+  @Override
+  public int[][] transformToIntValuesMV(@Nonnull ProjectionBlock projectionBlock) {
+    setProjectionBlock(projectionBlock);
+    if (_intValuesMV == null) {
+      _intValuesMV = _transformFunction.transformToIntValuesMV(projectionBlock);
+    }
+    return _intValuesMV;
+  }
+
+  @Override
+  public long[][] transformToLongValuesMV(@Nonnull ProjectionBlock projectionBlock) {
+    setProjectionBlock(projectionBlock);
+    if (_longValuesMV == null) {
+      _longValuesMV = _transformFunction.transformToLongValuesMV(projectionBlock);
+    }
+    return _longValuesMV;
+  }
+
+  @Override
+  public float[][] transformToFloatValuesMV(@Nonnull ProjectionBlock projectionBlock) {
+    setProjectionBlock(projectionBlock);
+    if (_floatValuesMV == null) {
+      _floatValuesMV = _transformFunction.transformToFloatValuesMV(projectionBlock);
+    }
+    return _floatValuesMV;
+  }
+
+  @Override
+  public double[][] transformToDoubleValuesMV(@Nonnull ProjectionBlock projectionBlock) {
+    setProjectionBlock(projectionBlock);
+    if (_doubleValuesMV == null) {
+      _doubleValuesMV = _transformFunction.transformToDoubleValuesMV(projectionBlock);
+    }
+    return _doubleValuesMV;
+  }
+
+  @Override
+  public String[][] transformToStringValuesMV(@Nonnull ProjectionBlock projectionBlock) {
+    setProjectionBlock(projectionBlock);
+    if (_stringValuesMV == null) {
+      _stringValuesMV = _transformFunction.transformToStringValuesMV(projectionBlock);
+    }
+    return _stringValuesMV;
+  }
+}
@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.transform.function;
+
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import org.apache.pinot.core.common.BlockBufferPool;
+import org.apache.pinot.core.common.DataSource;
+import org.apache.pinot.core.operator.blocks.ProjectionBlock;
+import org.apache.pinot.core.operator.transform.TransformResultMetadata;
+import org.apache.pinot.core.plan.DocIdSetPlanNode;
+
+
+/**
+ * The <code>ConcatTransformFunction</code> class concatenates the string values of all the arguments.
+ */
+public class ConcatTransformFunction extends BaseTransformFunction {
+  public static final String FUNCTION_NAME = "concat";
+
+  private List<TransformFunction> _transformFunctions;
+  private String[] _results;
+
+  @Override
+  public String getName() {
+    return FUNCTION_NAME;
+  }
+
+  @Override
+  public void init(@Nonnull List<TransformFunction> arguments, @Nonnull Map<String, DataSource> dataSourceMap) {
+    // Check that there are more than 1 arguments
+    if (arguments.size() < 2) {
+      throw new IllegalArgumentException("At least 2 arguments are required for CONCAT transform function");
+    }
+    for (TransformFunction argument : arguments) {
+      if (!argument.getResultMetadata().isSingleValue()) {
+        throw new IllegalArgumentException("All the arguments of CONCAT transform function must be single-valued");
+      }
+    }
+    _transformFunctions = arguments;
+  }
+
+  @Override
+  public TransformResultMetadata getResultMetadata() {
+    return STRING_SV_NO_DICTIONARY_METADATA;
+  }
+
+  @Override
+  public String[] transformToStringValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_results == null) {
+      _results = BlockBufferPool.getThreadLocalPool().leaseStringBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
+    }
+    int length = projectionBlock.getNumDocs();
+    int numArguments = _transformFunctions.size();
+    String[][] values = new String[numArguments][];
+    for (int i = 0; i < numArguments; i++) {
+      values[i] = _transformFunctions.get(i).transformToStringValuesSV(projectionBlock);
+    }
+    StringBuilder stringBuilder = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      stringBuilder.setLength(0);
+      for (int j = 0; j < numArguments; j++) {
+        stringBuilder.append(values[j][i]);
+      }
+      _results[i] = stringBuilder.toString();
+    }
+    return _results;
+  }
+}
@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.Map;
 import javax.annotation.Nonnull;
 import org.apache.pinot.common.data.DateTimeFieldSpec;
+import org.apache.pinot.core.common.BlockBufferPool;
 import org.apache.pinot.core.common.DataSource;
 import org.apache.pinot.core.operator.blocks.ProjectionBlock;
 import org.apache.pinot.core.operator.transform.TransformResultMetadata;
@@ -128,7 +129,7 @@ public class DateTimeConversionTransformFunction extends BaseTransformFunction {
   public long[] transformToLongValuesSV(@Nonnull ProjectionBlock projectionBlock) {
     if (_resultMetadata == LONG_SV_NO_DICTIONARY_METADATA) {
       if (_longOutputTimes == null) {
-        _longOutputTimes = new long[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+        _longOutputTimes = BlockBufferPool.getThreadLocalPool().leaseLongBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
       }
 
       int length = projectionBlock.getNumDocs();
@@ -149,7 +150,7 @@ public class DateTimeConversionTransformFunction extends BaseTransformFunction {
   public String[] transformToStringValuesSV(@Nonnull ProjectionBlock projectionBlock) {
     if (_resultMetadata == STRING_SV_NO_DICTIONARY_METADATA) {
       if (_stringOutputTimes == null) {
-        _stringOutputTimes = new String[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+        _stringOutputTimes = BlockBufferPool.getThreadLocalPool().leaseStringBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
       }
 
       int length = projectionBlock.getNumDocs();
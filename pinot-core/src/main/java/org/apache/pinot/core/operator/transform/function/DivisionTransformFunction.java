@@ -22,6 +22,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nonnull;
+import org.apache.pinot.core.common.BlockBufferPool;
 import org.apache.pinot.core.common.DataSource;
 import org.apache.pinot.core.operator.blocks.ProjectionBlock;
 import org.apache.pinot.core.operator.transform.TransformResultMetadata;
@@ -80,7 +81,7 @@ public class DivisionTransformFunction extends BaseTransformFunction {
   @Override
   public double[] transformToDoubleValuesSV(@Nonnull ProjectionBlock projectionBlock) {
     if (_quotients == null) {
-      _quotients = new double[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+      _quotients = BlockBufferPool.getThreadLocalPool().leaseDoubleBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
     }
 
     int length = projectionBlock.getNumDocs();
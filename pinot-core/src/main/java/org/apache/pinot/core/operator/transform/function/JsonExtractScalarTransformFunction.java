@@ -0,0 +1,276 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.transform.function;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import org.apache.pinot.common.data.FieldSpec.DataType;
+import org.apache.pinot.common.utils.JsonUtils;
+import org.apache.pinot.core.common.BlockBufferPool;
+import org.apache.pinot.core.common.DataSource;
+import org.apache.pinot.core.operator.blocks.ProjectionBlock;
+import org.apache.pinot.core.operator.transform.TransformResultMetadata;
+import org.apache.pinot.core.plan.DocIdSetPlanNode;
+
+
+/**
+ * The <code>JsonExtractScalarTransformFunction</code> class extracts a scalar value from the JSON string values.
+ * <p>Usage: <code>jsonExtractScalar(jsonColumn, 'jsonPath', 'resultType'[, 'defaultValue'])</code>
+ * <ul>
+ *   <li>jsonPath: path of the value, e.g. <code>$.a.b[0]</code>, with object field (<code>.name</code>) and array
+ *   index (<code>[index]</code>) accessors</li>
+ *   <li>resultType: one of INT, LONG, FLOAT, DOUBLE, STRING</li>
+ *   <li>defaultValue: value returned when the path does not exist or the value cannot be parsed, an exception is thrown
+ *   in such case if not specified</li>
+ * </ul>
+ * <p>The path is parsed once at initialization, and each value is parsed with the shared Jackson reader.
+ */
+public class JsonExtractScalarTransformFunction extends BaseTransformFunction {
+  public static final String FUNCTION_NAME = "jsonExtractScalar";
+
+  private TransformFunction _jsonFieldTransformFunction;
+  private Object[] _pathElements;
+  private TransformResultMetadata _resultMetadata;
+  private String _defaultValue;
+
+  private int[] _intValues;
+  private long[] _longValues;
+  private float[] _floatValues;
+  private double[] _doubleValues;
+  private String[] _stringValues;
+
+  @Override
+  public String getName() {
+    return FUNCTION_NAME;
+  }
+
+  @Override
+  public void init(@Nonnull List<TransformFunction> arguments, @Nonnull Map<String, DataSource> dataSourceMap) {
+    int numArguments = arguments.size();
+    if (numArguments != 3 && numArguments != 4) {
+      throw new IllegalArgumentException("3 or 4 arguments are required for JSON_EXTRACT_SCALAR transform function");
+    }
+
+    TransformFunction firstArgument = arguments.get(0);
+    if (firstArgument instanceof LiteralTransformFunction || !firstArgument.getResultMetadata().isSingleValue()) {
+      throw new IllegalArgumentException(
+          "First argument of JSON_EXTRACT_SCALAR transform function must be a single-valued column or a transform function");
+    }
+    _jsonFieldTransformFunction = firstArgument;
+
+    _pathElements = parseJsonPath(getLiteral(arguments.get(1), "JSON path"));
+
+    DataType resultType = DataType.valueOf(getLiteral(arguments.get(2), "Result type").toUpperCase());
+    switch (resultType) {
+      case INT:
+      case LONG:
+      case FLOAT:
+      case DOUBLE:
+      case STRING:
+        break;
+      default:
+        throw new IllegalArgumentException(
+            "Unsupported result type: " + resultType + " for JSON_EXTRACT_SCALAR transform function");
+    }
+    _resultMetadata = new TransformResultMetadata(resultType, true, false);
+
+    if (numArguments == 4) {
+      _defaultValue = getLiteral(arguments.get(3), "Default value");
+    }
+  }
+
+  private static String getLiteral(TransformFunction argument, String argumentName) {
+    if (!(argument instanceof LiteralTransformFunction)) {
+      throw new IllegalArgumentException(argumentName + " of JSON_EXTRACT_SCALAR transform function must be a literal");
+    }
+    return ((LiteralTransformFunction) argument).getLiteral();
+  }
+
+  /**
+   * Parses the JSON path into path elements, where field names are stored as {@link String} and array indexes are
+   * stored as {@link Integer}.
+   */
+  static Object[] parseJsonPath(String jsonPath) {
+    if (!jsonPath.startsWith("$")) {
+      throw new IllegalArgumentException("JSON path must start with '$': " + jsonPath);
+    }
+    List<Object> pathElements = new ArrayList<>();
+    int length = jsonPath.length();
+    int index = 1;
+    while (index < length) {
+      char c = jsonPath.charAt(index);
+      if (c == '.') {
+        int end = index + 1;
+        while (end < length && jsonPath.charAt(end) != '.' && jsonPath.charAt(end) != '[') {
+          end++;
+        }
+        if (end == index + 1) {
+          throw new IllegalArgumentException("Empty field name in JSON path: " + jsonPath);
+        }
+        pathElements.add(jsonPath.substring(index + 1, end));
+        index = end;
+      } else if (c == '[') {
+        int end = jsonPath.indexOf(']', index);
+        if (end == -1) {
+          throw new IllegalArgumentException("Unterminated array index in JSON path: " + jsonPath);
+        }
+        pathElements.add(Integer.parseInt(jsonPath.substring(index + 1, end).trim()));
+        index = end + 1;
+      } else {
+        throw new IllegalArgumentException("Invalid JSON path: " + jsonPath);
+      }
+    }
+    return pathElements.toArray();
+  }
+
+  @Override
+  public TransformResultMetadata getResultMetadata() {
+    return _resultMetadata;
+  }
+
+  @Override
+  public int[] transformToIntValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_resultMetadata.getDataType() != DataType.INT) {
+      return super.transformToIntValuesSV(projectionBlock);
+    }
+    if (_intValues == null) {
+      _intValues = BlockBufferPool.getThreadLocalPool().leaseIntBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
+    }
+    String[] jsonStrings = _jsonFieldTransformFunction.transformToStringValuesSV(projectionBlock);
+    int length = projectionBlock.getNumDocs();
+    for (int i = 0; i < length; i++) {
+      JsonNode jsonNode = extract(jsonStrings[i]);
+      _intValues[i] = jsonNode != null && jsonNode.isNumber() ? jsonNode.asInt()
+          : Integer.parseInt(getDefaultValue(jsonStrings[i], jsonNode));
+    }
+    return _intValues;
+  }
+
+  @Override
+  public long[] transformToLongValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_resultMetadata.getDataType() != DataType.LONG) {
+      return super.transformToLongValuesSV(projectionBlock);
+    }
+    if (_longValues == null) {
+      _longValues = BlockBufferPool.getThreadLocalPool().leaseLongBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
+    }
+    String[] jsonStrings = _jsonFieldTransformFunction.transformToStringValuesSV(projectionBlock);
+    int length = projectionBlock.getNumDocs();
+    for (int i = 0; i < length; i++) {
+      JsonNode jsonNode = extract(jsonStrings[i]);
+      _longValues[i] = jsonNode != null && jsonNode.isNumber() ? jsonNode.asLong()
+          : Long.parseLong(getDefaultValue(jsonStrings[i], jsonNode));
+    }
+    return _longValues;
+  }
+
+  @Override
+  public float[] transformToFloatValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_resultMetadata.getDataType() != DataType.FLOAT) {
+      return super.transformToFloatValuesSV(projectionBlock);
+    }
+    if (_floatValues == null) {
+      _floatValues = BlockBufferPool.getThreadLocalPool().leaseFloatBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
+    }
+    String[] jsonStrings = _jsonFieldTransformFunction.transformToStringValuesSV(projectionBlock);
+    int length = projectionBlock.getNumDocs();
+    for (int i = 0; i < length; i++) {
+      JsonNode jsonNode = extract(jsonStrings[i]);
+      _floatValues[i] = jsonNode != null && jsonNode.isNumber() ? (float) jsonNode.asDouble()
+          : Float.parseFloat(getDefaultValue(jsonStrings[i], jsonNode));
+    }
+    return _floatValues;
+  }
+
+  @Override
+  public double[] transformToDoubleValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_resultMetadata.getDataType() != DataType.DOUBLE) {
+      return super.transformToDoubleValuesSV(projectionBlock);
+    }
+    if (_doubleValues == null) {
+      _doubleValues = BlockBufferPool.getThreadLocalPool().leaseDoubleBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
+    }
+    String[] jsonStrings = _jsonFieldTransformFunction.transformToStringValuesSV(projectionBlock);
+    int length = projectionBlock.getNumDocs();
+    for (int i = 0; i < length; i++) {
+      JsonNode jsonNode = extract(jsonStrings[i]);
+      _doubleValues[i] = jsonNode != null && jsonNode.isNumber() ? jsonNode.asDouble()
+          : Double.parseDouble(getDefaultValue(jsonStrings[i], jsonNode));
+    }
+    return _doubleValues;
+  }
+
+  @Override
+  public String[] transformToStringValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_resultMetadata.getDataType() != DataType.STRING) {
+      return super.transformToStringValuesSV(projectionBlock);
+    }
+    if (_stringValues == null) {
+      _stringValues = BlockBufferPool.getThreadLocalPool().leaseStringBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
+    }
+    String[] jsonStrings = _jsonFieldTransformFunction.transformToStringValuesSV(projectionBlock);
+    int length = projectionBlock.getNumDocs();
+    for (int i = 0; i < length; i++) {
+      JsonNode jsonNode = extract(jsonStrings[i]);
+      _stringValues[i] = jsonNode != null && jsonNode.isValueNode() && !jsonNode.isNull() ? jsonNode.asText()
+          : getDefaultValue(jsonStrings[i], jsonNode);
+    }
+    return _stringValues;
+  }
+
+  /**
+   * Returns the JSON node at the path of the given JSON string, or {@code null} if it does not exist or the JSON string
+   * cannot be parsed.
+   */
+  private JsonNode extract(String jsonString) {
+    JsonNode jsonNode;
+    try {
+      jsonNode = JsonUtils.stringToJsonNode(jsonString);
+    } catch (IOException e) {
+      return null;
+    }
+    if (jsonNode == null) {
+      return null;
+    }
+    for (Object pathElement : _pathElements) {
+      if (pathElement instanceof String) {
+        jsonNode = jsonNode.get((String) pathElement);
+      } else {
+        jsonNode = jsonNode.get((Integer) pathElement);
+      }
+      if (jsonNode == null) {
+        return null;
+      }
+    }
+    return jsonNode;
+  }
+
+  private String getDefaultValue(String jsonString, JsonNode jsonNode) {
+    if (_defaultValue == null) {
+      throw new IllegalStateException(
+          "Cannot extract " + _resultMetadata.getDataType() + " value from JSON: " + jsonString + ", found: "
+              + jsonNode);
+    }
+    return _defaultValue;
+  }
+}
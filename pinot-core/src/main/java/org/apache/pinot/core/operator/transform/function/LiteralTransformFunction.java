@@ -18,24 +18,58 @@
  */
 package org.apache.pinot.core.operator.transform.function;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nonnull;
+import org.apache.pinot.common.data.FieldSpec.DataType;
 import org.apache.pinot.core.common.DataSource;
 import org.apache.pinot.core.operator.blocks.ProjectionBlock;
 import org.apache.pinot.core.operator.transform.TransformResultMetadata;
+import org.apache.pinot.core.plan.DocIdSetPlanNode;
 import org.apache.pinot.core.segment.index.readers.Dictionary;
 
 
 /**
  * The <code>LiteralTransformFunction</code> class is a special transform function which is a wrapper on top of a
- * LITERAL, and only supports {@link #getLiteral()}.
+ * LITERAL. Besides {@link #getLiteral()}, it supports the single-valued transforms, which return the literal value for
+ * all the documents, so that it can be used as the argument of the transform functions without special handling, or
+ * as the result of constant folding.
+ * <p>The data type of the literal is LONG if it can be parsed as a long, DOUBLE if it can be parsed as a double, STRING
+ * otherwise, unless it is explicitly specified.
  */
 public class LiteralTransformFunction implements TransformFunction {
   private final String _literal;
+  private final TransformResultMetadata _resultMetadata;
+
+  private int[] _intValues;
+  private long[] _longValues;
+  private float[] _floatValues;
+  private double[] _doubleValues;
+  private String[] _stringValues;
 
   public LiteralTransformFunction(@Nonnull String literal) {
+    this(literal, inferDataType(literal));
+  }
+
+  public LiteralTransformFunction(@Nonnull String literal, @Nonnull DataType dataType) {
     _literal = literal;
+    _resultMetadata = new TransformResultMetadata(dataType, true, false);
+  }
+
+  private static DataType inferDataType(String literal) {
+    try {
+      Long.parseLong(literal);
+      return DataType.LONG;
+    } catch (NumberFormatException e) {
+      // Not a long
+    }
+    try {
+      Double.parseDouble(literal);
+      return DataType.DOUBLE;
+    } catch (NumberFormatException e) {
+      return DataType.STRING;
+    }
   }
 
   public String getLiteral() {
@@ -54,7 +88,7 @@ public class LiteralTransformFunction implements TransformFunction {
 
   @Override
   public TransformResultMetadata getResultMetadata() {
-    throw new UnsupportedOperationException();
+    return _resultMetadata;
   }
 
   @Override
@@ -72,29 +106,55 @@ public class LiteralTransformFunction implements TransformFunction {
     throw new UnsupportedOperationException();
   }
 
+  // NOTE: the literal values are filled once for the maximum number of documents per block and shared across blocks
+
   @Override
   public int[] transformToIntValuesSV(@Nonnull ProjectionBlock projectionBlock) {
-    throw new UnsupportedOperationException();
+    if (_intValues == null) {
+      _intValues = new int[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+      int value = _resultMetadata.getDataType() == DataType.LONG ? (int) Long.parseLong(_literal)
+          : (int) Double.parseDouble(_literal);
+      Arrays.fill(_intValues, value);
+    }
+    return _intValues;
   }
 
   @Override
   public long[] transformToLongValuesSV(@Nonnull ProjectionBlock projectionBlock) {
-    throw new UnsupportedOperationException();
+    if (_longValues == null) {
+      _longValues = new long[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+      long value = _resultMetadata.getDataType() == DataType.LONG ? Long.parseLong(_literal)
+          : (long) Double.parseDouble(_literal);
+      Arrays.fill(_longValues, value);
+    }
+    return _longValues;
   }
 
   @Override
   public float[] transformToFloatValuesSV(@Nonnull ProjectionBlock projectionBlock) {
-    throw new UnsupportedOperationException();
+    if (_floatValues == null) {
+      _floatValues = new float[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+      Arrays.fill(_floatValues, Float.parseFloat(_literal));
+    }
+    return _floatValues;
   }
 
   @Override
   public double[] transformToDoubleValuesSV(@Nonnull ProjectionBlock projectionBlock) {
-    throw new UnsupportedOperationException();
+    if (_doubleValues == null) {
+      _doubleValues = new double[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+      Arrays.fill(_doubleValues, Double.parseDouble(_literal));
+    }
+    return _doubleValues;
   }
 
   @Override
   public String[] transformToStringValuesSV(@Nonnull ProjectionBlock projectionBlock) {
-    throw new UnsupportedOperationException();
+    if (_stringValues == null) {
+      _stringValues = new String[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+      Arrays.fill(_stringValues, _literal);
+    }
+    return _stringValues;
   }
 
   @Override
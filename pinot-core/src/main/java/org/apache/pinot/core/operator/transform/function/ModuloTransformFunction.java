@@ -0,0 +1,123 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.transform.function;
+
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import org.apache.pinot.common.data.FieldSpec;
+import org.apache.pinot.core.common.BlockBufferPool;
+import org.apache.pinot.core.common.DataSource;
+import org.apache.pinot.core.operator.blocks.ProjectionBlock;
+import org.apache.pinot.core.operator.transform.TransformResultMetadata;
+import org.apache.pinot.core.plan.DocIdSetPlanNode;
+
+
+/**
+ * The <code>ModuloTransformFunction</code> class computes the remainder of the first argument divided by the second
+ * argument, with the same sign as the first argument.
+ * <p>When the first argument is integral (INT or LONG) and the second argument is a non-zero integral literal (e.g.
+ * <code>mod(timeMs, 1000)</code>), the remainders are computed on long values and returned as LONG values. Otherwise,
+ * they are computed on double values and returned as DOUBLE values.
+ */
+public class ModuloTransformFunction extends BaseTransformFunction {
+  public static final String FUNCTION_NAME = "mod";
+
+  private TransformFunction _firstTransformFunction;
+  private TransformFunction _secondTransformFunction;
+  private long _longDivisor;
+  private TransformResultMetadata _resultMetadata;
+  private long[] _longRemainders;
+  private double[] _doubleRemainders;
+  private double[] _firstStringValueBuffer;
+  private double[] _secondStringValueBuffer;
+
+  @Override
+  public String getName() {
+    return FUNCTION_NAME;
+  }
+
+  @Override
+  public void init(@Nonnull List<TransformFunction> arguments, @Nonnull Map<String, DataSource> dataSourceMap) {
+    // Check that there are exactly 2 arguments
+    if (arguments.size() != 2) {
+      throw new IllegalArgumentException("Exactly 2 arguments are required for MOD transform function");
+    }
+
+    _firstTransformFunction = arguments.get(0);
+    if (!_firstTransformFunction.getResultMetadata().isSingleValue()) {
+      throw new IllegalArgumentException("First argument of MOD transform function must be single-valued");
+    }
+    _secondTransformFunction = arguments.get(1);
+    if (!_secondTransformFunction.getResultMetadata().isSingleValue()) {
+      throw new IllegalArgumentException("Second argument of MOD transform function must be single-valued");
+    }
+
+    FieldSpec.DataType firstDataType = _firstTransformFunction.getResultMetadata().getDataType();
+    boolean isFirstIntegral = firstDataType == FieldSpec.DataType.INT || firstDataType == FieldSpec.DataType.LONG;
+    if (isFirstIntegral && _secondTransformFunction instanceof LiteralTransformFunction
+        && _secondTransformFunction.getResultMetadata().getDataType() == FieldSpec.DataType.LONG) {
+      _longDivisor = Long.parseLong(((LiteralTransformFunction) _secondTransformFunction).getLiteral());
+    }
+    _resultMetadata = _longDivisor != 0 ? LONG_SV_NO_DICTIONARY_METADATA : DOUBLE_SV_NO_DICTIONARY_METADATA;
+  }
+
+  @Override
+  public TransformResultMetadata getResultMetadata() {
+    return _resultMetadata;
+  }
+
+  @Override
+  public long[] transformToLongValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_longDivisor == 0) {
+      return super.transformToLongValuesSV(projectionBlock);
+    }
+    if (_longRemainders == null) {
+      _longRemainders = BlockBufferPool.getThreadLocalPool().leaseLongBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
+    }
+
+    int length = projectionBlock.getNumDocs();
+    long[] values = _firstTransformFunction.transformToLongValuesSV(projectionBlock);
+    for (int i = 0; i < length; i++) {
+      _longRemainders[i] = values[i] % _longDivisor;
+    }
+    return _longRemainders;
+  }
+
+  @Override
+  public double[] transformToDoubleValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_longDivisor != 0) {
+      return super.transformToDoubleValuesSV(projectionBlock);
+    }
+    if (_doubleRemainders == null) {
+      BlockBufferPool bufferPool = BlockBufferPool.getThreadLocalPool();
+      _doubleRemainders = bufferPool.leaseDoubleBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
+      _firstStringValueBuffer = bufferPool.leaseDoubleBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
+      _secondStringValueBuffer = bufferPool.leaseDoubleBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
+    }
+
+    int length = projectionBlock.getNumDocs();
+    double[] firstValues = getDoubleValuesSV(_firstTransformFunction, projectionBlock, _firstStringValueBuffer);
+    double[] secondValues = getDoubleValuesSV(_secondTransformFunction, projectionBlock, _secondStringValueBuffer);
+    for (int i = 0; i < length; i++) {
+      _doubleRemainders[i] = firstValues[i] % secondValues[i];
+    }
+    return _doubleRemainders;
+  }
+}
@@ -0,0 +1,241 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.transform.function;
+
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import org.apache.pinot.common.data.FieldSpec;
+import org.apache.pinot.core.common.BlockBufferPool;
+import org.apache.pinot.core.common.DataSource;
+import org.apache.pinot.core.operator.blocks.ProjectionBlock;
+import org.apache.pinot.core.operator.transform.TransformResultMetadata;
+import org.apache.pinot.core.plan.DocIdSetPlanNode;
+
+
+/**
+ * Base class for the math transform functions with one single-valued argument (STRING values are parsed as double).
+ * <p>The functions with an integral kernel (e.g. ABS, CEIL, FLOOR) return LONG values for the INT and LONG arguments,
+ * and DOUBLE values otherwise. The other functions always return DOUBLE values.
+ */
+public abstract class SingleParamMathTransformFunction extends BaseTransformFunction {
+  private TransformFunction _transformFunction;
+  private TransformResultMetadata _resultMetadata;
+  private long[] _longResults;
+  private double[] _doubleResults;
+  private double[] _stringValueBuffer;
+
+  @Override
+  public void init(@Nonnull List<TransformFunction> arguments, @Nonnull Map<String, DataSource> dataSourceMap) {
+    if (arguments.size() != 1) {
+      throw new IllegalArgumentException("Exactly 1 argument is required for " + getName() + " transform function");
+    }
+    TransformFunction argument = arguments.get(0);
+    TransformResultMetadata argumentMetadata = argument.getResultMetadata();
+    if (!argumentMetadata.isSingleValue()) {
+      throw new IllegalArgumentException("The argument of " + getName() + " transform function must be single-valued");
+    }
+    FieldSpec.DataType dataType = argumentMetadata.getDataType();
+    _transformFunction = argument;
+    boolean isIntegral = dataType == FieldSpec.DataType.INT || dataType == FieldSpec.DataType.LONG;
+    _resultMetadata =
+        isIntegral && hasLongKernel() ? LONG_SV_NO_DICTIONARY_METADATA : DOUBLE_SV_NO_DICTIONARY_METADATA;
+  }
+
+  @Override
+  public TransformResultMetadata getResultMetadata() {
+    return _resultMetadata;
+  }
+
+  @Override
+  public long[] transformToLongValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_resultMetadata != LONG_SV_NO_DICTIONARY_METADATA) {
+      return super.transformToLongValuesSV(projectionBlock);
+    }
+    if (_longResults == null) {
+      _longResults = BlockBufferPool.getThreadLocalPool().leaseLongBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
+    }
+    long[] values = _transformFunction.transformToLongValuesSV(projectionBlock);
+    applyMathOperator(values, _longResults, projectionBlock.getNumDocs());
+    return _longResults;
+  }
+
+  @Override
+  public double[] transformToDoubleValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_resultMetadata != DOUBLE_SV_NO_DICTIONARY_METADATA) {
+      return super.transformToDoubleValuesSV(projectionBlock);
+    }
+    if (_doubleResults == null) {
+      _doubleResults = BlockBufferPool.getThreadLocalPool().leaseDoubleBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
+    }
+    if (_stringValueBuffer == null) {
+      _stringValueBuffer = BlockBufferPool.getThreadLocalPool().leaseDoubleBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
+    }
+    double[] values = getDoubleValuesSV(_transformFunction, projectionBlock, _stringValueBuffer);
+    applyMathOperator(values, _doubleResults, projectionBlock.getNumDocs());
+    return _doubleResults;
+  }
+
+  /**
+   * Returns whether the function has an integral kernel, i.e. its result on integral values is integral.
+   */
+  protected boolean hasLongKernel() {
+    return false;
+  }
+
+  /**
+   * Applies the math operator on the long values. Only called when {@link #hasLongKernel()} returns true.
+   */
+  protected void applyMathOperator(long[] values, long[] results, int length) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Applies the math operator on the double values.
+   */
+  protected abstract void applyMathOperator(double[] values, double[] results, int length);
+
+  public static class AbsTransformFunction extends SingleParamMathTransformFunction {
+    public static final String FUNCTION_NAME = "abs";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected boolean hasLongKernel() {
+      return true;
+    }
+
+    @Override
+    protected void applyMathOperator(long[] values, long[] results, int length) {
+      for (int i = 0; i < length; i++) {
+        results[i] = Math.abs(values[i]);
+      }
+    }
+
+    @Override
+    protected void applyMathOperator(double[] values, double[] results, int length) {
+      for (int i = 0; i < length; i++) {
+        results[i] = Math.abs(values[i]);
+      }
+    }
+  }
+
+  public static class CeilTransformFunction extends SingleParamMathTransformFunction {
+    public static final String FUNCTION_NAME = "ceil";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected boolean hasLongKernel() {
+      return true;
+    }
+
+    @Override
+    protected void applyMathOperator(long[] values, long[] results, int length) {
+      System.arraycopy(values, 0, results, 0, length);
+    }
+
+    @Override
+    protected void applyMathOperator(double[] values, double[] results, int length) {
+      for (int i = 0; i < length; i++) {
+        results[i] = Math.ceil(values[i]);
+      }
+    }
+  }
+
+  public static class FloorTransformFunction extends SingleParamMathTransformFunction {
+    public static final String FUNCTION_NAME = "floor";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected boolean hasLongKernel() {
+      return true;
+    }
+
+    @Override
+    protected void applyMathOperator(long[] values, long[] results, int length) {
+      System.arraycopy(values, 0, results, 0, length);
+    }
+
+    @Override
+    protected void applyMathOperator(double[] values, double[] results, int length) {
+      for (int i = 0; i < length; i++) {
+        results[i] = Math.floor(values[i]);
+      }
+    }
+  }
+
+  public static class ExpTransformFunction extends SingleParamMathTransformFunction {
+    public static final String FUNCTION_NAME = "exp";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected void applyMathOperator(double[] values, double[] results, int length) {
+      for (int i = 0; i < length; i++) {
+        results[i] = Math.exp(values[i]);
+      }
+    }
+  }
+
+  public static class LnTransformFunction extends SingleParamMathTransformFunction {
+    public static final String FUNCTION_NAME = "ln";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected void applyMathOperator(double[] values, double[] results, int length) {
+      for (int i = 0; i < length; i++) {
+        results[i] = Math.log(values[i]);
+      }
+    }
+  }
+
+  public static class SqrtTransformFunction extends SingleParamMathTransformFunction {
+    public static final String FUNCTION_NAME = "sqrt";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected void applyMathOperator(double[] values, double[] results, int length) {
+      for (int i = 0; i < length; i++) {
+        results[i] = Math.sqrt(values[i]);
+      }
+    }
+  }
+}
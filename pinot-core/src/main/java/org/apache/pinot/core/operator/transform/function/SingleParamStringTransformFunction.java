@@ -0,0 +1,114 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.transform.function;
+
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import org.apache.pinot.core.common.BlockBufferPool;
+import org.apache.pinot.core.common.DataSource;
+import org.apache.pinot.core.operator.blocks.ProjectionBlock;
+import org.apache.pinot.core.operator.transform.TransformResultMetadata;
+import org.apache.pinot.core.plan.DocIdSetPlanNode;
+
+
+/**
+ * Base class for the string transform functions with one single-valued argument, which return STRING values.
+ */
+public abstract class SingleParamStringTransformFunction extends BaseTransformFunction {
+  private TransformFunction _transformFunction;
+  private String[] _results;
+
+  @Override
+  public void init(@Nonnull List<TransformFunction> arguments, @Nonnull Map<String, DataSource> dataSourceMap) {
+    if (arguments.size() != 1) {
+      throw new IllegalArgumentException("Exactly 1 argument is required for " + getName() + " transform function");
+    }
+    TransformFunction argument = arguments.get(0);
+    if (!argument.getResultMetadata().isSingleValue()) {
+      throw new IllegalArgumentException("The argument of " + getName() + " transform function must be single-valued");
+    }
+    _transformFunction = argument;
+  }
+
+  @Override
+  public TransformResultMetadata getResultMetadata() {
+    return STRING_SV_NO_DICTIONARY_METADATA;
+  }
+
+  @Override
+  public String[] transformToStringValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_results == null) {
+      _results = BlockBufferPool.getThreadLocalPool().leaseStringBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
+    }
+    int length = projectionBlock.getNumDocs();
+    String[] values = _transformFunction.transformToStringValuesSV(projectionBlock);
+    for (int i = 0; i < length; i++) {
+      _results[i] = apply(values[i]);
+    }
+    return _results;
+  }
+
+  /**
+   * Applies the function on a single value.
+   */
+  protected abstract String apply(String value);
+
+  public static class LowerTransformFunction extends SingleParamStringTransformFunction {
+    public static final String FUNCTION_NAME = "lower";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected String apply(String value) {
+      return value.toLowerCase();
+    }
+  }
+
+  public static class UpperTransformFunction extends SingleParamStringTransformFunction {
+    public static final String FUNCTION_NAME = "upper";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected String apply(String value) {
+      return value.toUpperCase();
+    }
+  }
+
+  public static class TrimTransformFunction extends SingleParamStringTransformFunction {
+    public static final String FUNCTION_NAME = "trim";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected String apply(String value) {
+      return value.trim();
+    }
+  }
+}
@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.transform.function;
+
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import org.apache.pinot.core.common.BlockBufferPool;
+import org.apache.pinot.core.common.DataSource;
+import org.apache.pinot.core.operator.blocks.ProjectionBlock;
+import org.apache.pinot.core.operator.transform.TransformResultMetadata;
+import org.apache.pinot.core.plan.DocIdSetPlanNode;
+
+
+/**
+ * The <code>SubstrTransformFunction</code> class returns the substring of the string values.
+ * <p>E.g. <code>substr(col, 2)</code> returns the substring from index 2 (inclusive, 0-based) to the end;
+ * <code>substr(col, 2, 5)</code> returns the substring from index 2 (inclusive) to index 5 (exclusive). The indexes are
+ * capped at the length of the value, and an end index of -1 means the end of the value.
+ */
+public class SubstrTransformFunction extends BaseTransformFunction {
+  public static final String FUNCTION_NAME = "substr";
+
+  private TransformFunction _transformFunction;
+  private int _beginIndex;
+  private int _endIndex = -1;
+  private String[] _results;
+
+  @Override
+  public String getName() {
+    return FUNCTION_NAME;
+  }
+
+  @Override
+  public void init(@Nonnull List<TransformFunction> arguments, @Nonnull Map<String, DataSource> dataSourceMap) {
+    int numArguments = arguments.size();
+    if (numArguments != 2 && numArguments != 3) {
+      throw new IllegalArgumentException("2 or 3 arguments are required for SUBSTR transform function");
+    }
+
+    TransformFunction firstArgument = arguments.get(0);
+    if (!firstArgument.getResultMetadata().isSingleValue()) {
+      throw new IllegalArgumentException("First argument of SUBSTR transform function must be single-valued");
+    }
+    _transformFunction = firstArgument;
+
+    _beginIndex = getIndex(arguments.get(1));
+    if (_beginIndex < 0) {
+      throw new IllegalArgumentException("Begin index of SUBSTR transform function must be non-negative");
+    }
+    if (numArguments == 3) {
+      _endIndex = getIndex(arguments.get(2));
+      if (_endIndex != -1 && _endIndex < _beginIndex) {
+        throw new IllegalArgumentException(
+            "End index of SUBSTR transform function must be -1 or larger than or equal to the begin index");
+      }
+    }
+  }
+
+  private static int getIndex(TransformFunction argument) {
+    if (!(argument instanceof LiteralTransformFunction)) {
+      throw new IllegalArgumentException("Index arguments of SUBSTR transform function must be literals");
+    }
+    return Integer.parseInt(((LiteralTransformFunction) argument).getLiteral());
+  }
+
+  @Override
+  public TransformResultMetadata getResultMetadata() {
+    return STRING_SV_NO_DICTIONARY_METADATA;
+  }
+
+  @Override
+  public String[] transformToStringValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_results == null) {
+      _results = BlockBufferPool.getThreadLocalPool().leaseStringBuffer(DocIdSetPlanNode.MAX_DOC_PER_CALL);
+    }
+    int length = projectionBlock.getNumDocs();
+    String[] values = _transformFunction.transformToStringValuesSV(projectionBlock);
+    for (int i = 0; i < length; i++) {
+      String value = values[i];
+      int valueLength = value.length();
+      int beginIndex = Math.min(_beginIndex, valueLength);
+      int endIndex = _endIndex == -1 ? valueLength : Math.min(_endIndex, valueLength);
+      _results[i] = value.substring(beginIndex, endIndex);
+    }
+    return _results;
+  }
+}
@@ -19,13 +19,21 @@
 package org.apache.pinot.core.operator.transform.function;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.pinot.common.data.FieldSpec.DataType;
 import org.apache.pinot.common.request.transform.TransformExpressionTree;
+import org.apache.pinot.core.common.Block;
 import org.apache.pinot.core.common.DataSource;
+import org.apache.pinot.core.operator.blocks.DocIdSetBlock;
+import org.apache.pinot.core.operator.blocks.ProjectionBlock;
+import org.apache.pinot.core.operator.transform.TransformResultMetadata;
 import org.apache.pinot.core.query.exception.BadQueryRequestException;
 
 
@@ -48,6 +56,30 @@ public class TransformFunctionFactory {
           put(DateTimeConversionTransformFunction.FUNCTION_NAME.toLowerCase(),
               DateTimeConversionTransformFunction.class);
           put(ValueInTransformFunction.FUNCTION_NAME.toLowerCase(), ValueInTransformFunction.class);
+          put(ModuloTransformFunction.FUNCTION_NAME.toLowerCase(), ModuloTransformFunction.class);
+          put(SingleParamMathTransformFunction.AbsTransformFunction.FUNCTION_NAME.toLowerCase(),
+              SingleParamMathTransformFunction.AbsTransformFunction.class);
+          put(SingleParamMathTransformFunction.CeilTransformFunction.FUNCTION_NAME.toLowerCase(),
+              SingleParamMathTransformFunction.CeilTransformFunction.class);
+          put(SingleParamMathTransformFunction.FloorTransformFunction.FUNCTION_NAME.toLowerCase(),
+              SingleParamMathTransformFunction.FloorTransformFunction.class);
+          put(SingleParamMathTransformFunction.ExpTransformFunction.FUNCTION_NAME.toLowerCase(),
+              SingleParamMathTransformFunction.ExpTransformFunction.class);
+          put(SingleParamMathTransformFunction.LnTransformFunction.FUNCTION_NAME.toLowerCase(),
+              SingleParamMathTransformFunction.LnTransformFunction.class);
+          put(SingleParamMathTransformFunction.SqrtTransformFunction.FUNCTION_NAME.toLowerCase(),
+              SingleParamMathTransformFunction.SqrtTransformFunction.class);
+          put(ConcatTransformFunction.FUNCTION_NAME.toLowerCase(), ConcatTransformFunction.class);
+          put(SubstrTransformFunction.FUNCTION_NAME.toLowerCase(), SubstrTransformFunction.class);
+          put(LengthTransformFunction.FUNCTION_NAME.toLowerCase(), LengthTransformFunction.class);
+          put(SingleParamStringTransformFunction.LowerTransformFunction.FUNCTION_NAME.toLowerCase(),
+              SingleParamStringTransformFunction.LowerTransformFunction.class);
+          put(SingleParamStringTransformFunction.UpperTransformFunction.FUNCTION_NAME.toLowerCase(),
+              SingleParamStringTransformFunction.UpperTransformFunction.class);
+          put(SingleParamStringTransformFunction.TrimTransformFunction.FUNCTION_NAME.toLowerCase(),
+              SingleParamStringTransformFunction.TrimTransformFunction.class);
+          put(JsonExtractScalarTransformFunction.FUNCTION_NAME.toLowerCase(),
+              JsonExtractScalarTransformFunction.class);
         }
       };
 
@@ -84,9 +116,67 @@ public class TransformFunctionFactory {
    */
   public static TransformFunction get(@Nonnull TransformExpressionTree expression,
       @Nonnull Map<String, DataSource> dataSourceMap) {
+    return get(expression, dataSourceMap, null, null);
+  }
+
+  /**
+   * Returns the transform functions for the given expressions, where the common sub-expressions share the same
+   * transform function instance, and are evaluated only once per block.
+   * <p>The shared sub-expressions and the top-level expressions (which can be consumed by multiple aggregation or
+   * group-by functions) are wrapped with {@link CachingTransformFunction}.
+   *
+   * @param expressions Transform expressions
+   * @param dataSourceMap Map from column name to column data source
+   * @return Map from expression to transform function
+   */
+  public static Map<TransformExpressionTree, TransformFunction> get(
+      @Nonnull Collection<TransformExpressionTree> expressions, @Nonnull Map<String, DataSource> dataSourceMap) {
+    // Count the consumers of each function sub-expression. Sub-expressions of a shared sub-expression are only counted
+    // once because they are evaluated once for all the consumers of the shared sub-expression.
+    Map<TransformExpressionTree, Integer> numConsumersMap = new HashMap<>();
+    for (TransformExpressionTree expression : expressions) {
+      countConsumers(expression, numConsumersMap);
+      if (expression.getExpressionType() == TransformExpressionTree.ExpressionType.FUNCTION) {
+        numConsumersMap.put(expression, numConsumersMap.get(expression) + 1);
+      }
+    }
+
+    Map<TransformExpressionTree, TransformFunction> sharedTransformFunctionMap = new HashMap<>();
+    Map<TransformExpressionTree, TransformFunction> transformFunctionMap = new HashMap<>();
+    for (TransformExpressionTree expression : expressions) {
+      transformFunctionMap.put(expression, get(expression, dataSourceMap, numConsumersMap, sharedTransformFunctionMap));
+    }
+    return transformFunctionMap;
+  }
+
+  private static void countConsumers(TransformExpressionTree expression,
+      Map<TransformExpressionTree, Integer> numConsumersMap) {
+    if (expression.getExpressionType() != TransformExpressionTree.ExpressionType.FUNCTION) {
+      return;
+    }
+    Integer numConsumers = numConsumersMap.get(expression);
+    if (numConsumers == null) {
+      numConsumersMap.put(expression, 1);
+      for (TransformExpressionTree child : expression.getChildren()) {
+        countConsumers(child, numConsumersMap);
+      }
+    } else {
+      numConsumersMap.put(expression, numConsumers + 1);
+    }
+  }
+
+  private static TransformFunction get(TransformExpressionTree expression, Map<String, DataSource> dataSourceMap,
+      @Nullable Map<TransformExpressionTree, Integer> numConsumersMap,
+      @Nullable Map<TransformExpressionTree, TransformFunction> sharedTransformFunctionMap) {
     TransformFunction transformFunction;
     switch (expression.getExpressionType()) {
       case FUNCTION:
+        if (sharedTransformFunctionMap != null) {
+          transformFunction = sharedTransformFunctionMap.get(expression);
+          if (transformFunction != null) {
+            return transformFunction;
+          }
+        }
         String functionName = expression.getValue();
         Class<? extends TransformFunction> transformFunctionClass = TRANSFORM_FUNCTION_MAP.get(functionName);
         if (transformFunctionClass == null) {
@@ -100,7 +190,7 @@ public class TransformFunctionFactory {
         List<TransformExpressionTree> children = expression.getChildren();
         List<TransformFunction> arguments = new ArrayList<>(children.size());
         for (TransformExpressionTree child : children) {
-          arguments.add(TransformFunctionFactory.get(child, dataSourceMap));
+          arguments.add(get(child, dataSourceMap, numConsumersMap, sharedTransformFunctionMap));
         }
         try {
           transformFunction.init(arguments, dataSourceMap);
@@ -108,6 +198,13 @@ public class TransformFunctionFactory {
           throw new BadQueryRequestException(
               "Caught exception while initializing transform function: " + transformFunction.getName(), e);
         }
+        transformFunction = foldConstant(transformFunction, arguments);
+        if (sharedTransformFunctionMap != null) {
+          if (!(transformFunction instanceof LiteralTransformFunction) && numConsumersMap.get(expression) > 1) {
+            transformFunction = new CachingTransformFunction(transformFunction);
+          }
+          sharedTransformFunctionMap.put(expression, transformFunction);
+        }
         return transformFunction;
       case IDENTIFIER:
         String columnName = expression.getValue();
@@ -118,4 +215,56 @@ public class TransformFunctionFactory {
         throw new IllegalStateException();
     }
   }
+
+  /**
+   * Folds the transform function into a {@link LiteralTransformFunction} if all its arguments are literals and it
+   * returns single-valued results, so that the function is evaluated once per query instead of once per block.
+   * <p>The expression tree is not modified, so that the result column names are not affected.
+   */
+  private static TransformFunction foldConstant(TransformFunction transformFunction,
+      List<TransformFunction> arguments) {
+    if (arguments.isEmpty()) {
+      return transformFunction;
+    }
+    for (TransformFunction argument : arguments) {
+      if (!(argument instanceof LiteralTransformFunction)) {
+        return transformFunction;
+      }
+    }
+    TransformResultMetadata resultMetadata = transformFunction.getResultMetadata();
+    if (!resultMetadata.isSingleValue()) {
+      return transformFunction;
+    }
+
+    // Evaluate the function on a block with a single document
+    ProjectionBlock projectionBlock =
+        new ProjectionBlock(Collections.<String, Block>emptyMap(), null, new DocIdSetBlock(new int[1], 1));
+    DataType dataType = resultMetadata.getDataType();
+    String value;
+    try {
+      switch (dataType) {
+        case INT:
+          value = Integer.toString(transformFunction.transformToIntValuesSV(projectionBlock)[0]);
+          break;
+        case LONG:
+          value = Long.toString(transformFunction.transformToLongValuesSV(projectionBlock)[0]);
+          break;
+        case FLOAT:
+          value = Float.toString(transformFunction.transformToFloatValuesSV(projectionBlock)[0]);
+          break;
+        case DOUBLE:
+          value = Double.toString(transformFunction.transformToDoubleValuesSV(projectionBlock)[0]);
+          break;
+        case STRING:
+          value = transformFunction.transformToStringValuesSV(projectionBlock)[0];
+          break;
+        default:
+          return transformFunction;
+      }
+    } catch (Exception e) {
+      throw new BadQueryRequestException(
+          "Caught exception while evaluating transform function: " + transformFunction.getName(), e);
+    }
+    return new LiteralTransformFunction(value, dataType);
+  }
 }
@@ -19,8 +19,14 @@
 package org.apache.pinot.core.plan;
 
 import com.google.common.base.Preconditions;
+import java.util.Map;
+import java.util.Set;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.pinot.common.data.FieldSpec.DataType;
 import org.apache.pinot.common.request.BrokerRequest;
+import org.apache.pinot.core.common.DataSourceMetadata;
 import org.apache.pinot.core.indexsegment.IndexSegment;
 import org.apache.pinot.core.operator.DocIdSetOperator;
 import org.slf4j.Logger;
@@ -29,6 +35,15 @@ import org.slf4j.LoggerFactory;
 
 public class DocIdSetPlanNode implements PlanNode {
   public static int MAX_DOC_PER_CALL = 10000;
+  public static final int MIN_DOC_PER_CALL = 1000;
+
+  // Target size of the projected values of a block, so that the values (and the transform results computed from them)
+  // stay in the CPU cache while being processed
+  public static final int TARGET_BLOCK_SIZE_IN_BYTES = 1024 * 1024;
+  // Estimated size of the variable length values (STRING and BYTES)
+  private static final int ESTIMATED_VARIABLE_LENGTH_VALUE_SIZE = 32;
+  // Debug option to disable the adaptive block size
+  public static final String USE_ADAPTIVE_BLOCK_SIZE = "useAdaptiveBlockSize";
 
   private static final Logger LOGGER = LoggerFactory.getLogger(DocIdSetPlanNode.class);
 
@@ -47,6 +62,39 @@ public class DocIdSetPlanNode implements PlanNode {
     this(indexSegment, brokerRequest, MAX_DOC_PER_CALL);
   }
 
+  /**
+   * Returns the maximum number of documents per block for the given projection columns, so that the size of the
+   * projected values of a block is around {@link #TARGET_BLOCK_SIZE_IN_BYTES}. The result is in the range of
+   * [{@link #MIN_DOC_PER_CALL}, {@link #MAX_DOC_PER_CALL}], and is always {@link #MAX_DOC_PER_CALL} when the adaptive
+   * block size is disabled in the debug options.
+   */
+  public static int getMaxDocPerCall(IndexSegment indexSegment, Set<String> projectionColumns,
+      @Nullable Map<String, String> debugOptions) {
+    if (debugOptions != null
+        && StringUtils.compareIgnoreCase(debugOptions.get(USE_ADAPTIVE_BLOCK_SIZE), "false") == 0) {
+      return MAX_DOC_PER_CALL;
+    }
+    long bytesPerDoc = 0;
+    for (String column : projectionColumns) {
+      DataSourceMetadata dataSourceMetadata = indexSegment.getDataSource(column).getDataSourceMetadata();
+      DataType dataType = dataSourceMetadata.getDataType();
+      int valueSize = dataType == DataType.STRING || dataType == DataType.BYTES ? ESTIMATED_VARIABLE_LENGTH_VALUE_SIZE
+          : dataType.size();
+      if (dataSourceMetadata.hasDictionary()) {
+        // Both dictionary ids and values are read
+        valueSize += Integer.BYTES;
+      }
+      int numValuesPerDoc =
+          dataSourceMetadata.isSingleValue() ? 1 : Math.max(dataSourceMetadata.getMaxNumMultiValues(), 1);
+      bytesPerDoc += (long) valueSize * numValuesPerDoc;
+    }
+    if (bytesPerDoc == 0) {
+      return MAX_DOC_PER_CALL;
+    }
+    long maxDocPerCall = TARGET_BLOCK_SIZE_IN_BYTES / bytesPerDoc;
+    return (int) Math.min(Math.max(maxDocPerCall, MIN_DOC_PER_CALL), MAX_DOC_PER_CALL);
+  }
+
   @Override
   public DocIdSetOperator run() {
     return new DocIdSetOperator(_filterPlanNode.run(), _maxDocPerCall);
@@ -24,6 +24,7 @@ import java.util.Map;
 import javax.annotation.Nullable;
 import org.apache.pinot.common.request.BrokerRequest;
 import org.apache.pinot.common.request.FilterOperator;
+import org.apache.pinot.common.request.transform.TransformExpressionTree;
 import org.apache.pinot.common.utils.request.FilterQueryTree;
 import org.apache.pinot.common.utils.request.RequestUtils;
 import org.apache.pinot.core.common.DataSource;
@@ -31,6 +32,8 @@ import org.apache.pinot.core.common.Predicate;
 import org.apache.pinot.core.indexsegment.IndexSegment;
 import org.apache.pinot.core.operator.filter.BaseFilterOperator;
 import org.apache.pinot.core.operator.filter.EmptyFilterOperator;
+import org.apache.pinot.core.operator.filter.ExpressionFilterOperator;
+import org.apache.pinot.core.operator.filter.ExpressionPredicateRewriter;
 import org.apache.pinot.core.operator.filter.FilterOperatorUtils;
 import org.apache.pinot.core.operator.filter.MatchAllFilterOperator;
 import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
@@ -100,8 +103,20 @@ public class FilterPlanNode implements PlanNode {
       }
     } else {
       // Leaf filter operator
+      String column = filterQueryTree.getColumn();
+      if (RequestUtils.isExpression(column)) {
+        // Predicate on transform expression, rewrite it into predicate on the column if possible to use the indexes,
+        // otherwise evaluate the expression on all the documents
+        TransformExpressionTree expression = TransformExpressionTree.compileToExpressionTree(column);
+        FilterQueryTree rewrittenFilterQueryTree =
+            ExpressionPredicateRewriter.rewrite(filterQueryTree, expression, segment);
+        if (rewrittenFilterQueryTree != null) {
+          return constructPhysicalOperator(rewrittenFilterQueryTree, segment, debugOptions);
+        }
+        return new ExpressionFilterOperator(segment, expression, Predicate.newPredicate(filterQueryTree), numDocs);
+      }
       Predicate predicate = Predicate.newPredicate(filterQueryTree);
-      DataSource dataSource = segment.getDataSource(filterQueryTree.getColumn());
+      DataSource dataSource = segment.getDataSource(column);
       PredicateEvaluator predicateEvaluator = PredicateEvaluatorProvider.getPredicateEvaluator(predicate, dataSource);
       return FilterOperatorUtils.getLeafFilterOperator(predicateEvaluator, dataSource, numDocs);
     }
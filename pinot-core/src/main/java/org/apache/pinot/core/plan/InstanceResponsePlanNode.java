@@ -27,15 +27,21 @@ public class InstanceResponsePlanNode implements PlanNode {
   private static final Logger LOGGER = LoggerFactory.getLogger(InstanceResponsePlanNode.class);
 
   private final CombinePlanNode _combinePlanNode;
+  private final boolean _distinctCountBitmapSupported;
 
-  public InstanceResponsePlanNode(CombinePlanNode combinePlanNode) {
+  /**
+   * @param combinePlanNode Combine plan node
+   * @param distinctCountBitmapSupported Whether the broker can read the DISTINCTCOUNT intermediate results as bitmaps
+   */
+  public InstanceResponsePlanNode(CombinePlanNode combinePlanNode, boolean distinctCountBitmapSupported) {
     _combinePlanNode = combinePlanNode;
+    _distinctCountBitmapSupported = distinctCountBitmapSupported;
   }
 
   @Override
   public InstanceResponseOperator run() {
     long start = System.currentTimeMillis();
-    InstanceResponseOperator instanceResponseOperator = new InstanceResponseOperator(_combinePlanNode.run());
+    InstanceResponseOperator instanceResponseOperator = new InstanceResponseOperator(_combinePlanNode.run(), _distinctCountBitmapSupported);
     long end = System.currentTimeMillis();
     LOGGER.debug("InstanceResponsePlanNode.run took: {}ms", end - start);
     return instanceResponseOperator;
@@ -18,6 +18,7 @@
  */
 package org.apache.pinot.core.plan;
 
+import java.util.Set;
 import org.apache.pinot.common.request.BrokerRequest;
 import org.apache.pinot.common.request.Selection;
 import org.apache.pinot.core.common.Operator;
@@ -45,7 +46,9 @@ public class SelectionPlanNode implements PlanNode {
     _selection = brokerRequest.getSelections();
 
     if (_selection.getSize() > 0) {
-      int maxDocPerNextCall = DocIdSetPlanNode.MAX_DOC_PER_CALL;
+      Set<String> projectionColumns = SelectionOperatorUtils.extractSelectionRelatedColumns(_selection, indexSegment);
+      int maxDocPerNextCall =
+          DocIdSetPlanNode.getMaxDocPerCall(indexSegment, projectionColumns, brokerRequest.getDebugOptions());
 
       // No ordering required, select minimum number of documents
       if (!_selection.isSetSelectionSortSequence()) {
@@ -53,8 +56,7 @@ public class SelectionPlanNode implements PlanNode {
       }
 
       DocIdSetPlanNode docIdSetPlanNode = new DocIdSetPlanNode(_indexSegment, brokerRequest, maxDocPerNextCall);
-      _projectionPlanNode = new ProjectionPlanNode(_indexSegment,
-          SelectionOperatorUtils.extractSelectionRelatedColumns(_selection, indexSegment), docIdSetPlanNode);
+      _projectionPlanNode = new ProjectionPlanNode(_indexSegment, projectionColumns, docIdSetPlanNode);
     } else {
       _projectionPlanNode = null;
     }
@@ -52,8 +52,10 @@ public class TransformPlanNode implements PlanNode {
   public TransformPlanNode(@Nonnull IndexSegment indexSegment, @Nonnull BrokerRequest brokerRequest) {
     _segmentName = indexSegment.getSegmentName();
     extractColumnsAndTransforms(brokerRequest);
-    _projectionPlanNode =
-        new ProjectionPlanNode(indexSegment, _projectionColumns, new DocIdSetPlanNode(indexSegment, brokerRequest));
+    int maxDocPerCall =
+        DocIdSetPlanNode.getMaxDocPerCall(indexSegment, _projectionColumns, brokerRequest.getDebugOptions());
+    _projectionPlanNode = new ProjectionPlanNode(indexSegment, _projectionColumns,
+        new DocIdSetPlanNode(indexSegment, brokerRequest, maxDocPerCall));
   }
 
   /**
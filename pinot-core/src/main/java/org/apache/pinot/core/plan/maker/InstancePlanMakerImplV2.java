@@ -22,10 +22,12 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import org.apache.pinot.common.request.AggregationInfo;
 import org.apache.pinot.common.request.BrokerRequest;
 import org.apache.pinot.common.request.transform.TransformExpressionTree;
+import org.apache.pinot.common.utils.CommonConstants;
 import org.apache.pinot.core.data.manager.SegmentDataManager;
 import org.apache.pinot.core.indexsegment.IndexSegment;
 import org.apache.pinot.core.plan.AggregationGroupByPlanNode;
@@ -132,7 +134,12 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
     CombinePlanNode combinePlanNode =
         new CombinePlanNode(planNodes, brokerRequest, executorService, timeOutMs, _numGroupsLimit);
 
-    return new GlobalPlanImplV0(new InstanceResponsePlanNode(combinePlanNode));
+    // Only send the DISTINCTCOUNT intermediate results as bitmaps if the broker can read them
+    Map<String, String> queryOptions = brokerRequest.getQueryOptions();
+    boolean distinctCountBitmapSupported = queryOptions != null && Boolean
+        .parseBoolean(queryOptions.get(CommonConstants.Broker.Request.QueryOptionKey.DISTINCT_COUNT_BITMAP));
+
+    return new GlobalPlanImplV0(new InstanceResponsePlanNode(combinePlanNode, distinctCountBitmapSupported));
   }
 
   /**
@@ -26,8 +26,8 @@ import org.apache.pinot.core.common.ObjectSerDeUtils;
 import org.apache.pinot.core.query.aggregation.AggregationResultHolder;
 import org.apache.pinot.core.query.aggregation.ObjectAggregationResultHolder;
 import org.apache.pinot.core.query.aggregation.function.customobject.AvgPair;
+import org.apache.pinot.core.query.aggregation.groupby.DoublePairGroupByResultHolder;
 import org.apache.pinot.core.query.aggregation.groupby.GroupByResultHolder;
-import org.apache.pinot.core.query.aggregation.groupby.ObjectGroupByResultHolder;
 
 
 public class AvgAggregationFunction implements AggregationFunction<AvgPair, Double> {
@@ -59,7 +59,8 @@ public class AvgAggregationFunction implements AggregationFunction<AvgPair, Doub
   @Nonnull
   @Override
   public GroupByResultHolder createGroupByResultHolder(int initialCapacity, int maxCapacity) {
-    return new ObjectGroupByResultHolder(initialCapacity, maxCapacity);
+    // Sum and count are stored in primitive arrays (count is exact up to 2^53)
+    return new DoublePairGroupByResultHolder(initialCapacity, maxCapacity, 0.0, 0.0);
   }
 
   @Override
@@ -168,12 +169,7 @@ public class AvgAggregationFunction implements AggregationFunction<AvgPair, Doub
 
   protected void setGroupByResult(int groupKey, @Nonnull GroupByResultHolder groupByResultHolder, double sum,
       long count) {
-    AvgPair avgPair = groupByResultHolder.getResult(groupKey);
-    if (avgPair == null) {
-      groupByResultHolder.setValueForKey(groupKey, new AvgPair(sum, count));
-    } else {
-      avgPair.apply(sum, count);
-    }
+    ((DoublePairGroupByResultHolder) groupByResultHolder).addValuesForKey(groupKey, sum, count);
   }
 
   @Nonnull
@@ -190,12 +186,9 @@ public class AvgAggregationFunction implements AggregationFunction<AvgPair, Doub
   @Nonnull
   @Override
   public AvgPair extractGroupByResult(@Nonnull GroupByResultHolder groupByResultHolder, int groupKey) {
-    AvgPair avgPair = groupByResultHolder.getResult(groupKey);
-    if (avgPair == null) {
-      return new AvgPair(0.0, 0L);
-    } else {
-      return avgPair;
-    }
+    DoublePairGroupByResultHolder doublePairGroupByResultHolder = (DoublePairGroupByResultHolder) groupByResultHolder;
+    return new AvgPair(doublePairGroupByResultHolder.getFirstValue(groupKey),
+        (long) doublePairGroupByResultHolder.getSecondValue(groupKey));
   }
 
   @Nonnull
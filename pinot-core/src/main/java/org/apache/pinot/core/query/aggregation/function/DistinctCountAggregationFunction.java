@@ -19,6 +19,7 @@
 package org.apache.pinot.core.query.aggregation.function;
 
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import java.util.Arrays;
 import javax.annotation.Nonnull;
 import org.apache.pinot.common.data.FieldSpec;
 import org.apache.pinot.common.utils.DataSchema;
@@ -27,9 +28,25 @@ import org.apache.pinot.core.query.aggregation.AggregationResultHolder;
 import org.apache.pinot.core.query.aggregation.ObjectAggregationResultHolder;
 import org.apache.pinot.core.query.aggregation.groupby.GroupByResultHolder;
 import org.apache.pinot.core.query.aggregation.groupby.ObjectGroupByResultHolder;
+import org.apache.pinot.core.segment.index.readers.Dictionary;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
 
 
-public class DistinctCountAggregationFunction implements AggregationFunction<IntOpenHashSet, Integer> {
+/**
+ * Aggregation function to count the distinct values of a column.
+ * <p>For dictionary-encoded columns, the distinct dictionary ids within the segment are collected into a
+ * {@link RoaringBitmap}, which does not need to read or hash the values per row. The dictionary ids are resolved into
+ * the value hashes only when extracting the segment result.
+ * <p>The intermediate result is a {@link RoaringBitmap} of the 32-bit value hashes, which is much more compact than a
+ * hash set for both the data table and the merge. The count is exact for INT and FLOAT columns, where the hash is the
+ * value itself (or its bits). For LONG, DOUBLE and STRING columns, values with colliding hashes are counted once, so
+ * the count can be lower than the actual distinct count, same as the hash set based implementation.
+ * <p>The intermediate result is only sent as a bitmap to the brokers that announce support for it with the query
+ * option {@link org.apache.pinot.common.utils.CommonConstants.Broker.Request.QueryOptionKey#DISTINCT_COUNT_BITMAP}.
+ * Otherwise, it is sent as a value set ({@link IntOpenHashSet}), which can be read by the brokers of all versions.
+ */
+public class DistinctCountAggregationFunction implements AggregationFunction<RoaringBitmap, Integer> {
 
   @Nonnull
   @Override
@@ -63,9 +80,18 @@ public class DistinctCountAggregationFunction implements AggregationFunction<Int
   @Override
   public void aggregate(int length, @Nonnull AggregationResultHolder aggregationResultHolder,
       @Nonnull BlockValSet... blockValSets) {
-    IntOpenHashSet valueSet = getValueSet(aggregationResultHolder);
-
     FieldSpec.DataType valueType = blockValSets[0].getValueType();
+    Dictionary dictionary = blockValSets[0].getDictionary();
+    if (dictionary != null) {
+      RoaringBitmap dictIdBitmap = getDictIdBitmap(aggregationResultHolder, dictionary, valueType);
+      int[] dictIds = blockValSets[0].getDictionaryIdsSV();
+      for (int i = 0; i < length; i++) {
+        dictIdBitmap.add(dictIds[i]);
+      }
+      return;
+    }
+
+    IntOpenHashSet valueSet = getValueSet(aggregationResultHolder);
     switch (valueType) {
       case INT:
         int[] intValues = blockValSets[0].getIntValuesSV();
@@ -106,6 +132,15 @@ public class DistinctCountAggregationFunction implements AggregationFunction<Int
   public void aggregateGroupBySV(int length, @Nonnull int[] groupKeyArray,
       @Nonnull GroupByResultHolder groupByResultHolder, @Nonnull BlockValSet... blockValSets) {
     FieldSpec.DataType valueType = blockValSets[0].getValueType();
+    Dictionary dictionary = blockValSets[0].getDictionary();
+    if (dictionary != null) {
+      int[] dictIds = blockValSets[0].getDictionaryIdsSV();
+      for (int i = 0; i < length; i++) {
+        getDictIdBitmap(groupByResultHolder, groupKeyArray[i], dictionary, valueType).add(dictIds[i]);
+      }
+      return;
+    }
+
     switch (valueType) {
       case INT:
         int[] intValues = blockValSets[0].getIntValuesSV();
@@ -146,6 +181,17 @@ public class DistinctCountAggregationFunction implements AggregationFunction<Int
   public void aggregateGroupByMV(int length, @Nonnull int[][] groupKeysArray,
       @Nonnull GroupByResultHolder groupByResultHolder, @Nonnull BlockValSet... blockValSets) {
     FieldSpec.DataType valueType = blockValSets[0].getValueType();
+    Dictionary dictionary = blockValSets[0].getDictionary();
+    if (dictionary != null) {
+      int[] dictIds = blockValSets[0].getDictionaryIdsSV();
+      for (int i = 0; i < length; i++) {
+        for (int groupKey : groupKeysArray[i]) {
+          getDictIdBitmap(groupByResultHolder, groupKey, dictionary, valueType).add(dictIds[i]);
+        }
+      }
+      return;
+    }
+
     switch (valueType) {
       case INT:
         int[] intValues = blockValSets[0].getIntValuesSV();
@@ -184,31 +230,20 @@ public class DistinctCountAggregationFunction implements AggregationFunction<Int
 
   @Nonnull
   @Override
-  public IntOpenHashSet extractAggregationResult(@Nonnull AggregationResultHolder aggregationResultHolder) {
-    IntOpenHashSet valueSet = aggregationResultHolder.getResult();
-    if (valueSet == null) {
-      return new IntOpenHashSet();
-    } else {
-      return valueSet;
-    }
+  public RoaringBitmap extractAggregationResult(@Nonnull AggregationResultHolder aggregationResultHolder) {
+    return getValueBitmapResult(aggregationResultHolder.getResult());
   }
 
   @Nonnull
   @Override
-  public IntOpenHashSet extractGroupByResult(@Nonnull GroupByResultHolder groupByResultHolder, int groupKey) {
-    IntOpenHashSet valueSet = groupByResultHolder.getResult(groupKey);
-    if (valueSet == null) {
-      return new IntOpenHashSet();
-    } else {
-      return valueSet;
-    }
+  public RoaringBitmap extractGroupByResult(@Nonnull GroupByResultHolder groupByResultHolder, int groupKey) {
+    return getValueBitmapResult(groupByResultHolder.getResult(groupKey));
   }
 
   @Nonnull
   @Override
-  public IntOpenHashSet merge(@Nonnull IntOpenHashSet intermediateResult1,
-      @Nonnull IntOpenHashSet intermediateResult2) {
-    intermediateResult1.addAll(intermediateResult2);
+  public RoaringBitmap merge(@Nonnull RoaringBitmap intermediateResult1, @Nonnull RoaringBitmap intermediateResult2) {
+    intermediateResult1.or(intermediateResult2);
     return intermediateResult1;
   }
 
@@ -225,8 +260,8 @@ public class DistinctCountAggregationFunction implements AggregationFunction<Int
 
   @Nonnull
   @Override
-  public Integer extractFinalResult(@Nonnull IntOpenHashSet intermediateResult) {
-    return intermediateResult.size();
+  public Integer extractFinalResult(@Nonnull RoaringBitmap intermediateResult) {
+    return intermediateResult.getCardinality();
   }
 
   /**
@@ -284,4 +319,159 @@ public class DistinctCountAggregationFunction implements AggregationFunction<Int
     }
     return valueSet;
   }
+
+  /**
+   * Returns the dictionary id bitmap from the result holder or creates a new one if it does not exist.
+   *
+   * @param aggregationResultHolder Result holder
+   * @param dictionary Dictionary of the column
+   * @param valueType Data type of the column
+   * @return Dictionary id bitmap from the result holder
+   */
+  protected static RoaringBitmap getDictIdBitmap(@Nonnull AggregationResultHolder aggregationResultHolder,
+      @Nonnull Dictionary dictionary, @Nonnull FieldSpec.DataType valueType) {
+    DictIdsWrapper dictIdsWrapper = aggregationResultHolder.getResult();
+    if (dictIdsWrapper == null) {
+      dictIdsWrapper = new DictIdsWrapper(dictionary, valueType);
+      aggregationResultHolder.setValue(dictIdsWrapper);
+    }
+    return dictIdsWrapper._dictIdBitmap;
+  }
+
+  /**
+   * Returns the dictionary id bitmap for the given group key. If one does not exist, creates a new one and returns
+   * that.
+   *
+   * @param groupByResultHolder Result holder
+   * @param groupKey Group key for which to return the dictionary id bitmap
+   * @param dictionary Dictionary of the column
+   * @param valueType Data type of the column
+   * @return Dictionary id bitmap for the group key
+   */
+  protected static RoaringBitmap getDictIdBitmap(@Nonnull GroupByResultHolder groupByResultHolder, int groupKey,
+      @Nonnull Dictionary dictionary, @Nonnull FieldSpec.DataType valueType) {
+    DictIdsWrapper dictIdsWrapper = groupByResultHolder.getResult(groupKey);
+    if (dictIdsWrapper == null) {
+      dictIdsWrapper = new DictIdsWrapper(dictionary, valueType);
+      groupByResultHolder.setValueForKey(groupKey, dictIdsWrapper);
+    }
+    return dictIdsWrapper._dictIdBitmap;
+  }
+
+  /**
+   * Helper method to convert the result in the result holder (value set, dictionary id bitmap or null) to the value
+   * bitmap.
+   *
+   * @param result Result in the result holder
+   * @return Value bitmap for the result
+   */
+  private static RoaringBitmap getValueBitmapResult(Object result) {
+    if (result == null) {
+      return new RoaringBitmap();
+    }
+    if (result instanceof DictIdsWrapper) {
+      return ((DictIdsWrapper) result).toValueBitmap();
+    }
+    return toValueBitmap(((IntOpenHashSet) result).toIntArray());
+  }
+
+  /**
+   * Converts the DISTINCTCOUNT intermediate result received from a server to the value bitmap. The servers that do not
+   * support the bitmap intermediate result send value sets instead.
+   *
+   * @param intermediateResult Value bitmap or value set
+   * @return Value bitmap for the intermediate result
+   */
+  public static RoaringBitmap convertToValueBitmap(Object intermediateResult) {
+    if (intermediateResult instanceof RoaringBitmap) {
+      return (RoaringBitmap) intermediateResult;
+    }
+    return toValueBitmap(((IntOpenHashSet) intermediateResult).toIntArray());
+  }
+
+  /**
+   * Converts the value bitmap to the value set, which is the DISTINCTCOUNT intermediate result that can be read by the
+   * brokers that do not support the bitmap intermediate result.
+   *
+   * @param valueBitmap Value bitmap
+   * @return Value set for the value bitmap
+   */
+  public static IntOpenHashSet convertToValueSet(RoaringBitmap valueBitmap) {
+    IntOpenHashSet valueSet = new IntOpenHashSet(valueBitmap.getCardinality());
+    IntIterator iterator = valueBitmap.getIntIterator();
+    while (iterator.hasNext()) {
+      valueSet.add(iterator.next());
+    }
+    return valueSet;
+  }
+
+  /**
+   * Helper method to build the value bitmap from the given value hashes. The values are sorted first so that they are
+   * appended to the bitmap containers in order.
+   *
+   * @param values Value hashes (modified in place)
+   * @return Value bitmap for the values
+   */
+  private static RoaringBitmap toValueBitmap(int[] values) {
+    Arrays.sort(values);
+    RoaringBitmap valueBitmap = new RoaringBitmap();
+    for (int value : values) {
+      valueBitmap.add(value);
+    }
+    return valueBitmap;
+  }
+
+  /**
+   * Wrapper of the distinct dictionary ids within a segment along with the dictionary to resolve them.
+   */
+  private static final class DictIdsWrapper {
+    final Dictionary _dictionary;
+    final FieldSpec.DataType _valueType;
+    final RoaringBitmap _dictIdBitmap = new RoaringBitmap();
+
+    DictIdsWrapper(Dictionary dictionary, FieldSpec.DataType valueType) {
+      _dictionary = dictionary;
+      _valueType = valueType;
+    }
+
+    /**
+     * Resolves the dictionary ids into the value bitmap, with the same value hashing as the non-dictionary-encoded
+     * columns.
+     */
+    RoaringBitmap toValueBitmap() {
+      int[] values = new int[_dictIdBitmap.getCardinality()];
+      int index = 0;
+      IntIterator iterator = _dictIdBitmap.getIntIterator();
+      switch (_valueType) {
+        case INT:
+          while (iterator.hasNext()) {
+            values[index++] = _dictionary.getIntValue(iterator.next());
+          }
+          break;
+        case LONG:
+          while (iterator.hasNext()) {
+            values[index++] = Long.hashCode(_dictionary.getLongValue(iterator.next()));
+          }
+          break;
+        case FLOAT:
+          while (iterator.hasNext()) {
+            values[index++] = Float.hashCode(_dictionary.getFloatValue(iterator.next()));
+          }
+          break;
+        case DOUBLE:
+          while (iterator.hasNext()) {
+            values[index++] = Double.hashCode(_dictionary.getDoubleValue(iterator.next()));
+          }
+          break;
+        case STRING:
+          while (iterator.hasNext()) {
+            values[index++] = _dictionary.getStringValue(iterator.next()).hashCode();
+          }
+          break;
+        default:
+          throw new IllegalStateException("Illegal data type for DISTINCT_COUNT aggregation function: " + _valueType);
+      }
+      return DistinctCountAggregationFunction.toValueBitmap(values);
+    }
+  }
 }
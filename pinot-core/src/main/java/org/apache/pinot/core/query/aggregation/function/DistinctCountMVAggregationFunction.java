@@ -24,6 +24,8 @@ import org.apache.pinot.common.data.FieldSpec;
 import org.apache.pinot.core.common.BlockValSet;
 import org.apache.pinot.core.query.aggregation.AggregationResultHolder;
 import org.apache.pinot.core.query.aggregation.groupby.GroupByResultHolder;
+import org.apache.pinot.core.segment.index.readers.Dictionary;
+import org.roaringbitmap.RoaringBitmap;
 
 
 public class DistinctCountMVAggregationFunction extends DistinctCountAggregationFunction {
@@ -43,9 +45,20 @@ public class DistinctCountMVAggregationFunction extends DistinctCountAggregation
   @Override
   public void aggregate(int length, @Nonnull AggregationResultHolder aggregationResultHolder,
       @Nonnull BlockValSet... blockValSets) {
-    IntOpenHashSet valueSet = getValueSet(aggregationResultHolder);
-
     FieldSpec.DataType valueType = blockValSets[0].getValueType();
+    Dictionary dictionary = blockValSets[0].getDictionary();
+    if (dictionary != null) {
+      RoaringBitmap dictIdBitmap = getDictIdBitmap(aggregationResultHolder, dictionary, valueType);
+      int[][] dictIds = blockValSets[0].getDictionaryIdsMV();
+      for (int i = 0; i < length; i++) {
+        for (int dictId : dictIds[i]) {
+          dictIdBitmap.add(dictId);
+        }
+      }
+      return;
+    }
+
+    IntOpenHashSet valueSet = getValueSet(aggregationResultHolder);
     switch (valueType) {
       case INT:
         int[][] intValues = blockValSets[0].getIntValuesMV();
@@ -95,6 +108,18 @@ public class DistinctCountMVAggregationFunction extends DistinctCountAggregation
   public void aggregateGroupBySV(int length, @Nonnull int[] groupKeyArray,
       @Nonnull GroupByResultHolder groupByResultHolder, @Nonnull BlockValSet... blockValSets) {
     FieldSpec.DataType valueType = blockValSets[0].getValueType();
+    Dictionary dictionary = blockValSets[0].getDictionary();
+    if (dictionary != null) {
+      int[][] dictIds = blockValSets[0].getDictionaryIdsMV();
+      for (int i = 0; i < length; i++) {
+        RoaringBitmap dictIdBitmap = getDictIdBitmap(groupByResultHolder, groupKeyArray[i], dictionary, valueType);
+        for (int dictId : dictIds[i]) {
+          dictIdBitmap.add(dictId);
+        }
+      }
+      return;
+    }
+
     switch (valueType) {
       case INT:
         int[][] intValues = blockValSets[0].getIntValuesMV();
@@ -150,6 +175,20 @@ public class DistinctCountMVAggregationFunction extends DistinctCountAggregation
   public void aggregateGroupByMV(int length, @Nonnull int[][] groupKeysArray,
       @Nonnull GroupByResultHolder groupByResultHolder, @Nonnull BlockValSet... blockValSets) {
     FieldSpec.DataType valueType = blockValSets[0].getValueType();
+    Dictionary dictionary = blockValSets[0].getDictionary();
+    if (dictionary != null) {
+      int[][] dictIds = blockValSets[0].getDictionaryIdsMV();
+      for (int i = 0; i < length; i++) {
+        for (int groupKey : groupKeysArray[i]) {
+          RoaringBitmap dictIdBitmap = getDictIdBitmap(groupByResultHolder, groupKey, dictionary, valueType);
+          for (int dictId : dictIds[i]) {
+            dictIdBitmap.add(dictId);
+          }
+        }
+      }
+      return;
+    }
+
     switch (valueType) {
       case INT:
         int[][] intValues = blockValSets[0].getIntValuesMV();
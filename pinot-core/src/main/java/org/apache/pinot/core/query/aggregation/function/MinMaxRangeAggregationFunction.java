@@ -26,8 +26,8 @@ import org.apache.pinot.core.common.ObjectSerDeUtils;
 import org.apache.pinot.core.query.aggregation.AggregationResultHolder;
 import org.apache.pinot.core.query.aggregation.ObjectAggregationResultHolder;
 import org.apache.pinot.core.query.aggregation.function.customobject.MinMaxRangePair;
+import org.apache.pinot.core.query.aggregation.groupby.DoublePairGroupByResultHolder;
 import org.apache.pinot.core.query.aggregation.groupby.GroupByResultHolder;
-import org.apache.pinot.core.query.aggregation.groupby.ObjectGroupByResultHolder;
 
 
 public class MinMaxRangeAggregationFunction implements AggregationFunction<MinMaxRangePair, Double> {
@@ -58,7 +58,9 @@ public class MinMaxRangeAggregationFunction implements AggregationFunction<MinMa
   @Nonnull
   @Override
   public GroupByResultHolder createGroupByResultHolder(int initialCapacity, int maxCapacity) {
-    return new ObjectGroupByResultHolder(initialCapacity, maxCapacity);
+    // Min and max are stored in primitive arrays
+    return new DoublePairGroupByResultHolder(initialCapacity, maxCapacity, Double.POSITIVE_INFINITY,
+        Double.NEGATIVE_INFINITY);
   }
 
   @Override
@@ -177,12 +179,7 @@ public class MinMaxRangeAggregationFunction implements AggregationFunction<MinMa
 
   protected void setGroupByResult(int groupKey, @Nonnull GroupByResultHolder groupByResultHolder, double min,
       double max) {
-    MinMaxRangePair minMaxRangePair = groupByResultHolder.getResult(groupKey);
-    if (minMaxRangePair == null) {
-      groupByResultHolder.setValueForKey(groupKey, new MinMaxRangePair(min, max));
-    } else {
-      minMaxRangePair.apply(min, max);
-    }
+    ((DoublePairGroupByResultHolder) groupByResultHolder).applyMinMaxForKey(groupKey, min, max);
   }
 
   @Nonnull
@@ -199,12 +196,9 @@ public class MinMaxRangeAggregationFunction implements AggregationFunction<MinMa
   @Nonnull
   @Override
   public MinMaxRangePair extractGroupByResult(@Nonnull GroupByResultHolder groupByResultHolder, int groupKey) {
-    MinMaxRangePair minMaxRangePair = groupByResultHolder.getResult(groupKey);
-    if (minMaxRangePair == null) {
-      return new MinMaxRangePair(Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY);
-    } else {
-      return minMaxRangePair;
-    }
+    DoublePairGroupByResultHolder doublePairGroupByResultHolder = (DoublePairGroupByResultHolder) groupByResultHolder;
+    return new MinMaxRangePair(doublePairGroupByResultHolder.getFirstValue(groupKey),
+        doublePairGroupByResultHolder.getSecondValue(groupKey));
   }
 
   @Nonnull
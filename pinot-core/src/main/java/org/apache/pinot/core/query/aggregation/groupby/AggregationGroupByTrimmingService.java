@@ -30,12 +30,17 @@ import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.TreeMap;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.apache.commons.collections.comparators.ComparableComparator;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.pinot.common.response.broker.GroupByResult;
+import org.apache.pinot.common.utils.Pairs.IntDoublePair;
+import org.apache.pinot.common.utils.Pairs.IntObjectPair;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunctionUtils;
 import org.apache.pinot.core.query.aggregation.function.MinAggregationFunction;
+import org.apache.pinot.core.util.IntDoubleIndexedPriorityQueue;
+import org.apache.pinot.core.util.IntObjectIndexedPriorityQueue;
 
 
 /**
@@ -115,6 +120,103 @@ public class AggregationGroupByTrimmingService {
     return Arrays.asList(trimmedResultMaps);
   }
 
+  /**
+   * Given the intermediate results of the combined groups for each aggregation function (indexed by group id), returns
+   * the ids of the groups to keep for each aggregation function, or <code>null</code> if all the groups should be kept.
+   * <p>Unlike {@link #trimIntermediateResultsMap(Map)}, the groups are selected with indexed primitive heaps on the
+   * group ids, and no map is built for the trimmed results. The group ids are ordered from the best to the worst.
+   */
+  @Nullable
+  public int[][] trimIntermediateResults(@Nonnull Object[][] intermediateResults, int numGroups) {
+    if (numGroups <= _trimThreshold) {
+      // Trim the result only if number of groups is larger than the threshold
+      return null;
+    }
+
+    int numAggregationFunctions = _aggregationFunctions.length;
+    int[][] trimmedGroupIds = new int[numAggregationFunctions][];
+    for (int i = 0; i < numAggregationFunctions; i++) {
+      AggregationFunction aggregationFunction = _aggregationFunctions[i];
+      Object[] results = intermediateResults[i];
+
+      // Sort on the final result for non-comparable intermediate results
+      Comparable[] sortValues = new Comparable[numGroups];
+      boolean isNumber = true;
+      boolean isComparable = aggregationFunction.isIntermediateResultComparable();
+      for (int groupId = 0; groupId < numGroups; groupId++) {
+        Comparable sortValue =
+            isComparable ? (Comparable) results[groupId] : aggregationFunction.extractFinalResult(results[groupId]);
+        sortValues[groupId] = sortValue;
+        isNumber &= sortValue instanceof Number;
+      }
+
+      // This will cover both MIN and MINMV
+      boolean minOrder = aggregationFunction instanceof MinAggregationFunction;
+      if (isNumber) {
+        trimmedGroupIds[i] = selectGroupsOnNumbers(sortValues, numGroups, minOrder);
+      } else {
+        trimmedGroupIds[i] = selectGroupsOnComparables(sortValues, numGroups, minOrder);
+      }
+    }
+    return trimmedGroupIds;
+  }
+
+  /**
+   * Helper method to select the ids of the top {@link #_trimSize} groups on numeric values. The heap keeps the worst
+   * selected group on top so that it can be replaced by a better one.
+   */
+  private int[] selectGroupsOnNumbers(Comparable[] sortValues, int numGroups, boolean minOrder) {
+    IntDoubleIndexedPriorityQueue heap = new IntDoubleIndexedPriorityQueue(_trimSize, !minOrder);
+    int heapSize = 0;
+    for (int groupId = 0; groupId < numGroups; groupId++) {
+      double value = ((Number) sortValues[groupId]).doubleValue();
+      if (heapSize < _trimSize) {
+        heap.put(groupId, value);
+        heapSize++;
+      } else {
+        double worstValue = heap.peek().getDoubleValue();
+        if (minOrder ? value < worstValue : value > worstValue) {
+          heap.poll();
+          heap.put(groupId, value);
+        }
+      }
+    }
+    int[] groupIds = new int[heapSize];
+    for (int i = heapSize - 1; i >= 0; i--) {
+      IntDoublePair pair = heap.poll();
+      groupIds[i] = pair.getIntValue();
+    }
+    return groupIds;
+  }
+
+  /**
+   * Helper method to select the ids of the top {@link #_trimSize} groups on comparable values.
+   */
+  @SuppressWarnings("unchecked")
+  private int[] selectGroupsOnComparables(Comparable[] sortValues, int numGroups, boolean minOrder) {
+    IntObjectIndexedPriorityQueue<Comparable> heap = new IntObjectIndexedPriorityQueue<>(_trimSize, !minOrder);
+    int heapSize = 0;
+    for (int groupId = 0; groupId < numGroups; groupId++) {
+      Comparable value = sortValues[groupId];
+      if (heapSize < _trimSize) {
+        heap.put(groupId, value);
+        heapSize++;
+      } else {
+        int result = value.compareTo(heap.peek().getObjectValue());
+        if (minOrder ? result < 0 : result > 0) {
+          heap.poll();
+          heap.put(groupId, value);
+        }
+      }
+    }
+    int[] groupIds = new int[heapSize];
+    for (int i = heapSize - 1; i >= 0; i--) {
+      IntObjectPair pair = heap.poll();
+      groupIds[i] = pair.getIntValue();
+    }
+    return groupIds;
+  }
+
   /**
    * Given an array of maps from group key to final result for each aggregation function, trim the results to topN size.
    */
@@ -107,17 +107,19 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
       _isSingleValueColumn[i] = transformOperator.getResultMetadata(groupByExpression).isSingleValue();
     }
 
+    // Pre-size the raw key maps to the initial capacity of the result holders (the array based threshold), so that they
+    // do not go through the rehashes from the default size
     if (longOverflow) {
       _globalGroupIdUpperBound = numGroupsLimit;
-      _rawKeyHolder = new ArrayMapBasedHolder();
+      _rawKeyHolder = new ArrayMapBasedHolder(arrayBasedThreshold);
     } else {
       if (cardinalityProduct > Integer.MAX_VALUE) {
         _globalGroupIdUpperBound = numGroupsLimit;
-        _rawKeyHolder = new LongMapBasedHolder();
+        _rawKeyHolder = new LongMapBasedHolder(arrayBasedThreshold);
       } else {
         _globalGroupIdUpperBound = Math.min((int) cardinalityProduct, numGroupsLimit);
         if (cardinalityProduct > arrayBasedThreshold) {
-          _rawKeyHolder = new IntMapBasedHolder();
+          _rawKeyHolder = new IntMapBasedHolder(arrayBasedThreshold);
         } else {
           _rawKeyHolder = new ArrayBasedHolder();
         }
@@ -259,11 +261,12 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
   }
 
   private class IntMapBasedHolder implements RawKeyHolder {
-    private final Int2IntOpenHashMap _rawKeyToGroupIdMap = new Int2IntOpenHashMap();
+    private final Int2IntOpenHashMap _rawKeyToGroupIdMap;
 
     private int _numGroups = 0;
 
-    public IntMapBasedHolder() {
+    public IntMapBasedHolder(int expectedNumGroups) {
+      _rawKeyToGroupIdMap = new Int2IntOpenHashMap(expectedNumGroups);
       _rawKeyToGroupIdMap.defaultReturnValue(INVALID_ID);
     }
 
@@ -437,11 +440,12 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
   }
 
   private class LongMapBasedHolder implements RawKeyHolder {
-    private final Long2IntOpenHashMap _rawKeyToGroupIdMap = new Long2IntOpenHashMap();
+    private final Long2IntOpenHashMap _rawKeyToGroupIdMap;
 
     private int _numGroups = 0;
 
-    public LongMapBasedHolder() {
+    public LongMapBasedHolder(int expectedNumGroups) {
+      _rawKeyToGroupIdMap = new Long2IntOpenHashMap(expectedNumGroups);
       _rawKeyToGroupIdMap.defaultReturnValue(INVALID_ID);
     }
 
@@ -607,11 +611,12 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
   }
 
   private class ArrayMapBasedHolder implements RawKeyHolder {
-    private final Object2IntOpenHashMap<IntArray> _rawKeyToGroupIdMap = new Object2IntOpenHashMap<>();
+    private final Object2IntOpenHashMap<IntArray> _rawKeyToGroupIdMap;
 
     private int _numGroups = 0;
 
-    public ArrayMapBasedHolder() {
+    public ArrayMapBasedHolder(int expectedNumGroups) {
+      _rawKeyToGroupIdMap = new Object2IntOpenHashMap<>(expectedNumGroups);
       _rawKeyToGroupIdMap.defaultReturnValue(INVALID_ID);
     }
 
@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.aggregation.groupby;
+
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+
+
+/**
+ * Result Holder implemented using two DoubleArrays, for the aggregation functions with fixed-width intermediate state of
+ * two double values (e.g. sum and count for AVG, min and max for MINMAXRANGE).
+ * <p>Storing the values in flat primitive arrays avoids creating one intermediate result object per group. The
+ * intermediate result object is only created when extracting the result for a group.
+ */
+public class DoublePairGroupByResultHolder implements GroupByResultHolder {
+  private final int _maxCapacity;
+  private final double _defaultFirstValue;
+  private final double _defaultSecondValue;
+
+  private int _resultHolderCapacity;
+  private double[] _firstValues;
+  private double[] _secondValues;
+
+  /**
+   * Constructor for the class.
+   *
+   * @param initialCapacity Initial capacity of the result holder
+   * @param maxCapacity Maximum capacity of the result holder
+   * @param defaultFirstValue Default first value of un-initialized results
+   * @param defaultSecondValue Default second value of un-initialized results
+   */
+  public DoublePairGroupByResultHolder(int initialCapacity, int maxCapacity, double defaultFirstValue,
+      double defaultSecondValue) {
+    _maxCapacity = maxCapacity;
+    _defaultFirstValue = defaultFirstValue;
+    _defaultSecondValue = defaultSecondValue;
+
+    _resultHolderCapacity = initialCapacity;
+    _firstValues = new double[initialCapacity];
+    _secondValues = new double[initialCapacity];
+    if (defaultFirstValue != 0.0) {
+      Arrays.fill(_firstValues, defaultFirstValue);
+    }
+    if (defaultSecondValue != 0.0) {
+      Arrays.fill(_secondValues, defaultSecondValue);
+    }
+  }
+
+  @Override
+  public void ensureCapacity(int capacity) {
+    Preconditions.checkArgument(capacity <= _maxCapacity);
+
+    if (capacity > _resultHolderCapacity) {
+      int copyLength = _resultHolderCapacity;
+      _resultHolderCapacity = Math.max(_resultHolderCapacity * 2, capacity);
+
+      // Cap the growth to maximum possible number of group keys
+      _resultHolderCapacity = Math.min(_resultHolderCapacity, _maxCapacity);
+
+      _firstValues = Arrays.copyOf(_firstValues, _resultHolderCapacity);
+      _secondValues = Arrays.copyOf(_secondValues, _resultHolderCapacity);
+
+      if (_defaultFirstValue != 0.0) {
+        Arrays.fill(_firstValues, copyLength, _resultHolderCapacity, _defaultFirstValue);
+      }
+      if (_defaultSecondValue != 0.0) {
+        Arrays.fill(_secondValues, copyLength, _resultHolderCapacity, _defaultSecondValue);
+      }
+    }
+  }
+
+  /**
+   * Returns the first value for the given group key, or the default first value for invalid group key.
+   */
+  public double getFirstValue(int groupKey) {
+    if (groupKey == GroupKeyGenerator.INVALID_ID) {
+      return _defaultFirstValue;
+    } else {
+      return _firstValues[groupKey];
+    }
+  }
+
+  /**
+   * Returns the second value for the given group key, or the default second value for invalid group key.
+   */
+  public double getSecondValue(int groupKey) {
+    if (groupKey == GroupKeyGenerator.INVALID_ID) {
+      return _defaultSecondValue;
+    } else {
+      return _secondValues[groupKey];
+    }
+  }
+
+  /**
+   * Adds the given values to the values for the given group key.
+   */
+  public void addValuesForKey(int groupKey, double firstValue, double secondValue) {
+    if (groupKey != GroupKeyGenerator.INVALID_ID) {
+      _firstValues[groupKey] += firstValue;
+      _secondValues[groupKey] += secondValue;
+    }
+  }
+
+  /**
+   * Takes the minimum of the first values and the maximum of the second values for the given group key.
+   */
+  public void applyMinMaxForKey(int groupKey, double minValue, double maxValue) {
+    if (groupKey != GroupKeyGenerator.INVALID_ID) {
+      if (minValue < _firstValues[groupKey]) {
+        _firstValues[groupKey] = minValue;
+      }
+      if (maxValue > _secondValues[groupKey]) {
+        _secondValues[groupKey] = maxValue;
+      }
+    }
+  }
+
+  @Override
+  public double getDoubleResult(int groupKey) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public <T> T getResult(int groupKey) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void setValueForKey(int groupKey, double newValue) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void setValueForKey(int groupKey, Object newValue) {
+    throw new UnsupportedOperationException();
+  }
+}
@@ -34,6 +34,7 @@ import org.apache.pinot.common.metrics.ServerQueryPhase;
 import org.apache.pinot.common.request.BrokerRequest;
 import org.apache.pinot.common.utils.CommonConstants;
 import org.apache.pinot.common.utils.DataTable;
+import org.apache.pinot.core.common.BlockBufferPool;
 import org.apache.pinot.core.common.datatable.DataTableBuilder;
 import org.apache.pinot.core.common.datatable.DataTableImplV2;
 import org.apache.pinot.core.data.manager.InstanceDataManager;
@@ -81,6 +82,10 @@ public class ServerQueryExecutorV1Impl implements QueryExecutor {
     LOGGER.info("Trying to build QueryPlanMaker");
     _planMaker = new InstancePlanMakerImplV2(queryExecutorConfig);
     LOGGER.info("Trying to build QueryExecutorTimer");
+    _serverMetrics.addCallbackGauge("blockBufferPoolHits", BlockBufferPool::getNumHits);
+    _serverMetrics.addCallbackGauge("blockBufferPoolMisses", BlockBufferPool::getNumMisses);
+    _serverMetrics.addCallbackGauge("blockBufferPoolHitRatioPercent", BlockBufferPool::getHitRatioPercent);
+    _serverMetrics.addCallbackGauge("blockBufferPoolBytesSaved", BlockBufferPool::getBytesSaved);
   }
 
   @Override
@@ -26,6 +26,8 @@ import org.apache.commons.configuration.Configuration;
 import org.apache.pinot.common.data.FieldSpec;
 import org.apache.pinot.common.request.FilterOperator;
 import org.apache.pinot.common.utils.request.FilterQueryTree;
+import org.apache.pinot.common.utils.request.RequestUtils;
+import org.apache.pinot.core.common.DataSource;
 import org.apache.pinot.core.common.predicate.RangePredicate;
 import org.apache.pinot.core.indexsegment.IndexSegment;
 import org.apache.pinot.core.query.request.ServerQueryRequest;
@@ -53,17 +55,19 @@ public class ColumnValueSegmentPruner extends AbstractSegmentPruner {
     // For realtime segment, this map can be null.
     Map<String, ColumnMetadata> columnMetadataMap =
         ((SegmentMetadataImpl) segment.getSegmentMetadata()).getColumnMetadataMap();
+    if (columnMetadataMap == null) {
+      // Consuming segment does not have column metadata, but can have bloom filters maintained while consuming
+      return pruneConsumingSegment(filterQueryTree, segment);
+    }
 
     Map<String, BloomFilterReader> bloomFilterMap = new HashMap<>();
-    if (columnMetadataMap != null) {
-      for (String column : columnMetadataMap.keySet()) {
-        BloomFilterReader bloomFilterReader = segment.getDataSource(column).getBloomFilter();
-        if (bloomFilterReader != null) {
-          bloomFilterMap.put(column, bloomFilterReader);
-        }
+    for (String column : columnMetadataMap.keySet()) {
+      BloomFilterReader bloomFilterReader = segment.getDataSource(column).getBloomFilter();
+      if (bloomFilterReader != null) {
+        bloomFilterMap.put(column, bloomFilterReader);
       }
     }
-    return (columnMetadataMap != null) && pruneSegment(filterQueryTree, columnMetadataMap, bloomFilterMap);
+    return pruneSegment(filterQueryTree, columnMetadataMap, bloomFilterMap);
   }
 
   @Override
@@ -77,7 +81,8 @@ public class ColumnValueSegmentPruner extends AbstractSegmentPruner {
    *
    * <ul>
    *   <li> For leaf node: Returns true if there is a predicate on the column and apply the predicate would result in
-   *   filtering out all docs of the segment, false otherwise. </li>
+   *   filtering out all docs of the segment, false otherwise. For EQUALITY and IN predicates, the segment is pruned
+   *   when none of the values is within the min/max range and may exist in the bloom filter. </li>
    *   <li> For non-leaf AND node: True if any of its children returned true, false otherwise. </li>
    *   <li> For non-leaf OR node: True if all its children returned true, false otherwise. </li>
    * </ul>
@@ -96,12 +101,17 @@ public class ColumnValueSegmentPruner extends AbstractSegmentPruner {
     if (children == null || children.isEmpty()) {
       // Leaf Node
 
-      // Skip operator other than EQUALITY and RANGE
-      if ((filterOperator != FilterOperator.EQUALITY) && (filterOperator != FilterOperator.RANGE)) {
+      // Skip operator other than EQUALITY, IN and RANGE
+      if ((filterOperator != FilterOperator.EQUALITY) && (filterOperator != FilterOperator.IN) && (filterOperator
+          != FilterOperator.RANGE)) {
         return false;
       }
 
       String column = filterQueryTree.getColumn();
+      // Skip predicate on transform expression
+      if (RequestUtils.isExpression(column)) {
+        return false;
+      }
       ColumnMetadata columnMetadata = columnMetadataMap.get(column);
       if (columnMetadata == null) {
         // Should not reach here after DataSchemaSegmentPruner
@@ -111,24 +121,28 @@ public class ColumnValueSegmentPruner extends AbstractSegmentPruner {
       Comparable minValue = columnMetadata.getMinValue();
       Comparable maxValue = columnMetadata.getMaxValue();
 
-      if (filterOperator == FilterOperator.EQUALITY) {
-        // EQUALITY
-        boolean pruneSegment = false;
+      if (filterOperator != FilterOperator.RANGE) {
+        // EQUALITY and IN
         FieldSpec.DataType dataType = columnMetadata.getDataType();
-        Comparable value = getValue(filterQueryTree.getValue().get(0), dataType);
+        BloomFilterReader bloomFilterReader = bloomFilterMap.get(column);
+        for (String input : filterQueryTree.getValue()) {
+          Comparable value = getValue(input, dataType);
 
-        // Check if the value is in the min/max range
-        if (minValue != null && maxValue != null) {
-          pruneSegment = (value.compareTo(minValue) < 0) || (value.compareTo(maxValue) > 0);
-        }
+          // Check if the value is in the min/max range
+          if (minValue != null && maxValue != null && ((value.compareTo(minValue) < 0) || (value.compareTo(maxValue)
+              > 0))) {
+            continue;
+          }
 
-        // If the bloom filter is available for the column, check if the value may exist
-        if (!pruneSegment && bloomFilterMap.containsKey(column)) {
-          BloomFilterReader bloomFilterReader = bloomFilterMap.get(column);
-          pruneSegment = !bloomFilterReader.mightContain(value);
-        }
+          // If the bloom filter is available for the column, check if the value may exist
+          if (bloomFilterReader != null && !bloomFilterReader.mightContain(value)) {
+            continue;
+          }
 
-        return pruneSegment;
+          // The value may exist in the segment
+          return false;
+        }
+        return true;
       } else {
         // RANGE
 
@@ -195,4 +209,58 @@ public class ColumnValueSegmentPruner extends AbstractSegmentPruner {
       return pruneNonLeaf(filterQueryTree, columnMetadataMap, bloomFilterMap);
     }
   }
+
+  /**
+   * Helper method to determine if a consuming segment can be pruned based on the bloom filters maintained while
+   * consuming. Consuming segment does not have column min/max values, so only EQUALITY and IN predicates on columns
+   * with bloom filter can prune the segment.
+   */
+  @SuppressWarnings("Duplicates")
+  private static boolean pruneConsumingSegment(FilterQueryTree filterQueryTree, IndexSegment segment) {
+    FilterOperator filterOperator = filterQueryTree.getOperator();
+    List<FilterQueryTree> children = filterQueryTree.getChildren();
+
+    if (children != null && !children.isEmpty()) {
+      // Parent node
+      switch (filterOperator) {
+        case AND:
+          for (FilterQueryTree child : children) {
+            if (pruneConsumingSegment(child, segment)) {
+              return true;
+            }
+          }
+          return false;
+        case OR:
+          for (FilterQueryTree child : children) {
+            if (!pruneConsumingSegment(child, segment)) {
+              return false;
+            }
+          }
+          return true;
+        default:
+          return false;
+      }
+    }
+
+    // Leaf node
+    if ((filterOperator != FilterOperator.EQUALITY) && (filterOperator != FilterOperator.IN)) {
+      return false;
+    }
+    String column = filterQueryTree.getColumn();
+    if (!segment.getColumnNames().contains(column)) {
+      return false;
+    }
+    DataSource dataSource = segment.getDataSource(column);
+    BloomFilterReader bloomFilterReader = dataSource.getBloomFilter();
+    if (bloomFilterReader == null) {
+      return false;
+    }
+    FieldSpec.DataType dataType = dataSource.getDataSourceMetadata().getDataType();
+    for (String input : filterQueryTree.getValue()) {
+      if (bloomFilterReader.mightContain(getValue(input, dataType))) {
+        return false;
+      }
+    }
+    return true;
+  }
 }
@@ -24,6 +24,7 @@ import java.util.Map;
 import org.apache.commons.configuration.Configuration;
 import org.apache.pinot.common.request.FilterOperator;
 import org.apache.pinot.common.utils.request.FilterQueryTree;
+import org.apache.pinot.common.utils.request.RequestUtils;
 import org.apache.pinot.core.data.partition.PartitionFunction;
 import org.apache.pinot.core.indexsegment.IndexSegment;
 import org.apache.pinot.core.query.request.ServerQueryRequest;
@@ -94,6 +95,10 @@ public class PartitionSegmentPruner extends AbstractSegmentPruner {
 
     // Leaf node
     String column = filterQueryTree.getColumn();
+    // Skip predicate on transform expression
+    if (RequestUtils.isExpression(column)) {
+      return false;
+    }
     ColumnMetadata columnMetadata = columnMetadataMap.get(column);
     // NOTE: should have already been pruned in DataSchemaSegmentPruner
     if (columnMetadata == null) {
@@ -18,6 +18,8 @@
  */
 package org.apache.pinot.core.query.reduce;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -49,7 +51,9 @@ import org.apache.pinot.common.utils.CommonConstants;
 import org.apache.pinot.common.utils.DataSchema;
 import org.apache.pinot.common.utils.DataTable;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunctionType;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunctionUtils;
+import org.apache.pinot.core.query.aggregation.function.DistinctCountAggregationFunction;
 import org.apache.pinot.core.query.aggregation.groupby.AggregationGroupByTrimmingService;
 import org.apache.pinot.core.query.selection.SelectionOperatorService;
 import org.apache.pinot.core.query.selection.SelectionOperatorUtils;
@@ -65,6 +69,25 @@ import org.slf4j.LoggerFactory;
 public class BrokerReduceService implements ReduceService<BrokerResponseNative> {
   private static final Logger LOGGER = LoggerFactory.getLogger(BrokerReduceService.class);
 
+  private final long _distinctCountMemoryBudgetBytes;
+  private final File _distinctCountSpillDir;
+
+  public BrokerReduceService() {
+    this(CommonConstants.Broker.DEFAULT_BROKER_DISTINCT_COUNT_MEMORY_BUDGET_BYTES,
+        new File(System.getProperty("java.io.tmpdir")));
+  }
+
+  /**
+   * @param distinctCountMemoryBudgetBytes Memory budget for the merged DISTINCTCOUNT result of an aggregation-only
+   *                                       query, or for the merged DISTINCTCOUNT results of all groups of a group-by
+   *                                       query
+   * @param distinctCountSpillDir Directory to spill the merged DISTINCTCOUNT results beyond the memory budget
+   */
+  public BrokerReduceService(long distinctCountMemoryBudgetBytes, File distinctCountSpillDir) {
+    _distinctCountMemoryBudgetBytes = distinctCountMemoryBudgetBytes;
+    _distinctCountSpillDir = distinctCountSpillDir;
+  }
+
   @Nonnull
   @Override
   public BrokerResponseNative reduceOnDataTable(@Nonnull BrokerRequest brokerRequest,
@@ -185,6 +208,12 @@ public class BrokerReduceService implements ReduceService<BrokerResponseNative>
         .getOrDefault(CommonConstants.Broker.Request.QueryOptionKey.PRESERVE_TYPE, "false");
     boolean preserveType = Boolean.valueOf(preserveTypeString);
 
+    // Parse the option from request whether to allow approximating the distinct count beyond the memory budget
+    String approximateDistinctCountString = (brokerRequest.getQueryOptions() == null) ? "false"
+        : brokerRequest.getQueryOptions()
+            .getOrDefault(CommonConstants.Broker.Request.QueryOptionKey.APPROXIMATE_DISTINCT_COUNT, "false");
+    boolean approximateDistinctCount = Boolean.valueOf(approximateDistinctCountString);
+
     if (dataTableMap.isEmpty()) {
       // For empty data table map, construct empty result using the cached data schema.
 
@@ -226,14 +255,14 @@ public class BrokerReduceService implements ReduceService<BrokerResponseNative>
         if (!brokerRequest.isSetGroupBy()) {
           // Aggregation only query.
           setAggregationResults(brokerResponseNative, aggregationFunctions, dataTableMap, cachedDataSchema,
-              preserveType);
+              preserveType, approximateDistinctCount);
         } else {
           // Aggregation group-by query.
           boolean[] aggregationFunctionSelectStatus =
               AggregationFunctionUtils.getAggregationFunctionsSelectStatus(brokerRequest.getAggregationsInfo());
           setGroupByHavingResults(brokerResponseNative, aggregationFunctions, aggregationFunctionSelectStatus,
               brokerRequest.getGroupBy(), dataTableMap, brokerRequest.getHavingFilterQuery(),
-              brokerRequest.getHavingFilterSubQueryMap(), preserveType);
+              brokerRequest.getHavingFilterSubQueryMap(), preserveType, approximateDistinctCount);
           if (brokerMetrics != null && (!brokerResponseNative.getAggregationResults().isEmpty())) {
             // We emit the group by size when the result isn't empty. All the sizes among group-by results should be the same.
             // Thus, we can just emit the one from the 1st result.
@@ -319,17 +348,55 @@ public class BrokerReduceService implements ReduceService<BrokerResponseNative>
    * @param aggregationFunctions array of aggregation functions.
    * @param dataTableMap map from server to data table.
    * @param dataSchema data schema.
+   * @param approximateDistinctCount whether to approximate the distinct count beyond the memory budget.
    */
   @SuppressWarnings("unchecked")
   private void setAggregationResults(@Nonnull BrokerResponseNative brokerResponseNative,
       @Nonnull AggregationFunction[] aggregationFunctions, @Nonnull Map<ServerInstance, DataTable> dataTableMap,
-      @Nonnull DataSchema dataSchema, boolean preserveType) {
+      @Nonnull DataSchema dataSchema, boolean preserveType, boolean approximateDistinctCount) {
+    int numAggregationFunctions = aggregationFunctions.length;
+
+    // DISTINCTCOUNT results are merged with reducers that bound the memory of the merged result
+    DistinctCountReducer[] distinctCountReducers = new DistinctCountReducer[numAggregationFunctions];
+    for (int i = 0; i < numAggregationFunctions; i++) {
+      AggregationFunctionType functionType = aggregationFunctions[i].getType();
+      if (functionType == AggregationFunctionType.DISTINCTCOUNT
+          || functionType == AggregationFunctionType.DISTINCTCOUNTMV) {
+        distinctCountReducers[i] =
+            new DistinctCountReducer(_distinctCountMemoryBudgetBytes, _distinctCountSpillDir, approximateDistinctCount);
+      }
+    }
+
+    try {
+      setAggregationResults(brokerResponseNative, aggregationFunctions, distinctCountReducers, dataTableMap,
+          dataSchema, preserveType);
+    } catch (IOException e) {
+      throw new RuntimeException("Caught exception while merging the distinct count results", e);
+    } finally {
+      for (DistinctCountReducer distinctCountReducer : distinctCountReducers) {
+        if (distinctCountReducer != null) {
+          distinctCountReducer.close();
+        }
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void setAggregationResults(@Nonnull BrokerResponseNative brokerResponseNative,
+      @Nonnull AggregationFunction[] aggregationFunctions, @Nonnull DistinctCountReducer[] distinctCountReducers,
+      @Nonnull Map<ServerInstance, DataTable> dataTableMap, @Nonnull DataSchema dataSchema, boolean preserveType)
+      throws IOException {
     int numAggregationFunctions = aggregationFunctions.length;
 
     // Merge results from all data tables.
     Object[] intermediateResults = new Object[numAggregationFunctions];
     for (DataTable dataTable : dataTableMap.values()) {
       for (int i = 0; i < numAggregationFunctions; i++) {
+        if (distinctCountReducers[i] != null) {
+          Object intermediateResult = dataTable.getObject(0, i);
+          distinctCountReducers[i].add(DistinctCountAggregationFunction.convertToValueBitmap(intermediateResult));
+          continue;
+        }
         Object intermediateResultToMerge;
         DataSchema.ColumnDataType columnDataType = dataSchema.getColumnDataType(i);
         switch (columnDataType) {
@@ -357,8 +424,13 @@ public class BrokerReduceService implements ReduceService<BrokerResponseNative>
     // Extract final results and set them into the broker response.
     List<AggregationResult> reducedAggregationResults = new ArrayList<>(numAggregationFunctions);
     for (int i = 0; i < numAggregationFunctions; i++) {
-      Serializable resultValue = AggregationFunctionUtils
-          .getSerializableValue(aggregationFunctions[i].extractFinalResult(intermediateResults[i]));
+      Object finalResult;
+      if (distinctCountReducers[i] != null) {
+        finalResult = distinctCountReducers[i].getDistinctCount();
+      } else {
+        finalResult = aggregationFunctions[i].extractFinalResult(intermediateResults[i]);
+      }
+      Serializable resultValue = AggregationFunctionUtils.getSerializableValue(finalResult);
 
       // Format the value into string if required
       if (!preserveType) {
@@ -369,6 +441,7 @@ public class BrokerReduceService implements ReduceService<BrokerResponseNative>
     brokerResponseNative.setAggregationResults(reducedAggregationResults);
   }
 
+
   /**
    * Reduce group-by results from multiple servers and set them into BrokerResponseNative passed in.
    *
@@ -378,19 +451,50 @@ public class BrokerReduceService implements ReduceService<BrokerResponseNative>
    * @param dataTableMap map from server to data table.
    * @param havingFilterQuery having filter query
    * @param havingFilterQueryMap having filter query map
+   * @param approximateDistinctCount whether to approximate the distinct count beyond the memory budget.
    */
   @SuppressWarnings("unchecked")
   private void setGroupByHavingResults(@Nonnull BrokerResponseNative brokerResponseNative,
       @Nonnull AggregationFunction[] aggregationFunctions, boolean[] aggregationFunctionsSelectStatus,
       @Nonnull GroupBy groupBy, @Nonnull Map<ServerInstance, DataTable> dataTableMap,
-      HavingFilterQuery havingFilterQuery, HavingFilterQueryMap havingFilterQueryMap, boolean preserveType) {
+      HavingFilterQuery havingFilterQuery, HavingFilterQueryMap havingFilterQueryMap, boolean preserveType,
+      boolean approximateDistinctCount) {
     int numAggregationFunctions = aggregationFunctions.length;
 
+    // DISTINCTCOUNT results are merged with reducers that bound the memory of the merged results of all groups
+    DistinctCountGroupByReducer[] distinctCountReducers = new DistinctCountGroupByReducer[numAggregationFunctions];
+    for (int i = 0; i < numAggregationFunctions; i++) {
+      AggregationFunctionType functionType = aggregationFunctions[i].getType();
+      if (functionType == AggregationFunctionType.DISTINCTCOUNT
+          || functionType == AggregationFunctionType.DISTINCTCOUNTMV) {
+        distinctCountReducers[i] =
+            new DistinctCountGroupByReducer(_distinctCountMemoryBudgetBytes, approximateDistinctCount);
+      }
+    }
+
     // Merge results from all data tables.
     String[] columnNames = new String[numAggregationFunctions];
     Map<String, Object>[] intermediateResultMaps = new Map[numAggregationFunctions];
     for (DataTable dataTable : dataTableMap.values()) {
       for (int i = 0; i < numAggregationFunctions; i++) {
+        if (distinctCountReducers[i] != null) {
+          // DISTINCTCOUNT results can be either value sets or bitmaps depending on the server version
+          columnNames[i] = dataTable.getString(i, 0);
+          Map<String, Object> intermediateResultMapToMerge = dataTable.getObject(i, 1);
+          for (Map.Entry<String, Object> entry : intermediateResultMapToMerge.entrySet()) {
+            if (!distinctCountReducers[i].add(entry.getKey(),
+                DistinctCountAggregationFunction.convertToValueBitmap(entry.getValue()))) {
+              String errorMessage = QueryException.MERGE_RESPONSE_ERROR.getMessage() + ": merged results of: "
+                  + columnNames[i] + " exceed the memory budget of " + _distinctCountMemoryBudgetBytes + " bytes";
+              LOGGER.warn(errorMessage);
+              brokerResponseNative.addToExceptions(
+                  new QueryProcessingException(QueryException.MERGE_RESPONSE_ERROR_CODE, errorMessage));
+              brokerResponseNative.setAggregationResults(new ArrayList<>(0));
+              return;
+            }
+          }
+          continue;
+        }
         if (columnNames[i] == null) {
           columnNames[i] = dataTable.getString(i, 0);
           intermediateResultMaps[i] = dataTable.getObject(i, 1);
@@ -415,6 +519,10 @@ public class BrokerReduceService implements ReduceService<BrokerResponseNative>
     // Extract final result maps from the merged intermediate result maps.
     Map<String, Comparable>[] finalResultMaps = new Map[numAggregationFunctions];
     for (int i = 0; i < numAggregationFunctions; i++) {
+      if (distinctCountReducers[i] != null) {
+        finalResultMaps[i] = distinctCountReducers[i].getDistinctCounts();
+        continue;
+      }
       Map<String, Object> intermediateResultMap = intermediateResultMaps[i];
       Map<String, Comparable> finalResultMap = new HashMap<>();
       for (String groupKey : intermediateResultMap.keySet()) {
@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.reduce;
+
+import com.clearspring.analytics.stream.cardinality.HyperLogLog;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+
+/**
+ * The <code>DistinctCountGroupByReducer</code> class merges the DISTINCTCOUNT group-by intermediate results (bitmaps of
+ * the value hashes per group) from multiple servers, and bounds the memory used by the merged results of all groups.
+ * <p>NOTE: Same as {@link DistinctCountReducer}, the values are merged by their 32-bit hashes, so the count is exact
+ * only for INT and FLOAT columns, and the memory budget does not cover the server responses.
+ * <ul>
+ *   <li>The bitmaps are merged in memory until the total size of the merged bitmaps exceeds the memory budget.</li>
+ *   <li>Beyond the memory budget, if approximation is allowed, the merged bitmaps larger than a HyperLogLog are
+ *   replaced with HyperLogLogs, which are used for the rest of the bitmaps of these groups.</li>
+ *   <li>If the merged results still exceed the memory budget, the merge fails instead of running the broker out of
+ *   memory. Spilling is not supported for group-by, because each group would need its own spill files.</li>
+ * </ul>
+ */
+@NotThreadSafe
+public class DistinctCountGroupByReducer {
+  private static final int HYPER_LOG_LOG_SIZE_IN_BYTES =
+      new HyperLogLog(DistinctCountReducer.HYPER_LOG_LOG_LOG2M).sizeof();
+
+  private final long _memoryBudgetBytes;
+  private final boolean _allowApproximation;
+  // Values are either RoaringBitmap or HyperLogLog
+  private final Map<String, Object> _resultMap = new HashMap<>();
+
+  private long _sizeInBytes;
+  private int _numApproximateGroups;
+
+  public DistinctCountGroupByReducer(long memoryBudgetBytes, boolean allowApproximation) {
+    _memoryBudgetBytes = memoryBudgetBytes;
+    _allowApproximation = allowApproximation;
+  }
+
+  /**
+   * Merges a bitmap of the value hashes into the given group.
+   *
+   * @return Whether the merged results are within the memory budget. Once <code>false</code> is returned, the reducer
+   *         should not be used any more.
+   */
+  public boolean add(String groupKey, RoaringBitmap bitmap) {
+    Object mergedResult = _resultMap.get(groupKey);
+    if (mergedResult == null) {
+      _resultMap.put(groupKey, bitmap);
+      _sizeInBytes += bitmap.getSizeInBytes();
+    } else if (mergedResult instanceof HyperLogLog) {
+      offerAll((HyperLogLog) mergedResult, bitmap);
+      return true;
+    } else {
+      RoaringBitmap mergedBitmap = (RoaringBitmap) mergedResult;
+      long sizeInBytesBeforeMerge = mergedBitmap.getSizeInBytes();
+      mergedBitmap.or(bitmap);
+      _sizeInBytes += mergedBitmap.getSizeInBytes() - sizeInBytesBeforeMerge;
+    }
+    if (_sizeInBytes > _memoryBudgetBytes && _allowApproximation) {
+      approximateLargeGroups();
+    }
+    return _sizeInBytes <= _memoryBudgetBytes;
+  }
+
+  /**
+   * Returns the number of groups whose distinct count is approximated with HyperLogLog.
+   */
+  public int getNumApproximateGroups() {
+    return _numApproximateGroups;
+  }
+
+  /**
+   * Returns the total size in bytes of the merged results.
+   */
+  public long getSizeInBytes() {
+    return _sizeInBytes;
+  }
+
+  /**
+   * Returns a map from group key to the distinct count of the merged values.
+   */
+  public Map<String, Comparable> getDistinctCounts() {
+    Map<String, Comparable> distinctCounts = new HashMap<>(_resultMap.size());
+    for (Map.Entry<String, Object> entry : _resultMap.entrySet()) {
+      Object mergedResult = entry.getValue();
+      if (mergedResult instanceof HyperLogLog) {
+        distinctCounts.put(entry.getKey(), (int) ((HyperLogLog) mergedResult).cardinality());
+      } else {
+        distinctCounts.put(entry.getKey(), ((RoaringBitmap) mergedResult).getCardinality());
+      }
+    }
+    return distinctCounts;
+  }
+
+  /**
+   * Helper method to replace the merged bitmaps larger than a HyperLogLog with HyperLogLogs.
+   */
+  private void approximateLargeGroups() {
+    for (Map.Entry<String, Object> entry : _resultMap.entrySet()) {
+      Object mergedResult = entry.getValue();
+      if (mergedResult instanceof RoaringBitmap) {
+        RoaringBitmap mergedBitmap = (RoaringBitmap) mergedResult;
+        long bitmapSizeInBytes = mergedBitmap.getSizeInBytes();
+        if (bitmapSizeInBytes > HYPER_LOG_LOG_SIZE_IN_BYTES) {
+          HyperLogLog hyperLogLog = new HyperLogLog(DistinctCountReducer.HYPER_LOG_LOG_LOG2M);
+          offerAll(hyperLogLog, mergedBitmap);
+          entry.setValue(hyperLogLog);
+          _sizeInBytes += HYPER_LOG_LOG_SIZE_IN_BYTES - bitmapSizeInBytes;
+          _numApproximateGroups++;
+        }
+      }
+    }
+  }
+
+  private static void offerAll(HyperLogLog hyperLogLog, RoaringBitmap bitmap) {
+    IntIterator iterator = bitmap.getIntIterator();
+    while (iterator.hasNext()) {
+      hyperLogLog.offer(iterator.next());
+    }
+  }
+}
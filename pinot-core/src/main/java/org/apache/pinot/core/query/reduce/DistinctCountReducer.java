@@ -0,0 +1,249 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.reduce;
+
+import com.clearspring.analytics.stream.cardinality.HyperLogLog;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.apache.commons.io.FileUtils;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The <code>DistinctCountReducer</code> class merges the DISTINCTCOUNT intermediate results (bitmaps of the value
+ * hashes) from multiple servers, and bounds the memory used by the merged result.
+ * <p>NOTE: The values are merged by their 32-bit hashes, including within the memory budget, so the count is exact only
+ * for INT and FLOAT columns. For LONG, DOUBLE and STRING columns, values with colliding hashes are counted once.
+ * <p>NOTE: The memory budget only applies to the merged result. The server responses are already fully on heap before
+ * they are merged, so they are not bounded by the memory budget.
+ * <ul>
+ *   <li>The bitmaps are merged in memory until the size of the merged bitmap exceeds the memory budget.</li>
+ *   <li>Beyond the memory budget, if approximation is allowed, the merged values are offered to a HyperLogLog, which is
+ *   used for the rest of the bitmaps.</li>
+ *   <li>Otherwise, the merged bitmap is spilled to a file and cleared. The final distinct count is computed with a
+ *   k-way merge over the memory-mapped spilled bitmaps and the in-memory bitmap, which only holds one value per bitmap
+ *   in memory.</li>
+ * </ul>
+ * <p>The spill files are deleted when the reducer is closed.
+ */
+@NotThreadSafe
+public class DistinctCountReducer implements Closeable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DistinctCountReducer.class);
+  private static final String SPILL_FILE_PREFIX = "distinctCount-";
+  private static final String SPILL_FILE_SUFFIX = ".bitmap";
+
+  // HyperLogLog log2m for the approximation, which gives about 1.6% standard error
+  static final int HYPER_LOG_LOG_LOG2M = 12;
+
+  private final long _memoryBudgetBytes;
+  private final File _spillDir;
+  private final boolean _allowApproximation;
+  private final List<File> _spillFiles = new ArrayList<>();
+
+  private RoaringBitmap _bitmap = new RoaringBitmap();
+  private HyperLogLog _hyperLogLog;
+
+  public DistinctCountReducer(long memoryBudgetBytes, File spillDir, boolean allowApproximation) {
+    _memoryBudgetBytes = memoryBudgetBytes;
+    _spillDir = spillDir;
+    _allowApproximation = allowApproximation;
+  }
+
+  /**
+   * Merges a bitmap of the value hashes into the reducer.
+   */
+  public void add(RoaringBitmap bitmap)
+      throws IOException {
+    if (_hyperLogLog != null) {
+      offerAll(bitmap);
+      return;
+    }
+    _bitmap.or(bitmap);
+    if (_bitmap.getSizeInBytes() > _memoryBudgetBytes) {
+      if (_allowApproximation) {
+        _hyperLogLog = new HyperLogLog(HYPER_LOG_LOG_LOG2M);
+        offerAll(_bitmap);
+        _bitmap = null;
+      } else {
+        spill();
+      }
+    }
+  }
+
+  /**
+   * Returns whether the distinct count is approximated with HyperLogLog.
+   */
+  public boolean isApproximate() {
+    return _hyperLogLog != null;
+  }
+
+  /**
+   * Returns the number of bitmaps spilled to disk.
+   */
+  public int getNumSpills() {
+    return _spillFiles.size();
+  }
+
+  /**
+   * Returns the distinct count of the merged values.
+   */
+  public int getDistinctCount()
+      throws IOException {
+    if (_hyperLogLog != null) {
+      return (int) _hyperLogLog.cardinality();
+    }
+    if (_spillFiles.isEmpty()) {
+      return _bitmap.getCardinality();
+    }
+
+    int numSpillFiles = _spillFiles.size();
+    List<IntIterator> iterators = new ArrayList<>(numSpillFiles + 1);
+    for (File spillFile : _spillFiles) {
+      try (RandomAccessFile randomAccessFile = new RandomAccessFile(spillFile, "r")) {
+        ByteBuffer byteBuffer =
+            randomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, randomAccessFile.length());
+        iterators.add(new ImmutableRoaringBitmap(byteBuffer).getIntIterator());
+      }
+    }
+    iterators.add(_bitmap.getIntIterator());
+    return countDistinct(iterators);
+  }
+
+  /**
+   * Helper method to count the distinct values with a k-way merge over the iterators, each of which returns distinct
+   * values in unsigned order.
+   */
+  private static int countDistinct(List<IntIterator> iterators) {
+    int numIterators = iterators.size();
+    IntIterator[] heapIterators = new IntIterator[numIterators];
+    int[] heapValues = new int[numIterators];
+    int heapSize = 0;
+    for (IntIterator iterator : iterators) {
+      if (iterator.hasNext()) {
+        heapIterators[heapSize] = iterator;
+        heapValues[heapSize] = iterator.next();
+        siftUp(heapIterators, heapValues, heapSize++);
+      }
+    }
+
+    int distinctCount = 0;
+    boolean hasPreviousValue = false;
+    int previousValue = 0;
+    while (heapSize > 0) {
+      int value = heapValues[0];
+      if (!hasPreviousValue || value != previousValue) {
+        distinctCount++;
+        hasPreviousValue = true;
+        previousValue = value;
+      }
+      IntIterator iterator = heapIterators[0];
+      if (iterator.hasNext()) {
+        heapValues[0] = iterator.next();
+      } else {
+        heapSize--;
+        heapIterators[0] = heapIterators[heapSize];
+        heapValues[0] = heapValues[heapSize];
+      }
+      siftDown(heapIterators, heapValues, heapSize);
+    }
+    return distinctCount;
+  }
+
+  private static void siftUp(IntIterator[] heapIterators, int[] heapValues, int index) {
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      if (Integer.compareUnsigned(heapValues[parent], heapValues[index]) <= 0) {
+        return;
+      }
+      swap(heapIterators, heapValues, parent, index);
+      index = parent;
+    }
+  }
+
+  private static void siftDown(IntIterator[] heapIterators, int[] heapValues, int heapSize) {
+    int index = 0;
+    while (true) {
+      int smallest = index;
+      int left = 2 * index + 1;
+      int right = left + 1;
+      if (left < heapSize && Integer.compareUnsigned(heapValues[left], heapValues[smallest]) < 0) {
+        smallest = left;
+      }
+      if (right < heapSize && Integer.compareUnsigned(heapValues[right], heapValues[smallest]) < 0) {
+        smallest = right;
+      }
+      if (smallest == index) {
+        return;
+      }
+      swap(heapIterators, heapValues, smallest, index);
+      index = smallest;
+    }
+  }
+
+  private static void swap(IntIterator[] heapIterators, int[] heapValues, int i, int j) {
+    IntIterator tempIterator = heapIterators[i];
+    heapIterators[i] = heapIterators[j];
+    heapIterators[j] = tempIterator;
+    int tempValue = heapValues[i];
+    heapValues[i] = heapValues[j];
+    heapValues[j] = tempValue;
+  }
+
+  private void offerAll(RoaringBitmap bitmap) {
+    IntIterator iterator = bitmap.getIntIterator();
+    while (iterator.hasNext()) {
+      _hyperLogLog.offer(iterator.next());
+    }
+  }
+
+  private void spill()
+      throws IOException {
+    File spillFile = File.createTempFile(SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX, _spillDir);
+    _spillFiles.add(spillFile);
+    _bitmap.runOptimize();
+    try (DataOutputStream dataOutputStream = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(spillFile)))) {
+      _bitmap.serialize(dataOutputStream);
+    }
+    LOGGER.debug("Spilled distinct count bitmap of {} bytes to file: {}", spillFile.length(), spillFile);
+    _bitmap = new RoaringBitmap();
+  }
+
+  @Override
+  public void close() {
+    for (File spillFile : _spillFiles) {
+      FileUtils.deleteQuietly(spillFile);
+    }
+    _spillFiles.clear();
+  }
+}
@@ -20,7 +20,7 @@ package org.apache.pinot.core.query.selection;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -29,6 +29,7 @@ import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Set;
 import javax.annotation.Nonnull;
+import org.apache.pinot.common.data.FieldSpec.DataType;
 import org.apache.pinot.common.request.Selection;
 import org.apache.pinot.common.request.SelectionSort;
 import org.apache.pinot.common.response.ServerInstance;
@@ -36,10 +37,11 @@ import org.apache.pinot.common.response.broker.SelectionResults;
 import org.apache.pinot.common.utils.DataSchema;
 import org.apache.pinot.common.utils.DataTable;
 import org.apache.pinot.core.common.Block;
-import org.apache.pinot.core.common.BlockDocIdIterator;
-import org.apache.pinot.core.common.Constants;
+import org.apache.pinot.core.common.BlockMetadata;
+import org.apache.pinot.core.common.BlockValSet;
 import org.apache.pinot.core.indexsegment.IndexSegment;
-import org.apache.pinot.core.query.selection.comparator.CompositeDocIdValComparator;
+import org.apache.pinot.core.operator.blocks.ProjectionBlock;
+import org.apache.pinot.core.segment.index.readers.Dictionary;
 
 
 /**
@@ -75,6 +77,13 @@ public class SelectionOperatorService {
   private final int _maxNumRows;
   private final PriorityQueue<Serializable[]> _rows;
 
+  // Inner segment top-N candidates with the document ids as the payloads. For the sort columns with sorted dictionary,
+  // the dictionary ids are used as the sort keys.
+  private SelectionSortKeyHeap _sortKeyHeap;
+  // Data types of the sort keys (INT for dictionary ids), or null for the sort columns that are not compared
+  private DataType[] _sortKeyTypes;
+  private boolean[] _sortOnDictIds;
+
   private long _numDocsScanned = 0;
 
   /**
@@ -268,27 +277,162 @@ public class SelectionOperatorService {
   }
 
   /**
-   * Iterate over {@link Block}s, extract values from them and merge the values to the selection results for selection
-   * queries with <code>ORDER BY</code>. (Inner segment)
+   * Read the sort columns of the documents in the {@link ProjectionBlock}, and merge the sort keys and document ids to
+   * the top-N candidates for selection queries with <code>ORDER BY</code>. (Inner segment)
+   * <p>The other selection columns are not read here, but only fetched for the final candidates in
+   * {@link #materializeRowsWithOrdering(Block[])}.
+   *
+   * @param projectionBlock projection block.
+   */
+  public void collectSortKeysWithOrdering(@Nonnull ProjectionBlock projectionBlock) {
+    int numDocs = projectionBlock.getNumDocs();
+    _numDocsScanned += numDocs;
+    if (_maxNumRows == 0) {
+      return;
+    }
+    if (_sortKeyHeap == null) {
+      initSortKeyHeap(projectionBlock);
+    }
+
+    int numSortColumns = _sortSequence.size();
+    Object[] sortValues = new Object[numSortColumns];
+    for (int i = 0; i < numSortColumns; i++) {
+      DataType sortKeyType = _sortKeyTypes[i];
+      if (sortKeyType == null) {
+        continue;
+      }
+      BlockValSet blockValSet = projectionBlock.getBlockValueSet(_sortSequence.get(i).getColumn());
+      if (_sortOnDictIds[i]) {
+        sortValues[i] = blockValSet.getDictionaryIdsSV();
+        continue;
+      }
+      switch (sortKeyType) {
+        case INT:
+          sortValues[i] = blockValSet.getIntValuesSV();
+          break;
+        case LONG:
+          sortValues[i] = blockValSet.getLongValuesSV();
+          break;
+        case FLOAT:
+          sortValues[i] = blockValSet.getFloatValuesSV();
+          break;
+        case DOUBLE:
+          sortValues[i] = blockValSet.getDoubleValuesSV();
+          break;
+        case STRING:
+          sortValues[i] = blockValSet.getStringValuesSV();
+          break;
+        default:
+          throw new IllegalStateException();
+      }
+    }
+
+    int[] docIds = projectionBlock.getDocIdSetBlock().getDocIdSet();
+    for (int i = 0; i < numDocs; i++) {
+      for (int j = 0; j < numSortColumns; j++) {
+        DataType sortKeyType = _sortKeyTypes[j];
+        if (sortKeyType == null) {
+          continue;
+        }
+        switch (sortKeyType) {
+          case INT:
+            _sortKeyHeap.setIntKey(j, ((int[]) sortValues[j])[i]);
+            break;
+          case LONG:
+            _sortKeyHeap.setLongKey(j, ((long[]) sortValues[j])[i]);
+            break;
+          case FLOAT:
+            _sortKeyHeap.setFloatKey(j, ((float[]) sortValues[j])[i]);
+            break;
+          case DOUBLE:
+            _sortKeyHeap.setDoubleKey(j, ((double[]) sortValues[j])[i]);
+            break;
+          case STRING:
+            _sortKeyHeap.setStringKey(j, ((String[]) sortValues[j])[i]);
+            break;
+          default:
+            throw new IllegalStateException();
+        }
+      }
+      _sortKeyHeap.setPayload(docIds[i]);
+      _sortKeyHeap.offer();
+    }
+  }
+
+  /**
+   * Fetch all the selection columns for the top-N candidates collected by
+   * {@link #collectSortKeysWithOrdering(ProjectionBlock)}, and add them to the selection results. (Inner segment)
    *
-   * @param blockDocIdIterator block document id iterator.
-   * @param blocks {@link Block} array.
+   * @param blocks {@link Block} array for the columns in the data schema.
    */
-  public void iterateOnBlocksWithOrdering(@Nonnull BlockDocIdIterator blockDocIdIterator, @Nonnull Block[] blocks) {
-    Comparator<Integer> rowDocIdComparator = new CompositeDocIdValComparator(_sortSequence, blocks);
-    PriorityQueue<Integer> rowDocIdPriorityQueue = new PriorityQueue<>(_maxNumRows, rowDocIdComparator);
-    int docId;
-    while ((docId = blockDocIdIterator.next()) != Constants.EOF) {
-      _numDocsScanned++;
-      SelectionOperatorUtils.addToPriorityQueue(docId, rowDocIdPriorityQueue, _maxNumRows);
+  public void materializeRowsWithOrdering(@Nonnull Block[] blocks) {
+    if (_sortKeyHeap == null || _sortKeyHeap.size() == 0) {
+      return;
     }
+    int[] slots = _sortKeyHeap.getSlots();
+    int numCandidates = slots.length;
+    int[] docIds = new int[numCandidates];
+    for (int i = 0; i < numCandidates; i++) {
+      docIds[i] = (int) _sortKeyHeap.getPayload(slots[i]);
+    }
+    _sortKeyHeap = null;
 
+    // Fetch the rows in document id order so that the column iterators only move forward
+    Arrays.sort(docIds);
     SelectionFetcher selectionFetcher = new SelectionFetcher(blocks, _dataSchema);
-    Collection<Serializable[]> rows = new ArrayList<>(rowDocIdPriorityQueue.size());
-    for (int rowDocId : rowDocIdPriorityQueue) {
-      rows.add(selectionFetcher.getRow(rowDocId));
+    for (int docId : docIds) {
+      SelectionOperatorUtils.addToPriorityQueue(selectionFetcher.getRow(docId), _rows, _maxNumRows);
+    }
+  }
+
+  /**
+   * Helper method to decide the sort key type for each sort column based on the block metadata, and create the sort key
+   * heap. (Inner segment)
+   * <p>Consistent with the selection rows comparator, only the single-value sort columns of numeric and STRING types are
+   * compared. Sort columns with sorted dictionary use the dictionary ids as the sort keys.
+   */
+  private void initSortKeyHeap(@Nonnull ProjectionBlock projectionBlock) {
+    int numSortColumns = _sortSequence.size();
+    _sortKeyTypes = new DataType[numSortColumns];
+    _sortOnDictIds = new boolean[numSortColumns];
+    for (int i = 0; i < numSortColumns; i++) {
+      BlockMetadata blockMetadata = projectionBlock.getBlock(_sortSequence.get(i).getColumn()).getMetadata();
+      if (!blockMetadata.isSingleValue()) {
+        continue;
+      }
+      DataType dataType = blockMetadata.getDataType();
+      switch (dataType) {
+        case INT:
+        case LONG:
+        case FLOAT:
+        case DOUBLE:
+        case STRING:
+          Dictionary dictionary = blockMetadata.getDictionary();
+          if (blockMetadata.hasDictionary() && dictionary != null && dictionary.isSorted()) {
+            _sortKeyTypes[i] = DataType.INT;
+            _sortOnDictIds[i] = true;
+          } else {
+            _sortKeyTypes[i] = dataType;
+          }
+          break;
+        default:
+          break;
+      }
+    }
+    _sortKeyHeap = new SelectionSortKeyHeap(_sortKeyTypes, getAscending(), _maxNumRows);
+  }
+
+  /**
+   * Helper method to get whether each sort column is in ascending order.
+   */
+  @Nonnull
+  private boolean[] getAscending() {
+    int numSortColumns = _sortSequence.size();
+    boolean[] ascending = new boolean[numSortColumns];
+    for (int i = 0; i < numSortColumns; i++) {
+      ascending[i] = _sortSequence.get(i).isIsAsc();
     }
-    SelectionOperatorUtils.mergeWithOrdering(_rows, rows, _maxNumRows);
+    return ascending;
   }
 
   /**
@@ -298,13 +442,76 @@ public class SelectionOperatorService {
    * @param selectionResults {@link Map} from {@link ServerInstance} to {@link DataTable}.
    */
   public void reduceWithOrdering(@Nonnull Map<ServerInstance, DataTable> selectionResults) {
-    for (DataTable dataTable : selectionResults.values()) {
+    if (_maxNumRows == 0) {
+      return;
+    }
+
+    // Consistent with the type-compatible comparator, compare the numeric sort columns as DOUBLE and the STRING sort
+    // columns as STRING, and do not compare the other sort columns
+    int numSortColumns = _sortSequence.size();
+    DataType[] sortKeyTypes = new DataType[numSortColumns];
+    for (int i = 0; i < numSortColumns; i++) {
+      switch (_dataSchema.getColumnDataType(i)) {
+        case INT:
+        case LONG:
+        case FLOAT:
+        case DOUBLE:
+          sortKeyTypes[i] = DataType.DOUBLE;
+          break;
+        case STRING:
+          sortKeyTypes[i] = DataType.STRING;
+          break;
+        default:
+          break;
+      }
+    }
+
+    // Only the sort keys are read while reducing, and the rows are extracted for the final top-N entries, with the data
+    // table index and row id as the payload
+    SelectionSortKeyHeap sortKeyHeap = new SelectionSortKeyHeap(sortKeyTypes, getAscending(), _maxNumRows);
+    DataTable[] dataTables = selectionResults.values().toArray(new DataTable[0]);
+    int numDataTables = dataTables.length;
+    for (int dataTableIndex = 0; dataTableIndex < numDataTables; dataTableIndex++) {
+      DataTable dataTable = dataTables[dataTableIndex];
+      DataSchema dataSchema = dataTable.getDataSchema();
       int numRows = dataTable.getNumberOfRows();
       for (int rowId = 0; rowId < numRows; rowId++) {
-        Serializable[] row = SelectionOperatorUtils.extractRowFromDataTable(dataTable, rowId);
-        SelectionOperatorUtils.addToPriorityQueue(row, _rows, _maxNumRows);
+        for (int i = 0; i < numSortColumns; i++) {
+          DataType sortKeyType = sortKeyTypes[i];
+          if (sortKeyType == DataType.DOUBLE) {
+            sortKeyHeap.setDoubleKey(i, getDoubleValue(dataTable, dataSchema.getColumnDataType(i), rowId, i));
+          } else if (sortKeyType == DataType.STRING) {
+            sortKeyHeap.setStringKey(i, dataTable.getString(rowId, i));
+          }
+        }
+        sortKeyHeap.setPayload(((long) dataTableIndex << 32) | rowId);
+        sortKeyHeap.offer();
       }
     }
+
+    for (int slot : sortKeyHeap.getSlots()) {
+      long payload = sortKeyHeap.getPayload(slot);
+      _rows.add(SelectionOperatorUtils.extractRowFromDataTable(dataTables[(int) (payload >>> 32)], (int) payload));
+    }
+  }
+
+  /**
+   * Helper method to read a numeric value from the {@link DataTable} as DOUBLE. (Broker side)
+   */
+  private static double getDoubleValue(@Nonnull DataTable dataTable, @Nonnull DataSchema.ColumnDataType columnDataType,
+      int rowId, int colId) {
+    switch (columnDataType) {
+      case INT:
+        return dataTable.getInt(rowId, colId);
+      case LONG:
+        return dataTable.getLong(rowId, colId);
+      case FLOAT:
+        return dataTable.getFloat(rowId, colId);
+      case DOUBLE:
+        return dataTable.getDouble(rowId, colId);
+      default:
+        throw new IllegalStateException("Unsupported data type for numeric sort column: " + columnDataType);
+    }
   }
 
   /**
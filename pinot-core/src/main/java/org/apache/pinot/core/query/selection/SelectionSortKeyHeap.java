@@ -0,0 +1,357 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.selection;
+
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.apache.pinot.common.data.FieldSpec.DataType;
+
+
+/**
+ * Bounded heap to keep the top-N entries for selection queries with <code>ORDER BY</code>.
+ * <p>The sort keys of each sort column are stored in a primitive array (or {@link String} array) indexed by the slot of
+ * the entry, along with a <code>long</code> payload per slot (e.g. the document id). The heap itself only moves the
+ * <code>int</code> slot ids, and compares the entries with a comparison specialized for each sort column type, so no
+ * boxing is involved.
+ * <p>To offer an entry, first set its sort keys and payload into the staging slot with the setters, then call
+ * {@link #offer()}. The entry ranked last is kept at the top of the heap so that it can be replaced in place.
+ */
+@NotThreadSafe
+public class SelectionSortKeyHeap {
+  private static final int DEFAULT_INITIAL_CAPACITY = 1024;
+
+  private final int _maxSize;
+  // Columns that are not compared are null
+  private final SortKeyColumn[] _sortKeyColumns;
+
+  private int[] _heap;
+  private long[] _payloads;
+  private int _capacity;
+  private int _size;
+  private int _stagingSlot;
+
+  /**
+   * Constructor for the heap.
+   *
+   * @param sortKeyTypes data types of the sort keys (one of INT, LONG, FLOAT, DOUBLE and STRING), or <code>null</code>
+   *                     for the sort columns that are not compared.
+   * @param ascending whether each sort column is in ascending order.
+   * @param maxSize maximum number of entries to keep.
+   */
+  public SelectionSortKeyHeap(@Nonnull DataType[] sortKeyTypes, @Nonnull boolean[] ascending, int maxSize) {
+    _maxSize = maxSize;
+    // One extra slot for the staging entry
+    _capacity = Math.min(maxSize, DEFAULT_INITIAL_CAPACITY) + 1;
+    int numSortColumns = sortKeyTypes.length;
+    _sortKeyColumns = new SortKeyColumn[numSortColumns];
+    for (int i = 0; i < numSortColumns; i++) {
+      DataType sortKeyType = sortKeyTypes[i];
+      if (sortKeyType == null) {
+        continue;
+      }
+      switch (sortKeyType) {
+        case INT:
+          _sortKeyColumns[i] = new IntSortKeyColumn(ascending[i], _capacity);
+          break;
+        case LONG:
+          _sortKeyColumns[i] = new LongSortKeyColumn(ascending[i], _capacity);
+          break;
+        case FLOAT:
+          _sortKeyColumns[i] = new FloatSortKeyColumn(ascending[i], _capacity);
+          break;
+        case DOUBLE:
+          _sortKeyColumns[i] = new DoubleSortKeyColumn(ascending[i], _capacity);
+          break;
+        case STRING:
+          _sortKeyColumns[i] = new StringSortKeyColumn(ascending[i], _capacity);
+          break;
+        default:
+          throw new IllegalArgumentException("Unsupported sort key type: " + sortKeyType);
+      }
+    }
+    _heap = new int[_capacity];
+    _payloads = new long[_capacity];
+  }
+
+  public void setIntKey(int column, int value) {
+    ((IntSortKeyColumn) _sortKeyColumns[column])._values[_stagingSlot] = value;
+  }
+
+  public void setLongKey(int column, long value) {
+    ((LongSortKeyColumn) _sortKeyColumns[column])._values[_stagingSlot] = value;
+  }
+
+  public void setFloatKey(int column, float value) {
+    ((FloatSortKeyColumn) _sortKeyColumns[column])._values[_stagingSlot] = value;
+  }
+
+  public void setDoubleKey(int column, double value) {
+    ((DoubleSortKeyColumn) _sortKeyColumns[column])._values[_stagingSlot] = value;
+  }
+
+  public void setStringKey(int column, String value) {
+    ((StringSortKeyColumn) _sortKeyColumns[column])._values[_stagingSlot] = value;
+  }
+
+  public void setPayload(long payload) {
+    _payloads[_stagingSlot] = payload;
+  }
+
+  /**
+   * Offers the staging entry to the heap.
+   * <ul>
+   *   <li> If the heap is not full, the staging entry is added. </li>
+   *   <li> If the heap is full, the staging entry replaces the entry ranked last only if it is ranked strictly before
+   *   it. </li>
+   * </ul>
+   *
+   * @return True if the staging entry is added, false otherwise.
+   */
+  public boolean offer() {
+    if (_size < _maxSize) {
+      _heap[_size] = _stagingSlot;
+      siftUp(_size++);
+      // Before the heap is full, slots are assigned in order
+      ensureCapacity(_size + 1);
+      _stagingSlot = _size;
+      return true;
+    }
+    if (_maxSize == 0 || compare(_stagingSlot, _heap[0]) <= 0) {
+      return false;
+    }
+    int evictedSlot = _heap[0];
+    _heap[0] = _stagingSlot;
+    siftDown(0);
+    _stagingSlot = evictedSlot;
+    return true;
+  }
+
+  /**
+   * Returns the number of entries in the heap.
+   */
+  public int size() {
+    return _size;
+  }
+
+  /**
+   * Returns the payload of the entry in the given slot.
+   */
+  public long getPayload(int slot) {
+    return _payloads[slot];
+  }
+
+  /**
+   * Returns the slots of the entries in the heap, in heap order.
+   */
+  @Nonnull
+  public int[] getSlots() {
+    return Arrays.copyOf(_heap, _size);
+  }
+
+  /**
+   * Removes the entry ranked last and returns its slot. Should only be called after all the entries are offered.
+   */
+  public int poll() {
+    int slot = _heap[0];
+    _heap[0] = _heap[--_size];
+    siftDown(0);
+    return slot;
+  }
+
+  /**
+   * Compares the entries in the given slots.
+   *
+   * @return Positive value if the first entry is ranked before the second entry, negative value if after, 0 if tied.
+   */
+  private int compare(int slot1, int slot2) {
+    for (SortKeyColumn sortKeyColumn : _sortKeyColumns) {
+      if (sortKeyColumn != null) {
+        int result = sortKeyColumn.compare(slot1, slot2);
+        if (result != 0) {
+          return result;
+        }
+      }
+    }
+    return 0;
+  }
+
+  private void siftUp(int index) {
+    int slot = _heap[index];
+    while (index > 0) {
+      int parentIndex = (index - 1) >>> 1;
+      int parentSlot = _heap[parentIndex];
+      if (compare(parentSlot, slot) <= 0) {
+        break;
+      }
+      _heap[index] = parentSlot;
+      index = parentIndex;
+    }
+    _heap[index] = slot;
+  }
+
+  private void siftDown(int index) {
+    int slot = _heap[index];
+    int half = _size >>> 1;
+    while (index < half) {
+      int childIndex = 2 * index + 1;
+      int childSlot = _heap[childIndex];
+      int rightChildIndex = childIndex + 1;
+      if (rightChildIndex < _size && compare(childSlot, _heap[rightChildIndex]) > 0) {
+        childIndex = rightChildIndex;
+        childSlot = _heap[childIndex];
+      }
+      if (compare(slot, childSlot) <= 0) {
+        break;
+      }
+      _heap[index] = childSlot;
+      index = childIndex;
+    }
+    _heap[index] = slot;
+  }
+
+  private void ensureCapacity(int numSlots) {
+    if (numSlots <= _capacity) {
+      return;
+    }
+    _capacity = (int) Math.min((long) _capacity * 2, (long) _maxSize + 1);
+    for (SortKeyColumn sortKeyColumn : _sortKeyColumns) {
+      if (sortKeyColumn != null) {
+        sortKeyColumn.resize(_capacity);
+      }
+    }
+    _heap = Arrays.copyOf(_heap, _capacity);
+    _payloads = Arrays.copyOf(_payloads, _capacity);
+  }
+
+  private static abstract class SortKeyColumn {
+    final boolean _ascending;
+
+    SortKeyColumn(boolean ascending) {
+      _ascending = ascending;
+    }
+
+    /**
+     * Returns positive value if the entry in the first slot is ranked before the entry in the second slot.
+     */
+    int compare(int slot1, int slot2) {
+      int result = compareValues(slot1, slot2);
+      return _ascending ? -result : result;
+    }
+
+    abstract int compareValues(int slot1, int slot2);
+
+    abstract void resize(int capacity);
+  }
+
+  private static final class IntSortKeyColumn extends SortKeyColumn {
+    int[] _values;
+
+    IntSortKeyColumn(boolean ascending, int capacity) {
+      super(ascending);
+      _values = new int[capacity];
+    }
+
+    @Override
+    int compareValues(int slot1, int slot2) {
+      return Integer.compare(_values[slot1], _values[slot2]);
+    }
+
+    @Override
+    void resize(int capacity) {
+      _values = Arrays.copyOf(_values, capacity);
+    }
+  }
+
+  private static final class LongSortKeyColumn extends SortKeyColumn {
+    long[] _values;
+
+    LongSortKeyColumn(boolean ascending, int capacity) {
+      super(ascending);
+      _values = new long[capacity];
+    }
+
+    @Override
+    int compareValues(int slot1, int slot2) {
+      return Long.compare(_values[slot1], _values[slot2]);
+    }
+
+    @Override
+    void resize(int capacity) {
+      _values = Arrays.copyOf(_values, capacity);
+    }
+  }
+
+  private static final class FloatSortKeyColumn extends SortKeyColumn {
+    float[] _values;
+
+    FloatSortKeyColumn(boolean ascending, int capacity) {
+      super(ascending);
+      _values = new float[capacity];
+    }
+
+    @Override
+    int compareValues(int slot1, int slot2) {
+      return Float.compare(_values[slot1], _values[slot2]);
+    }
+
+    @Override
+    void resize(int capacity) {
+      _values = Arrays.copyOf(_values, capacity);
+    }
+  }
+
+  private static final class DoubleSortKeyColumn extends SortKeyColumn {
+    double[] _values;
+
+    DoubleSortKeyColumn(boolean ascending, int capacity) {
+      super(ascending);
+      _values = new double[capacity];
+    }
+
+    @Override
+    int compareValues(int slot1, int slot2) {
+      return Double.compare(_values[slot1], _values[slot2]);
+    }
+
+    @Override
+    void resize(int capacity) {
+      _values = Arrays.copyOf(_values, capacity);
+    }
+  }
+
+  private static final class StringSortKeyColumn extends SortKeyColumn {
+    String[] _values;
+
+    StringSortKeyColumn(boolean ascending, int capacity) {
+      super(ascending);
+      _values = new String[capacity];
+    }
+
+    @Override
+    int compareValues(int slot1, int slot2) {
+      return _values[slot1].compareTo(_values[slot2]);
+    }
+
+    @Override
+    void resize(int capacity) {
+      _values = Arrays.copyOf(_values, capacity);
+    }
+  }
+}
@@ -22,15 +22,18 @@ import org.apache.pinot.common.data.Schema;
 import org.apache.pinot.core.data.readers.RecordReader;
 import org.apache.pinot.core.indexsegment.mutable.MutableSegmentImpl;
 import org.apache.pinot.core.realtime.converter.RealtimeSegmentRecordReader;
-import org.apache.pinot.core.segment.creator.SegmentCreationDataSource;
+import org.apache.pinot.core.segment.creator.ColumnarSegmentCreationDataSource;
+import org.apache.pinot.core.segment.creator.SegmentCreator;
 import org.apache.pinot.core.segment.creator.SegmentPreIndexStatsContainer;
 import org.apache.pinot.core.segment.creator.StatsCollectorConfig;
 
 
 /**
  * Segment creation data source that is based on an in-memory realtime segment.
+ * <p>Columns are indexed directly from the dictionaries and forward indexes of the realtime segment (in the sorted
+ * document order if a sorted column is configured), without re-materializing the rows.
  */
-public class RealtimeSegmentSegmentCreationDataSource implements SegmentCreationDataSource {
+public class RealtimeSegmentSegmentCreationDataSource implements ColumnarSegmentCreationDataSource {
   private final MutableSegmentImpl _realtimeSegment;
   private final RealtimeSegmentRecordReader _realtimeSegmentRecordReader;
   private final Schema _schema;
@@ -55,4 +58,12 @@ public class RealtimeSegmentSegmentCreationDataSource implements SegmentCreation
   public RecordReader getRecordReader() {
     return _realtimeSegmentRecordReader;
   }
+
+  @Override
+  public void indexColumns(SegmentCreator segmentCreator) {
+    int[] sortedDocIds = _realtimeSegmentRecordReader.getSortedDocIdIterationOrder();
+    for (String column : _schema.getPhysicalColumnNames()) {
+      segmentCreator.indexColumn(column, _realtimeSegment.getDataSource(column), sortedDocIds);
+    }
+  }
 }
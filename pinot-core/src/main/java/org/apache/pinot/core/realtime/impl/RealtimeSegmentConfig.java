@@ -18,6 +18,7 @@
  */
 package org.apache.pinot.core.realtime.impl;
 
+import java.util.Collections;
 import java.util.Set;
 import org.apache.pinot.common.config.SegmentPartitionConfig;
 import org.apache.pinot.common.data.Schema;
@@ -33,6 +34,7 @@ public class RealtimeSegmentConfig {
   private final int _avgNumMultiValues;
   private final Set<String> _noDictionaryColumns;
   private final Set<String> _invertedIndexColumns;
+  private final Set<String> _bloomFilterColumns;
   private final RealtimeSegmentZKMetadata _realtimeSegmentZKMetadata;
   private final boolean _offHeap;
   private final PinotDataBufferMemoryManager _memoryManager;
@@ -42,9 +44,9 @@ public class RealtimeSegmentConfig {
 
   private RealtimeSegmentConfig(String segmentName, String streamName, Schema schema, int capacity,
       int avgNumMultiValues, Set<String> noDictionaryColumns, Set<String> invertedIndexColumns,
-      RealtimeSegmentZKMetadata realtimeSegmentZKMetadata, boolean offHeap, PinotDataBufferMemoryManager memoryManager,
-      RealtimeSegmentStatsHistory statsHistory, SegmentPartitionConfig segmentPartitionConfig,
-      boolean aggregateMetrics) {
+      Set<String> bloomFilterColumns, RealtimeSegmentZKMetadata realtimeSegmentZKMetadata, boolean offHeap,
+      PinotDataBufferMemoryManager memoryManager, RealtimeSegmentStatsHistory statsHistory,
+      SegmentPartitionConfig segmentPartitionConfig, boolean aggregateMetrics) {
     _segmentName = segmentName;
     _streamName = streamName;
     _schema = schema;
@@ -52,6 +54,7 @@ public class RealtimeSegmentConfig {
     _avgNumMultiValues = avgNumMultiValues;
     _noDictionaryColumns = noDictionaryColumns;
     _invertedIndexColumns = invertedIndexColumns;
+    _bloomFilterColumns = bloomFilterColumns;
     _realtimeSegmentZKMetadata = realtimeSegmentZKMetadata;
     _offHeap = offHeap;
     _memoryManager = memoryManager;
@@ -88,6 +91,10 @@ public class RealtimeSegmentConfig {
     return _invertedIndexColumns;
   }
 
+  public Set<String> getBloomFilterColumns() {
+    return _bloomFilterColumns;
+  }
+
   public RealtimeSegmentZKMetadata getRealtimeSegmentZKMetadata() {
     return _realtimeSegmentZKMetadata;
   }
@@ -120,6 +127,7 @@ public class RealtimeSegmentConfig {
     private int _avgNumMultiValues;
     private Set<String> _noDictionaryColumns;
     private Set<String> _invertedIndexColumns;
+    private Set<String> _bloomFilterColumns = Collections.emptySet();
     private RealtimeSegmentZKMetadata _realtimeSegmentZKMetadata;
     private boolean _offHeap;
     private PinotDataBufferMemoryManager _memoryManager;
@@ -165,6 +173,11 @@ public class RealtimeSegmentConfig {
       return this;
     }
 
+    public Builder setBloomFilterColumns(Set<String> bloomFilterColumns) {
+      _bloomFilterColumns = bloomFilterColumns;
+      return this;
+    }
+
     public Builder setRealtimeSegmentZKMetadata(RealtimeSegmentZKMetadata realtimeSegmentZKMetadata) {
       _realtimeSegmentZKMetadata = realtimeSegmentZKMetadata;
       return this;
@@ -197,8 +210,8 @@ public class RealtimeSegmentConfig {
 
     public RealtimeSegmentConfig build() {
       return new RealtimeSegmentConfig(_segmentName, _streamName, _schema, _capacity, _avgNumMultiValues,
-          _noDictionaryColumns, _invertedIndexColumns, _realtimeSegmentZKMetadata, _offHeap, _memoryManager,
-          _statsHistory, _segmentPartitionConfig, _aggregateMetrics);
+          _noDictionaryColumns, _invertedIndexColumns, _bloomFilterColumns, _realtimeSegmentZKMetadata, _offHeap,
+          _memoryManager, _statsHistory, _segmentPartitionConfig, _aggregateMetrics);
     }
   }
 }
@@ -16,9 +16,19 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.pinot.core.query.selection.comparator;
+package org.apache.pinot.core.segment.creator;
 
-public interface IDocIdValComparator {
+/**
+ * Data source that holds the data in columnar form, which allows building segments column by column without
+ * materializing the rows.
+ * <p>The values should already conform to the schema as no record transformation is applied on this path.
+ */
+public interface ColumnarSegmentCreationDataSource extends SegmentCreationDataSource {
 
-  int compare(int docId1, int docId2);
+  /**
+   * Adds all the columns to the index with {@link SegmentCreator#indexColumn}.
+   *
+   * @param segmentCreator Segment creator initialized with the statistics gathered from this data source
+   */
+  void indexColumns(SegmentCreator segmentCreator);
 }
@@ -22,10 +22,12 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.util.Map;
+import javax.annotation.Nullable;
 import org.apache.commons.configuration.ConfigurationException;
 import org.apache.pinot.common.data.Schema;
 import org.apache.pinot.core.data.GenericRow;
 import org.apache.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
+import org.apache.pinot.core.segment.index.data.source.ColumnDataSource;
 
 
 /**
@@ -53,6 +55,18 @@ public interface SegmentCreator extends Closeable {
    */
   void indexRow(GenericRow row);
 
+  /**
+   * Adds all the values of a column to the index at once, reading them from the forward index (and dictionary if
+   * exists) of the given data source instead of from rows. Dictionary ids of the data source are remapped to the
+   * dictionary ids of the created segment.
+   * <p>Should not be mixed with {@link #indexRow(GenericRow)} within the same segment creation.
+   *
+   * @param columnName Name of the column to index
+   * @param dataSource Data source for the column
+   * @param docIds Document ids of the data source in the order to be indexed, or null to index in document id order
+   */
+  void indexColumn(String columnName, ColumnDataSource dataSource, @Nullable int[] docIds);
+
   /**
    * Sets the name of the segment.
    *
@@ -0,0 +1,157 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.segment.creator.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import org.apache.pinot.common.utils.primitive.ByteArray;
+
+
+/**
+ * Creator for the front-coded STRING dictionary.
+ * <p>The UTF-8 encoded values are grouped into blocks of {@link #BLOCK_SIZE} values. The first value of each block is
+ * stored as is, and each following value is stored as the length of the prefix shared with the previous value and the
+ * remaining suffix. The lengths are stored as variable-length integers.
+ * <p>Dictionary layout:
+ * <ul>
+ *   <li>Version (int)</li>
+ *   <li>Number of values (int)</li>
+ *   <li>Block size (int)</li>
+ *   <li>Max length of the values in bytes (int)</li>
+ *   <li>Block offsets from the start of the dictionary (int[numBlocks])</li>
+ *   <li>Blocks</li>
+ * </ul>
+ * <p>Values are looked up by comparing the UTF-8 bytes, so the front-coded dictionary can only be created when the
+ * values (sorted as Java strings) are also sorted by their UTF-8 bytes, which is not the case when there are values
+ * with both supplementary characters and characters in range U+E000 to U+FFFF.
+ */
+public class FrontCodedStringDictionaryCreator {
+  public static final int VERSION = 1;
+  public static final int BLOCK_SIZE = 16;
+  public static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+  private final byte[][] _sortedValues;
+  private final int _maxLength;
+
+  public FrontCodedStringDictionaryCreator(byte[][] sortedValues, int maxLength) {
+    _sortedValues = sortedValues;
+    _maxLength = maxLength;
+  }
+
+  /**
+   * Returns the size of the front-coded dictionary in bytes, or -1 if the values are not sorted by their UTF-8 bytes.
+   */
+  public long getSize() {
+    int numValues = _sortedValues.length;
+    long size = HEADER_SIZE + (long) getNumBlocks(numValues) * Integer.BYTES;
+    for (int i = 0; i < numValues; i++) {
+      byte[] value = _sortedValues[i];
+      if (i > 0 && ByteArray.compare(_sortedValues[i - 1], value) >= 0) {
+        return -1;
+      }
+      if (i % BLOCK_SIZE == 0) {
+        size += getVarIntSize(value.length) + value.length;
+      } else {
+        int sharedPrefixLength = getSharedPrefixLength(_sortedValues[i - 1], value);
+        int suffixLength = value.length - sharedPrefixLength;
+        size += getVarIntSize(sharedPrefixLength) + getVarIntSize(suffixLength) + suffixLength;
+      }
+    }
+    return size;
+  }
+
+  public void write(File dictionaryFile)
+      throws IOException {
+    int numValues = _sortedValues.length;
+    int numBlocks = getNumBlocks(numValues);
+    try (DataOutputStream outputStream = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(dictionaryFile)))) {
+      outputStream.writeInt(VERSION);
+      outputStream.writeInt(numValues);
+      outputStream.writeInt(BLOCK_SIZE);
+      outputStream.writeInt(_maxLength);
+
+      // Block offsets
+      int offset = HEADER_SIZE + numBlocks * Integer.BYTES;
+      for (int i = 0; i < numValues; i++) {
+        byte[] value = _sortedValues[i];
+        if (i % BLOCK_SIZE == 0) {
+          outputStream.writeInt(offset);
+          offset += getVarIntSize(value.length) + value.length;
+        } else {
+          int sharedPrefixLength = getSharedPrefixLength(_sortedValues[i - 1], value);
+          int suffixLength = value.length - sharedPrefixLength;
+          offset += getVarIntSize(sharedPrefixLength) + getVarIntSize(suffixLength) + suffixLength;
+        }
+      }
+
+      // Blocks
+      for (int i = 0; i < numValues; i++) {
+        byte[] value = _sortedValues[i];
+        if (i % BLOCK_SIZE == 0) {
+          writeVarInt(outputStream, value.length);
+          outputStream.write(value);
+        } else {
+          int sharedPrefixLength = getSharedPrefixLength(_sortedValues[i - 1], value);
+          int suffixLength = value.length - sharedPrefixLength;
+          writeVarInt(outputStream, sharedPrefixLength);
+          writeVarInt(outputStream, suffixLength);
+          outputStream.write(value, sharedPrefixLength, suffixLength);
+        }
+      }
+    }
+  }
+
+  public static int getNumBlocks(int numValues) {
+    return (numValues + BLOCK_SIZE - 1) / BLOCK_SIZE;
+  }
+
+  /**
+   * Returns the number of bytes of the variable-length encoded non-negative integer (7 bits per byte).
+   */
+  public static int getVarIntSize(int value) {
+    int size = 1;
+    while ((value >>>= 7) != 0) {
+      size++;
+    }
+    return size;
+  }
+
+  private static void writeVarInt(DataOutputStream outputStream, int value)
+      throws IOException {
+    while ((value & ~0x7F) != 0) {
+      outputStream.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    outputStream.writeByte(value);
+  }
+
+  private static int getSharedPrefixLength(byte[] value1, byte[] value2) {
+    int length = Math.min(value1.length, value2.length);
+    for (int i = 0; i < length; i++) {
+      if (value1[i] != value2[i]) {
+        return i;
+      }
+    }
+    return length;
+  }
+}
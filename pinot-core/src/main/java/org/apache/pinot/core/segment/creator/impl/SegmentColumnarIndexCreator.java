@@ -21,11 +21,13 @@ package org.apache.pinot.core.segment.creator.impl;
 import com.google.common.base.Preconditions;
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import javax.annotation.Nullable;
 import org.apache.commons.configuration.ConfigurationException;
 import org.apache.commons.configuration.PropertiesConfiguration;
 import org.apache.pinot.common.data.DateTimeFieldSpec;
@@ -33,10 +35,15 @@ import org.apache.pinot.common.data.FieldSpec;
 import org.apache.pinot.common.data.FieldSpec.FieldType;
 import org.apache.pinot.common.data.Schema;
 import org.apache.pinot.common.data.StarTreeIndexSpec;
+import org.apache.pinot.core.common.DataSourceMetadata;
 import org.apache.pinot.core.data.GenericRow;
 import org.apache.pinot.core.data.partition.PartitionFunction;
+import org.apache.pinot.core.indexsegment.IndexSegmentUtils;
 import org.apache.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
 import org.apache.pinot.core.io.compression.ChunkCompressorFactory;
+import org.apache.pinot.core.io.reader.DataFileReader;
+import org.apache.pinot.core.io.reader.SingleColumnMultiValueReader;
+import org.apache.pinot.core.io.reader.SingleColumnSingleValueReader;
 import org.apache.pinot.core.io.util.PinotDataBitSet;
 import org.apache.pinot.core.segment.creator.ColumnIndexCreationInfo;
 import org.apache.pinot.core.segment.creator.ForwardIndexCreator;
@@ -51,8 +58,12 @@ import org.apache.pinot.core.segment.creator.impl.fwd.SingleValueFixedByteRawInd
 import org.apache.pinot.core.segment.creator.impl.fwd.SingleValueSortedForwardIndexCreator;
 import org.apache.pinot.core.segment.creator.impl.fwd.SingleValueUnsortedForwardIndexCreator;
 import org.apache.pinot.core.segment.creator.impl.fwd.SingleValueVarByteRawIndexCreator;
+import org.apache.pinot.core.segment.creator.impl.inv.BitmapRangeIndexCreator;
 import org.apache.pinot.core.segment.creator.impl.inv.OffHeapBitmapInvertedIndexCreator;
 import org.apache.pinot.core.segment.creator.impl.inv.OnHeapBitmapInvertedIndexCreator;
+import org.apache.pinot.core.segment.creator.impl.text.NgramTextIndexCreator;
+import org.apache.pinot.core.segment.index.data.source.ColumnDataSource;
+import org.apache.pinot.core.segment.index.readers.Dictionary;
 import org.apache.pinot.startree.hll.HllConfig;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
@@ -76,6 +87,7 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
   private Map<String, SegmentDictionaryCreator> _dictionaryCreatorMap = new HashMap<>();
   private Map<String, ForwardIndexCreator> _forwardIndexCreatorMap = new HashMap<>();
   private Map<String, InvertedIndexCreator> _invertedIndexCreatorMap = new HashMap<>();
+  private Map<String, InvertedIndexCreator> _rangeIndexCreatorMap = new HashMap<>();
   private String segmentName;
   private Schema schema;
   private File _indexDir;
@@ -110,6 +122,20 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
           "Cannot create inverted index for column: %s because it is not in schema", columnName);
       invertedIndexColumns.add(columnName);
     }
+    Set<String> rangeIndexColumns = new HashSet<>();
+    for (String columnName : config.getRangeIndexCreationColumns()) {
+      Preconditions.checkState(schema.hasColumn(columnName),
+          "Cannot create range index for column: %s because it is not in schema", columnName);
+      rangeIndexColumns.add(columnName);
+    }
+    Set<String> textIndexColumns = new HashSet<>();
+    for (String columnName : config.getTextIndexCreationColumns()) {
+      Preconditions.checkState(schema.hasColumn(columnName),
+          "Cannot create text index for column: %s because it is not in schema", columnName);
+      Preconditions.checkState(schema.getFieldSpecFor(columnName).getDataType() == FieldSpec.DataType.STRING,
+          "Cannot create text index for non-STRING column: %s", columnName);
+      textIndexColumns.add(columnName);
+    }
 
     // Initialize creators for dictionary, forward index and inverted index
     for (FieldSpec fieldSpec : fieldSpecs) {
@@ -128,7 +154,8 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
 
         // Initialize dictionary creator
         SegmentDictionaryCreator dictionaryCreator =
-            new SegmentDictionaryCreator(indexCreationInfo.getSortedUniqueElementsArray(), fieldSpec, _indexDir);
+            new SegmentDictionaryCreator(indexCreationInfo.getSortedUniqueElementsArray(), fieldSpec, _indexDir,
+                config.isEnableFrontCodedStringDictionary());
         _dictionaryCreatorMap.put(columnName, dictionaryCreator);
 
         // Create dictionary
@@ -167,6 +194,20 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
                     indexCreationInfo.getTotalNumberOfEntries()));
           }
         }
+
+        // Initialize range index creator (range predicates on sorted column are solved with the sorted index)
+        if (rangeIndexColumns.contains(columnName) && !indexCreationInfo.isSorted()) {
+          _rangeIndexCreatorMap.put(columnName, new BitmapRangeIndexCreator(_indexDir, columnName, cardinality));
+        }
+
+        // Create text index from the sorted unique values (in the order of the dictionary ids)
+        if (textIndexColumns.contains(columnName)) {
+          try (NgramTextIndexCreator textIndexCreator = new NgramTextIndexCreator(_indexDir, columnName)) {
+            for (Object value : (Object[]) indexCreationInfo.getSortedUniqueElementsArray()) {
+              textIndexCreator.add((String) value);
+            }
+          }
+        }
       } else {
         // Create raw index
 
@@ -175,6 +216,10 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
             columnName);
         Preconditions.checkState(!invertedIndexColumns.contains(columnName),
             "Cannot create inverted index for raw index column: %s", columnName);
+        Preconditions.checkState(!rangeIndexColumns.contains(columnName),
+            "Cannot create range index for raw index column: %s", columnName);
+        Preconditions.checkState(!textIndexColumns.contains(columnName),
+            "Cannot create text index for raw index column: %s", columnName);
 
         ChunkCompressorFactory.CompressionType compressionType =
             getColumnCompressionType(segmentCreationSpec, fieldSpec);
@@ -263,6 +308,9 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
           if (_invertedIndexCreatorMap.containsKey(columnName)) {
             _invertedIndexCreatorMap.get(columnName).add(dictId);
           }
+          if (_rangeIndexCreatorMap.containsKey(columnName)) {
+            _rangeIndexCreatorMap.get(columnName).add(dictId);
+          }
         } else {
           ((SingleValueRawIndexCreator) _forwardIndexCreatorMap.get(columnName))
               .index(docIdCounter, columnValueToIndex);
@@ -273,11 +321,98 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
         if (_invertedIndexCreatorMap.containsKey(columnName)) {
           _invertedIndexCreatorMap.get(columnName).add(dictIds, dictIds.length);
         }
+        if (_rangeIndexCreatorMap.containsKey(columnName)) {
+          _rangeIndexCreatorMap.get(columnName).add(dictIds, dictIds.length);
+        }
       }
     }
     docIdCounter++;
   }
 
+  @Override
+  public void indexColumn(String columnName, ColumnDataSource dataSource, @Nullable int[] docIds) {
+    ForwardIndexCreator forwardIndexCreator = _forwardIndexCreatorMap.get(columnName);
+    Preconditions.checkState(forwardIndexCreator != null, "Cannot index column: %s which is not in schema", columnName);
+    DataSourceMetadata dataSourceMetadata = dataSource.getDataSourceMetadata();
+    int numDocs = dataSourceMetadata.getNumDocs();
+    Preconditions.checkState(numDocs == totalDocs, "Number of documents: %s for column: %s does not match: %s", numDocs,
+        columnName, totalDocs);
+    Preconditions.checkState(docIds == null || docIds.length == numDocs,
+        "Number of document ids: %s for column: %s does not match: %s", docIds == null ? 0 : docIds.length, columnName,
+        numDocs);
+
+    FieldSpec fieldSpec = schema.getFieldSpecFor(columnName);
+    DataFileReader forwardIndex = dataSource.getForwardIndex();
+    Dictionary dictionary = dataSource.getDictionary();
+    int maxNumMultiValues = dataSourceMetadata.getMaxNumMultiValues();
+    SegmentDictionaryCreator dictionaryCreator = _dictionaryCreatorMap.get(columnName);
+
+    if (dictionaryCreator == null) {
+      // Raw index
+      SingleValueRawIndexCreator rawIndexCreator = (SingleValueRawIndexCreator) forwardIndexCreator;
+      for (int i = 0; i < numDocs; i++) {
+        int docId = docIds != null ? docIds[i] : i;
+        rawIndexCreator
+            .index(i, IndexSegmentUtils.getValue(docId, fieldSpec, forwardIndex, dictionary, maxNumMultiValues));
+      }
+      return;
+    }
+
+    // Dictionary-encoded index
+    Preconditions.checkState(dictionary != null, "Cannot create dictionary-encoded index for raw column: %s",
+        columnName);
+    int[] dictIdMapping = getDictIdMapping(dictionary, dictionaryCreator);
+    InvertedIndexCreator invertedIndexCreator = _invertedIndexCreatorMap.get(columnName);
+    InvertedIndexCreator rangeIndexCreator = _rangeIndexCreatorMap.get(columnName);
+    if (fieldSpec.isSingleValueField()) {
+      SingleColumnSingleValueReader reader = (SingleColumnSingleValueReader) forwardIndex;
+      SingleValueForwardIndexCreator singleValueForwardIndexCreator =
+          (SingleValueForwardIndexCreator) forwardIndexCreator;
+      for (int i = 0; i < numDocs; i++) {
+        int dictId = dictIdMapping[reader.getInt(docIds != null ? docIds[i] : i)];
+        singleValueForwardIndexCreator.index(i, dictId);
+        if (invertedIndexCreator != null) {
+          invertedIndexCreator.add(dictId);
+        }
+        if (rangeIndexCreator != null) {
+          rangeIndexCreator.add(dictId);
+        }
+      }
+    } else {
+      SingleColumnMultiValueReader reader = (SingleColumnMultiValueReader) forwardIndex;
+      MultiValueForwardIndexCreator multiValueForwardIndexCreator = (MultiValueForwardIndexCreator) forwardIndexCreator;
+      int[] buffer = new int[maxNumMultiValues];
+      for (int i = 0; i < numDocs; i++) {
+        int numValues = reader.getIntArray(docIds != null ? docIds[i] : i, buffer);
+        int[] dictIds = new int[numValues];
+        for (int j = 0; j < numValues; j++) {
+          dictIds[j] = dictIdMapping[buffer[j]];
+        }
+        Arrays.sort(dictIds);
+        multiValueForwardIndexCreator.index(i, dictIds);
+        if (invertedIndexCreator != null) {
+          invertedIndexCreator.add(dictIds, numValues);
+        }
+        if (rangeIndexCreator != null) {
+          rangeIndexCreator.add(dictIds, numValues);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the mapping from the dictionary ids of the given dictionary to the dictionary ids of the dictionary
+   * creator, so that each distinct value is looked up once per column instead of once per document.
+   */
+  private static int[] getDictIdMapping(Dictionary dictionary, SegmentDictionaryCreator dictionaryCreator) {
+    int length = dictionary.length();
+    int[] dictIdMapping = new int[length];
+    for (int dictId = 0; dictId < length; dictId++) {
+      dictIdMapping[dictId] = dictionaryCreator.indexOfSV(dictionary.get(dictId));
+    }
+    return dictIdMapping;
+  }
+
   @Override
   public void setSegmentName(String segmentName) {
     this.segmentName = segmentName;
@@ -289,6 +424,9 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
     for (InvertedIndexCreator invertedIndexCreator : _invertedIndexCreatorMap.values()) {
       invertedIndexCreator.seal();
     }
+    for (InvertedIndexCreator rangeIndexCreator : _rangeIndexCreatorMap.values()) {
+      rangeIndexCreator.seal();
+    }
     writeMetadata();
   }
 
@@ -383,6 +521,9 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
       addColumnMetadataInfo(properties, column, columnIndexCreationInfo, totalDocs, totalRawDocs, totalAggDocs,
           schema.getFieldSpecFor(column), _dictionaryCreatorMap.containsKey(column), dictionaryElementSize,
           hasInvertedIndex, hllOriginColumn);
+      if (dictionaryCreator != null && dictionaryCreator.isFrontCoded()) {
+        properties.setProperty(getKeyFor(column, IS_FRONT_CODED_DICTIONARY), String.valueOf(true));
+      }
     }
 
     properties.save();
@@ -467,6 +608,7 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
     properties.clearProperty(getKeyFor(column, IS_SORTED));
     properties.clearProperty(getKeyFor(column, HAS_NULL_VALUE));
     properties.clearProperty(getKeyFor(column, HAS_DICTIONARY));
+    properties.clearProperty(getKeyFor(column, IS_FRONT_CODED_DICTIONARY));
     properties.clearProperty(getKeyFor(column, HAS_INVERTED_INDEX));
     properties.clearProperty(getKeyFor(column, IS_SINGLE_VALUED));
     properties.clearProperty(getKeyFor(column, MAX_MULTI_VALUE_ELEMTS));
@@ -538,5 +680,8 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
     for (InvertedIndexCreator invertedIndexCreator : _invertedIndexCreatorMap.values()) {
       invertedIndexCreator.close();
     }
+    for (InvertedIndexCreator rangeIndexCreator : _rangeIndexCreatorMap.values()) {
+      rangeIndexCreator.close();
+    }
   }
 }
@@ -41,10 +41,13 @@ import org.slf4j.LoggerFactory;
 
 public class SegmentDictionaryCreator implements Closeable {
   private static final Logger LOGGER = LoggerFactory.getLogger(SegmentDictionaryCreator.class);
+  // Front-coding makes value lookup slower, so only use it when it saves enough space
+  public static final double MAX_FRONT_CODED_SIZE_RATIO = 0.5;
 
   private final Object _sortedValues;
   private final FieldSpec _fieldSpec;
   private final File _dictionaryFile;
+  private final boolean _enableFrontCoding;
 
   private Int2IntOpenHashMap _intValueToIndexMap;
   private Long2IntOpenHashMap _longValueToIndexMap;
@@ -53,11 +56,22 @@ public class SegmentDictionaryCreator implements Closeable {
   private Object2IntOpenHashMap<String> _stringValueToIndexMap;
   private Object2IntOpenHashMap<ByteArray> _bytesValueToIndexMap;
   private int _numBytesPerEntry = 0;
+  private boolean _frontCoded = false;
 
   public SegmentDictionaryCreator(Object sortedValues, FieldSpec fieldSpec, File indexDir)
       throws IOException {
+    this(sortedValues, fieldSpec, indexDir, false);
+  }
+
+  /**
+   * @param enableFrontCoding Whether to use the front-coded dictionary for STRING column when it takes at most
+   *                          {@link #MAX_FRONT_CODED_SIZE_RATIO} of the size of the fixed-width dictionary
+   */
+  public SegmentDictionaryCreator(Object sortedValues, FieldSpec fieldSpec, File indexDir, boolean enableFrontCoding)
+      throws IOException {
     _sortedValues = sortedValues;
     _fieldSpec = fieldSpec;
+    _enableFrontCoding = enableFrontCoding;
     _dictionaryFile = new File(indexDir, fieldSpec.getName() + V1Constants.Dict.FILE_EXTENSION);
     FileUtils.touch(_dictionaryFile);
   }
@@ -163,6 +177,21 @@ public class SegmentDictionaryCreator implements Closeable {
           _numBytesPerEntry = Math.max(_numBytesPerEntry, valueBytes.length);
         }
 
+        if (_enableFrontCoding) {
+          FrontCodedStringDictionaryCreator frontCodedDictionaryCreator =
+              new FrontCodedStringDictionaryCreator(sortedStringBytes, _numBytesPerEntry);
+          long frontCodedSize = frontCodedDictionaryCreator.getSize();
+          long fixedWidthSize = (long) numValues * _numBytesPerEntry;
+          if (frontCodedSize >= 0 && frontCodedSize <= fixedWidthSize * MAX_FRONT_CODED_SIZE_RATIO) {
+            frontCodedDictionaryCreator.write(_dictionaryFile);
+            _frontCoded = true;
+            LOGGER.info("Created front-coded dictionary for STRING column: {} with cardinality: {}, size: {} bytes "
+                    + "(fixed-width size: {} bytes)", _fieldSpec.getName(), numValues, frontCodedSize,
+                fixedWidthSize);
+            return;
+          }
+        }
+
         // Backward-compatible: index file is always big-endian
         try (PinotDataBuffer dataBuffer = PinotDataBuffer
             .mapFile(_dictionaryFile, false, 0, (long) numValues * _numBytesPerEntry, ByteOrder.BIG_ENDIAN,
@@ -215,6 +244,13 @@ public class SegmentDictionaryCreator implements Closeable {
     return _numBytesPerEntry;
   }
 
+  /**
+   * Returns {@code true} if the dictionary is created in the front-coded format.
+   */
+  public boolean isFrontCoded() {
+    return _frontCoded;
+  }
+
   public int indexOfSV(Object value) {
     switch (_fieldSpec.getDataType()) {
       case INT:
@@ -43,6 +43,7 @@ import org.apache.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
 import org.apache.pinot.core.indexsegment.generator.SegmentVersion;
 import org.apache.pinot.core.segment.creator.ColumnIndexCreationInfo;
 import org.apache.pinot.core.segment.creator.ColumnStatistics;
+import org.apache.pinot.core.segment.creator.ColumnarSegmentCreationDataSource;
 import org.apache.pinot.core.segment.creator.ForwardIndexType;
 import org.apache.pinot.core.segment.creator.InvertedIndexType;
 import org.apache.pinot.core.segment.creator.RecordReaderSegmentCreationDataSource;
@@ -78,6 +79,7 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
 
   private SegmentGeneratorConfig config;
   private RecordReader recordReader;
+  private ColumnarSegmentCreationDataSource columnarDataSource;
   private SegmentPreIndexStatsContainer segmentStats;
   private Map<String, ColumnIndexCreationInfo> indexCreationInfoMap;
   private SegmentCreator indexCreator;
@@ -119,6 +121,9 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
     this.config = config;
     this.createStarTree = config.isEnableStarTreeIndex();
     recordReader = dataSource.getRecordReader();
+    if (dataSource instanceof ColumnarSegmentCreationDataSource) {
+      columnarDataSource = (ColumnarSegmentCreationDataSource) dataSource;
+    }
     Preconditions.checkState(recordReader.hasNext(), "No record in data source");
     dataSchema = recordReader.getSchema();
 
@@ -330,19 +335,27 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
       indexCreator.init(config, segmentIndexCreationInfo, indexCreationInfoMap, dataSchema, tempIndexDir);
 
       // Build the index
-      recordReader.rewind();
-      LOGGER.info("Start building IndexCreator!");
-      GenericRow readRow = null;
-      while (recordReader.hasNext()) {
+      if (columnarDataSource != null) {
+        // Index column by column from the columnar data source without materializing the rows
+        LOGGER.info("Start building IndexCreator from columnar data source!");
         long start = System.currentTimeMillis();
-        readRow = GenericRow.createOrReuseRow(readRow);
-        GenericRow transformedRow = _recordTransformer.transform(recordReader.next(readRow));
-        long stop = System.currentTimeMillis();
-        totalRecordReadTime += (stop - start);
-        if (transformedRow != null) {
-          indexCreator.indexRow(transformedRow);
-          long stop1 = System.currentTimeMillis();
-          totalIndexTime += (stop1 - stop);
+        columnarDataSource.indexColumns(indexCreator);
+        totalIndexTime += (System.currentTimeMillis() - start);
+      } else {
+        recordReader.rewind();
+        LOGGER.info("Start building IndexCreator!");
+        GenericRow readRow = null;
+        while (recordReader.hasNext()) {
+          long start = System.currentTimeMillis();
+          readRow = GenericRow.createOrReuseRow(readRow);
+          GenericRow transformedRow = _recordTransformer.transform(recordReader.next(readRow));
+          long stop = System.currentTimeMillis();
+          totalRecordReadTime += (stop - start);
+          if (transformedRow != null) {
+            indexCreator.indexRow(transformedRow);
+            long stop1 = System.currentTimeMillis();
+            totalIndexTime += (stop1 - stop);
+          }
         }
       }
     } catch (Exception e) {
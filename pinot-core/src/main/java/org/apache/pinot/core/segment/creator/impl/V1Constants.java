@@ -61,6 +61,8 @@ public class V1Constants {
     public static final String UNSORTED_MV_FORWARD_INDEX_FILE_EXTENSION = ".mv.fwd";
     public static final String BITMAP_INVERTED_INDEX_FILE_EXTENSION = ".bitmap.inv";
     public static final String BLOOM_FILTER_FILE_EXTENSION = ".bloom";
+    public static final String BITMAP_RANGE_INDEX_FILE_EXTENSION = ".bitmap.range";
+    public static final String NGRAM_TEXT_INDEX_FILE_EXTENSION = ".ngram.text";
   }
 
   public static class MetadataKeys {
@@ -122,6 +124,7 @@ public class V1Constants {
       public static final String IS_SORTED = "isSorted";
       public static final String HAS_NULL_VALUE = "hasNullValue";
       public static final String HAS_DICTIONARY = "hasDictionary";
+      public static final String IS_FRONT_CODED_DICTIONARY = "isFrontCodedDictionary";
       public static final String HAS_INVERTED_INDEX = "hasInvertedIndex";
       public static final String IS_SINGLE_VALUED = "isSingleValues";
       public static final String MAX_MULTI_VALUE_ELEMTS = "maxNumberOfMultiValues";
@@ -23,6 +23,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import org.apache.pinot.core.bloom.BloomFilter;
+import org.apache.pinot.core.bloom.BloomFilterType;
 import org.apache.pinot.core.bloom.BloomFilterUtil;
 import org.apache.pinot.core.bloom.SegmentBloomFilterFactory;
 import org.apache.pinot.core.segment.creator.impl.V1Constants;
@@ -32,24 +33,30 @@ import org.apache.pinot.core.segment.creator.impl.V1Constants;
  * Bloom filter creator
  *
  * Note:
- * 1. Currently, we limit the filter size to 1MB to avoid the heap overhead. We can remove it once we have the offheap
- *    implementation of the bloom filter.
+ * 1. Currently, we limit the filter size to 1MB to bound the size of the segment. The default (GUAVA_ON_HEAP) bloom
+ *    filter is copied to heap when the segment is loaded, while the OFF_HEAP_BLOCKED bloom filter is probed directly
+ *    from the segment data buffer.
  * 2. When capping the bloom filter to 1MB, max false pos steeply grows from 1 million cardinality. If the column has
  *    larger than "5 million" cardinality, it is not recommended to use bloom filter since maxFalsePosProb is already
  *    0.45 when the filter size is 1MB.
  */
 public class BloomFilterCreator implements AutoCloseable {
-  private static double DEFAULT_MAX_FALSE_POS_PROBABILITY = 0.05;
-  private static int MB_IN_BITS = 8388608;
+  public static final double DEFAULT_MAX_FALSE_POS_PROBABILITY = 0.05;
+  public static final int MB_IN_BITS = 8388608;
 
   private BloomFilter _bloomFilter;
   private File _bloomFilterFile;
 
   public BloomFilterCreator(File indexDir, String columnName, int cardinality) {
+    this(indexDir, columnName, cardinality, BloomFilterType.GUAVA_ON_HEAP);
+  }
+
+  public BloomFilterCreator(File indexDir, String columnName, int cardinality, BloomFilterType bloomFilterType) {
     _bloomFilterFile = new File(indexDir, columnName + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION);
     double maxFalsePosProbability = BloomFilterUtil
         .computeMaxFalsePositiveProbabilityForNumBits(cardinality, MB_IN_BITS, DEFAULT_MAX_FALSE_POS_PROBABILITY);
-    _bloomFilter = SegmentBloomFilterFactory.createSegmentBloomFilter(cardinality, maxFalsePosProbability);
+    _bloomFilter =
+        SegmentBloomFilterFactory.createSegmentBloomFilter(bloomFilterType, cardinality, maxFalsePosProbability);
   }
 
   @Override
@@ -0,0 +1,198 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.segment.creator.impl.inv;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.core.segment.creator.InvertedIndexCreator;
+import org.apache.pinot.core.segment.creator.impl.V1Constants;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+
+
+/**
+ * Range index creator that groups the sorted dictionary ids into buckets holding roughly the same number of values
+ * (equal-depth buckets), and stores one bitmap per bucket.
+ * <p>A range predicate is then answered by OR-ing the bitmaps of the buckets fully covered by the range and only
+ * scanning the documents in the (at most 2) buckets partially covered by the range.
+ * <pre>
+ * Layout for the bitmap range index:
+ * |-------------------------------------------------------------------------|
+ * |                                Version                                  |
+ * |                           Number of buckets                             |
+ * |-------------------------------------------------------------------------|
+ * |                   Start dictionary id of 1st bucket                     |
+ * |                                   ...                                   |
+ * |                  Start dictionary id of last bucket                     |
+ * |               Cardinality (end dictionary id of last bucket)            |
+ * |-------------------------------------------------------------------------|
+ * |                    Start offset of 1st bitmap                           |
+ * |                                   ...                                   |
+ * |                  End offset of last bitmap (exclusive)                  |
+ * |-------------------------------------------------------------------------|
+ * |                           Data for 1st bitmap                           |
+ * |                                   ...                                   |
+ * |                           Data for last bitmap                          |
+ * |-------------------------------------------------------------------------|
+ * </pre>
+ */
+public final class BitmapRangeIndexCreator implements InvertedIndexCreator {
+  public static final int VERSION = 1;
+  public static final int DEFAULT_NUM_BUCKETS = 128;
+
+  private final File _rangeIndexFile;
+  private final int _cardinality;
+  private final int _maxNumBuckets;
+  private final int[] _valueCounts;
+  private final IntArrayList _dictIds = new IntArrayList();
+  // Only used for multi-valued column: end offset (exclusive) of the dictionary ids for each document
+  private IntArrayList _docEndOffsets;
+  private int _nextDocId;
+
+  public BitmapRangeIndexCreator(File indexDir, String columnName, int cardinality) {
+    this(indexDir, columnName, cardinality, DEFAULT_NUM_BUCKETS);
+  }
+
+  public BitmapRangeIndexCreator(File indexDir, String columnName, int cardinality, int maxNumBuckets) {
+    Preconditions.checkArgument(maxNumBuckets > 0, "Number of buckets must be positive");
+    _rangeIndexFile = new File(indexDir, columnName + V1Constants.Indexes.BITMAP_RANGE_INDEX_FILE_EXTENSION);
+    _cardinality = cardinality;
+    _maxNumBuckets = maxNumBuckets;
+    _valueCounts = new int[cardinality];
+  }
+
+  @Override
+  public void add(int dictId) {
+    _dictIds.add(dictId);
+    _valueCounts[dictId]++;
+    _nextDocId++;
+  }
+
+  @Override
+  public void add(int[] dictIds, int length) {
+    if (_docEndOffsets == null) {
+      Preconditions.checkState(_nextDocId == 0, "Cannot mix single-valued and multi-valued documents");
+      _docEndOffsets = new IntArrayList();
+    }
+    for (int i = 0; i < length; i++) {
+      int dictId = dictIds[i];
+      _dictIds.add(dictId);
+      _valueCounts[dictId]++;
+    }
+    _docEndOffsets.add(_dictIds.size());
+    _nextDocId++;
+  }
+
+  @Override
+  public void seal()
+      throws IOException {
+    int[] bucketStartDictIds = computeBucketStartDictIds();
+    int numBuckets = bucketStartDictIds.length - 1;
+
+    // Map each dictionary id to its bucket
+    int[] dictIdToBucketId = new int[_cardinality];
+    for (int bucketId = 0; bucketId < numBuckets; bucketId++) {
+      for (int dictId = bucketStartDictIds[bucketId]; dictId < bucketStartDictIds[bucketId + 1]; dictId++) {
+        dictIdToBucketId[dictId] = bucketId;
+      }
+    }
+
+    MutableRoaringBitmap[] bitmaps = new MutableRoaringBitmap[numBuckets];
+    for (int i = 0; i < numBuckets; i++) {
+      bitmaps[i] = new MutableRoaringBitmap();
+    }
+    int[] dictIds = _dictIds.elements();
+    if (_docEndOffsets == null) {
+      for (int docId = 0; docId < _nextDocId; docId++) {
+        bitmaps[dictIdToBucketId[dictIds[docId]]].add(docId);
+      }
+    } else {
+      int[] docEndOffsets = _docEndOffsets.elements();
+      int startOffset = 0;
+      for (int docId = 0; docId < _nextDocId; docId++) {
+        int endOffset = docEndOffsets[docId];
+        for (int i = startOffset; i < endOffset; i++) {
+          bitmaps[dictIdToBucketId[dictIds[i]]].add(docId);
+        }
+        startOffset = endOffset;
+      }
+    }
+
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(_rangeIndexFile)))) {
+      out.writeInt(VERSION);
+      out.writeInt(numBuckets);
+      for (int bucketStartDictId : bucketStartDictIds) {
+        out.writeInt(bucketStartDictId);
+      }
+
+      // Write bitmap offsets
+      int bitmapOffset = (2 * numBuckets + 4) * Integer.BYTES;
+      out.writeInt(bitmapOffset);
+      for (MutableRoaringBitmap bitmap : bitmaps) {
+        bitmap.runOptimize();
+        bitmapOffset += bitmap.serializedSizeInBytes();
+        // Check for int overflow
+        Preconditions.checkState(bitmapOffset > 0, "Range index file: %s exceeds 2GB limit", _rangeIndexFile);
+        out.writeInt(bitmapOffset);
+      }
+
+      // Write bitmap data
+      for (MutableRoaringBitmap bitmap : bitmaps) {
+        bitmap.serialize(out);
+      }
+    } catch (Exception e) {
+      FileUtils.deleteQuietly(_rangeIndexFile);
+      throw e;
+    }
+  }
+
+  /**
+   * Computes the start dictionary id of each bucket so that each bucket holds roughly the same number of values. A
+   * single dictionary id is never split across buckets, so a bucket can hold more values than the target when the
+   * distribution is skewed. The last element of the returned array is the cardinality.
+   */
+  private int[] computeBucketStartDictIds() {
+    int numValues = _dictIds.size();
+    int maxNumBuckets = Math.max(Math.min(_maxNumBuckets, _cardinality), 1);
+    long targetBucketSize = Math.max((numValues + maxNumBuckets - 1) / maxNumBuckets, 1);
+
+    IntArrayList bucketStartDictIds = new IntArrayList(maxNumBuckets + 1);
+    bucketStartDictIds.add(0);
+    long bucketSize = 0;
+    for (int dictId = 0; dictId < _cardinality; dictId++) {
+      bucketSize += _valueCounts[dictId];
+      if (bucketSize >= targetBucketSize && dictId < _cardinality - 1) {
+        bucketStartDictIds.add(dictId + 1);
+        bucketSize = 0;
+      }
+    }
+    bucketStartDictIds.add(_cardinality);
+    return bucketStartDictIds.toIntArray();
+  }
+
+  @Override
+  public void close() {
+  }
+}
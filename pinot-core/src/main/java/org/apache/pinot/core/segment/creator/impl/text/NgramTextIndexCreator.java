@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.segment.creator.impl.text;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import org.apache.pinot.core.segment.creator.impl.V1Constants;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+
+
+/**
+ * N-gram text index creator for STRING dictionary-encoded columns.
+ * <p>Maps each tri-gram (see {@link NgramTokenizer}) to the bitmap of the dictionary ids of the values containing it.
+ * The values should be added in the order of the dictionary ids.
+ * <p>Index layout:
+ * <ul>
+ *   <li>Version (int)</li>
+ *   <li>Number of grams (int)</li>
+ *   <li>Sorted grams (long[numGrams])</li>
+ *   <li>Bitmap offsets from the start of the index (int[numGrams + 1])</li>
+ *   <li>Serialized bitmaps of dictionary ids</li>
+ * </ul>
+ */
+public class NgramTextIndexCreator implements AutoCloseable {
+  public static final int VERSION = 1;
+
+  private final File _textIndexFile;
+  private final Long2ObjectOpenHashMap<MutableRoaringBitmap> _gramToDictIds = new Long2ObjectOpenHashMap<>();
+  private int _nextDictId;
+
+  public NgramTextIndexCreator(File indexDir, String columnName) {
+    _textIndexFile = new File(indexDir, columnName + V1Constants.Indexes.NGRAM_TEXT_INDEX_FILE_EXTENSION);
+  }
+
+  /**
+   * Adds the value of the next dictionary id.
+   */
+  public void add(String value) {
+    int dictId = _nextDictId++;
+    LongIterator iterator = NgramTokenizer.getGrams(value).iterator();
+    while (iterator.hasNext()) {
+      long gram = iterator.nextLong();
+      MutableRoaringBitmap dictIds = _gramToDictIds.get(gram);
+      if (dictIds == null) {
+        dictIds = new MutableRoaringBitmap();
+        _gramToDictIds.put(gram, dictIds);
+      }
+      dictIds.add(dictId);
+    }
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    long[] grams = _gramToDictIds.keySet().toLongArray();
+    Arrays.sort(grams);
+    int numGrams = grams.length;
+    try (DataOutputStream outputStream = new DataOutputStream(new FileOutputStream(_textIndexFile))) {
+      outputStream.writeInt(VERSION);
+      outputStream.writeInt(numGrams);
+      for (long gram : grams) {
+        outputStream.writeLong(gram);
+      }
+      int offset = 2 * Integer.BYTES + numGrams * Long.BYTES + (numGrams + 1) * Integer.BYTES;
+      outputStream.writeInt(offset);
+      MutableRoaringBitmap[] bitmaps = new MutableRoaringBitmap[numGrams];
+      for (int i = 0; i < numGrams; i++) {
+        MutableRoaringBitmap bitmap = _gramToDictIds.get(grams[i]);
+        bitmap.runOptimize();
+        bitmaps[i] = bitmap;
+        offset += bitmap.serializedSizeInBytes();
+        outputStream.writeInt(offset);
+      }
+      for (MutableRoaringBitmap bitmap : bitmaps) {
+        bitmap.serialize(outputStream);
+      }
+    }
+  }
+}
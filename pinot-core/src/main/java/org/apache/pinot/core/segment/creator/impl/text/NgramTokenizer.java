@@ -0,0 +1,222 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.segment.creator.impl.text;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nullable;
+
+
+/**
+ * Tokenizer for the n-gram text index.
+ * <p>Values are case folded the same way as the case insensitive REGEXP_LIKE matching, prefixed with a start marker (so
+ * that anchored prefixes can be looked up), and split into overlapping tri-grams. Each tri-gram is encoded into a long.
+ */
+public class NgramTokenizer {
+  private NgramTokenizer() {
+  }
+
+  public static final int GRAM_LENGTH = 3;
+  public static final char START_MARKER = '\u0002';
+
+  /**
+   * Returns the distinct grams of the given value.
+   */
+  public static LongSet getGrams(String value) {
+    LongSet grams = new LongOpenHashSet();
+    addGrams(START_MARKER + value, grams);
+    return grams;
+  }
+
+  /**
+   * Returns the grams that every value matching the given REGEXP_LIKE regex must contain, or {@code null} if no gram
+   * can be extracted from the regex (in which case the text index cannot be used to narrow down the candidates).
+   * <p>Only the literal character sequences of the top-level concatenation are used. Regex with alternation, groups,
+   * flags, quoting or unknown escapes are not analyzed and return {@code null}.
+   */
+  @Nullable
+  public static long[] getRequiredGrams(String regex) {
+    List<String> literals = getRequiredLiterals(regex);
+    if (literals == null) {
+      return null;
+    }
+    LongSet grams = new LongOpenHashSet();
+    for (String literal : literals) {
+      addGrams(literal, grams);
+    }
+    if (grams.isEmpty()) {
+      return null;
+    }
+    long[] gramArray = grams.toLongArray();
+    Arrays.sort(gramArray);
+    return gramArray;
+  }
+
+  /**
+   * Returns the literal character sequences that every match of the regex must contain (the first one prefixed with
+   * the start marker if the regex is anchored at the start), or {@code null} if the regex cannot be analyzed.
+   */
+  @Nullable
+  static List<String> getRequiredLiterals(String regex) {
+    List<String> literals = new ArrayList<>();
+    StringBuilder literal = new StringBuilder();
+    int length = regex.length();
+    int i = 0;
+    if (length > 0 && regex.charAt(0) == '^') {
+      literal.append(START_MARKER);
+      i = 1;
+    }
+    while (i < length) {
+      char c = regex.charAt(i);
+      if (Character.isSurrogate(c)) {
+        return null;
+      }
+      switch (c) {
+        case '|':
+        case '(':
+        case ')':
+          return null;
+        case '\\':
+          if (i + 1 == length) {
+            return null;
+          }
+          char escaped = regex.charAt(i + 1);
+          if (Character.isLetterOrDigit(escaped)) {
+            // Only handle the character class escapes without argument, give up on the others
+            if ("dDwWsSbBA".indexOf(escaped) < 0) {
+              return null;
+            }
+            addLiteral(literal, literals);
+          } else {
+            if (Character.isSurrogate(escaped)) {
+              return null;
+            }
+            literal.append(escaped);
+          }
+          i += 2;
+          break;
+        case '[':
+          i = skipCharacterClass(regex, i);
+          if (i < 0) {
+            return null;
+          }
+          addLiteral(literal, literals);
+          break;
+        case '.':
+        case '^':
+        case '$':
+          addLiteral(literal, literals);
+          i++;
+          break;
+        case '*':
+        case '?':
+        case '{':
+          // The previous atom is optional
+          if (literal.length() > 0 && literal.charAt(literal.length() - 1) != START_MARKER) {
+            literal.setLength(literal.length() - 1);
+          }
+          addLiteral(literal, literals);
+          if (c == '{') {
+            i = regex.indexOf('}', i);
+            if (i < 0) {
+              return null;
+            }
+          }
+          i = skipQuantifierModifier(regex, i + 1);
+          break;
+        case '+':
+          // The previous atom is required, but the following character is not adjacent to it
+          addLiteral(literal, literals);
+          i = skipQuantifierModifier(regex, i + 1);
+          break;
+        default:
+          literal.append(c);
+          i++;
+          break;
+      }
+    }
+    addLiteral(literal, literals);
+    return literals;
+  }
+
+  private static void addLiteral(StringBuilder literal, List<String> literals) {
+    if (literal.length() > 0) {
+      literals.add(literal.toString());
+      literal.setLength(0);
+    }
+  }
+
+  /**
+   * Returns the index after the character class starting at the given index, or -1 if it cannot be parsed.
+   */
+  private static int skipCharacterClass(String regex, int start) {
+    int length = regex.length();
+    int i = start + 1;
+    if (i < length && regex.charAt(i) == '^') {
+      i++;
+    }
+    // Leading ']' is a literal
+    if (i < length && regex.charAt(i) == ']') {
+      i++;
+    }
+    while (i < length) {
+      char c = regex.charAt(i);
+      if (c == '\\') {
+        i += 2;
+      } else if (c == '[') {
+        // Nested class or intersection
+        return -1;
+      } else if (c == ']') {
+        return i + 1;
+      } else {
+        i++;
+      }
+    }
+    return -1;
+  }
+
+  private static int skipQuantifierModifier(String regex, int i) {
+    if (i < regex.length() && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+      return i + 1;
+    }
+    return i;
+  }
+
+  private static void addGrams(String value, LongSet grams) {
+    int length = value.length();
+    if (length < GRAM_LENGTH) {
+      return;
+    }
+    long gram = ((long) foldCase(value.charAt(0)) << Character.SIZE) | foldCase(value.charAt(1));
+    for (int i = GRAM_LENGTH - 1; i < length; i++) {
+      gram = ((gram << Character.SIZE) | foldCase(value.charAt(i))) & 0xFFFFFFFFFFFFL;
+      grams.add(gram);
+    }
+  }
+
+  /**
+   * Folds the case of the character so that characters matched by case insensitive regex share the same value.
+   */
+  private static char foldCase(char c) {
+    return Character.toLowerCase(Character.toUpperCase(c));
+  }
+}
@@ -515,6 +515,16 @@ public class SegmentMetadataImpl implements SegmentMetadata {
     return column + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION;
   }
 
+  @Override
+  public String getBitmapRangeIndexFileName(String column) {
+    return column + V1Constants.Indexes.BITMAP_RANGE_INDEX_FILE_EXTENSION;
+  }
+
+  @Override
+  public String getNgramTextIndexFileName(String column) {
+    return column + V1Constants.Indexes.NGRAM_TEXT_INDEX_FILE_EXTENSION;
+  }
+
   @Nullable
   @Override
   public String getCreatorName() {
@@ -31,14 +31,17 @@ import org.apache.pinot.core.io.reader.impl.v1.VarByteChunkSingleValueReader;
 import org.apache.pinot.core.segment.index.ColumnMetadata;
 import org.apache.pinot.core.segment.index.loader.IndexLoadingConfig;
 import org.apache.pinot.core.segment.index.readers.BitmapInvertedIndexReader;
+import org.apache.pinot.core.segment.index.readers.BitmapRangeIndexReader;
 import org.apache.pinot.core.segment.index.readers.BloomFilterReader;
 import org.apache.pinot.core.segment.index.readers.BytesDictionary;
 import org.apache.pinot.core.segment.index.readers.DoubleDictionary;
 import org.apache.pinot.core.segment.index.readers.FloatDictionary;
+import org.apache.pinot.core.segment.index.readers.FrontCodedStringDictionary;
 import org.apache.pinot.core.segment.index.readers.ImmutableDictionaryReader;
 import org.apache.pinot.core.segment.index.readers.IntDictionary;
 import org.apache.pinot.core.segment.index.readers.InvertedIndexReader;
 import org.apache.pinot.core.segment.index.readers.LongDictionary;
+import org.apache.pinot.core.segment.index.readers.NgramTextIndexReader;
 import org.apache.pinot.core.segment.index.readers.OnHeapDoubleDictionary;
 import org.apache.pinot.core.segment.index.readers.OnHeapFloatDictionary;
 import org.apache.pinot.core.segment.index.readers.OnHeapIntDictionary;
@@ -59,6 +62,8 @@ public final class PhysicalColumnIndexContainer implements ColumnIndexContainer
   private final InvertedIndexReader _invertedIndex;
   private final ImmutableDictionaryReader _dictionary;
   private final BloomFilterReader _bloomFilterReader;
+  private final BitmapRangeIndexReader _rangeIndex;
+  private final NgramTextIndexReader _textIndex;
 
   public PhysicalColumnIndexContainer(SegmentDirectory.Reader segmentReader, ColumnMetadata metadata,
       IndexLoadingConfig indexLoadingConfig)
@@ -67,10 +72,14 @@ public final class PhysicalColumnIndexContainer implements ColumnIndexContainer
     boolean loadInvertedIndex = false;
     boolean loadOnHeapDictionary = false;
     boolean loadBloomFilter = false;
+    boolean loadRangeIndex = false;
+    boolean loadTextIndex = false;
     if (indexLoadingConfig != null) {
       loadInvertedIndex = indexLoadingConfig.getInvertedIndexColumns().contains(columnName);
       loadOnHeapDictionary = indexLoadingConfig.getOnHeapDictionaryColumns().contains(columnName);
       loadBloomFilter = indexLoadingConfig.getBloomFilterColumns().contains(columnName);
+      loadRangeIndex = indexLoadingConfig.getRangeIndexColumns().contains(columnName);
+      loadTextIndex = indexLoadingConfig.getTextIndexColumns().contains(columnName);
     }
     PinotDataBuffer fwdIndexBuffer = segmentReader.getIndexFor(columnName, ColumnIndexType.FORWARD_INDEX);
 
@@ -82,6 +91,12 @@ public final class PhysicalColumnIndexContainer implements ColumnIndexContainer
       } else {
         _bloomFilterReader = null;
       }
+      // Text index is only created for STRING column
+      if (loadTextIndex && metadata.getDataType() == FieldSpec.DataType.STRING) {
+        _textIndex = new NgramTextIndexReader(segmentReader.getIndexFor(columnName, ColumnIndexType.TEXT_INDEX));
+      } else {
+        _textIndex = null;
+      }
       // Dictionary-based index
       _dictionary = loadDictionary(segmentReader.getIndexFor(columnName, ColumnIndexType.DICTIONARY), metadata,
           loadOnHeapDictionary);
@@ -92,6 +107,8 @@ public final class PhysicalColumnIndexContainer implements ColumnIndexContainer
           SortedIndexReader sortedIndexReader = new SortedIndexReaderImpl(fwdIndexBuffer, metadata.getCardinality());
           _forwardIndex = sortedIndexReader;
           _invertedIndex = sortedIndexReader;
+          // Range predicates on sorted column are already solved with the sorted index
+          _rangeIndex = null;
           return;
         } else {
           // Unsorted
@@ -111,12 +128,20 @@ public final class PhysicalColumnIndexContainer implements ColumnIndexContainer
       } else {
         _invertedIndex = null;
       }
+      if (loadRangeIndex) {
+        _rangeIndex =
+            new BitmapRangeIndexReader(segmentReader.getIndexFor(columnName, ColumnIndexType.RANGE_INDEX));
+      } else {
+        _rangeIndex = null;
+      }
     } else {
       // Raw index
       _forwardIndex = loadRawForwardIndex(fwdIndexBuffer, metadata.getDataType());
       _invertedIndex = null;
       _dictionary = null;
       _bloomFilterReader = null;
+      _rangeIndex = null;
+      _textIndex = null;
     }
   }
 
@@ -140,6 +165,16 @@ public final class PhysicalColumnIndexContainer implements ColumnIndexContainer
     return _bloomFilterReader;
   }
 
+  @Override
+  public BitmapRangeIndexReader getRangeIndex() {
+    return _rangeIndex;
+  }
+
+  @Override
+  public NgramTextIndexReader getTextIndex() {
+    return _textIndex;
+  }
+
   private static ImmutableDictionaryReader loadDictionary(PinotDataBuffer dictionaryBuffer, ColumnMetadata metadata,
       boolean loadOnHeap) {
     FieldSpec.DataType dataType = metadata.getDataType();
@@ -167,6 +202,13 @@ public final class PhysicalColumnIndexContainer implements ColumnIndexContainer
             : new DoubleDictionary(dictionaryBuffer, length);
 
       case STRING:
+        if (metadata.isFrontCodedDictionary()) {
+          if (loadOnHeap) {
+            LOGGER.warn("On-heap dictionary is not supported for front-coded dictionary, loading off-heap dictionary "
+                + "for column: {}", metadata.getColumnName());
+          }
+          return new FrontCodedStringDictionary(dictionaryBuffer, length);
+        }
         int numBytesPerValue = metadata.getColumnMaxLength();
         byte paddingByte = (byte) metadata.getPaddingCharacter();
         return loadOnHeap ? new OnHeapStringDictionary(dictionaryBuffer, length, numBytesPerValue, paddingByte)
@@ -145,6 +145,8 @@ public class SegmentV1V2ToV3FormatConverter implements SegmentFormatConverter {
         // inverted indexes are intentionally stored at the end of the single file
         for (String column : allColumns) {
           copyExistingInvertedIndex(v2DataReader, v3DataWriter, column);
+          copyExistingRangeIndex(v2DataReader, v3DataWriter, column);
+          copyExistingTextIndex(v2DataReader, v3DataWriter, column);
         }
         copyStarTree(v2DataReader, v3DataWriter);
         v3DataWriter.saveAndClose();
@@ -193,6 +195,20 @@ public class SegmentV1V2ToV3FormatConverter implements SegmentFormatConverter {
     }
   }
 
+  private void copyExistingRangeIndex(SegmentDirectory.Reader reader, SegmentDirectory.Writer writer, String column)
+      throws IOException {
+    if (reader.hasIndexFor(column, ColumnIndexType.RANGE_INDEX)) {
+      readCopyBuffers(reader, writer, column, ColumnIndexType.RANGE_INDEX);
+    }
+  }
+
+  private void copyExistingTextIndex(SegmentDirectory.Reader reader, SegmentDirectory.Writer writer, String column)
+      throws IOException {
+    if (reader.hasIndexFor(column, ColumnIndexType.TEXT_INDEX)) {
+      readCopyBuffers(reader, writer, column, ColumnIndexType.TEXT_INDEX);
+    }
+  }
+
   private void readCopyBuffers(SegmentDirectory.Reader reader, SegmentDirectory.Writer writer, String column,
       ColumnIndexType indexType)
       throws IOException {
@@ -33,9 +33,11 @@ import org.apache.pinot.core.operator.blocks.SingleValueBlock;
 import org.apache.pinot.core.realtime.impl.dictionary.MutableDictionary;
 import org.apache.pinot.core.segment.index.ColumnMetadata;
 import org.apache.pinot.core.segment.index.column.ColumnIndexContainer;
+import org.apache.pinot.core.segment.index.readers.BitmapRangeIndexReader;
 import org.apache.pinot.core.segment.index.readers.BloomFilterReader;
 import org.apache.pinot.core.segment.index.readers.Dictionary;
 import org.apache.pinot.core.segment.index.readers.InvertedIndexReader;
+import org.apache.pinot.core.segment.index.readers.NgramTextIndexReader;
 
 
 public final class ColumnDataSource extends DataSource {
@@ -49,6 +51,8 @@ public final class ColumnDataSource extends DataSource {
   private final InvertedIndexReader _invertedIndex;
   private final Dictionary _dictionary;
   private final BloomFilterReader _bloomFilter;
+  private final BitmapRangeIndexReader _rangeIndex;
+  private final NgramTextIndexReader _textIndex;
   private final int _cardinality;
   private final DataSourceMetadata _metadata;
 
@@ -59,7 +63,7 @@ public final class ColumnDataSource extends DataSource {
     this(metadata.getColumnName(), metadata.getDataType(), metadata.isSingleValue(), metadata.isSorted(),
         metadata.getTotalDocs(), metadata.getMaxNumberOfMultiValues(), indexContainer.getForwardIndex(),
         indexContainer.getInvertedIndex(), indexContainer.getDictionary(), indexContainer.getBloomFilter(),
-        metadata.getCardinality());
+        indexContainer.getRangeIndex(), indexContainer.getTextIndex(), metadata.getCardinality());
   }
 
   /**
@@ -68,12 +72,14 @@ public final class ColumnDataSource extends DataSource {
   public ColumnDataSource(FieldSpec fieldSpec, int numDocs, int maxNumMultiValues, DataFileReader forwardIndex,
       InvertedIndexReader invertedIndex, MutableDictionary dictionary, BloomFilterReader bloomFilter) {
     this(fieldSpec.getName(), fieldSpec.getDataType(), fieldSpec.isSingleValueField(), false, numDocs,
-        maxNumMultiValues, forwardIndex, invertedIndex, dictionary, bloomFilter, Constants.UNKNOWN_CARDINALITY);
+        maxNumMultiValues, forwardIndex, invertedIndex, dictionary, bloomFilter, null, null,
+        Constants.UNKNOWN_CARDINALITY);
   }
 
   private ColumnDataSource(String columnName, FieldSpec.DataType dataType, boolean isSingleValue, boolean isSorted,
       int numDocs, int maxNumMultiValues, DataFileReader forwardIndex, InvertedIndexReader invertedIndex,
-      Dictionary dictionary, BloomFilterReader bloomFilterReader, int cardinality) {
+      Dictionary dictionary, BloomFilterReader bloomFilterReader, BitmapRangeIndexReader rangeIndex,
+      NgramTextIndexReader textIndex, int cardinality) {
     // Sanity check
     if (isSingleValue) {
       Preconditions.checkState(forwardIndex instanceof SingleColumnSingleValueReader);
@@ -100,6 +106,8 @@ public final class ColumnDataSource extends DataSource {
     _invertedIndex = invertedIndex;
     _dictionary = dictionary;
     _bloomFilter = bloomFilterReader;
+    _rangeIndex = rangeIndex;
+    _textIndex = textIndex;
     _cardinality = cardinality;
 
     _metadata = new DataSourceMetadata() {
@@ -150,6 +158,13 @@ public final class ColumnDataSource extends DataSource {
     return _metadata;
   }
 
+  /**
+   * Returns the forward index of the column (dictionary ids for dictionary-encoded column, raw values otherwise).
+   */
+  public DataFileReader getForwardIndex() {
+    return _forwardIndex;
+  }
+
   @Override
   public InvertedIndexReader getInvertedIndex() {
     return _invertedIndex;
@@ -165,6 +180,16 @@ public final class ColumnDataSource extends DataSource {
     return _bloomFilter;
   }
 
+  @Override
+  public BitmapRangeIndexReader getRangeIndex() {
+    return _rangeIndex;
+  }
+
+  @Override
+  public NgramTextIndexReader getTextIndex() {
+    return _textIndex;
+  }
+
   @Override
   protected Block getNextBlock() {
     if (_isSingleValue) {
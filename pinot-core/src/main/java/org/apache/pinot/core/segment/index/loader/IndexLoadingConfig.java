@@ -30,6 +30,7 @@ import javax.annotation.Nullable;
 import org.apache.pinot.common.config.IndexingConfig;
 import org.apache.pinot.common.config.TableConfig;
 import org.apache.pinot.common.segment.ReadMode;
+import org.apache.pinot.core.bloom.BloomFilterType;
 import org.apache.pinot.core.data.manager.config.InstanceDataManagerConfig;
 import org.apache.pinot.core.indexsegment.generator.SegmentVersion;
 import org.apache.pinot.core.segment.index.loader.columnminmaxvalue.ColumnMinMaxValueGeneratorMode;
@@ -48,6 +49,9 @@ public class IndexLoadingConfig {
   private Map<String, String> _noDictionaryConfig = new HashMap<>();
   private Set<String> _onHeapDictionaryColumns = new HashSet<>();
   private Set<String> _bloomFilterColumns = new HashSet<>();
+  private BloomFilterType _bloomFilterType = BloomFilterType.GUAVA_ON_HEAP;
+  private Set<String> _rangeIndexColumns = new HashSet<>();
+  private Set<String> _textIndexColumns = new HashSet<>();
 
   private SegmentVersion _segmentVersion;
   // This value will remain true only when the empty constructor is invoked.
@@ -86,6 +90,21 @@ public class IndexLoadingConfig {
       _bloomFilterColumns.addAll(bloomFilterColumns);
     }
 
+    String bloomFilterType = indexingConfig.getBloomFilterType();
+    if (bloomFilterType != null) {
+      _bloomFilterType = BloomFilterType.valueOf(bloomFilterType.toUpperCase());
+    }
+
+    List<String> rangeIndexColumns = indexingConfig.getRangeIndexColumns();
+    if (rangeIndexColumns != null) {
+      _rangeIndexColumns.addAll(rangeIndexColumns);
+    }
+
+    List<String> textIndexColumns = indexingConfig.getTextIndexColumns();
+    if (textIndexColumns != null) {
+      _textIndexColumns.addAll(textIndexColumns);
+    }
+
     List<String> noDictionaryColumns = indexingConfig.getNoDictionaryColumns();
     if (noDictionaryColumns != null) {
       _noDictionaryColumns.addAll(noDictionaryColumns);
@@ -178,6 +197,21 @@ public class IndexLoadingConfig {
     _bloomFilterColumns = bloomFilterColumns;
   }
 
+  @VisibleForTesting
+  public void setBloomFilterType(@Nonnull BloomFilterType bloomFilterType) {
+    _bloomFilterType = bloomFilterType;
+  }
+
+  @VisibleForTesting
+  public void setRangeIndexColumns(@Nonnull Set<String> rangeIndexColumns) {
+    _rangeIndexColumns = rangeIndexColumns;
+  }
+
+  @VisibleForTesting
+  public void setTextIndexColumns(@Nonnull Set<String> textIndexColumns) {
+    _textIndexColumns = textIndexColumns;
+  }
+
   @VisibleForTesting
   public void setOnHeapDictionaryColumns(@Nonnull Set<String> onHeapDictionaryColumns) {
     _onHeapDictionaryColumns = onHeapDictionaryColumns;
@@ -202,6 +236,24 @@ public class IndexLoadingConfig {
     return _bloomFilterColumns;
   }
 
+  /**
+   * Returns the type of the bloom filters to create. Existing bloom filters are read based on their serialized type.
+   */
+  @Nonnull
+  public BloomFilterType getBloomFilterType() {
+    return _bloomFilterType;
+  }
+
+  @Nonnull
+  public Set<String> getRangeIndexColumns() {
+    return _rangeIndexColumns;
+  }
+
+  @Nonnull
+  public Set<String> getTextIndexColumns() {
+    return _textIndexColumns;
+  }
+
   @Nullable
   public SegmentVersion getSegmentVersion() {
     return _segmentVersion;
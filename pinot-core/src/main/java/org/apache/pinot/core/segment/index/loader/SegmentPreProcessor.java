@@ -32,6 +32,8 @@ import org.apache.pinot.core.segment.index.loader.columnminmaxvalue.ColumnMinMax
 import org.apache.pinot.core.segment.index.loader.defaultcolumn.DefaultColumnHandler;
 import org.apache.pinot.core.segment.index.loader.defaultcolumn.DefaultColumnHandlerFactory;
 import org.apache.pinot.core.segment.index.loader.invertedindex.InvertedIndexHandler;
+import org.apache.pinot.core.segment.index.loader.rangeindex.RangeIndexHandler;
+import org.apache.pinot.core.segment.index.loader.textindex.TextIndexHandler;
 import org.apache.pinot.core.segment.store.SegmentDirectory;
 
 
@@ -101,6 +103,16 @@ public class SegmentPreProcessor implements AutoCloseable {
           new BloomFilterHandler(_indexDir, _segmentMetadata, _indexLoadingConfig, segmentWriter);
       bloomFilterHandler.createBloomFilters();
 
+      // Create column range indices according to the index config.
+      RangeIndexHandler rangeIndexHandler =
+          new RangeIndexHandler(_indexDir, _segmentMetadata, _indexLoadingConfig, segmentWriter);
+      rangeIndexHandler.createRangeIndices();
+
+      // Create column text indices according to the index config.
+      TextIndexHandler textIndexHandler =
+          new TextIndexHandler(_indexDir, _segmentMetadata, _indexLoadingConfig, segmentWriter);
+      textIndexHandler.createTextIndices();
+
       // Add min/max value to column metadata according to the prune mode.
       // For star-tree index, because it can only increase the range, so min/max value can still be used in pruner.
       ColumnMinMaxValueGeneratorMode columnMinMaxValueGeneratorMode =
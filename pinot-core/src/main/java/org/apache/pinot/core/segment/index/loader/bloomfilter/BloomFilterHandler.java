@@ -25,6 +25,7 @@ import java.util.Set;
 import javax.annotation.Nonnull;
 import org.apache.commons.io.FileUtils;
 import org.apache.pinot.common.data.FieldSpec.DataType;
+import org.apache.pinot.core.bloom.BloomFilterType;
 import org.apache.pinot.core.indexsegment.generator.SegmentVersion;
 import org.apache.pinot.core.segment.creator.impl.V1Constants;
 import org.apache.pinot.core.segment.creator.impl.bloom.BloomFilterCreator;
@@ -35,6 +36,7 @@ import org.apache.pinot.core.segment.index.loader.LoaderUtils;
 import org.apache.pinot.core.segment.index.loader.invertedindex.InvertedIndexHandler;
 import org.apache.pinot.core.segment.index.readers.DoubleDictionary;
 import org.apache.pinot.core.segment.index.readers.FloatDictionary;
+import org.apache.pinot.core.segment.index.readers.FrontCodedStringDictionary;
 import org.apache.pinot.core.segment.index.readers.ImmutableDictionaryReader;
 import org.apache.pinot.core.segment.index.readers.IntDictionary;
 import org.apache.pinot.core.segment.index.readers.LongDictionary;
@@ -54,6 +56,7 @@ public class BloomFilterHandler {
   private final String _segmentName;
   private final SegmentVersion _segmentVersion;
   private final Set<ColumnMetadata> _bloomFilterColumns = new HashSet<>();
+  private final BloomFilterType _bloomFilterType;
 
   public BloomFilterHandler(@Nonnull File indexDir, @Nonnull SegmentMetadataImpl segmentMetadata,
       @Nonnull IndexLoadingConfig indexLoadingConfig, @Nonnull SegmentDirectory.Writer segmentWriter) {
@@ -61,6 +64,7 @@ public class BloomFilterHandler {
     _segmentWriter = segmentWriter;
     _segmentName = segmentMetadata.getName();
     _segmentVersion = SegmentVersion.valueOf(segmentMetadata.getVersion());
+    _bloomFilterType = indexLoadingConfig.getBloomFilterType();
 
     for (String column : indexLoadingConfig.getBloomFilterColumns()) {
       ColumnMetadata columnMetadata = segmentMetadata.getColumnMetadataFor(column);
@@ -104,7 +108,8 @@ public class BloomFilterHandler {
 
     // Create new bloom filter for the column.
     LOGGER.info("Creating new bloom filter for segment: {}, column: {}", _segmentName, columnName);
-    try (BloomFilterCreator creator = new BloomFilterCreator(_indexDir, columnName, columnMetadata.getCardinality())) {
+    try (BloomFilterCreator creator = new BloomFilterCreator(_indexDir, columnName, columnMetadata.getCardinality(),
+        _bloomFilterType)) {
       if (columnMetadata.hasDictionary()) {
         // Read dictionary
         try (ImmutableDictionaryReader dictionaryReader = getDictionaryReader(columnMetadata, _segmentWriter)) {
@@ -150,8 +155,12 @@ public class BloomFilterHandler {
         dictionaryReader = new DoubleDictionary(dictionaryBuffer, cardinality);
         break;
       case STRING:
-        dictionaryReader = new StringDictionary(dictionaryBuffer, cardinality, columnMetadata.getColumnMaxLength(),
-            (byte) columnMetadata.getPaddingCharacter());
+        if (columnMetadata.isFrontCodedDictionary()) {
+          dictionaryReader = new FrontCodedStringDictionary(dictionaryBuffer, cardinality);
+        } else {
+          dictionaryReader = new StringDictionary(dictionaryBuffer, cardinality, columnMetadata.getColumnMaxLength(),
+              (byte) columnMetadata.getPaddingCharacter());
+        }
         break;
       default:
         throw new IllegalStateException(
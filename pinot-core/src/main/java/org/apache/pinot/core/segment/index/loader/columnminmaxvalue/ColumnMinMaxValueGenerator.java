@@ -27,6 +27,8 @@ import org.apache.pinot.core.segment.index.ColumnMetadata;
 import org.apache.pinot.core.segment.index.SegmentMetadataImpl;
 import org.apache.pinot.core.segment.index.readers.DoubleDictionary;
 import org.apache.pinot.core.segment.index.readers.FloatDictionary;
+import org.apache.pinot.core.segment.index.readers.FrontCodedStringDictionary;
+import org.apache.pinot.core.segment.index.readers.ImmutableDictionaryReader;
 import org.apache.pinot.core.segment.index.readers.IntDictionary;
 import org.apache.pinot.core.segment.index.readers.LongDictionary;
 import org.apache.pinot.core.segment.index.readers.StringDictionary;
@@ -124,10 +126,13 @@ public class ColumnMinMaxValueGenerator {
         }
         break;
       case STRING:
-        try (StringDictionary stringDictionary = new StringDictionary(dictionaryBuffer, length,
-            columnMetadata.getColumnMaxLength(), (byte) columnMetadata.getPaddingCharacter())) {
-          SegmentColumnarIndexCreator.addColumnMinMaxValueInfo(_segmentProperties, columnName, stringDictionary.get(0),
-              stringDictionary.get(length - 1));
+        try (ImmutableDictionaryReader stringDictionary = columnMetadata.isFrontCodedDictionary()
+            ? new FrontCodedStringDictionary(dictionaryBuffer, length)
+            : new StringDictionary(dictionaryBuffer, length, columnMetadata.getColumnMaxLength(),
+                (byte) columnMetadata.getPaddingCharacter())) {
+          SegmentColumnarIndexCreator
+              .addColumnMinMaxValueInfo(_segmentProperties, columnName, stringDictionary.getStringValue(0),
+                  stringDictionary.getStringValue(length - 1));
         }
         break;
       default:
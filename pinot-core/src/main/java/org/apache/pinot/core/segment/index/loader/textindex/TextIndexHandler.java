@@ -0,0 +1,133 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.segment.index.loader.textindex;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.data.FieldSpec.DataType;
+import org.apache.pinot.core.indexsegment.generator.SegmentVersion;
+import org.apache.pinot.core.segment.creator.impl.V1Constants;
+import org.apache.pinot.core.segment.creator.impl.text.NgramTextIndexCreator;
+import org.apache.pinot.core.segment.index.ColumnMetadata;
+import org.apache.pinot.core.segment.index.SegmentMetadataImpl;
+import org.apache.pinot.core.segment.index.loader.IndexLoadingConfig;
+import org.apache.pinot.core.segment.index.loader.LoaderUtils;
+import org.apache.pinot.core.segment.index.readers.FrontCodedStringDictionary;
+import org.apache.pinot.core.segment.index.readers.ImmutableDictionaryReader;
+import org.apache.pinot.core.segment.index.readers.StringDictionary;
+import org.apache.pinot.core.segment.memory.PinotDataBuffer;
+import org.apache.pinot.core.segment.store.ColumnIndexType;
+import org.apache.pinot.core.segment.store.SegmentDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+public class TextIndexHandler {
+  private static final Logger LOGGER = LoggerFactory.getLogger(TextIndexHandler.class);
+
+  private final File _indexDir;
+  private final SegmentDirectory.Writer _segmentWriter;
+  private final String _segmentName;
+  private final SegmentVersion _segmentVersion;
+  private final Set<ColumnMetadata> _textIndexColumns = new HashSet<>();
+
+  public TextIndexHandler(@Nonnull File indexDir, @Nonnull SegmentMetadataImpl segmentMetadata,
+      @Nonnull IndexLoadingConfig indexLoadingConfig, @Nonnull SegmentDirectory.Writer segmentWriter) {
+    _indexDir = indexDir;
+    _segmentWriter = segmentWriter;
+    _segmentName = segmentMetadata.getName();
+    _segmentVersion = SegmentVersion.valueOf(segmentMetadata.getVersion());
+
+    // Only create text index for dictionary-encoded STRING column
+    for (String column : indexLoadingConfig.getTextIndexColumns()) {
+      ColumnMetadata columnMetadata = segmentMetadata.getColumnMetadataFor(column);
+      if (columnMetadata != null && columnMetadata.hasDictionary()
+          && columnMetadata.getDataType() == DataType.STRING) {
+        _textIndexColumns.add(columnMetadata);
+      }
+    }
+  }
+
+  public void createTextIndices()
+      throws IOException {
+    for (ColumnMetadata columnMetadata : _textIndexColumns) {
+      createTextIndexForColumn(columnMetadata);
+    }
+  }
+
+  private void createTextIndexForColumn(ColumnMetadata columnMetadata)
+      throws IOException {
+    String column = columnMetadata.getColumnName();
+
+    File textIndexFileInProgress = new File(_indexDir, column + ".text.inprogress");
+    File textIndexFile = new File(_indexDir, column + V1Constants.Indexes.NGRAM_TEXT_INDEX_FILE_EXTENSION);
+
+    if (!textIndexFileInProgress.exists()) {
+      // Marker file does not exist, which means last run ended normally.
+      if (_segmentWriter.hasIndexFor(column, ColumnIndexType.TEXT_INDEX)) {
+        // Skip creating text index if already exists.
+        LOGGER.info("Found text index for segment: {}, column: {}", _segmentName, column);
+        return;
+      }
+      // Create a marker file.
+      FileUtils.touch(textIndexFileInProgress);
+    } else {
+      // Marker file exists, which means last run gets interrupted.
+
+      // Remove text index file.
+      FileUtils.deleteQuietly(textIndexFile);
+    }
+
+    // Create new text index for the column from the dictionary.
+    LOGGER.info("Creating new text index for segment: {}, column: {}", _segmentName, column);
+    try (NgramTextIndexCreator creator = new NgramTextIndexCreator(_indexDir, column);
+        ImmutableDictionaryReader dictionary = getDictionary(columnMetadata)) {
+      int length = dictionary.length();
+      for (int dictId = 0; dictId < length; dictId++) {
+        creator.add(dictionary.getStringValue(dictId));
+      }
+    }
+
+    // For v3, write the generated text index file into the single file and remove it.
+    if (_segmentVersion == SegmentVersion.v3) {
+      LoaderUtils.writeIndexToV3Format(_segmentWriter, column, textIndexFile, ColumnIndexType.TEXT_INDEX);
+    }
+
+    // Delete the marker file.
+    FileUtils.deleteQuietly(textIndexFileInProgress);
+    LOGGER.info("Created text index for segment: {}, column: {}", _segmentName, column);
+  }
+
+  private ImmutableDictionaryReader getDictionary(ColumnMetadata columnMetadata)
+      throws IOException {
+    PinotDataBuffer dictionaryBuffer =
+        _segmentWriter.getIndexFor(columnMetadata.getColumnName(), ColumnIndexType.DICTIONARY);
+    int cardinality = columnMetadata.getCardinality();
+    if (columnMetadata.isFrontCodedDictionary()) {
+      return new FrontCodedStringDictionary(dictionaryBuffer, cardinality);
+    } else {
+      return new StringDictionary(dictionaryBuffer, cardinality, columnMetadata.getColumnMaxLength(),
+          (byte) columnMetadata.getPaddingCharacter());
+    }
+  }
+}
@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.segment.index.readers;
+
+import com.google.common.base.Preconditions;
+import java.io.Closeable;
+import java.io.IOException;
+import org.apache.pinot.core.segment.creator.impl.inv.BitmapRangeIndexCreator;
+import org.apache.pinot.core.segment.memory.PinotDataBuffer;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+
+
+/**
+ * Reader for the bitmap range index created by {@link BitmapRangeIndexCreator}.
+ * <p>Each bucket covers a contiguous range of dictionary ids, and its bitmap contains the documents with a value in the
+ * range. The bucket bitmaps are mapped directly from the index buffer.
+ */
+public class BitmapRangeIndexReader implements Closeable {
+  private final PinotDataBuffer _buffer;
+  private final int _numBuckets;
+  private final int[] _bucketStartDictIds;
+  private final ImmutableRoaringBitmap[] _bitmaps;
+
+  public BitmapRangeIndexReader(PinotDataBuffer buffer) {
+    _buffer = buffer;
+    int version = buffer.getInt(0);
+    Preconditions.checkState(version == BitmapRangeIndexCreator.VERSION, "Unsupported range index version: %s",
+        version);
+    _numBuckets = buffer.getInt(Integer.BYTES);
+
+    long offset = 2 * Integer.BYTES;
+    _bucketStartDictIds = new int[_numBuckets + 1];
+    for (int i = 0; i <= _numBuckets; i++) {
+      _bucketStartDictIds[i] = buffer.getInt(offset);
+      offset += Integer.BYTES;
+    }
+
+    _bitmaps = new ImmutableRoaringBitmap[_numBuckets];
+    int bitmapStartOffset = buffer.getInt(offset);
+    for (int i = 0; i < _numBuckets; i++) {
+      offset += Integer.BYTES;
+      int bitmapEndOffset = buffer.getInt(offset);
+      _bitmaps[i] =
+          new ImmutableRoaringBitmap(buffer.toDirectByteBuffer(bitmapStartOffset, bitmapEndOffset - bitmapStartOffset));
+      bitmapStartOffset = bitmapEndOffset;
+    }
+  }
+
+  public int getNumBuckets() {
+    return _numBuckets;
+  }
+
+  /**
+   * Returns the first dictionary id of the given bucket. For bucket id equal to the number of buckets, returns the
+   * cardinality of the column.
+   */
+  public int getBucketStartDictId(int bucketId) {
+    return _bucketStartDictIds[bucketId];
+  }
+
+  /**
+   * Returns the id of the bucket containing the given dictionary id.
+   */
+  public int getBucketId(int dictId) {
+    int low = 0;
+    int high = _numBuckets - 1;
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (_bucketStartDictIds[mid] <= dictId) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Returns the documents with a value in the given bucket.
+   */
+  public ImmutableRoaringBitmap getDocIds(int bucketId) {
+    return _bitmaps[bucketId];
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    _buffer.close();
+  }
+}
@@ -32,25 +32,53 @@ import org.apache.pinot.core.segment.memory.PinotDataBuffer;
  */
 public class BloomFilterReader {
 
-  private BloomFilter _bloomFilter;
+  private static final int HEADER_SIZE = 2 * Integer.BYTES;
 
+  private final BloomFilter _bloomFilter;
+
+  /**
+   * Loads the bloom filter from the segment data buffer (bloom filter type, version, then the bloom filter itself).
+   * <p>The off-heap bloom filters are read straight from the data buffer without being copied to heap.
+   */
   public BloomFilterReader(PinotDataBuffer bloomFilterBuffer)
       throws IOException {
-    byte[] buffer = new byte[(int) bloomFilterBuffer.size()];
-    bloomFilterBuffer.copyTo(0, buffer);
+    BloomFilterType bloomFilterType = BloomFilterType.valueOf(bloomFilterBuffer.getInt(0));
+    int version = bloomFilterBuffer.getInt(Integer.BYTES);
+    checkVersion(SegmentBloomFilterFactory.createSegmentBloomFilter(bloomFilterType), version);
+    _bloomFilter = SegmentBloomFilterFactory
+        .loadSegmentBloomFilter(bloomFilterType, bloomFilterBuffer.view(HEADER_SIZE, bloomFilterBuffer.size()));
+  }
 
-    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer))) {
+  /**
+   * Reads the bloom filter from its serialized bytes (bloom filter type, version, then the bloom filter itself).
+   */
+  public BloomFilterReader(byte[] bloomFilterBytes)
+      throws IOException {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bloomFilterBytes))) {
       BloomFilterType bloomFilterType = BloomFilterType.valueOf(in.readInt());
       int version = in.readInt();
       _bloomFilter = SegmentBloomFilterFactory.createSegmentBloomFilter(bloomFilterType);
-      if (version != _bloomFilter.getVersion()) {
-        throw new IOException(
-            "Unexpected bloom filter version (type: " + bloomFilterType.toString() + ", version: " + version);
-      }
+      checkVersion(_bloomFilter, version);
       _bloomFilter.readFrom(in);
     }
   }
 
+  /**
+   * Wraps the given bloom filter, e.g. the bloom filter of a consuming segment which keeps being updated.
+   */
+  public BloomFilterReader(BloomFilter bloomFilter) {
+    _bloomFilter = bloomFilter;
+  }
+
+  private static void checkVersion(BloomFilter bloomFilter, int version)
+      throws IOException {
+    if (version != bloomFilter.getVersion()) {
+      throw new IOException(
+          "Unexpected bloom filter version (type: " + bloomFilter.getBloomFilterType().toString() + ", version: "
+              + version);
+    }
+  }
+
   public boolean mightContain(Object key) {
     return _bloomFilter.mightContain(key.toString());
   }
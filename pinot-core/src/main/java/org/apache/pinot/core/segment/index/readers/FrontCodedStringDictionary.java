@@ -0,0 +1,213 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.segment.index.readers;
+
+import com.google.common.base.Preconditions;
+import org.apache.pinot.common.utils.StringUtil;
+import org.apache.pinot.core.io.util.FixedByteValueReaderWriter;
+import org.apache.pinot.core.segment.creator.impl.FrontCodedStringDictionaryCreator;
+import org.apache.pinot.core.segment.memory.PinotDataBuffer;
+
+
+/**
+ * Reader for the front-coded STRING dictionary created by {@link FrontCodedStringDictionaryCreator}.
+ * <p>Value lookup binary searches the first values of the blocks, then scans the matching block, comparing the UTF-8
+ * bytes in place without materializing the dictionary values.
+ */
+public class FrontCodedStringDictionary extends ImmutableDictionaryReader {
+  private final PinotDataBuffer _dataBuffer;
+  private final int _blockSize;
+  private final int _maxValueLength;
+  private final int _numBlocks;
+
+  public FrontCodedStringDictionary(PinotDataBuffer dataBuffer, int length) {
+    super(new FixedByteValueReaderWriter(dataBuffer), length);
+    int version = dataBuffer.getInt(0);
+    Preconditions.checkState(version == FrontCodedStringDictionaryCreator.VERSION,
+        "Unsupported front-coded dictionary version: %s", version);
+    Preconditions.checkState(dataBuffer.getInt(Integer.BYTES) == length);
+    _dataBuffer = dataBuffer;
+    _blockSize = dataBuffer.getInt(2 * Integer.BYTES);
+    _maxValueLength = dataBuffer.getInt(3 * Integer.BYTES);
+    _numBlocks = (length + _blockSize - 1) / _blockSize;
+  }
+
+  @Override
+  public int indexOf(Object rawValue) {
+    int index = insertionIndexOf(rawValue);
+    return (index >= 0) ? index : -1;
+  }
+
+  @Override
+  public int insertionIndexOf(Object rawValue) {
+    return binarySearchUtf8(StringUtil.encodeUtf8((String) rawValue));
+  }
+
+  @Override
+  public String get(int dictId) {
+    return getStringValue(dictId);
+  }
+
+  @Override
+  public String getStringValue(int dictId) {
+    byte[] buffer = new byte[_maxValueLength];
+    return StringUtil.decodeUtf8(buffer, 0, readValue(dictId, buffer));
+  }
+
+  @Override
+  public void readStringValues(int[] dictIds, int inStartPos, int length, String[] outValues, int outStartPos) {
+    byte[] buffer = new byte[_maxValueLength];
+    int inEndPos = inStartPos + length;
+    for (int i = inStartPos; i < inEndPos; i++) {
+      outValues[outStartPos++] = StringUtil.decodeUtf8(buffer, 0, readValue(dictIds[i], buffer));
+    }
+  }
+
+  /**
+   * Reads the UTF-8 bytes of the value into the buffer, and returns the length of the value.
+   */
+  private int readValue(int dictId, byte[] buffer) {
+    long offset = getBlockOffset(dictId / _blockSize);
+    int valueLength = readVarInt(offset);
+    offset += FrontCodedStringDictionaryCreator.getVarIntSize(valueLength);
+    _dataBuffer.copyTo(offset, buffer, 0, valueLength);
+    offset += valueLength;
+    int numValuesToSkip = dictId % _blockSize;
+    for (int i = 0; i < numValuesToSkip; i++) {
+      int sharedPrefixLength = readVarInt(offset);
+      offset += FrontCodedStringDictionaryCreator.getVarIntSize(sharedPrefixLength);
+      int suffixLength = readVarInt(offset);
+      offset += FrontCodedStringDictionaryCreator.getVarIntSize(suffixLength);
+      _dataBuffer.copyTo(offset, buffer, sharedPrefixLength, suffixLength);
+      offset += suffixLength;
+      valueLength = sharedPrefixLength + suffixLength;
+    }
+    return valueLength;
+  }
+
+  /**
+   * Returns the index of the value if it exists, or -(insertion index + 1) otherwise.
+   */
+  private int binarySearchUtf8(byte[] value) {
+    // Find the last block with the first value less than or equal to the given value
+    int low = 0;
+    int high = _numBlocks - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int compareResult = compareFirstValue(mid, value);
+      if (compareResult < 0) {
+        low = mid + 1;
+      } else if (compareResult > 0) {
+        high = mid - 1;
+      } else {
+        return mid * _blockSize;
+      }
+    }
+    int blockId = high;
+    if (blockId < 0) {
+      return -1;
+    }
+
+    // Scan the block. The previous value is always smaller than the given value, and shares the first
+    // 'numMatchedBytes' bytes with it.
+    long offset = getBlockOffset(blockId);
+    int firstValueLength = readVarInt(offset);
+    offset += FrontCodedStringDictionaryCreator.getVarIntSize(firstValueLength);
+    int numMatchedBytes = 0;
+    int maxNumMatchedBytes = Math.min(firstValueLength, value.length);
+    while (numMatchedBytes < maxNumMatchedBytes && _dataBuffer.getByte(offset + numMatchedBytes)
+        == value[numMatchedBytes]) {
+      numMatchedBytes++;
+    }
+    offset += firstValueLength;
+
+    int startIndex = blockId * _blockSize;
+    int endIndex = Math.min(startIndex + _blockSize, length());
+    for (int index = startIndex + 1; index < endIndex; index++) {
+      int sharedPrefixLength = readVarInt(offset);
+      offset += FrontCodedStringDictionaryCreator.getVarIntSize(sharedPrefixLength);
+      int suffixLength = readVarInt(offset);
+      offset += FrontCodedStringDictionaryCreator.getVarIntSize(suffixLength);
+      if (sharedPrefixLength < numMatchedBytes) {
+        // The current value differs from the previous value at a position where the previous value matches the given
+        // value, so it is larger than the given value
+        return -(index + 1);
+      }
+      if (sharedPrefixLength == numMatchedBytes) {
+        int numBytesToCompare = Math.min(suffixLength, value.length - numMatchedBytes);
+        int i = 0;
+        while (i < numBytesToCompare && _dataBuffer.getByte(offset + i) == value[numMatchedBytes + i]) {
+          i++;
+        }
+        if (i < numBytesToCompare) {
+          if (Byte.toUnsignedInt(_dataBuffer.getByte(offset + i)) > Byte.toUnsignedInt(value[numMatchedBytes + i])) {
+            return -(index + 1);
+          }
+        } else {
+          int remainingLength = value.length - numMatchedBytes;
+          if (suffixLength == remainingLength) {
+            return index;
+          }
+          if (suffixLength > remainingLength) {
+            // The given value is a prefix of the current value
+            return -(index + 1);
+          }
+        }
+        numMatchedBytes += i;
+      }
+      // Otherwise the current value shares more bytes with the previous value than the given value, so it is smaller
+      // than the given value and shares the same prefix with it
+      offset += suffixLength;
+    }
+    return -(endIndex + 1);
+  }
+
+  /**
+   * Compares the first value of the block with the given value by their unsigned bytes.
+   */
+  private int compareFirstValue(int blockId, byte[] value) {
+    long offset = getBlockOffset(blockId);
+    int firstValueLength = readVarInt(offset);
+    offset += FrontCodedStringDictionaryCreator.getVarIntSize(firstValueLength);
+    int length = Math.min(firstValueLength, value.length);
+    for (int i = 0; i < length; i++) {
+      int compareResult = Byte.toUnsignedInt(_dataBuffer.getByte(offset + i)) - Byte.toUnsignedInt(value[i]);
+      if (compareResult != 0) {
+        return compareResult;
+      }
+    }
+    return firstValueLength - value.length;
+  }
+
+  private long getBlockOffset(int blockId) {
+    return _dataBuffer.getInt(FrontCodedStringDictionaryCreator.HEADER_SIZE + blockId * Integer.BYTES);
+  }
+
+  private int readVarInt(long offset) {
+    int value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = _dataBuffer.getByte(offset++);
+      value |= (b & 0x7F) << shift;
+      shift += 7;
+    } while (b < 0);
+    return value;
+  }
+}
@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.segment.index.readers;
+
+import com.google.common.base.Preconditions;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import javax.annotation.Nullable;
+import org.apache.pinot.core.segment.creator.impl.text.NgramTextIndexCreator;
+import org.apache.pinot.core.segment.memory.PinotDataBuffer;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+
+
+/**
+ * Reader for the n-gram text index created by {@link NgramTextIndexCreator}.
+ * <p>The grams are binary searched and the bitmaps of dictionary ids are mapped directly from the index buffer.
+ */
+public class NgramTextIndexReader implements Closeable {
+  private static final long GRAMS_OFFSET = 2 * Integer.BYTES;
+
+  private final PinotDataBuffer _buffer;
+  private final int _numGrams;
+  private final long _bitmapOffsetsOffset;
+
+  public NgramTextIndexReader(PinotDataBuffer buffer) {
+    _buffer = buffer;
+    int version = buffer.getInt(0);
+    Preconditions.checkState(version == NgramTextIndexCreator.VERSION, "Unsupported text index version: %s", version);
+    _numGrams = buffer.getInt(Integer.BYTES);
+    _bitmapOffsetsOffset = GRAMS_OFFSET + (long) _numGrams * Long.BYTES;
+  }
+
+  /**
+   * Returns the dictionary ids of the values containing the given gram, or {@code null} if no value contains it.
+   */
+  @Nullable
+  public ImmutableRoaringBitmap getDictIds(long gram) {
+    int low = 0;
+    int high = _numGrams - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      long midGram = _buffer.getLong(GRAMS_OFFSET + (long) mid * Long.BYTES);
+      if (midGram < gram) {
+        low = mid + 1;
+      } else if (midGram > gram) {
+        high = mid - 1;
+      } else {
+        long offset = _bitmapOffsetsOffset + (long) mid * Integer.BYTES;
+        int startOffset = _buffer.getInt(offset);
+        int endOffset = _buffer.getInt(offset + Integer.BYTES);
+        return new ImmutableRoaringBitmap(_buffer.toDirectByteBuffer(startOffset, endOffset - startOffset));
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the dictionary ids of the values containing all the given grams.
+   */
+  public MutableRoaringBitmap getDictIds(long[] grams) {
+    int numGrams = grams.length;
+    ImmutableRoaringBitmap[] bitmaps = new ImmutableRoaringBitmap[numGrams];
+    for (int i = 0; i < numGrams; i++) {
+      ImmutableRoaringBitmap bitmap = getDictIds(grams[i]);
+      if (bitmap == null) {
+        return new MutableRoaringBitmap();
+      }
+      bitmaps[i] = bitmap;
+    }
+    // Start from the smallest bitmap
+    Arrays.sort(bitmaps, Comparator.comparingInt(ImmutableRoaringBitmap::getCardinality));
+    MutableRoaringBitmap dictIds = bitmaps[0].toMutableRoaringBitmap();
+    for (int i = 1; i < numGrams && !dictIds.isEmpty(); i++) {
+      dictIds.and(bitmaps[i]);
+    }
+    return dictIds;
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    _buffer.close();
+  }
+}
@@ -22,7 +22,9 @@ public enum ColumnIndexType {
   DICTIONARY("dictionary"),
   FORWARD_INDEX("forward_index"),
   INVERTED_INDEX("inverted_index"),
-  BLOOM_FILTER("bloom_filter");
+  BLOOM_FILTER("bloom_filter"),
+  RANGE_INDEX("range_index"),
+  TEXT_INDEX("text_index");
 
   private final String indexName;
 
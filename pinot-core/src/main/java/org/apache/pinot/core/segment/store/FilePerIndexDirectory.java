@@ -97,6 +97,34 @@ class FilePerIndexDirectory extends ColumnIndexDirectory {
     return getWriteBufferFor(key, sizeBytes);
   }
 
+  @Override
+  public PinotDataBuffer getRangeIndexBufferFor(String column)
+      throws IOException {
+    IndexKey key = new IndexKey(column, ColumnIndexType.RANGE_INDEX);
+    return getReadBufferFor(key);
+  }
+
+  @Override
+  public PinotDataBuffer newRangeIndexBuffer(String column, long sizeBytes)
+      throws IOException {
+    IndexKey key = new IndexKey(column, ColumnIndexType.RANGE_INDEX);
+    return getWriteBufferFor(key, sizeBytes);
+  }
+
+  @Override
+  public PinotDataBuffer getTextIndexBufferFor(String column)
+      throws IOException {
+    IndexKey key = new IndexKey(column, ColumnIndexType.TEXT_INDEX);
+    return getReadBufferFor(key);
+  }
+
+  @Override
+  public PinotDataBuffer newTextIndexBuffer(String column, long sizeBytes)
+      throws IOException {
+    IndexKey key = new IndexKey(column, ColumnIndexType.TEXT_INDEX);
+    return getWriteBufferFor(key, sizeBytes);
+  }
+
   @Override
   public boolean hasIndexFor(String column, ColumnIndexType type) {
     File indexFile = getFileFor(column, type);
@@ -162,6 +190,12 @@ class FilePerIndexDirectory extends ColumnIndexDirectory {
       case BLOOM_FILTER:
         filename = metadata.getBloomFilterFileName(column);
         break;
+      case RANGE_INDEX:
+        filename = metadata.getBitmapRangeIndexFileName(column);
+        break;
+      case TEXT_INDEX:
+        filename = metadata.getNgramTextIndexFileName(column);
+        break;
       default:
         throw new UnsupportedOperationException("Unknown index type: " + indexType.toString());
     }
@@ -113,6 +113,18 @@ class SingleFileIndexDirectory extends ColumnIndexDirectory {
     return checkAndGetIndexBuffer(column, ColumnIndexType.BLOOM_FILTER);
   }
 
+  @Override
+  public PinotDataBuffer getRangeIndexBufferFor(String column)
+      throws IOException {
+    return checkAndGetIndexBuffer(column, ColumnIndexType.RANGE_INDEX);
+  }
+
+  @Override
+  public PinotDataBuffer getTextIndexBufferFor(String column)
+      throws IOException {
+    return checkAndGetIndexBuffer(column, ColumnIndexType.TEXT_INDEX);
+  }
+
   @Override
   public boolean hasIndexFor(String column, ColumnIndexType type) {
     IndexKey key = new IndexKey(column, type);
@@ -143,6 +155,18 @@ class SingleFileIndexDirectory extends ColumnIndexDirectory {
     return allocNewBufferInternal(column, ColumnIndexType.BLOOM_FILTER, sizeBytes, "bloom_filter.create");
   }
 
+  @Override
+  public PinotDataBuffer newRangeIndexBuffer(String column, long sizeBytes)
+      throws IOException {
+    return allocNewBufferInternal(column, ColumnIndexType.RANGE_INDEX, sizeBytes, "range_index.create");
+  }
+
+  @Override
+  public PinotDataBuffer newTextIndexBuffer(String column, long sizeBytes)
+      throws IOException {
+    return allocNewBufferInternal(column, ColumnIndexType.TEXT_INDEX, sizeBytes, "text_index.create");
+  }
+
   private PinotDataBuffer checkAndGetIndexBuffer(String column, ColumnIndexType type) {
     IndexKey key = new IndexKey(column, type);
     IndexEntry entry = columnEntries.get(key);
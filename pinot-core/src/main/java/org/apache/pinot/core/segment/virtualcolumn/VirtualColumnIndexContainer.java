@@ -20,9 +20,11 @@ package org.apache.pinot.core.segment.virtualcolumn;
 
 import org.apache.pinot.core.io.reader.DataFileReader;
 import org.apache.pinot.core.segment.index.column.ColumnIndexContainer;
+import org.apache.pinot.core.segment.index.readers.BitmapRangeIndexReader;
 import org.apache.pinot.core.segment.index.readers.BloomFilterReader;
 import org.apache.pinot.core.segment.index.readers.Dictionary;
 import org.apache.pinot.core.segment.index.readers.InvertedIndexReader;
+import org.apache.pinot.core.segment.index.readers.NgramTextIndexReader;
 
 
 /**
@@ -59,4 +61,14 @@ public class VirtualColumnIndexContainer implements ColumnIndexContainer {
   public BloomFilterReader getBloomFilter() {
     return null;
   }
+
+  @Override
+  public BitmapRangeIndexReader getRangeIndex() {
+    return null;
+  }
+
+  @Override
+  public NgramTextIndexReader getTextIndex() {
+    return null;
+  }
 }
@@ -24,9 +24,11 @@ import org.apache.pinot.core.common.DataSource;
 import org.apache.pinot.core.common.DataSourceMetadata;
 import org.apache.pinot.core.io.reader.impl.v1.FixedBitSingleValueReader;
 import org.apache.pinot.core.operator.blocks.SingleValueBlock;
+import org.apache.pinot.core.segment.index.readers.BitmapRangeIndexReader;
 import org.apache.pinot.core.segment.index.readers.BloomFilterReader;
 import org.apache.pinot.core.segment.index.readers.Dictionary;
 import org.apache.pinot.core.segment.index.readers.InvertedIndexReader;
+import org.apache.pinot.core.segment.index.readers.NgramTextIndexReader;
 import org.apache.pinot.core.segment.memory.PinotDataBuffer;
 
 
@@ -108,6 +110,16 @@ public class StarTreeDimensionDataSource extends DataSource {
     return null;
   }
 
+  @Override
+  public BitmapRangeIndexReader getRangeIndex() {
+    return null;
+  }
+
+  @Override
+  public NgramTextIndexReader getTextIndex() {
+    return null;
+  }
+
   @Override
   public Dictionary getDictionary() {
     return _dictionary;
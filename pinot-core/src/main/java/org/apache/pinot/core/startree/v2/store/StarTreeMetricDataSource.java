@@ -27,9 +27,11 @@ import org.apache.pinot.core.io.reader.impl.v1.BaseChunkSingleValueReader;
 import org.apache.pinot.core.io.reader.impl.v1.FixedByteChunkSingleValueReader;
 import org.apache.pinot.core.io.reader.impl.v1.VarByteChunkSingleValueReader;
 import org.apache.pinot.core.operator.blocks.SingleValueBlock;
+import org.apache.pinot.core.segment.index.readers.BitmapRangeIndexReader;
 import org.apache.pinot.core.segment.index.readers.BloomFilterReader;
 import org.apache.pinot.core.segment.index.readers.Dictionary;
 import org.apache.pinot.core.segment.index.readers.InvertedIndexReader;
+import org.apache.pinot.core.segment.index.readers.NgramTextIndexReader;
 import org.apache.pinot.core.segment.memory.PinotDataBuffer;
 
 
@@ -118,6 +120,16 @@ public class StarTreeMetricDataSource extends DataSource {
     return null;
   }
 
+  @Override
+  public BitmapRangeIndexReader getRangeIndex() {
+    return null;
+  }
+
+  @Override
+  public NgramTextIndexReader getTextIndex() {
+    return null;
+  }
+
   @Override
   protected Block getNextBlock() {
     return new SingleValueBlock(_forwardIndex, _numDocs, _dataType, null);
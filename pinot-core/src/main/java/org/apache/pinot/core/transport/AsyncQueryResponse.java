@@ -18,11 +18,17 @@
  */
 package org.apache.pinot.core.transport;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.pinot.common.utils.DataTable;
 
@@ -38,9 +44,22 @@ public class AsyncQueryResponse {
   private final ConcurrentHashMap<Server, ServerResponse> _responseMap;
   private final CountDownLatch _countDownLatch;
   private final long _maxEndTimeMs;
+  private final HedgedRequestListener _hedgedRequestListener;
+
+  // Map from hedged request id to the primary server the hedged request is sent for
+  private final ConcurrentHashMap<Long, Server> _hedgedRequestIdToServerMap = new ConcurrentHashMap<>();
+  // Guarded by this
+  private final Map<Server, HedgedRequestState> _hedgedRequestStateMap = new HashMap<>();
+  private final Set<Server> _downServers = new HashSet<>();
+  private boolean _done;
 
   public AsyncQueryResponse(QueryRouter queryRouter, long requestId, Set<Server> serversQueried, long startTimeMs,
       long timeoutMs) {
+    this(queryRouter, requestId, serversQueried, startTimeMs, timeoutMs, null);
+  }
+
+  public AsyncQueryResponse(QueryRouter queryRouter, long requestId, Set<Server> serversQueried, long startTimeMs,
+      long timeoutMs, @Nullable HedgedRequestListener hedgedRequestListener) {
     _queryRouter = queryRouter;
     _requestId = requestId;
     int numServersQueried = serversQueried.size();
@@ -50,10 +69,13 @@ public class AsyncQueryResponse {
     }
     _countDownLatch = new CountDownLatch(numServersQueried);
     _maxEndTimeMs = startTimeMs + timeoutMs;
+    _hedgedRequestListener = hedgedRequestListener;
   }
 
   /**
    * Waits until the query is done and returns a map from the server to the response.
+   * <p>If a hedged request wins, the response is keyed by the primary server, and
+   * {@link ServerResponse#getRespondingServer()} returns the backup server.
    */
   public Map<Server, ServerResponse> getResponse()
       throws InterruptedException {
@@ -62,9 +84,19 @@ public class AsyncQueryResponse {
       return _responseMap;
     } finally {
       _queryRouter.markQueryDone(_requestId);
+      for (long hedgedRequestId : markDone()) {
+        _queryRouter.markQueryDone(hedgedRequestId);
+      }
     }
   }
 
+  /**
+   * Returns the number of hedged requests sent for the query.
+   */
+  public int getNumHedgedRequests() {
+    return _hedgedRequestIdToServerMap.size();
+  }
+
   /**
    * Returns the statistics for the servers the query sent to.
    * <p>Should be called after calling {@link #getResponse()}.
@@ -82,9 +114,139 @@ public class AsyncQueryResponse {
     _responseMap.get(server).markRequestSubmitted();
   }
 
-  void receiveDataTable(Server server, DataTable dataTable, long responseSize, long deserializationTimeMs) {
-    _responseMap.get(server).receiveDataTable(dataTable, responseSize, deserializationTimeMs);
-    _countDownLatch.countDown();
+  void receiveDataTable(Server server, long requestId, DataTable dataTable, long responseSize,
+      long deserializationTimeMs) {
+    Server respondingServer = server;
+    // For hedged request, record the response for the primary server
+    if (requestId != _requestId) {
+      server = _hedgedRequestIdToServerMap.get(requestId);
+      if (server == null) {
+        return;
+      }
+      completeHedgedRequest(server, requestId);
+    }
+    ServerResponse serverResponse = _responseMap.get(server);
+    if (serverResponse == null) {
+      return;
+    }
+
+    // Only take the first response from the primary server and the hedged request
+    if (serverResponse.receiveDataTable(respondingServer, dataTable, responseSize, deserializationTimeMs)) {
+      _countDownLatch.countDown();
+      cancelScheduledHedgedRequest(server);
+    }
+  }
+
+  /**
+   * Registers a hedged request for the given primary server before scheduling it, so that the query is not failed when
+   * the primary server goes down while the hedged request is still pending.
+   */
+  synchronized void addHedgedRequest(Server server, Server backupServer) {
+    _hedgedRequestStateMap.put(server, new HedgedRequestState(backupServer));
+  }
+
+  synchronized void setScheduledHedgedRequest(Server server, Future scheduledHedgedRequest) {
+    HedgedRequestState hedgedRequestState = _hedgedRequestStateMap.get(server);
+    if (hedgedRequestState._finished || _done) {
+      scheduledHedgedRequest.cancel(false);
+    } else {
+      hedgedRequestState._scheduledHedgedRequest = scheduledHedgedRequest;
+    }
+  }
+
+  /**
+   * Starts the hedged request for the given primary server. Returns {@code false} if the hedged request should not be
+   * sent because the primary server already responded, the backup server is down or the query is already done.
+   */
+  synchronized boolean startHedgedRequest(long hedgedRequestId, Server server) {
+    HedgedRequestState hedgedRequestState = _hedgedRequestStateMap.get(server);
+    if (hedgedRequestState._finished) {
+      return false;
+    }
+    if (_done || _responseMap.get(server).getDataTable() != null || _downServers
+        .contains(hedgedRequestState._backupServer)) {
+      hedgedRequestState._finished = true;
+      failQueryIfServerDown(server);
+      return false;
+    }
+    hedgedRequestState._requestId = hedgedRequestId;
+    hedgedRequestState._submitTimeMs = System.currentTimeMillis();
+    _hedgedRequestIdToServerMap.put(hedgedRequestId, server);
+    if (_hedgedRequestListener != null) {
+      _hedgedRequestListener.onHedgedRequestSent(hedgedRequestState._backupServer);
+    }
+    return true;
+  }
+
+  /**
+   * Marks the hedged request failed to send, and fails the query if the primary server is already down.
+   */
+  synchronized void markHedgedRequestFailed(Server server) {
+    finishHedgedRequest(_hedgedRequestStateMap.get(server), System.currentTimeMillis());
+    failQueryIfServerDown(server);
+  }
+
+  private synchronized void completeHedgedRequest(Server server, long hedgedRequestId) {
+    HedgedRequestState hedgedRequestState = _hedgedRequestStateMap.get(server);
+    if (hedgedRequestState._requestId == hedgedRequestId) {
+      finishHedgedRequest(hedgedRequestState, System.currentTimeMillis());
+    }
+  }
+
+  private synchronized void cancelScheduledHedgedRequest(Server server) {
+    HedgedRequestState hedgedRequestState = _hedgedRequestStateMap.get(server);
+    if (hedgedRequestState != null && hedgedRequestState._scheduledHedgedRequest != null) {
+      hedgedRequestState._scheduledHedgedRequest.cancel(false);
+    }
+  }
+
+  /**
+   * Marks the query done, cancels the pending hedged requests, completes the in-flight ones and returns the hedged
+   * request ids to clean up.
+   */
+  private synchronized List<Long> markDone() {
+    _done = true;
+    long currentTimeMs = System.currentTimeMillis();
+    for (HedgedRequestState hedgedRequestState : _hedgedRequestStateMap.values()) {
+      if (hedgedRequestState._scheduledHedgedRequest != null) {
+        hedgedRequestState._scheduledHedgedRequest.cancel(false);
+      }
+      finishHedgedRequest(hedgedRequestState, currentTimeMs);
+    }
+    return new ArrayList<>(_hedgedRequestIdToServerMap.keySet());
+  }
+
+  /**
+   * Finishes the hedged request, and notifies the listener if the hedged request has been sent. Should be called while
+   * holding the lock.
+   */
+  private void finishHedgedRequest(HedgedRequestState hedgedRequestState, long currentTimeMs) {
+    if (hedgedRequestState._finished) {
+      return;
+    }
+    hedgedRequestState._finished = true;
+    if (hedgedRequestState._requestId != 0 && _hedgedRequestListener != null) {
+      _hedgedRequestListener.onHedgedRequestCompleted(hedgedRequestState._backupServer,
+          currentTimeMs - hedgedRequestState._submitTimeMs);
+    }
+  }
+
+  /**
+   * Fails the query if the given primary server is down, hasn't responded and has no pending hedged request. Should be
+   * called while holding the lock.
+   */
+  private void failQueryIfServerDown(Server server) {
+    if (!_downServers.contains(server)) {
+      return;
+    }
+    ServerResponse serverResponse = _responseMap.get(server);
+    if (serverResponse == null || serverResponse.getDataTable() != null) {
+      return;
+    }
+    HedgedRequestState hedgedRequestState = _hedgedRequestStateMap.get(server);
+    if (hedgedRequestState == null || hedgedRequestState._finished) {
+      markQueryFailed();
+    }
   }
 
   void markQueryFailed() {
@@ -95,13 +257,37 @@ public class AsyncQueryResponse {
   }
 
   /**
-   * NOTE: the server might not be hit by the query. Only fail the query if the query was sent to the server and the
-   * server hasn't responded yet.
+   * NOTE: the server might not be hit by the query. Only fail the query if the query was sent to the server, the server
+   * hasn't responded yet and there is no pending hedged request to a backup server for it. The server might also be
+   * the backup server of some hedged requests, in which case the hedged requests are abandoned.
    */
-  void markServerDown(Server server) {
-    ServerResponse serverResponse = _responseMap.get(server);
-    if (serverResponse != null && serverResponse.getDataTable() == null) {
-      markQueryFailed();
+  synchronized void markServerDown(Server server) {
+    _downServers.add(server);
+    long currentTimeMs = System.currentTimeMillis();
+    for (Map.Entry<Server, HedgedRequestState> entry : _hedgedRequestStateMap.entrySet()) {
+      HedgedRequestState hedgedRequestState = entry.getValue();
+      if (!hedgedRequestState._finished && hedgedRequestState._backupServer.equals(server)) {
+        finishHedgedRequest(hedgedRequestState, currentTimeMs);
+        failQueryIfServerDown(entry.getKey());
+      }
+    }
+    failQueryIfServerDown(server);
+  }
+
+  /**
+   * State of the hedged request for a primary server, guarded by the lock of the {@link AsyncQueryResponse}.
+   */
+  private static class HedgedRequestState {
+    final Server _backupServer;
+    Future _scheduledHedgedRequest;
+    // 0 until the hedged request is sent
+    long _requestId;
+    long _submitTimeMs;
+    // Set when the backup server responded, or the hedged request is abandoned
+    boolean _finished;
+
+    HedgedRequestState(Server backupServer) {
+      _backupServer = backupServer;
     }
   }
 }
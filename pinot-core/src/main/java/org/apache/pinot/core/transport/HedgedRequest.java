@@ -16,29 +16,30 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.pinot.core.query.selection.comparator;
+package org.apache.pinot.core.transport;
 
-import org.apache.pinot.core.common.Block;
-import org.apache.pinot.core.common.BlockSingleValIterator;
+import javax.annotation.concurrent.Immutable;
 
 
-public class DocIdIntValComparator implements IDocIdValComparator {
+/**
+ * The {@code HedgedRequest} class describes the speculative request to send to a backup server when the primary server
+ * does not respond within the given delay. The backup server must host all the segments queried on the primary server.
+ */
+@Immutable
+public class HedgedRequest {
+  private final Server _backupServer;
+  private final long _delayMs;
 
-  int orderToggleMultiplier = 1;
-  private final BlockSingleValIterator blockValSetIterator;
+  public HedgedRequest(Server backupServer, long delayMs) {
+    _backupServer = backupServer;
+    _delayMs = delayMs;
+  }
 
-  public DocIdIntValComparator(Block block, boolean ascending) {
-    blockValSetIterator = (BlockSingleValIterator) block.getBlockValueSet().iterator();
-    if (ascending) {
-      orderToggleMultiplier = -1;
-    }
+  public Server getBackupServer() {
+    return _backupServer;
   }
 
-  public int compare(int docId1, int docId2) {
-    blockValSetIterator.skipTo(docId1);
-    int val1 = blockValSetIterator.nextIntVal();
-    blockValSetIterator.skipTo(docId2);
-    int val2 = blockValSetIterator.nextIntVal();
-    return Integer.compare(val1, val2) * orderToggleMultiplier;
+  public long getDelayMs() {
+    return _delayMs;
   }
 }
@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.transport;
+
+/**
+ * The {@code HedgedRequestListener} interface is notified when a hedged request is sent to a backup server and when
+ * it completes, so that the caller can track the requests in flight on the backup server.
+ * <p>Each call to {@link #onHedgedRequestSent(Server)} is followed by exactly one call to
+ * {@link #onHedgedRequestCompleted(Server, long)}.
+ */
+public interface HedgedRequestListener {
+
+  /**
+   * Invoked before the hedged request is sent to the backup server.
+   */
+  void onHedgedRequestSent(Server backupServer);
+
+  /**
+   * Invoked when the backup server responds, or when the hedged request is abandoned (failed to send, backup server
+   * down or query done). For abandoned requests, the latency is the time waited on the backup server.
+   */
+  void onHedgedRequestCompleted(Server backupServer, long latencyMs);
+}
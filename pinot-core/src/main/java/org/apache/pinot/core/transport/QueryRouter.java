@@ -18,10 +18,17 @@
  */
 package org.apache.pinot.core.transport;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.pinot.common.metrics.BrokerMeter;
@@ -42,22 +49,53 @@ import org.slf4j.LoggerFactory;
 @ThreadSafe
 public class QueryRouter {
   private static final Logger LOGGER = LoggerFactory.getLogger(QueryRouter.class);
+  // Sending a hedged request only blocks when connecting to the server, so a few threads are enough
+  private static final int NUM_HEDGED_REQUEST_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+  private static final long HEDGED_REQUEST_THREAD_KEEP_ALIVE_SECONDS = 60L;
 
   private final String _brokerId;
   private final BrokerMetrics _brokerMetrics;
   private final ServerChannels _serverChannels;
   private final ConcurrentHashMap<Long, AsyncQueryResponse> _asyncQueryResponseMap = new ConcurrentHashMap<>();
+  // Hedged requests use negative request ids so that they never collide with the broker generated request ids
+  private final AtomicLong _hedgedRequestIdGenerator = new AtomicLong();
+  // The scheduler only triggers the hedged requests, which are sent from a separate bounded executor because sending a
+  // request might block on connecting to the server. Pending hedged requests are queued instead of creating more
+  // threads when many servers are slow at the same time, and dropped when the query is done before they are sent.
+  private final ScheduledExecutorService _hedgedRequestScheduler;
+  private final ThreadPoolExecutor _hedgedRequestExecutor;
 
   public QueryRouter(String brokerId, BrokerMetrics brokerMetrics) {
     _brokerId = brokerId;
     _brokerMetrics = brokerMetrics;
     _serverChannels = new ServerChannels(this, brokerMetrics);
+    _hedgedRequestScheduler = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("hedged-request-scheduler-%d").build());
+    _hedgedRequestExecutor = new ThreadPoolExecutor(NUM_HEDGED_REQUEST_THREADS, NUM_HEDGED_REQUEST_THREADS,
+        HEDGED_REQUEST_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("hedged-request-sender-%d").build());
+    _hedgedRequestExecutor.allowCoreThreadTimeOut(true);
   }
 
   public AsyncQueryResponse submitQuery(long requestId, String rawTableName,
       @Nullable BrokerRequest offlineBrokerRequest, @Nullable Map<String, List<String>> offlineRoutingTable,
       @Nullable BrokerRequest realtimeBrokerRequest, @Nullable Map<String, List<String>> realtimeRoutingTable,
       long timeoutMs) {
+    return submitQuery(requestId, rawTableName, offlineBrokerRequest, offlineRoutingTable, realtimeBrokerRequest,
+        realtimeRoutingTable, timeoutMs, null, null);
+  }
+
+  /**
+   * Submits the query to the servers in the routing tables.
+   * <p>For the servers in the optional hedged request map, if the server does not respond within the delay of the
+   * hedged request, the same request is re-issued to the backup server, and the first response received is taken. The
+   * optional hedged request listener is notified when the hedged requests are sent and completed.
+   */
+  public AsyncQueryResponse submitQuery(long requestId, String rawTableName,
+      @Nullable BrokerRequest offlineBrokerRequest, @Nullable Map<String, List<String>> offlineRoutingTable,
+      @Nullable BrokerRequest realtimeBrokerRequest, @Nullable Map<String, List<String>> realtimeRoutingTable,
+      long timeoutMs, @Nullable Map<Server, HedgedRequest> hedgedRequestMap,
+      @Nullable HedgedRequestListener hedgedRequestListener) {
     assert offlineBrokerRequest != null || realtimeBrokerRequest != null;
 
     // Build map from server to request based on the routing table
@@ -81,7 +119,8 @@ public class QueryRouter {
 
     // Create the asynchronous query response with the request map
     AsyncQueryResponse asyncQueryResponse =
-        new AsyncQueryResponse(this, requestId, requestMap.keySet(), System.currentTimeMillis(), timeoutMs);
+        new AsyncQueryResponse(this, requestId, requestMap.keySet(), System.currentTimeMillis(), timeoutMs,
+            hedgedRequestListener);
     _asyncQueryResponseMap.put(requestId, asyncQueryResponse);
     for (Map.Entry<Server, InstanceRequest> entry : requestMap.entrySet()) {
       Server server = entry.getKey();
@@ -97,26 +136,77 @@ public class QueryRouter {
       }
     }
 
+    // Schedule the hedged requests
+    if (hedgedRequestMap != null) {
+      for (Map.Entry<Server, HedgedRequest> entry : hedgedRequestMap.entrySet()) {
+        Server server = entry.getKey();
+        InstanceRequest instanceRequest = requestMap.get(server);
+        if (instanceRequest != null) {
+          Server backupServer = entry.getValue().getBackupServer();
+          asyncQueryResponse.addHedgedRequest(server, backupServer);
+          asyncQueryResponse.setScheduledHedgedRequest(server, _hedgedRequestScheduler.schedule(
+              () -> _hedgedRequestExecutor
+                  .execute(() -> sendHedgedRequest(asyncQueryResponse, rawTableName, server, instanceRequest,
+                      backupServer)), entry.getValue().getDelayMs(), TimeUnit.MILLISECONDS));
+        }
+      }
+    }
+
     return asyncQueryResponse;
   }
 
   public void shutDown() {
+    _hedgedRequestScheduler.shutdownNow();
+    _hedgedRequestExecutor.shutdownNow();
     _serverChannels.shutDown();
   }
 
+  /**
+   * Re-issues the request of the primary server to the backup server if the primary server has not responded yet.
+   * <p>NOTE: the request that loses the race is not cancelled on the server side because the server does not support
+   * query cancellation, but its response is dropped once the other one is received.
+   */
+  private void sendHedgedRequest(AsyncQueryResponse asyncQueryResponse, String rawTableName, Server server,
+      InstanceRequest instanceRequest, Server backupServer) {
+    long hedgedRequestId = _hedgedRequestIdGenerator.decrementAndGet();
+
+    // Register the hedged request id before starting the hedged request so that it can be cleaned up when the query is
+    // done
+    _asyncQueryResponseMap.put(hedgedRequestId, asyncQueryResponse);
+    if (!asyncQueryResponse.startHedgedRequest(hedgedRequestId, server)) {
+      _asyncQueryResponseMap.remove(hedgedRequestId);
+      return;
+    }
+
+    InstanceRequest hedgedInstanceRequest = instanceRequest.deepCopy();
+    hedgedInstanceRequest.setRequestId(hedgedRequestId);
+    try {
+      _serverChannels.sendRequest(backupServer, hedgedInstanceRequest);
+      _brokerMetrics.addMeteredTableValue(rawTableName, BrokerMeter.HEDGED_REQUESTS_SENT, 1);
+    } catch (Exception e) {
+      // Failing to send the hedged request should not fail the query unless the primary server is also down
+      LOGGER.warn("Caught exception while sending hedged request {} for request {} to server: {}", hedgedRequestId,
+          instanceRequest.getRequestId(), backupServer, e);
+      asyncQueryResponse.markHedgedRequestFailed(server);
+    }
+  }
+
   void receiveDataTable(Server server, DataTable dataTable, long responseSize, long deserializationTimeMs) {
     long requestId = Long.parseLong(dataTable.getMetadata().get(DataTable.REQUEST_ID_METADATA_KEY));
     AsyncQueryResponse asyncQueryResponse = _asyncQueryResponseMap.get(requestId);
 
     // Query future might be null if the query is already done (maybe due to failure)
     if (asyncQueryResponse != null) {
-      asyncQueryResponse.receiveDataTable(server, dataTable, responseSize, deserializationTimeMs);
+      asyncQueryResponse.receiveDataTable(server, requestId, dataTable, responseSize, deserializationTimeMs);
     }
   }
 
   void markServerDown(Server server) {
-    for (AsyncQueryResponse asyncQueryResponse : _asyncQueryResponseMap.values()) {
-      asyncQueryResponse.markServerDown(server);
+    for (Map.Entry<Long, AsyncQueryResponse> entry : _asyncQueryResponseMap.entrySet()) {
+      // Hedged request ids map to the same query response as the primary request id, only notify each query once
+      if (entry.getKey() >= 0) {
+        entry.getValue().markServerDown(server);
+      }
     }
   }
 
@@ -53,6 +53,13 @@ public class Server {
     _tableType = tableType;
   }
 
+  /**
+   * Returns the server instance name of format: {@code Server_<hostName>_<port>}.
+   */
+  public String getInstanceName() {
+    return PREFIX_OF_SERVER_INSTANCE + _hostName + NAME_PORT_DELIMITER + _port;
+  }
+
   public String getHostName() {
     return _hostName;
   }
@@ -31,6 +31,7 @@ public class ServerResponse {
   private volatile long _submitRequestTimeMs;
   private volatile long _receiveDataTabTimeMs;
   private volatile DataTable _dataTable;
+  private volatile Server _respondingServer;
   private volatile long _responseSize;
   private volatile long _deserializationTimeMs;
 
@@ -42,6 +43,14 @@ public class ServerResponse {
     return _dataTable;
   }
 
+  /**
+   * Returns the server that sent the data table, which is the backup server when the hedged request wins, or
+   * {@code null} if no data table has been received.
+   */
+  public Server getRespondingServer() {
+    return _respondingServer;
+  }
+
   public long getSubmitDelayMs() {
     if (_submitRequestTimeMs != 0) {
       return _submitRequestTimeMs - _startTimeMs;
@@ -50,6 +59,10 @@ public class ServerResponse {
     }
   }
 
+  /**
+   * Returns the delay between submitting the request to the primary server and receiving the data table. When the
+   * hedged request wins, this is a lower bound of the primary server latency rather than the backup server latency.
+   */
   public long getResponseDelayMs() {
     if (_receiveDataTabTimeMs != 0) {
       return _receiveDataTabTimeMs - _submitRequestTimeMs;
@@ -76,10 +89,20 @@ public class ServerResponse {
     _submitRequestTimeMs = System.currentTimeMillis();
   }
 
-  void receiveDataTable(DataTable dataTable, long responseSize, long deserializationTimeMs) {
+  /**
+   * Records the data table received, returns {@code false} if a data table has already been received (e.g. from the
+   * hedged request).
+   */
+  synchronized boolean receiveDataTable(Server respondingServer, DataTable dataTable, long responseSize,
+      long deserializationTimeMs) {
+    if (_dataTable != null) {
+      return false;
+    }
     _receiveDataTabTimeMs = System.currentTimeMillis();
-    _dataTable = dataTable;
+    _respondingServer = respondingServer;
     _responseSize = responseSize;
     _deserializationTimeMs = deserializationTimeMs;
+    _dataTable = dataTable;
+    return true;
   }
 }
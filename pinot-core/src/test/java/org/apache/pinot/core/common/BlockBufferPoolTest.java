@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.common;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class BlockBufferPoolTest {
+  private static final int LENGTH = 100;
+  private static final int LARGE_LENGTH = 100_000;
+
+  @Test
+  public void testLeaseAndRelease() {
+    BlockBufferPool bufferPool = BlockBufferPool.getThreadLocalPool();
+
+    // Outside of any scope, the buffers should not be pooled
+    int[] unpooledBuffer = bufferPool.leaseIntBuffer(LENGTH);
+    bufferPool.open();
+    Assert.assertNotSame(bufferPool.leaseIntBuffer(LENGTH), unpooledBuffer);
+    bufferPool.close();
+
+    long numHits = BlockBufferPool.getNumHits();
+    long numMisses = BlockBufferPool.getNumMisses();
+    long bytesSaved = BlockBufferPool.getBytesSaved();
+
+    // The buffers leased within the same scope should be distinct
+    bufferPool.open();
+    int[] intBuffer1 = bufferPool.leaseIntBuffer(LENGTH);
+    int[] intBuffer2 = bufferPool.leaseIntBuffer(LENGTH);
+    long[] longBuffer = bufferPool.leaseLongBuffer(LENGTH);
+    String[] stringBuffer = bufferPool.leaseStringBuffer(LENGTH);
+    Assert.assertNotSame(intBuffer1, intBuffer2);
+    stringBuffer[0] = "foo";
+    bufferPool.close();
+
+    // The buffers should be reused in the next scope, including the nested scope
+    bufferPool.open();
+    bufferPool.open();
+    int[] reusedIntBuffer = bufferPool.leaseIntBuffer(LENGTH);
+    Assert.assertTrue(reusedIntBuffer == intBuffer1 || reusedIntBuffer == intBuffer2);
+    Assert.assertSame(bufferPool.leaseLongBuffer(LENGTH), longBuffer);
+    bufferPool.close();
+    String[] reusedStringBuffer = bufferPool.leaseStringBuffer(LENGTH);
+    Assert.assertSame(reusedStringBuffer, stringBuffer);
+    Assert.assertNull(reusedStringBuffer[0]);
+    // Shorter buffer should not be reused, but should be kept in the pool
+    Assert.assertEquals(bufferPool.leaseIntBuffer(LENGTH * 2).length, LENGTH * 2);
+    // The int buffer leased in the nested scope should not be returned until the outermost scope is closed
+    int[] otherIntBuffer = bufferPool.leaseIntBuffer(LENGTH);
+    Assert.assertNotSame(otherIntBuffer, reusedIntBuffer);
+    bufferPool.close();
+
+    // 9 leases in total, 5 served from the pool (3 int, 1 long and 1 String buffers)
+    Assert.assertEquals(BlockBufferPool.getNumHits() - numHits, 5);
+    Assert.assertEquals(BlockBufferPool.getNumMisses() - numMisses, 4);
+    Assert.assertEquals(BlockBufferPool.getBytesSaved() - bytesSaved,
+        3 * LENGTH * Integer.BYTES + LENGTH * Long.BYTES + LENGTH * 8);
+
+    try {
+      bufferPool.close();
+      Assert.fail();
+    } catch (IllegalStateException e) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testLeaseShorterLength() {
+    BlockBufferPool bufferPool = BlockBufferPool.getThreadLocalPool();
+
+    // Use lengths larger than the block size so that the buffers from the other tests do not interfere
+    bufferPool.open();
+    float[] floatBuffer = bufferPool.leaseFloatBuffer(LARGE_LENGTH);
+    bufferPool.close();
+
+    // Longer buffer should be reused for a shorter lease
+    bufferPool.open();
+    Assert.assertSame(bufferPool.leaseFloatBuffer(LARGE_LENGTH - 1), floatBuffer);
+    Assert.assertEquals(bufferPool.leaseFloatBuffer(LARGE_LENGTH + 1).length, LARGE_LENGTH + 1);
+    bufferPool.close();
+  }
+}
@@ -23,6 +23,7 @@ import com.tdunning.math.stats.TDigest;
 import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
@@ -32,6 +33,7 @@ import org.apache.pinot.core.query.aggregation.function.PercentileTDigestAggrega
 import org.apache.pinot.core.query.aggregation.function.customobject.AvgPair;
 import org.apache.pinot.core.query.aggregation.function.customobject.MinMaxRangePair;
 import org.apache.pinot.core.query.aggregation.function.customobject.QuantileDigest;
+import org.roaringbitmap.RoaringBitmap;
 import org.testng.annotations.Test;
 
 import static org.testng.Assert.assertEquals;
@@ -185,6 +187,31 @@ public class ObjectSerDeUtilsTest {
     }
   }
 
+  @Test
+  public void testRoaringBitmap() {
+    for (int i = 0; i < NUM_ITERATIONS; i++) {
+      int size = RANDOM.nextInt(100);
+      RoaringBitmap expected = new RoaringBitmap();
+      for (int j = 0; j < size; j++) {
+        expected.add(RANDOM.nextInt());
+      }
+      // Add a range of values to also cover the run containers
+      int rangeStart = RANDOM.nextInt(1000);
+      expected.add(rangeStart, rangeStart + RANDOM.nextInt(10000));
+
+      byte[] bytes = ObjectSerDeUtils.serialize(expected);
+      RoaringBitmap actual = ObjectSerDeUtils.deserialize(bytes, ObjectSerDeUtils.ObjectType.RoaringBitmap);
+      assertEquals(actual, expected, ERROR_MESSAGE);
+
+      // The de-serialization from byte buffer should only consume the bytes of the bitmap
+      ByteBuffer byteBuffer = ByteBuffer.allocate(bytes.length + Integer.BYTES);
+      byteBuffer.put(bytes).putInt(i).flip();
+      actual = ObjectSerDeUtils.deserialize(byteBuffer, ObjectSerDeUtils.ObjectType.RoaringBitmap);
+      assertEquals(actual, expected, ERROR_MESSAGE);
+      assertEquals(byteBuffer.getInt(), i, ERROR_MESSAGE);
+    }
+  }
+
   @Test
   public void testTDigest() {
     for (int i = 0; i < NUM_ITERATIONS; i++) {
@@ -38,6 +38,7 @@ import org.apache.pinot.core.indexsegment.immutable.ImmutableSegment;
 import org.apache.pinot.core.indexsegment.immutable.ImmutableSegmentLoader;
 import org.apache.pinot.core.segment.creator.SegmentIndexCreationDriver;
 import org.apache.pinot.core.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import org.apache.pinot.core.segment.index.readers.BloomFilterReader;
 import org.apache.pinot.core.segment.index.readers.Dictionary;
 import org.apache.pinot.segments.v1.creator.SegmentTestUtils;
 import org.testng.Assert;
@@ -72,7 +73,8 @@ public class MutableSegmentImplTest {
 
     _schema = config.getSchema();
     _mutableSegmentImpl = MutableSegmentImplTestUtils
-        .createMutableSegmentImpl(_schema, Collections.emptySet(), Collections.emptySet(), false);
+        .createMutableSegmentImpl(_schema, Collections.emptySet(), Collections.emptySet(), _schema.getColumnNames(),
+            false);
     try (RecordReader recordReader = new AvroRecordReader(avroFile, _schema)) {
       GenericRow reuse = new GenericRow();
       while (recordReader.hasNext()) {
@@ -101,6 +103,22 @@ public class MutableSegmentImplTest {
     }
   }
 
+  @Test
+  public void testBloomFilter() {
+    for (FieldSpec fieldSpec : _schema.getAllFieldSpecs()) {
+      String column = fieldSpec.getName();
+      BloomFilterReader bloomFilterReader = _mutableSegmentImpl.getDataSource(column).getBloomFilter();
+      Assert.assertNotNull(bloomFilterReader);
+
+      // All the values in the segment should exist in the bloom filter
+      Dictionary expectedDictionary = _immutableSegment.getDataSource(column).getDictionary();
+      int cardinality = expectedDictionary.length();
+      for (int dictId = 0; dictId < cardinality; dictId++) {
+        Assert.assertTrue(bloomFilterReader.mightContain(expectedDictionary.get(dictId)));
+      }
+    }
+  }
+
   @Test
   public void testDataSourceForSVColumns() {
     for (FieldSpec fieldSpec : _schema.getAllFieldSpecs()) {
@@ -18,6 +18,7 @@
  */
 package org.apache.pinot.core.indexsegment.mutable;
 
+import java.util.Collections;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import org.apache.pinot.common.data.Schema;
@@ -40,6 +41,13 @@ public class MutableSegmentImplTestUtils {
 
   public static MutableSegmentImpl createMutableSegmentImpl(@Nonnull Schema schema,
       @Nonnull Set<String> noDictionaryColumns, @Nonnull Set<String> invertedIndexColumns, boolean aggregateMetrics) {
+    return createMutableSegmentImpl(schema, noDictionaryColumns, invertedIndexColumns, Collections.emptySet(),
+        aggregateMetrics);
+  }
+
+  public static MutableSegmentImpl createMutableSegmentImpl(@Nonnull Schema schema,
+      @Nonnull Set<String> noDictionaryColumns, @Nonnull Set<String> invertedIndexColumns,
+      @Nonnull Set<String> bloomFilterColumns, boolean aggregateMetrics) {
     RealtimeSegmentStatsHistory statsHistory = mock(RealtimeSegmentStatsHistory.class);
     when(statsHistory.getEstimatedCardinality(anyString())).thenReturn(200);
     when(statsHistory.getEstimatedAvgColSize(anyString())).thenReturn(32);
@@ -47,7 +55,8 @@ public class MutableSegmentImplTestUtils {
     RealtimeSegmentConfig realtimeSegmentConfig =
         new RealtimeSegmentConfig.Builder().setSegmentName(SEGMENT_NAME).setStreamName(STEAM_NAME).setSchema(schema)
             .setCapacity(100000).setAvgNumMultiValues(2).setNoDictionaryColumns(noDictionaryColumns)
-            .setInvertedIndexColumns(invertedIndexColumns).setRealtimeSegmentZKMetadata(new RealtimeSegmentZKMetadata())
+            .setInvertedIndexColumns(invertedIndexColumns).setBloomFilterColumns(bloomFilterColumns)
+            .setRealtimeSegmentZKMetadata(new RealtimeSegmentZKMetadata())
             .setMemoryManager(new DirectMemoryManager(SEGMENT_NAME)).setStatsHistory(statsHistory)
             .setAggregateMetrics(aggregateMetrics).build();
     return new MutableSegmentImpl(realtimeSegmentConfig);
@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.pinot.common.request.BrokerRequest;
+import org.apache.pinot.common.segment.SegmentMetadata;
+import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.common.utils.DataTable;
+import org.apache.pinot.core.common.Operator;
+import org.apache.pinot.core.operator.blocks.IntermediateResultsBlock;
+import org.apache.pinot.core.operator.query.MetadataBasedAggregationOperator;
+import org.apache.pinot.core.query.aggregation.AggregationFunctionContext;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunctionUtils;
+import org.apache.pinot.pql.parsers.Pql2Compiler;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+public class CombineOperatorTest {
+  private static final Pql2Compiler COMPILER = new Pql2Compiler();
+  private static final int NUM_SEGMENTS = 100;
+  private static final int NUM_ROWS_PER_SEGMENT = 10;
+  private static final long TIMEOUT_MS = 10_000L;
+
+  private final ExecutorService _executorService = Executors.newCachedThreadPool();
+
+  @Test
+  public void testSelectionOnlyEarlyTermination()
+      throws Exception {
+    AtomicInteger numSegmentsProcessed = new AtomicInteger();
+    List<Operator> operators = new ArrayList<>(NUM_SEGMENTS);
+    for (int i = 0; i < NUM_SEGMENTS; i++) {
+      operators.add(new SelectionOperator(numSegmentsProcessed));
+    }
+
+    BrokerRequest brokerRequest = COMPILER.compileToBrokerRequest("SELECT * FROM myTable LIMIT 10");
+    IntermediateResultsBlock resultsBlock =
+        new CombineOperator(operators, _executorService, TIMEOUT_MS, brokerRequest).nextBlock();
+    Assert.assertEquals(resultsBlock.getSelectionResult().size(), 10);
+    // Each operator group should only process one segment
+    Assert.assertTrue(numSegmentsProcessed.get() < NUM_SEGMENTS);
+    Assert.assertEquals(resultsBlock.getNumSegmentsProcessed(), numSegmentsProcessed.get());
+    // Skipped segments should still be counted in the total docs
+    Assert.assertEquals(getTotalDocs(resultsBlock), NUM_SEGMENTS * NUM_ROWS_PER_SEGMENT);
+
+    // All the segments need to be processed if the limit cannot be satisfied
+    numSegmentsProcessed.set(0);
+    brokerRequest = COMPILER.compileToBrokerRequest("SELECT * FROM myTable LIMIT 5000");
+    resultsBlock = new CombineOperator(operators, _executorService, TIMEOUT_MS, brokerRequest).nextBlock();
+    Assert.assertEquals(resultsBlock.getSelectionResult().size(), NUM_SEGMENTS * NUM_ROWS_PER_SEGMENT);
+    Assert.assertEquals(numSegmentsProcessed.get(), NUM_SEGMENTS);
+    Assert.assertEquals(resultsBlock.getNumSegmentsProcessed(), NUM_SEGMENTS);
+    Assert.assertEquals(getTotalDocs(resultsBlock), NUM_SEGMENTS * NUM_ROWS_PER_SEGMENT);
+  }
+
+  @Test
+  public void testMetadataBasedAggregation() {
+    BrokerRequest brokerRequest = COMPILER.compileToBrokerRequest("SELECT COUNT(*) FROM myTable");
+    AggregationFunctionContext[] aggregationFunctionContexts =
+        AggregationFunctionUtils.getAggregationFunctionContexts(brokerRequest.getAggregationsInfo(), null);
+    SegmentMetadata segmentMetadata = mock(SegmentMetadata.class);
+    when(segmentMetadata.getTotalRawDocs()).thenReturn(NUM_ROWS_PER_SEGMENT);
+    List<Operator> operators = new ArrayList<>(NUM_SEGMENTS);
+    for (int i = 0; i < NUM_SEGMENTS; i++) {
+      operators.add(new MetadataBasedAggregationOperator(aggregationFunctionContexts, segmentMetadata, null));
+    }
+
+    // Metadata based operators should be combined without submitting tasks to the executor
+    ExecutorService executorService = Executors.newSingleThreadExecutor();
+    executorService.shutdown();
+    IntermediateResultsBlock resultsBlock =
+        new CombineOperator(operators, executorService, TIMEOUT_MS, brokerRequest).nextBlock();
+    Assert.assertEquals(resultsBlock.getAggregationResult().get(0), (long) NUM_SEGMENTS * NUM_ROWS_PER_SEGMENT);
+    Assert.assertEquals(resultsBlock.getNumSegmentsProcessed(), NUM_SEGMENTS);
+  }
+
+  private static long getTotalDocs(IntermediateResultsBlock resultsBlock)
+      throws Exception {
+    return Long.parseLong(resultsBlock.getDataTable().getMetadata().get(DataTable.TOTAL_DOCS_METADATA_KEY));
+  }
+
+  @AfterClass
+  public void tearDown() {
+    _executorService.shutdown();
+  }
+
+  private static class SelectionOperator extends BaseOperator<IntermediateResultsBlock> {
+    final AtomicInteger _numSegmentsProcessed;
+    ExecutionStatistics _executionStatistics;
+
+    SelectionOperator(AtomicInteger numSegmentsProcessed) {
+      _numSegmentsProcessed = numSegmentsProcessed;
+    }
+
+    @Override
+    protected IntermediateResultsBlock getNextBlock() {
+      _numSegmentsProcessed.getAndIncrement();
+      _executionStatistics =
+          new ExecutionStatistics(NUM_ROWS_PER_SEGMENT, 0, NUM_ROWS_PER_SEGMENT, NUM_ROWS_PER_SEGMENT);
+      DataSchema dataSchema =
+          new DataSchema(new String[]{"column"}, new DataSchema.ColumnDataType[]{DataSchema.ColumnDataType.INT});
+      List<Serializable[]> rows = new ArrayList<>(NUM_ROWS_PER_SEGMENT);
+      for (int i = 0; i < NUM_ROWS_PER_SEGMENT; i++) {
+        rows.add(new Serializable[]{i});
+      }
+      return new IntermediateResultsBlock(dataSchema, rows);
+    }
+
+    @Override
+    public String getOperatorName() {
+      return "SelectionOperator";
+    }
+
+    @Override
+    public ExecutionStatistics getExecutionStatistics() {
+      if (_executionStatistics == null) {
+        return ExecutionStatistics.forUnprocessedSegment(NUM_ROWS_PER_SEGMENT);
+      }
+      return _executionStatistics;
+    }
+  }
+}
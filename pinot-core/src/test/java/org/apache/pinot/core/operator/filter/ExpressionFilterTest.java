@@ -0,0 +1,219 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.filter;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.data.DimensionFieldSpec;
+import org.apache.pinot.common.data.FieldSpec;
+import org.apache.pinot.common.data.Schema;
+import org.apache.pinot.common.request.BrokerRequest;
+import org.apache.pinot.common.request.FilterOperator;
+import org.apache.pinot.common.request.transform.TransformExpressionTree;
+import org.apache.pinot.common.segment.ReadMode;
+import org.apache.pinot.common.utils.request.FilterQueryTree;
+import org.apache.pinot.common.utils.request.RequestUtils;
+import org.apache.pinot.core.common.BlockDocIdIterator;
+import org.apache.pinot.core.common.Constants;
+import org.apache.pinot.core.data.GenericRow;
+import org.apache.pinot.core.data.readers.GenericRowRecordReader;
+import org.apache.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegment;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegmentLoader;
+import org.apache.pinot.core.plan.FilterPlanNode;
+import org.apache.pinot.core.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import org.apache.pinot.pql.parsers.Pql2Compiler;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+
+/**
+ * Tests the predicates on transform expressions, which are either rewritten into predicates on the column by the
+ * {@link ExpressionPredicateRewriter}, or evaluated by the {@link ExpressionFilterOperator}.
+ */
+public class ExpressionFilterTest {
+  private static final String SEGMENT_NAME = "expressionFilterTestSegment";
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "ExpressionFilterTest");
+  private static final Pql2Compiler COMPILER = new Pql2Compiler();
+  private static final int NUM_ROWS = 10000;
+  private static final int MAX_INT_VALUE = 10000;
+  private static final long MAX_LONG_VALUE = TimeUnit.DAYS.toMillis(10);
+  private static final int MAX_NUM_MULTI_VALUES = 5;
+  private static final String INT_COLUMN = "intColumn";
+  private static final String LONG_COLUMN = "longColumn";
+  private static final String INT_MV_COLUMN = "intMVColumn";
+
+  private final long _randomSeed = System.currentTimeMillis();
+  private final Random _random = new Random(_randomSeed);
+  private final String _errorMessage = "Random seed is: " + _randomSeed;
+  private final int[] _intValues = new int[NUM_ROWS];
+  private final long[] _longValues = new long[NUM_ROWS];
+  private final int[][] _intMVValues = new int[NUM_ROWS][];
+  private ImmutableSegment _segment;
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteQuietly(INDEX_DIR);
+
+    List<GenericRow> rows = new ArrayList<>(NUM_ROWS);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      _intValues[i] = _random.nextInt(2 * MAX_INT_VALUE) - MAX_INT_VALUE;
+      _longValues[i] = (long) (_random.nextDouble() * MAX_LONG_VALUE);
+      int numMultiValues = _random.nextInt(MAX_NUM_MULTI_VALUES) + 1;
+      _intMVValues[i] = new int[numMultiValues];
+      Integer[] intMVValues = new Integer[numMultiValues];
+      for (int j = 0; j < numMultiValues; j++) {
+        _intMVValues[i][j] = _random.nextInt(10);
+        intMVValues[j] = _intMVValues[i][j];
+      }
+      Map<String, Object> map = new HashMap<>();
+      map.put(INT_COLUMN, _intValues[i]);
+      map.put(LONG_COLUMN, _longValues[i]);
+      map.put(INT_MV_COLUMN, intMVValues);
+      GenericRow row = new GenericRow();
+      row.init(map);
+      rows.add(row);
+    }
+
+    Schema schema = new Schema();
+    schema.addField(new DimensionFieldSpec(INT_COLUMN, FieldSpec.DataType.INT, true));
+    schema.addField(new DimensionFieldSpec(LONG_COLUMN, FieldSpec.DataType.LONG, true));
+    schema.addField(new DimensionFieldSpec(INT_MV_COLUMN, FieldSpec.DataType.INT, false));
+
+    SegmentGeneratorConfig config = new SegmentGeneratorConfig(schema);
+    config.setOutDir(INDEX_DIR.getPath());
+    config.setSegmentName(SEGMENT_NAME);
+    config.setRawIndexCreationColumns(Collections.singletonList(LONG_COLUMN));
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    driver.init(config, new GenericRowRecordReader(rows, schema));
+    driver.build();
+
+    _segment = ImmutableSegmentLoader.load(new File(INDEX_DIR, SEGMENT_NAME), ReadMode.mmap);
+  }
+
+  @Test
+  public void testRewrite() {
+    testRewrite("div(intColumn, 1000) > 5", FilterOperator.RANGE, "[5001\t\t*)");
+    testRewrite("div(intColumn, -1000) >= 5", FilterOperator.RANGE, "(*\t\t-5000]");
+    testRewrite("sub(100, intColumn) BETWEEN 10 AND 20", FilterOperator.RANGE, "[80\t\t90]");
+    testRewrite("add(mult(intColumn, 2), 1) = 11", FilterOperator.EQUALITY, "5");
+    testRewrite("floor(div(intColumn, 10)) = 3", FilterOperator.RANGE, "[30\t\t39]");
+    testRewrite("timeConvert(longColumn, 'MILLISECONDS', 'DAYS') = 3", FilterOperator.RANGE,
+        "[259200000\t\t345599999]");
+    testRewrite("timeConvert(longColumn, 'MILLISECONDS', 'HOURS') < 50", FilterOperator.RANGE, "(*\t\t179999999]");
+
+    // Not rewritten
+    testNoRewrite("add(intColumn, 0.5) IN (10.5, 20.5)");
+    testNoRewrite("mod(intColumn, 7) = 3");
+    testNoRewrite("div(intColumn, 0) > 5");
+    testNoRewrite("div(1000, intColumn) > 5");
+    testNoRewrite("add(intColumn, longColumn) > 5");
+    testNoRewrite("div(intColumn, 1000) > 'foo'");
+    // Does not match any value
+    testNoRewrite("div(intColumn, 1000) > 10000000000");
+    // Matches all values
+    testNoRewrite("div(intColumn, 1000) < 10000000000");
+    // Square root of negative values does not match the predicate
+    testNoRewrite("sqrt(intColumn) < 30");
+  }
+
+  private void testRewrite(String filter, FilterOperator expectedOperator, String expectedValue) {
+    FilterQueryTree filterQueryTree = getFilterQueryTree(filter);
+    FilterQueryTree rewrittenFilterQueryTree = ExpressionPredicateRewriter.rewrite(filterQueryTree,
+        TransformExpressionTree.compileToExpressionTree(filterQueryTree.getColumn()), _segment);
+    Assert.assertNotNull(rewrittenFilterQueryTree, filter);
+    Assert.assertEquals(rewrittenFilterQueryTree.getOperator(), expectedOperator, filter);
+    Assert.assertEquals(rewrittenFilterQueryTree.getValue(), Collections.singletonList(expectedValue), filter);
+  }
+
+  private void testNoRewrite(String filter) {
+    FilterQueryTree filterQueryTree = getFilterQueryTree(filter);
+    Assert.assertNull(ExpressionPredicateRewriter.rewrite(filterQueryTree,
+        TransformExpressionTree.compileToExpressionTree(filterQueryTree.getColumn()), _segment), filter);
+  }
+
+  @Test
+  public void testFilter() {
+    testFilter("div(intColumn, 1000) > 5", true, docId -> _intValues[docId] / 1000.0 > 5);
+    testFilter("sub(100, intColumn) BETWEEN 10 AND 20", true,
+        docId -> _intValues[docId] >= 80 && _intValues[docId] <= 90);
+    testFilter("floor(div(intColumn, 10)) = 3", true, docId -> Math.floor(_intValues[docId] / 10.0) == 3);
+    testFilter("timeConvert(longColumn, 'MILLISECONDS', 'DAYS') = 3", true,
+        docId -> TimeUnit.MILLISECONDS.toDays(_longValues[docId]) == 3);
+    testFilter("timeConvert(longColumn, 'MILLISECONDS', 'HOURS') < 50", true,
+        docId -> TimeUnit.MILLISECONDS.toHours(_longValues[docId]) < 50);
+    testFilter("add(intColumn, 0.5) IN (10.5, 20.5)", false,
+        docId -> _intValues[docId] == 10 || _intValues[docId] == 20);
+    testFilter("mod(intColumn, 7) = 3", false, docId -> _intValues[docId] % 7 == 3);
+    testFilter("sqrt(intColumn) < 30", false, docId -> Math.sqrt(_intValues[docId]) < 30);
+    testFilter("valueIn(intMVColumn, 1, 2, 3) = 2", false, docId -> {
+      for (int value : _intMVValues[docId]) {
+        if (value == 2) {
+          return true;
+        }
+      }
+      return false;
+    });
+    testFilter("div(intColumn, 1000) > 5 AND mod(intColumn, 2) <> 0", true,
+        docId -> _intValues[docId] > 5000 && _intValues[docId] % 2 != 0);
+  }
+
+  private void testFilter(String filter, boolean rewritten, IntPredicate expected) {
+    String errorMessage = _errorMessage + ", filter: " + filter;
+    BrokerRequest brokerRequest = COMPILER.compileToBrokerRequest("SELECT * FROM testTable WHERE " + filter);
+    BaseFilterOperator filterOperator = new FilterPlanNode(_segment, brokerRequest).run();
+    Assert.assertEquals(!(filterOperator instanceof ExpressionFilterOperator), rewritten, errorMessage);
+
+    List<Integer> expectedDocIds = new ArrayList<>();
+    for (int docId = 0; docId < NUM_ROWS; docId++) {
+      if (expected.test(docId)) {
+        expectedDocIds.add(docId);
+      }
+    }
+    List<Integer> actualDocIds = new ArrayList<>();
+    BlockDocIdIterator iterator = filterOperator.nextBlock().getBlockDocIdSet().iterator();
+    int docId;
+    while ((docId = iterator.next()) != Constants.EOF) {
+      actualDocIds.add(docId);
+    }
+    Assert.assertEquals(actualDocIds, expectedDocIds, errorMessage);
+  }
+
+  private static FilterQueryTree getFilterQueryTree(String filter) {
+    return RequestUtils.generateFilterQueryTree(
+        COMPILER.compileToBrokerRequest("SELECT * FROM testTable WHERE " + filter));
+  }
+
+  @AfterClass
+  public void tearDown() {
+    _segment.destroy();
+    FileUtils.deleteQuietly(INDEX_DIR);
+  }
+}
@@ -0,0 +1,222 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.filter;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.data.DimensionFieldSpec;
+import org.apache.pinot.common.data.FieldSpec;
+import org.apache.pinot.common.data.MetricFieldSpec;
+import org.apache.pinot.common.data.Schema;
+import org.apache.pinot.common.segment.ReadMode;
+import org.apache.pinot.core.common.BlockDocIdIterator;
+import org.apache.pinot.core.common.Constants;
+import org.apache.pinot.core.common.DataSource;
+import org.apache.pinot.core.common.predicate.RangePredicate;
+import org.apache.pinot.core.data.GenericRow;
+import org.apache.pinot.core.data.readers.GenericRowRecordReader;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegment;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegmentLoader;
+import org.apache.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
+import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluatorProvider;
+import org.apache.pinot.core.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import org.apache.pinot.core.segment.index.loader.IndexLoadingConfig;
+import org.apache.pinot.core.segment.store.ColumnIndexType;
+import org.apache.pinot.core.segment.store.SegmentDirectory;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+
+public class RangeIndexBasedFilterOperatorTest {
+  private static final String SEGMENT_NAME = "rangeIndexTestSegment";
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "RangeIndexBasedFilterOperatorTest");
+  private static final int NUM_ROWS = 10000;
+  private static final int MAX_VALUE = 5000;
+  private static final int MAX_NUM_MULTI_VALUES = 5;
+  private static final int NUM_QUERIES = 100;
+  // Range index created during segment generation
+  private static final String INT_COLUMN = "intColumn";
+  // Range index created when loading the segment
+  private static final String DOUBLE_COLUMN = "doubleColumn";
+  private static final String INT_MV_COLUMN = "intMVColumn";
+
+  private final long _randomSeed = System.currentTimeMillis();
+  private final Random _random = new Random(_randomSeed);
+  private final String _errorMessage = "Random seed is: " + _randomSeed;
+  private final int[] _intValues = new int[NUM_ROWS];
+  private final double[] _doubleValues = new double[NUM_ROWS];
+  private final Integer[][] _intMVValues = new Integer[NUM_ROWS][];
+  private ImmutableSegment _segment;
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteQuietly(INDEX_DIR);
+
+    List<GenericRow> rows = new ArrayList<>(NUM_ROWS);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      _intValues[i] = _random.nextInt(MAX_VALUE);
+      // Skewed distribution
+      _doubleValues[i] = _random.nextInt(10) == 0 ? 0.0 : _random.nextInt(MAX_VALUE) / 10.0;
+      int numMultiValues = _random.nextInt(MAX_NUM_MULTI_VALUES) + 1;
+      _intMVValues[i] = new Integer[numMultiValues];
+      for (int j = 0; j < numMultiValues; j++) {
+        _intMVValues[i][j] = _random.nextInt(MAX_VALUE);
+      }
+      Map<String, Object> map = new HashMap<>();
+      map.put(INT_COLUMN, _intValues[i]);
+      map.put(DOUBLE_COLUMN, _doubleValues[i]);
+      map.put(INT_MV_COLUMN, _intMVValues[i]);
+      GenericRow row = new GenericRow();
+      row.init(map);
+      rows.add(row);
+    }
+
+    Schema schema = new Schema();
+    schema.addField(new MetricFieldSpec(INT_COLUMN, FieldSpec.DataType.INT));
+    schema.addField(new MetricFieldSpec(DOUBLE_COLUMN, FieldSpec.DataType.DOUBLE));
+    schema.addField(new DimensionFieldSpec(INT_MV_COLUMN, FieldSpec.DataType.INT, false));
+
+    SegmentGeneratorConfig config = new SegmentGeneratorConfig(schema);
+    config.setOutDir(INDEX_DIR.getPath());
+    config.setSegmentName(SEGMENT_NAME);
+    config.setRangeIndexCreationColumns(Arrays.asList(INT_COLUMN, INT_MV_COLUMN));
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    driver.init(config, new GenericRowRecordReader(rows, schema));
+    driver.build();
+
+    File indexDir = new File(INDEX_DIR, SEGMENT_NAME);
+    try (SegmentDirectory segmentDirectory = SegmentDirectory.createFromLocalFS(indexDir, ReadMode.mmap);
+        SegmentDirectory.Reader reader = segmentDirectory.createReader()) {
+      Assert.assertTrue(reader.hasIndexFor(INT_COLUMN, ColumnIndexType.RANGE_INDEX));
+      Assert.assertTrue(reader.hasIndexFor(INT_MV_COLUMN, ColumnIndexType.RANGE_INDEX));
+      Assert.assertFalse(reader.hasIndexFor(DOUBLE_COLUMN, ColumnIndexType.RANGE_INDEX));
+    }
+
+    IndexLoadingConfig indexLoadingConfig = new IndexLoadingConfig();
+    indexLoadingConfig.setReadMode(ReadMode.mmap);
+    indexLoadingConfig.setRangeIndexColumns(new HashSet<>(Arrays.asList(INT_COLUMN, DOUBLE_COLUMN, INT_MV_COLUMN)));
+    _segment = ImmutableSegmentLoader.load(indexDir, indexLoadingConfig);
+  }
+
+  @Test
+  public void testRangeIndex() {
+    for (String column : Arrays.asList(INT_COLUMN, DOUBLE_COLUMN, INT_MV_COLUMN)) {
+      Assert.assertNotNull(_segment.getDataSource(column).getRangeIndex(), column);
+    }
+
+    for (int i = 0; i < NUM_QUERIES; i++) {
+      int lowerBound = _random.nextInt(MAX_VALUE);
+      int upperBound = lowerBound + _random.nextInt(MAX_VALUE / 10);
+      boolean includeLowerBound = _random.nextBoolean();
+      boolean includeUpperBound = _random.nextBoolean();
+
+      for (boolean unbounded : new boolean[]{false, true}) {
+        String rangeString = getRangeString(Integer.toString(lowerBound), Integer.toString(upperBound),
+            includeLowerBound, includeUpperBound, unbounded);
+        String errorMessage = _errorMessage + ", range: " + rangeString;
+
+        List<Integer> expected = new ArrayList<>();
+        for (int docId = 0; docId < NUM_ROWS; docId++) {
+          if (matches(_intValues[docId], lowerBound, upperBound, includeLowerBound, includeUpperBound, unbounded)) {
+            expected.add(docId);
+          }
+        }
+        Assert.assertEquals(getMatchingDocIds(INT_COLUMN, rangeString), expected, errorMessage);
+
+        expected.clear();
+        for (int docId = 0; docId < NUM_ROWS; docId++) {
+          for (int value : _intMVValues[docId]) {
+            if (matches(value, lowerBound, upperBound, includeLowerBound, includeUpperBound, unbounded)) {
+              expected.add(docId);
+              break;
+            }
+          }
+        }
+        Assert.assertEquals(getMatchingDocIds(INT_MV_COLUMN, rangeString), expected, errorMessage);
+
+        double doubleLowerBound = lowerBound / 10.0;
+        double doubleUpperBound = upperBound / 10.0;
+        rangeString = getRangeString(Double.toString(doubleLowerBound), Double.toString(doubleUpperBound),
+            includeLowerBound, includeUpperBound, unbounded);
+        expected.clear();
+        for (int docId = 0; docId < NUM_ROWS; docId++) {
+          if (matches(_doubleValues[docId], doubleLowerBound, doubleUpperBound, includeLowerBound, includeUpperBound,
+              unbounded)) {
+            expected.add(docId);
+          }
+        }
+        Assert.assertEquals(getMatchingDocIds(DOUBLE_COLUMN, rangeString), expected,
+            _errorMessage + ", range: " + rangeString);
+      }
+    }
+  }
+
+  private static String getRangeString(String lowerBound, String upperBound, boolean includeLowerBound,
+      boolean includeUpperBound, boolean unbounded) {
+    String lower = unbounded ? RangePredicate.LOWER_EXCLUSIVE + RangePredicate.UNBOUNDED
+        : (includeLowerBound ? RangePredicate.LOWER_INCLUSIVE : RangePredicate.LOWER_EXCLUSIVE) + lowerBound;
+    String upper =
+        upperBound + (includeUpperBound ? RangePredicate.UPPER_INCLUSIVE : RangePredicate.UPPER_EXCLUSIVE);
+    return lower + RangePredicate.DELIMITER + upper;
+  }
+
+  private static boolean matches(double value, double lowerBound, double upperBound, boolean includeLowerBound,
+      boolean includeUpperBound, boolean unbounded) {
+    boolean matchesLowerBound = unbounded || (includeLowerBound ? value >= lowerBound : value > lowerBound);
+    boolean matchesUpperBound = includeUpperBound ? value <= upperBound : value < upperBound;
+    return matchesLowerBound && matchesUpperBound;
+  }
+
+  private List<Integer> getMatchingDocIds(String column, String rangeString) {
+    DataSource dataSource = _segment.getDataSource(column);
+    PredicateEvaluator predicateEvaluator = PredicateEvaluatorProvider
+        .getPredicateEvaluator(new RangePredicate(column, Collections.singletonList(rangeString)), dataSource);
+    BaseFilterOperator filterOperator = FilterOperatorUtils.getLeafFilterOperator(predicateEvaluator, dataSource,
+        NUM_ROWS);
+    if (!predicateEvaluator.isAlwaysFalse() && !predicateEvaluator.isAlwaysTrue()) {
+      Assert.assertTrue(filterOperator instanceof RangeIndexBasedFilterOperator);
+    }
+
+    List<Integer> docIds = new ArrayList<>();
+    BlockDocIdIterator iterator = filterOperator.nextBlock().getBlockDocIdSet().iterator();
+    int docId;
+    while ((docId = iterator.next()) != Constants.EOF) {
+      docIds.add(docId);
+    }
+    return docIds;
+  }
+
+  @AfterClass
+  public void tearDown() {
+    _segment.destroy();
+    FileUtils.deleteQuietly(INDEX_DIR);
+  }
+}
@@ -0,0 +1,214 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.filter;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Pattern;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.data.DimensionFieldSpec;
+import org.apache.pinot.common.data.FieldSpec;
+import org.apache.pinot.common.data.Schema;
+import org.apache.pinot.common.segment.ReadMode;
+import org.apache.pinot.core.common.BlockDocIdIterator;
+import org.apache.pinot.core.common.Constants;
+import org.apache.pinot.core.common.DataSource;
+import org.apache.pinot.core.common.predicate.RegexpLikePredicate;
+import org.apache.pinot.core.data.GenericRow;
+import org.apache.pinot.core.data.readers.GenericRowRecordReader;
+import org.apache.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegment;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegmentLoader;
+import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluatorProvider;
+import org.apache.pinot.core.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import org.apache.pinot.core.segment.creator.impl.text.NgramTokenizer;
+import org.apache.pinot.core.segment.index.loader.IndexLoadingConfig;
+import org.apache.pinot.core.segment.store.ColumnIndexType;
+import org.apache.pinot.core.segment.store.SegmentDirectory;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+
+public class TextIndexRegexpLikeFilterTest {
+  private static final String SEGMENT_NAME = "textIndexTestSegment";
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "TextIndexRegexpLikeFilterTest");
+  private static final int NUM_ROWS = 10000;
+  private static final int MAX_VALUE_LENGTH = 12;
+  private static final int MAX_NUM_MULTI_VALUES = 5;
+  private static final String ALPHABET = "aAbBcCxX. ";
+  // Text index and inverted index created during segment generation
+  private static final String STRING_COLUMN = "stringColumn";
+  // Text index created when loading the segment, without inverted index
+  private static final String STRING_MV_COLUMN = "stringMVColumn";
+  private static final String[] REGEXES = new String[]{
+      "abc", "AbC", "^ab", "^ABC", "a.c", "ab+c", "ab*c", "ab?c", "a{2}b", "[ab]ca", "[^a]bc", "bca$", "^abc$",
+      "x\\.b", "\\. x", "ab\\sc", "a|b", "(ab)c", "xxxx", "abcabcabc", "a", "ab"
+  };
+
+  private final long _randomSeed = System.currentTimeMillis();
+  private final Random _random = new Random(_randomSeed);
+  private final String _errorMessage = "Random seed is: " + _randomSeed;
+  private final String[] _values = new String[NUM_ROWS];
+  private final String[][] _mvValues = new String[NUM_ROWS][];
+  private ImmutableSegment _segment;
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteQuietly(INDEX_DIR);
+
+    List<GenericRow> rows = new ArrayList<>(NUM_ROWS);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      _values[i] = getRandomString();
+      int numMultiValues = _random.nextInt(MAX_NUM_MULTI_VALUES) + 1;
+      _mvValues[i] = new String[numMultiValues];
+      for (int j = 0; j < numMultiValues; j++) {
+        _mvValues[i][j] = getRandomString();
+      }
+      Map<String, Object> map = new HashMap<>();
+      map.put(STRING_COLUMN, _values[i]);
+      map.put(STRING_MV_COLUMN, _mvValues[i]);
+      GenericRow row = new GenericRow();
+      row.init(map);
+      rows.add(row);
+    }
+
+    Schema schema = new Schema();
+    schema.addField(new DimensionFieldSpec(STRING_COLUMN, FieldSpec.DataType.STRING, true));
+    schema.addField(new DimensionFieldSpec(STRING_MV_COLUMN, FieldSpec.DataType.STRING, false));
+
+    SegmentGeneratorConfig config = new SegmentGeneratorConfig(schema);
+    config.setOutDir(INDEX_DIR.getPath());
+    config.setSegmentName(SEGMENT_NAME);
+    config.setInvertedIndexCreationColumns(Collections.singletonList(STRING_COLUMN));
+    config.setTextIndexCreationColumns(Collections.singletonList(STRING_COLUMN));
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    driver.init(config, new GenericRowRecordReader(rows, schema));
+    driver.build();
+
+    File indexDir = new File(INDEX_DIR, SEGMENT_NAME);
+    try (SegmentDirectory segmentDirectory = SegmentDirectory.createFromLocalFS(indexDir, ReadMode.mmap);
+        SegmentDirectory.Reader reader = segmentDirectory.createReader()) {
+      Assert.assertTrue(reader.hasIndexFor(STRING_COLUMN, ColumnIndexType.TEXT_INDEX));
+      Assert.assertFalse(reader.hasIndexFor(STRING_MV_COLUMN, ColumnIndexType.TEXT_INDEX));
+    }
+
+    IndexLoadingConfig indexLoadingConfig = new IndexLoadingConfig();
+    indexLoadingConfig.setReadMode(ReadMode.mmap);
+    indexLoadingConfig.setInvertedIndexColumns(Collections.singleton(STRING_COLUMN));
+    indexLoadingConfig.setTextIndexColumns(new HashSet<>(Arrays.asList(STRING_COLUMN, STRING_MV_COLUMN)));
+    _segment = ImmutableSegmentLoader.load(indexDir, indexLoadingConfig);
+  }
+
+  private String getRandomString() {
+    int length = _random.nextInt(MAX_VALUE_LENGTH + 1);
+    StringBuilder stringBuilder = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      stringBuilder.append(ALPHABET.charAt(_random.nextInt(ALPHABET.length())));
+    }
+    return stringBuilder.toString();
+  }
+
+  @Test
+  public void testRequiredGrams() {
+    Assert.assertNotNull(NgramTokenizer.getRequiredGrams("abc"));
+    Assert.assertNotNull(NgramTokenizer.getRequiredGrams("^ab"));
+    Assert.assertNotNull(NgramTokenizer.getRequiredGrams("x\\.b"));
+    // Not enough literal characters
+    Assert.assertNull(NgramTokenizer.getRequiredGrams("ab"));
+    Assert.assertNull(NgramTokenizer.getRequiredGrams("a.c"));
+    Assert.assertNull(NgramTokenizer.getRequiredGrams("ab*c"));
+    // Not analyzed
+    Assert.assertNull(NgramTokenizer.getRequiredGrams("abc|def"));
+    Assert.assertNull(NgramTokenizer.getRequiredGrams("(abc)"));
+    Assert.assertNull(NgramTokenizer.getRequiredGrams("\\x61bc"));
+    Assert.assertNull(NgramTokenizer.getRequiredGrams("\\Qabc\\E"));
+
+    // Case insensitive
+    Assert.assertEquals(NgramTokenizer.getRequiredGrams("AbC"), NgramTokenizer.getRequiredGrams("aBc"));
+    Assert.assertEquals(NgramTokenizer.getRequiredGrams("abc+"), NgramTokenizer.getRequiredGrams("abc"));
+    Assert.assertEquals(NgramTokenizer.getRequiredGrams("abcd?"), NgramTokenizer.getRequiredGrams("abc"));
+  }
+
+  @Test
+  public void testRegexpLike() {
+    for (String column : Arrays.asList(STRING_COLUMN, STRING_MV_COLUMN)) {
+      Assert.assertNotNull(_segment.getDataSource(column).getTextIndex(), column);
+    }
+
+    for (String regex : REGEXES) {
+      String errorMessage = _errorMessage + ", regex: " + regex;
+      Pattern pattern = Pattern.compile(regex, Pattern.UNICODE_CASE | Pattern.CASE_INSENSITIVE);
+
+      List<Integer> expected = new ArrayList<>();
+      for (int docId = 0; docId < NUM_ROWS; docId++) {
+        if (pattern.matcher(_values[docId]).find()) {
+          expected.add(docId);
+        }
+      }
+      Assert.assertEquals(getMatchingDocIds(STRING_COLUMN, regex), expected, errorMessage);
+
+      expected.clear();
+      for (int docId = 0; docId < NUM_ROWS; docId++) {
+        for (String value : _mvValues[docId]) {
+          if (pattern.matcher(value).find()) {
+            expected.add(docId);
+            break;
+          }
+        }
+      }
+      Assert.assertEquals(getMatchingDocIds(STRING_MV_COLUMN, regex), expected, errorMessage);
+    }
+  }
+
+  private List<Integer> getMatchingDocIds(String column, String regex) {
+    DataSource dataSource = _segment.getDataSource(column);
+    PredicateEvaluator predicateEvaluator = PredicateEvaluatorProvider
+        .getPredicateEvaluator(new RegexpLikePredicate(column, Collections.singletonList(regex)), dataSource);
+    BaseFilterOperator filterOperator = FilterOperatorUtils.getLeafFilterOperator(predicateEvaluator, dataSource,
+        NUM_ROWS);
+    if (column.equals(STRING_COLUMN) && !predicateEvaluator.isAlwaysFalse() && !predicateEvaluator.isAlwaysTrue()) {
+      Assert.assertTrue(filterOperator instanceof BitmapBasedFilterOperator);
+    }
+
+    List<Integer> docIds = new ArrayList<>();
+    BlockDocIdIterator iterator = filterOperator.nextBlock().getBlockDocIdSet().iterator();
+    int docId;
+    while ((docId = iterator.next()) != Constants.EOF) {
+      docIds.add(docId);
+    }
+    return docIds;
+  }
+
+  @AfterClass
+  public void tearDown() {
+    _segment.destroy();
+    FileUtils.deleteQuietly(INDEX_DIR);
+  }
+}
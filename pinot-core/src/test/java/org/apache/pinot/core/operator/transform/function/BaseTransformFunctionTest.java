@@ -63,6 +63,7 @@ public abstract class BaseTransformFunctionTest {
   protected static final String FLOAT_SV_COLUMN = "floatSV";
   protected static final String DOUBLE_SV_COLUMN = "doubleSV";
   protected static final String STRING_SV_COLUMN = "stringSV";
+  protected static final String JSON_SV_COLUMN = "jsonSV";
   protected static final String INT_MV_COLUMN = "intMV";
   protected static final String TIME_COLUMN = "time";
 
@@ -71,6 +72,7 @@ public abstract class BaseTransformFunctionTest {
   protected final float[] _floatSVValues = new float[NUM_ROWS];
   protected final double[] _doubleSVValues = new double[NUM_ROWS];
   protected final String[] _stringSVValues = new String[NUM_ROWS];
+  protected final String[] _jsonSVValues = new String[NUM_ROWS];
   protected final int[][] _intMVValues = new int[NUM_ROWS][];
   protected final long[] _timeValues = new long[NUM_ROWS];
 
@@ -89,6 +91,9 @@ public abstract class BaseTransformFunctionTest {
       _floatSVValues[i] = RANDOM.nextFloat();
       _doubleSVValues[i] = RANDOM.nextDouble();
       _stringSVValues[i] = Double.toString(RANDOM.nextDouble());
+      _jsonSVValues[i] = String
+          .format("{\"intVal\":%d,\"nested\":{\"longVals\":[%d]},\"stringVal\":\"%s\"}", _intSVValues[i],
+              _longSVValues[i], _stringSVValues[i]);
 
       int numValues = 1 + RANDOM.nextInt(MAX_NUM_MULTI_VALUES);
       _intMVValues[i] = new int[numValues];
@@ -108,6 +113,7 @@ public abstract class BaseTransformFunctionTest {
       map.put(FLOAT_SV_COLUMN, _floatSVValues[i]);
       map.put(DOUBLE_SV_COLUMN, _doubleSVValues[i]);
       map.put(STRING_SV_COLUMN, _stringSVValues[i]);
+      map.put(JSON_SV_COLUMN, _jsonSVValues[i]);
       map.put(INT_MV_COLUMN, ArrayUtils.toObject(_intMVValues[i]));
       map.put(TIME_COLUMN, _timeValues[i]);
       GenericRow row = new GenericRow();
@@ -121,6 +127,7 @@ public abstract class BaseTransformFunctionTest {
     schema.addField(new DimensionFieldSpec(FLOAT_SV_COLUMN, FieldSpec.DataType.FLOAT, true));
     schema.addField(new DimensionFieldSpec(DOUBLE_SV_COLUMN, FieldSpec.DataType.DOUBLE, true));
     schema.addField(new DimensionFieldSpec(STRING_SV_COLUMN, FieldSpec.DataType.STRING, true));
+    schema.addField(new DimensionFieldSpec(JSON_SV_COLUMN, FieldSpec.DataType.STRING, true));
     schema.addField(new DimensionFieldSpec(INT_MV_COLUMN, FieldSpec.DataType.INT, false));
     schema.addField(new TimeFieldSpec(TIME_COLUMN, FieldSpec.DataType.LONG, TimeUnit.MILLISECONDS));
 
@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.transform.function;
+
+import org.apache.pinot.common.data.FieldSpec;
+import org.apache.pinot.common.request.transform.TransformExpressionTree;
+import org.apache.pinot.core.query.exception.BadQueryRequestException;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class JsonExtractScalarTransformFunctionTest extends BaseTransformFunctionTest {
+
+  @Test
+  public void testJsonExtractScalarTransformFunction() {
+    TransformExpressionTree expression = TransformExpressionTree
+        .compileToExpressionTree(String.format("jsonExtractScalar(%s,'$.intVal','INT')", JSON_SV_COLUMN));
+    TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof JsonExtractScalarTransformFunction);
+    Assert.assertEquals(transformFunction.getName(), JsonExtractScalarTransformFunction.FUNCTION_NAME);
+    Assert.assertEquals(transformFunction.getResultMetadata().getDataType(), FieldSpec.DataType.INT);
+    int[] intValues = transformFunction.transformToIntValuesSV(_projectionBlock);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      Assert.assertEquals(intValues[i], _intSVValues[i]);
+    }
+
+    expression = TransformExpressionTree
+        .compileToExpressionTree(String.format("jsonExtractScalar(%s,'$.nested.longVals[0]','LONG')", JSON_SV_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertEquals(transformFunction.getResultMetadata().getDataType(), FieldSpec.DataType.LONG);
+    long[] longValues = transformFunction.transformToLongValuesSV(_projectionBlock);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      Assert.assertEquals(longValues[i], _longSVValues[i]);
+    }
+
+    expression = TransformExpressionTree
+        .compileToExpressionTree(String.format("jsonExtractScalar(%s,'$.stringVal','STRING')", JSON_SV_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    String[] stringValues = transformFunction.transformToStringValuesSV(_projectionBlock);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      Assert.assertEquals(stringValues[i], _stringSVValues[i]);
+    }
+
+    // Missing value with default value
+    expression = TransformExpressionTree.compileToExpressionTree(
+        String.format("jsonExtractScalar(%s,'$.nested.longVals[1]','DOUBLE','-1.5')", JSON_SV_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    double[] doubleValues = transformFunction.transformToDoubleValuesSV(_projectionBlock);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      Assert.assertEquals(doubleValues[i], -1.5);
+    }
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void testMissingValueWithoutDefaultValue() {
+    TransformExpressionTree expression = TransformExpressionTree
+        .compileToExpressionTree(String.format("jsonExtractScalar(%s,'$.missing','INT')", JSON_SV_COLUMN));
+    TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    transformFunction.transformToIntValuesSV(_projectionBlock);
+  }
+
+  @Test
+  public void testParseJsonPath() {
+    Assert.assertEquals(JsonExtractScalarTransformFunction.parseJsonPath("$"), new Object[0]);
+    Assert.assertEquals(JsonExtractScalarTransformFunction.parseJsonPath("$.a.b[0][12].c"),
+        new Object[]{"a", "b", 0, 12, "c"});
+  }
+
+  @Test(dataProvider = "testIllegalArguments", expectedExceptions = {BadQueryRequestException.class})
+  public void testIllegalArguments(String expressionStr) {
+    TransformExpressionTree expression = TransformExpressionTree.compileToExpressionTree(expressionStr);
+    TransformFunctionFactory.get(expression, _dataSourceMap);
+  }
+
+  @DataProvider(name = "testIllegalArguments")
+  public Object[][] testIllegalArguments() {
+    return new Object[][]{new Object[]{String.format("jsonExtractScalar(%s,'$.intVal')", JSON_SV_COLUMN)},
+        new Object[]{String.format("jsonExtractScalar(%s,'a.b','INT')", JSON_SV_COLUMN)}, new Object[]{String.format(
+        "jsonExtractScalar(%s,'$.intVal','BYTES')", JSON_SV_COLUMN)}, new Object[]{String.format(
+        "jsonExtractScalar(%s,%s,'INT')", JSON_SV_COLUMN, STRING_SV_COLUMN)}};
+  }
+}
@@ -0,0 +1,116 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.transform.function;
+
+import org.apache.pinot.common.data.FieldSpec;
+import org.apache.pinot.common.request.transform.TransformExpressionTree;
+import org.apache.pinot.core.query.exception.BadQueryRequestException;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class SingleParamMathTransformFunctionTest extends BaseTransformFunctionTest {
+
+  @Test
+  public void testIntegralKernel() {
+    TransformExpressionTree expression =
+        TransformExpressionTree.compileToExpressionTree(String.format("abs(%s)", LONG_SV_COLUMN));
+    TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof SingleParamMathTransformFunction.AbsTransformFunction);
+    Assert.assertEquals(transformFunction.getResultMetadata().getDataType(), FieldSpec.DataType.LONG);
+    long[] longValues = transformFunction.transformToLongValuesSV(_projectionBlock);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      Assert.assertEquals(longValues[i], Math.abs(_longSVValues[i]));
+    }
+
+    expression = TransformExpressionTree.compileToExpressionTree(String.format("floor(%s)", INT_SV_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertEquals(transformFunction.getResultMetadata().getDataType(), FieldSpec.DataType.LONG);
+    longValues = transformFunction.transformToLongValuesSV(_projectionBlock);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      Assert.assertEquals(longValues[i], _intSVValues[i]);
+    }
+  }
+
+  @Test
+  public void testFloatingPointKernel() {
+    TransformExpressionTree expression =
+        TransformExpressionTree.compileToExpressionTree(String.format("abs(%s)", STRING_SV_COLUMN));
+    TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertEquals(transformFunction.getResultMetadata().getDataType(), FieldSpec.DataType.DOUBLE);
+    double[] expectedValues = new double[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = Math.abs(Double.parseDouble(_stringSVValues[i]));
+    }
+    testTransformFunction(transformFunction, expectedValues);
+
+    expression = TransformExpressionTree.compileToExpressionTree(String.format("ceil(%s)", DOUBLE_SV_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof SingleParamMathTransformFunction.CeilTransformFunction);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = Math.ceil(_doubleSVValues[i]);
+    }
+    testTransformFunction(transformFunction, expectedValues);
+
+    expression = TransformExpressionTree.compileToExpressionTree(String.format("floor(%s)", FLOAT_SV_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = Math.floor(_floatSVValues[i]);
+    }
+    testTransformFunction(transformFunction, expectedValues);
+
+    expression = TransformExpressionTree.compileToExpressionTree(String.format("exp(%s)", DOUBLE_SV_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof SingleParamMathTransformFunction.ExpTransformFunction);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = Math.exp(_doubleSVValues[i]);
+    }
+    testTransformFunction(transformFunction, expectedValues);
+
+    expression = TransformExpressionTree.compileToExpressionTree(String.format("ln(%s)", DOUBLE_SV_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = Math.log(_doubleSVValues[i]);
+    }
+    testTransformFunction(transformFunction, expectedValues);
+
+    // Integral argument with floating point kernel
+    expression = TransformExpressionTree.compileToExpressionTree(String.format("sqrt(abs(%s))", INT_SV_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof SingleParamMathTransformFunction.SqrtTransformFunction);
+    Assert.assertEquals(transformFunction.getResultMetadata().getDataType(), FieldSpec.DataType.DOUBLE);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = Math.sqrt(Math.abs((long) _intSVValues[i]));
+    }
+    testTransformFunction(transformFunction, expectedValues);
+  }
+
+  @Test(dataProvider = "testIllegalArguments", expectedExceptions = {BadQueryRequestException.class})
+  public void testIllegalArguments(String expressionStr) {
+    TransformExpressionTree expression = TransformExpressionTree.compileToExpressionTree(expressionStr);
+    TransformFunctionFactory.get(expression, _dataSourceMap);
+  }
+
+  @DataProvider(name = "testIllegalArguments")
+  public Object[][] testIllegalArguments() {
+    return new Object[][]{new Object[]{String.format("abs(%s,%s)", INT_SV_COLUMN, LONG_SV_COLUMN)}, new Object[]{
+        String.format("sqrt(%s)", INT_MV_COLUMN)}};
+  }
+}
@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.transform.function;
+
+import org.apache.pinot.common.data.FieldSpec;
+import org.apache.pinot.common.request.transform.TransformExpressionTree;
+import org.apache.pinot.core.query.exception.BadQueryRequestException;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class StringTransformFunctionTest extends BaseTransformFunctionTest {
+
+  @Test
+  public void testConcatTransformFunction() {
+    TransformExpressionTree expression = TransformExpressionTree
+        .compileToExpressionTree(String.format("concat(%s,'-',%s)", STRING_SV_COLUMN, INT_SV_COLUMN));
+    TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof ConcatTransformFunction);
+    Assert.assertEquals(transformFunction.getName(), ConcatTransformFunction.FUNCTION_NAME);
+    Assert.assertEquals(transformFunction.getResultMetadata().getDataType(), FieldSpec.DataType.STRING);
+    String[] expectedValues = new String[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = _stringSVValues[i] + "-" + _intSVValues[i];
+    }
+    testStringTransformFunction(transformFunction, expectedValues);
+  }
+
+  @Test
+  public void testSubstrTransformFunction() {
+    TransformExpressionTree expression =
+        TransformExpressionTree.compileToExpressionTree(String.format("substr(%s,2)", STRING_SV_COLUMN));
+    TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof SubstrTransformFunction);
+    String[] expectedValues = new String[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = _stringSVValues[i].substring(2);
+    }
+    testStringTransformFunction(transformFunction, expectedValues);
+
+    // End index larger than the length of the values
+    expression = TransformExpressionTree.compileToExpressionTree(String.format("substr(%s,1,100)", STRING_SV_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = _stringSVValues[i].substring(1);
+    }
+    testStringTransformFunction(transformFunction, expectedValues);
+
+    expression = TransformExpressionTree.compileToExpressionTree(String.format("substr(%s,0,3)", STRING_SV_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = _stringSVValues[i].substring(0, 3);
+    }
+    testStringTransformFunction(transformFunction, expectedValues);
+  }
+
+  @Test
+  public void testSingleParamStringTransformFunctions() {
+    TransformExpressionTree expression = TransformExpressionTree
+        .compileToExpressionTree(String.format("upper(concat('a',%s,' '))", STRING_SV_COLUMN));
+    TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof SingleParamStringTransformFunction.UpperTransformFunction);
+    String[] expectedValues = new String[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = ("a" + _stringSVValues[i] + " ").toUpperCase();
+    }
+    testStringTransformFunction(transformFunction, expectedValues);
+
+    expression = TransformExpressionTree
+        .compileToExpressionTree(String.format("trim(lower(concat('A',%s,' ')))", STRING_SV_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof SingleParamStringTransformFunction.TrimTransformFunction);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = ("A" + _stringSVValues[i]).toLowerCase();
+    }
+    testStringTransformFunction(transformFunction, expectedValues);
+  }
+
+  @Test
+  public void testLengthTransformFunction() {
+    TransformExpressionTree expression =
+        TransformExpressionTree.compileToExpressionTree(String.format("length(%s)", STRING_SV_COLUMN));
+    TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof LengthTransformFunction);
+    Assert.assertEquals(transformFunction.getResultMetadata().getDataType(), FieldSpec.DataType.INT);
+    int[] intValues = transformFunction.transformToIntValuesSV(_projectionBlock);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      Assert.assertEquals(intValues[i], _stringSVValues[i].length());
+    }
+  }
+
+  private void testStringTransformFunction(TransformFunction transformFunction, String[] expectedValues) {
+    String[] stringValues = transformFunction.transformToStringValuesSV(_projectionBlock);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      Assert.assertEquals(stringValues[i], expectedValues[i]);
+    }
+  }
+
+  @Test(dataProvider = "testIllegalArguments", expectedExceptions = {BadQueryRequestException.class})
+  public void testIllegalArguments(String expressionStr) {
+    TransformExpressionTree expression = TransformExpressionTree.compileToExpressionTree(expressionStr);
+    TransformFunctionFactory.get(expression, _dataSourceMap);
+  }
+
+  @DataProvider(name = "testIllegalArguments")
+  public Object[][] testIllegalArguments() {
+    return new Object[][]{new Object[]{String.format("concat(%s)", STRING_SV_COLUMN)}, new Object[]{String.format(
+        "substr(%s,%s)", STRING_SV_COLUMN, INT_SV_COLUMN)}, new Object[]{String.format("substr(%s,3,2)",
+        STRING_SV_COLUMN)}, new Object[]{String.format("upper(%s)", INT_MV_COLUMN)}};
+  }
+}
@@ -0,0 +1,122 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.transform.function;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import org.apache.pinot.common.data.FieldSpec;
+import org.apache.pinot.common.request.transform.TransformExpressionTree;
+import org.apache.pinot.core.operator.DocIdSetOperator;
+import org.apache.pinot.core.operator.ProjectionOperator;
+import org.apache.pinot.core.operator.blocks.ProjectionBlock;
+import org.apache.pinot.core.operator.filter.MatchAllFilterOperator;
+import org.apache.pinot.core.plan.DocIdSetPlanNode;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class TransformFunctionFactoryTest extends BaseTransformFunctionTest {
+
+  @Test
+  public void testConstantFolding() {
+    // All literal arguments
+    TransformExpressionTree expression = TransformExpressionTree.compileToExpressionTree("add(mult(2,3),sqrt(16))");
+    TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof LiteralTransformFunction);
+    Assert.assertEquals(((LiteralTransformFunction) transformFunction).getLiteral(), "10.0");
+    Assert.assertEquals(transformFunction.getResultMetadata().getDataType(), FieldSpec.DataType.DOUBLE);
+    double[] expectedValues = new double[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = 10.0;
+    }
+    testTransformFunction(transformFunction, expectedValues);
+
+    expression = TransformExpressionTree.compileToExpressionTree("mod(abs(-17),5)");
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof LiteralTransformFunction);
+    Assert.assertEquals(((LiteralTransformFunction) transformFunction).getLiteral(), "2");
+    Assert.assertEquals(transformFunction.getResultMetadata().getDataType(), FieldSpec.DataType.LONG);
+
+    expression = TransformExpressionTree.compileToExpressionTree("upper(concat('a','b'))");
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof LiteralTransformFunction);
+    Assert.assertEquals(((LiteralTransformFunction) transformFunction).getLiteral(), "AB");
+
+    // Partially folded
+    expression =
+        TransformExpressionTree.compileToExpressionTree(String.format("add(mult(2,3),%s)", DOUBLE_SV_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof AdditionTransformFunction);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = 6.0 + _doubleSVValues[i];
+    }
+    testTransformFunction(transformFunction, expectedValues);
+  }
+
+  @Test
+  public void testCommonSubExpressionElimination() {
+    TransformExpressionTree divExpression = TransformExpressionTree
+        .compileToExpressionTree(String.format("div(%s,%s)", DOUBLE_SV_COLUMN, INT_SV_COLUMN));
+    TransformExpressionTree addExpression = TransformExpressionTree
+        .compileToExpressionTree(String.format("add(div(%s,%s),1)", DOUBLE_SV_COLUMN, INT_SV_COLUMN));
+    TransformExpressionTree multExpression = TransformExpressionTree.compileToExpressionTree(
+        String.format("mult(add(div(%s,%s),1),%s)", DOUBLE_SV_COLUMN, INT_SV_COLUMN, LONG_SV_COLUMN));
+    Map<TransformExpressionTree, TransformFunction> transformFunctionMap = TransformFunctionFactory
+        .get(Arrays.asList(divExpression, addExpression, multExpression), _dataSourceMap);
+    Assert.assertEquals(transformFunctionMap.size(), 3);
+
+    // Top-level expressions are cached
+    TransformFunction divTransformFunction = transformFunctionMap.get(divExpression);
+    Assert.assertTrue(divTransformFunction instanceof CachingTransformFunction);
+    Assert.assertTrue(
+        ((CachingTransformFunction) divTransformFunction).getTransformFunction() instanceof DivisionTransformFunction);
+    Assert.assertEquals(divTransformFunction.getName(), DivisionTransformFunction.FUNCTION_NAME);
+    Assert.assertSame(divTransformFunction.transformToDoubleValuesSV(_projectionBlock),
+        divTransformFunction.transformToDoubleValuesSV(_projectionBlock));
+
+    double[] expectedDivValues = new double[NUM_ROWS];
+    double[] expectedAddValues = new double[NUM_ROWS];
+    double[] expectedMultValues = new double[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedDivValues[i] = _doubleSVValues[i] / (double) _intSVValues[i];
+      expectedAddValues[i] = expectedDivValues[i] + 1;
+      expectedMultValues[i] = expectedAddValues[i] * (double) _longSVValues[i];
+    }
+    testTransformFunction(transformFunctionMap.get(multExpression), expectedMultValues);
+    testTransformFunction(transformFunctionMap.get(addExpression), expectedAddValues);
+    testTransformFunction(divTransformFunction, expectedDivValues);
+
+    // Results are re-computed for a new block
+    ProjectionBlock projectionBlock = new ProjectionOperator(_dataSourceMap,
+        new DocIdSetOperator(new MatchAllFilterOperator(NUM_ROWS), DocIdSetPlanNode.MAX_DOC_PER_CALL)).nextBlock();
+    double[] divValues = divTransformFunction.transformToDoubleValuesSV(projectionBlock);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      Assert.assertEquals(divValues[i], expectedDivValues[i]);
+    }
+
+    // Sub-expressions with a single consumer are not wrapped
+    TransformExpressionTree subExpression = TransformExpressionTree
+        .compileToExpressionTree(String.format("sub(div(%s,%s),1)", DOUBLE_SV_COLUMN, INT_SV_COLUMN));
+    transformFunctionMap = TransformFunctionFactory.get(Collections.singletonList(subExpression), _dataSourceMap);
+    Assert.assertTrue(transformFunctionMap.get(subExpression) instanceof CachingTransformFunction);
+    TransformFunction transformFunction = TransformFunctionFactory.get(subExpression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof SubtractionTransformFunction);
+  }
+}
@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.plan;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.apache.pinot.common.data.FieldSpec.DataType;
+import org.apache.pinot.core.common.DataSource;
+import org.apache.pinot.core.common.DataSourceMetadata;
+import org.apache.pinot.core.indexsegment.IndexSegment;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+public class DocIdSetPlanNodeTest {
+
+  @Test
+  public void testGetMaxDocPerCall() {
+    IndexSegment indexSegment = mock(IndexSegment.class);
+    Set<String> columns = new HashSet<>();
+    for (int i = 0; i < 100; i++) {
+      String column = "longColumn" + i;
+      mockColumn(indexSegment, column, DataType.LONG, true, true, 0);
+      columns.add(column);
+    }
+    mockColumn(indexSegment, "intColumn", DataType.INT, false, true, 0);
+    mockColumn(indexSegment, "stringMVColumn", DataType.STRING, true, false, 10);
+
+    // Narrow projection
+    Assert.assertEquals(
+        DocIdSetPlanNode.getMaxDocPerCall(indexSegment, Collections.singleton("intColumn"), null),
+        DocIdSetPlanNode.MAX_DOC_PER_CALL);
+    Assert.assertEquals(DocIdSetPlanNode.getMaxDocPerCall(indexSegment, Collections.emptySet(), null),
+        DocIdSetPlanNode.MAX_DOC_PER_CALL);
+
+    // Wide projection: 100 dictionary-encoded LONG columns take 1200 bytes per document
+    Assert.assertEquals(DocIdSetPlanNode.getMaxDocPerCall(indexSegment, columns, null),
+        Math.max(DocIdSetPlanNode.TARGET_BLOCK_SIZE_IN_BYTES / 1200, DocIdSetPlanNode.MIN_DOC_PER_CALL));
+
+    // Multi-valued column: 10 dictionary-encoded STRING values take 360 bytes per document
+    Assert.assertEquals(
+        DocIdSetPlanNode.getMaxDocPerCall(indexSegment, Collections.singleton("stringMVColumn"), null),
+        DocIdSetPlanNode.TARGET_BLOCK_SIZE_IN_BYTES / 360);
+
+    // Disabled in debug options
+    Map<String, String> debugOptions = new HashMap<>();
+    debugOptions.put(DocIdSetPlanNode.USE_ADAPTIVE_BLOCK_SIZE, "false");
+    Assert.assertEquals(DocIdSetPlanNode.getMaxDocPerCall(indexSegment, columns, debugOptions),
+        DocIdSetPlanNode.MAX_DOC_PER_CALL);
+  }
+
+  private static void mockColumn(IndexSegment indexSegment, String column, DataType dataType, boolean hasDictionary,
+      boolean isSingleValue, int maxNumMultiValues) {
+    DataSourceMetadata dataSourceMetadata = mock(DataSourceMetadata.class);
+    when(dataSourceMetadata.getDataType()).thenReturn(dataType);
+    when(dataSourceMetadata.hasDictionary()).thenReturn(hasDictionary);
+    when(dataSourceMetadata.isSingleValue()).thenReturn(isSingleValue);
+    when(dataSourceMetadata.getMaxNumMultiValues()).thenReturn(maxNumMultiValues);
+    DataSource dataSource = mock(DataSource.class);
+    when(dataSource.getDataSourceMetadata()).thenReturn(dataSourceMetadata);
+    when(indexSegment.getDataSource(column)).thenReturn(dataSource);
+  }
+}
@@ -0,0 +1,143 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.reduce;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.roaringbitmap.RoaringBitmap;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+
+public class DistinctCountGroupByReducerTest {
+  private static final long RANDOM_SEED = System.currentTimeMillis();
+  private static final Random RANDOM = new Random(RANDOM_SEED);
+  private static final String ERROR_MESSAGE = "Random seed: " + RANDOM_SEED;
+
+  private static final int NUM_SERVERS = 20;
+  private static final String LARGE_GROUP = "large";
+  private static final int NUM_VALUES_PER_LARGE_BITMAP = 5000;
+  private static final int LARGE_VALUE_RANGE = 50000;
+  private static final int NUM_SMALL_GROUPS = 10;
+  private static final int NUM_VALUES_PER_SMALL_BITMAP = 5;
+  private static final int SMALL_VALUE_RANGE = 20;
+  // Large enough for a HyperLogLog and the small groups, but not for the large group
+  private static final long MEMORY_BUDGET_BYTES = 4096;
+
+  // One map from group key to bitmap per server
+  private final Map<String, RoaringBitmap>[] _serverResults = new Map[NUM_SERVERS];
+  private final Map<String, Integer> _expectedDistinctCounts = new HashMap<>();
+
+  @BeforeClass
+  public void setUp() {
+    Map<String, Set<Integer>> expectedValues = new HashMap<>();
+    for (int i = 0; i < NUM_SERVERS; i++) {
+      Map<String, RoaringBitmap> serverResult = new HashMap<>();
+      serverResult.put(LARGE_GROUP, getRandomBitmap(NUM_VALUES_PER_LARGE_BITMAP, LARGE_VALUE_RANGE, LARGE_GROUP,
+          expectedValues));
+      for (int j = 0; j < NUM_SMALL_GROUPS; j++) {
+        String groupKey = "small" + j;
+        serverResult.put(groupKey, getRandomBitmap(NUM_VALUES_PER_SMALL_BITMAP, SMALL_VALUE_RANGE, groupKey,
+            expectedValues));
+      }
+      _serverResults[i] = serverResult;
+    }
+    for (Map.Entry<String, Set<Integer>> entry : expectedValues.entrySet()) {
+      _expectedDistinctCounts.put(entry.getKey(), entry.getValue().size());
+    }
+  }
+
+  private static RoaringBitmap getRandomBitmap(int numValues, int valueRange, String groupKey,
+      Map<String, Set<Integer>> expectedValues) {
+    Set<Integer> groupValues = expectedValues.computeIfAbsent(groupKey, k -> new HashSet<>());
+    RoaringBitmap bitmap = new RoaringBitmap();
+    for (int i = 0; i < numValues; i++) {
+      // Cover both positive and negative values, which are stored in unsigned order
+      int value = RANDOM.nextInt(valueRange) - valueRange / 2;
+      bitmap.add(value);
+      groupValues.add(value);
+    }
+    return bitmap;
+  }
+
+  @Test
+  public void testInMemory() {
+    DistinctCountGroupByReducer reducer = new DistinctCountGroupByReducer(Long.MAX_VALUE, false);
+    for (Map<String, RoaringBitmap> serverResult : _serverResults) {
+      for (Map.Entry<String, RoaringBitmap> entry : serverResult.entrySet()) {
+        assertTrue(reducer.add(entry.getKey(), entry.getValue().clone()), ERROR_MESSAGE);
+      }
+    }
+    assertEquals(reducer.getNumApproximateGroups(), 0, ERROR_MESSAGE);
+    assertEquals(reducer.getDistinctCounts(), _expectedDistinctCounts, ERROR_MESSAGE);
+  }
+
+  @Test
+  public void testApproximation() {
+    DistinctCountGroupByReducer reducer = new DistinctCountGroupByReducer(MEMORY_BUDGET_BYTES, true);
+    for (Map<String, RoaringBitmap> serverResult : _serverResults) {
+      for (Map.Entry<String, RoaringBitmap> entry : serverResult.entrySet()) {
+        assertTrue(reducer.add(entry.getKey(), entry.getValue().clone()), ERROR_MESSAGE);
+      }
+    }
+    assertTrue(reducer.getSizeInBytes() <= MEMORY_BUDGET_BYTES, ERROR_MESSAGE);
+
+    // Only the large group should be approximated
+    assertEquals(reducer.getNumApproximateGroups(), 1, ERROR_MESSAGE);
+    Map<String, Comparable> distinctCounts = reducer.getDistinctCounts();
+    assertEquals(distinctCounts.size(), _expectedDistinctCounts.size(), ERROR_MESSAGE);
+    for (Map.Entry<String, Integer> entry : _expectedDistinctCounts.entrySet()) {
+      String groupKey = entry.getKey();
+      int expectedDistinctCount = entry.getValue();
+      int distinctCount = (Integer) distinctCounts.get(groupKey);
+      if (groupKey.equals(LARGE_GROUP)) {
+        // Allow 10% error (about 6 times the standard error)
+        assertEquals(distinctCount, expectedDistinctCount, expectedDistinctCount * 0.1, ERROR_MESSAGE);
+      } else {
+        assertEquals(distinctCount, expectedDistinctCount, ERROR_MESSAGE);
+      }
+    }
+  }
+
+  @Test
+  public void testMemoryBudgetExceeded() {
+    DistinctCountGroupByReducer reducer = new DistinctCountGroupByReducer(MEMORY_BUDGET_BYTES, false);
+    boolean withinMemoryBudget = true;
+    for (Map<String, RoaringBitmap> serverResult : _serverResults) {
+      for (Map.Entry<String, RoaringBitmap> entry : serverResult.entrySet()) {
+        withinMemoryBudget = reducer.add(entry.getKey(), entry.getValue().clone());
+        if (!withinMemoryBudget) {
+          break;
+        }
+      }
+      if (!withinMemoryBudget) {
+        break;
+      }
+    }
+    assertFalse(withinMemoryBudget, ERROR_MESSAGE);
+    assertEquals(reducer.getNumApproximateGroups(), 0, ERROR_MESSAGE);
+  }
+}
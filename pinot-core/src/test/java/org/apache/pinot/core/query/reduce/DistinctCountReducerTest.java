@@ -0,0 +1,132 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.reduce;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.core.query.aggregation.function.DistinctCountAggregationFunction;
+import org.roaringbitmap.RoaringBitmap;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+
+public class DistinctCountReducerTest {
+  private static final File SPILL_DIR = new File(FileUtils.getTempDirectory(), "DistinctCountReducerTest");
+  private static final long RANDOM_SEED = System.currentTimeMillis();
+  private static final Random RANDOM = new Random(RANDOM_SEED);
+  private static final String ERROR_MESSAGE = "Random seed: " + RANDOM_SEED;
+
+  private static final int NUM_BITMAPS = 20;
+  private static final int NUM_VALUES_PER_BITMAP = 5000;
+  // Small value range so that the bitmaps overlap
+  private static final int VALUE_RANGE = 50000;
+
+  private final RoaringBitmap[] _bitmaps = new RoaringBitmap[NUM_BITMAPS];
+  private int _expectedDistinctCount;
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteDirectory(SPILL_DIR);
+    FileUtils.forceMkdir(SPILL_DIR);
+
+    Set<Integer> expectedValues = new HashSet<>();
+    for (int i = 0; i < NUM_BITMAPS; i++) {
+      RoaringBitmap bitmap = new RoaringBitmap();
+      for (int j = 0; j < NUM_VALUES_PER_BITMAP; j++) {
+        // Cover both positive and negative values, which are stored in unsigned order
+        int value = RANDOM.nextInt(VALUE_RANGE) - VALUE_RANGE / 2;
+        bitmap.add(value);
+        expectedValues.add(value);
+      }
+      _bitmaps[i] = bitmap;
+    }
+    _expectedDistinctCount = expectedValues.size();
+  }
+
+  @Test
+  public void testInMemory()
+      throws Exception {
+    try (DistinctCountReducer reducer = new DistinctCountReducer(Long.MAX_VALUE, SPILL_DIR, false)) {
+      for (RoaringBitmap bitmap : _bitmaps) {
+        reducer.add(bitmap.clone());
+      }
+      assertEquals(reducer.getNumSpills(), 0, ERROR_MESSAGE);
+      assertFalse(reducer.isApproximate(), ERROR_MESSAGE);
+      assertEquals(reducer.getDistinctCount(), _expectedDistinctCount, ERROR_MESSAGE);
+    }
+  }
+
+  @Test
+  public void testSpill()
+      throws Exception {
+    try (DistinctCountReducer reducer = new DistinctCountReducer(1024, SPILL_DIR, false)) {
+      for (RoaringBitmap bitmap : _bitmaps) {
+        reducer.add(bitmap.clone());
+      }
+      assertTrue(reducer.getNumSpills() > 1, ERROR_MESSAGE);
+      assertFalse(reducer.isApproximate(), ERROR_MESSAGE);
+      assertEquals(reducer.getDistinctCount(), _expectedDistinctCount, ERROR_MESSAGE);
+    }
+    // Spill files should be deleted on close
+    assertEquals(SPILL_DIR.list().length, 0, ERROR_MESSAGE);
+  }
+
+  @Test
+  public void testApproximation()
+      throws Exception {
+    try (DistinctCountReducer reducer = new DistinctCountReducer(1024, SPILL_DIR, true)) {
+      for (RoaringBitmap bitmap : _bitmaps) {
+        reducer.add(bitmap.clone());
+      }
+      assertEquals(reducer.getNumSpills(), 0, ERROR_MESSAGE);
+      assertTrue(reducer.isApproximate(), ERROR_MESSAGE);
+      // Allow 10% error (about 6 times the standard error)
+      assertEquals(reducer.getDistinctCount(), _expectedDistinctCount, _expectedDistinctCount * 0.1, ERROR_MESSAGE);
+    }
+  }
+
+  @Test
+  public void testValueSetIntermediateResults()
+      throws Exception {
+    // Servers that do not support the bitmap intermediate result send value sets
+    try (DistinctCountReducer reducer = new DistinctCountReducer(Long.MAX_VALUE, SPILL_DIR, false)) {
+      for (int i = 0; i < NUM_BITMAPS; i++) {
+        Object intermediateResult =
+            i % 2 == 0 ? DistinctCountAggregationFunction.convertToValueSet(_bitmaps[i]) : _bitmaps[i].clone();
+        reducer.add(DistinctCountAggregationFunction.convertToValueBitmap(intermediateResult));
+      }
+      assertEquals(reducer.getDistinctCount(), _expectedDistinctCount, ERROR_MESSAGE);
+    }
+  }
+
+  @AfterClass
+  public void tearDown()
+      throws Exception {
+    FileUtils.deleteDirectory(SPILL_DIR);
+  }
+}
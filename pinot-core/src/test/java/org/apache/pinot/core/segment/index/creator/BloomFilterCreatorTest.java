@@ -20,16 +20,23 @@ package org.apache.pinot.core.segment.index.creator;
 
 import com.google.common.base.Preconditions;
 import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.InputStream;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.pinot.core.bloom.BloomFilter;
 import org.apache.pinot.core.bloom.BloomFilterType;
 import org.apache.pinot.core.bloom.BloomFilterUtil;
 import org.apache.pinot.core.bloom.GuavaOnHeapBloomFilter;
+import org.apache.pinot.core.bloom.OffHeapBlockedBloomFilter;
+import org.apache.pinot.core.bloom.SegmentBloomFilterFactory;
 import org.apache.pinot.core.segment.creator.impl.V1Constants;
 import org.apache.pinot.core.segment.creator.impl.bloom.BloomFilterCreator;
+import org.apache.pinot.core.segment.index.readers.BloomFilterReader;
+import org.apache.pinot.core.segment.memory.PinotDataBuffer;
 import org.testng.Assert;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.Test;
@@ -90,15 +97,40 @@ public class BloomFilterCreatorTest {
     }
     bloomFilterCreator.close();
 
-    // Deserialize the bloom filter and validate
+    // Bloom filter type should be GUAVA_ON_HEAP by default so that the segments can be read by all the components
     File bloomFilterFile = new File(bloomFilterDir, columnName + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION);
+    validateBloomFilter(bloomFilterFile, BloomFilterType.GUAVA_ON_HEAP);
+  }
+
+  @Test
+  public void testOffHeapBlockedBloomFilterCreator()
+      throws Exception {
+    // Create bloom filter directory
+    File bloomFilterDir = new File(TEMP_DIR, "offHeapBlockedBloomFilterDir");
+    bloomFilterDir.mkdirs();
 
+    // Create a bloom filter with the configured type and serialize it to a file
+    int cardinality = 10000;
+    String columnName = "testColumn";
+    BloomFilterCreator bloomFilterCreator =
+        new BloomFilterCreator(bloomFilterDir, columnName, cardinality, BloomFilterType.OFF_HEAP_BLOCKED);
+    for (int i = 0; i < 5; i++) {
+      bloomFilterCreator.add(Integer.toString(i));
+    }
+    bloomFilterCreator.close();
+
+    File bloomFilterFile = new File(bloomFilterDir, columnName + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION);
+    validateBloomFilter(bloomFilterFile, BloomFilterType.OFF_HEAP_BLOCKED);
+  }
+
+  private void validateBloomFilter(File bloomFilterFile, BloomFilterType expectedType)
+      throws Exception {
+    // Deserialize the bloom filter and validate
     try (DataInputStream in = new DataInputStream(new FileInputStream(bloomFilterFile))) {
       BloomFilterType type = BloomFilterType.valueOf(in.readInt());
       int version = in.readInt();
-      GuavaOnHeapBloomFilter bloomFilter = new GuavaOnHeapBloomFilter();
-
-      Assert.assertEquals(type, bloomFilter.getBloomFilterType());
+      Assert.assertEquals(type, expectedType);
+      BloomFilter bloomFilter = SegmentBloomFilterFactory.createSegmentBloomFilter(type);
       Assert.assertEquals(version, bloomFilter.getVersion());
 
       bloomFilter.readFrom(in);
@@ -109,6 +141,66 @@ public class BloomFilterCreatorTest {
         Assert.assertFalse(bloomFilter.mightContain(Integer.toString(j)));
       }
     }
+
+    // Load the bloom filter from the data buffer and validate
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(bloomFilterFile)) {
+      BloomFilterReader bloomFilterReader = new BloomFilterReader(dataBuffer);
+      for (int i = 0; i < 5; i++) {
+        Assert.assertTrue(bloomFilterReader.mightContain(i));
+      }
+      for (int j = 5; j < 10; j++) {
+        Assert.assertFalse(bloomFilterReader.mightContain(j));
+      }
+    }
+
+    // Bloom filter from the serialized bytes should give the same results
+    BloomFilterReader bloomFilterReader = new BloomFilterReader(FileUtils.readFileToByteArray(bloomFilterFile));
+    for (int i = 0; i < 5; i++) {
+      Assert.assertTrue(bloomFilterReader.mightContain(i));
+    }
+  }
+
+  @Test
+  public void testGuavaOnHeapBloomFilterReader()
+      throws Exception {
+    File bloomFilterFile = new File(TEMP_DIR, "guavaOnHeapBloomFilter");
+    FileUtils.forceMkdir(TEMP_DIR);
+    GuavaOnHeapBloomFilter bloomFilter = new GuavaOnHeapBloomFilter(100, 0.05);
+    for (int i = 0; i < 5; i++) {
+      bloomFilter.add(Integer.toString(i));
+    }
+    try (DataOutputStream outputStream = new DataOutputStream(new FileOutputStream(bloomFilterFile))) {
+      outputStream.writeInt(bloomFilter.getBloomFilterType().getValue());
+      outputStream.writeInt(bloomFilter.getVersion());
+      bloomFilter.writeTo(outputStream);
+    }
+
+    // Bloom filters of the existing segments should still be readable
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(bloomFilterFile)) {
+      BloomFilterReader bloomFilterReader = new BloomFilterReader(dataBuffer);
+      for (int i = 0; i < 5; i++) {
+        Assert.assertTrue(bloomFilterReader.mightContain(i));
+      }
+    }
+  }
+
+  @Test
+  public void testOffHeapBlockedBloomFilterFalsePositiveRate() {
+    int cardinality = 100000;
+    double maxFalsePosProbability = 0.05;
+    OffHeapBlockedBloomFilter bloomFilter = new OffHeapBlockedBloomFilter(cardinality, maxFalsePosProbability);
+    for (int i = 0; i < cardinality; i++) {
+      bloomFilter.add(Integer.toString(i));
+    }
+    int numFalsePositives = 0;
+    for (int i = 0; i < cardinality; i++) {
+      Assert.assertTrue(bloomFilter.mightContain(Integer.toString(i)));
+      if (bloomFilter.mightContain(Integer.toString(cardinality + i))) {
+        numFalsePositives++;
+      }
+    }
+    // Blocked bloom filter has slightly higher false positive rate than the standard one with the same number of bits
+    Assert.assertTrue(numFalsePositives < cardinality * maxFalsePosProbability * 1.5, "" + numFalsePositives);
   }
 
   @Test
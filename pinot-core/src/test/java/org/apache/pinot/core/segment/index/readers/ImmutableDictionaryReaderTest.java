@@ -40,6 +40,8 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 
 public class ImmutableDictionaryReaderTest {
@@ -50,6 +52,7 @@ public class ImmutableDictionaryReaderTest {
   private static final String FLOAT_COLUMN_NAME = "floatColumn";
   private static final String DOUBLE_COLUMN_NAME = "doubleColumn";
   private static final String STRING_COLUMN_NAME = "stringColumn";
+  private static final String FRONT_CODED_STRING_COLUMN_NAME = "frontCodedStringColumn";
   private static final String BYTES_COLUMN_NAME = "bytesColumn";
   private static final int NUM_VALUES = 1000;
   private static final int MAX_STRING_LENGTH = 100;
@@ -60,6 +63,7 @@ public class ImmutableDictionaryReaderTest {
   private float[] _floatValues;
   private double[] _doubleValues;
   private String[] _stringValues;
+  private String[] _frontCodedStringValues;
   private ByteArray[] _bytesValues;
 
   private int _numBytesPerStringValue;
@@ -104,6 +108,17 @@ public class ImmutableDictionaryReaderTest {
     _stringValues = stringSet.toArray(new String[NUM_VALUES]);
     Arrays.sort(_stringValues);
 
+    // Values with shared prefixes and skewed lengths
+    Set<String> frontCodedStringSet = new HashSet<>();
+    frontCodedStringSet.add("");
+    frontCodedStringSet.add(RandomStringUtils.randomAlphanumeric(10 * MAX_STRING_LENGTH));
+    while (frontCodedStringSet.size() < NUM_VALUES) {
+      String prefix = RANDOM.nextBoolean() ? "http://www.example.com/" : "\u00e9t\u00e9/";
+      frontCodedStringSet.add(prefix + RandomStringUtils.randomAlphanumeric(RANDOM.nextInt(MAX_STRING_LENGTH / 10)));
+    }
+    _frontCodedStringValues = frontCodedStringSet.toArray(new String[NUM_VALUES]);
+    Arrays.sort(_frontCodedStringValues);
+
     Set<ByteArray> bytesSet = new HashSet<>();
     while (bytesSet.size() < NUM_VALUES) {
       byte[] bytes = new byte[BYTES_LENGTH];
@@ -139,6 +154,12 @@ public class ImmutableDictionaryReaderTest {
       _numBytesPerStringValue = dictionaryCreator.getNumBytesPerEntry();
     }
 
+    try (SegmentDictionaryCreator dictionaryCreator = new SegmentDictionaryCreator(_frontCodedStringValues,
+        new DimensionFieldSpec(FRONT_CODED_STRING_COLUMN_NAME, FieldSpec.DataType.STRING, true), TEMP_DIR, true)) {
+      dictionaryCreator.build();
+      assertTrue(dictionaryCreator.isFrontCoded());
+    }
+
     try (SegmentDictionaryCreator dictionaryCreator = new SegmentDictionaryCreator(_bytesValues,
         new DimensionFieldSpec(BYTES_COLUMN_NAME, FieldSpec.DataType.BYTES, true), TEMP_DIR)) {
       dictionaryCreator.build();
@@ -267,6 +288,47 @@ public class ImmutableDictionaryReaderTest {
     }
   }
 
+  @Test
+  public void testFrontCodedStringDictionary()
+      throws Exception {
+    try (FrontCodedStringDictionary stringDictionary = new FrontCodedStringDictionary(PinotDataBuffer
+        .mapReadOnlyBigEndianFile(
+            new File(TEMP_DIR, FRONT_CODED_STRING_COLUMN_NAME + V1Constants.Dict.FILE_EXTENSION)), NUM_VALUES)) {
+      int[] dictIds = new int[NUM_VALUES];
+      for (int i = 0; i < NUM_VALUES; i++) {
+        String value = _frontCodedStringValues[i];
+        assertEquals(stringDictionary.get(i), value);
+        assertEquals(stringDictionary.getStringValue(i), value);
+        assertEquals(stringDictionary.indexOf(value), i);
+        dictIds[i] = NUM_VALUES - 1 - i;
+
+        // Values sharing prefix with the dictionary values
+        for (String valueToSearch : new String[]{value + "0", value + "z", value.substring(0, value.length() / 2)}) {
+          assertEquals(stringDictionary.insertionIndexOf(valueToSearch),
+              Arrays.binarySearch(_frontCodedStringValues, valueToSearch));
+        }
+        String randomString = RandomStringUtils.randomAlphanumeric(RANDOM.nextInt(MAX_STRING_LENGTH));
+        assertEquals(stringDictionary.insertionIndexOf(randomString),
+            Arrays.binarySearch(_frontCodedStringValues, randomString));
+      }
+
+      String[] values = new String[NUM_VALUES];
+      stringDictionary.readStringValues(dictIds, 0, NUM_VALUES, values, 0);
+      for (int i = 0; i < NUM_VALUES; i++) {
+        assertEquals(values[i], _frontCodedStringValues[dictIds[i]]);
+      }
+    }
+
+    // Front-coded dictionary should not be created when the values are not sorted by the UTF-8 bytes
+    String[] values = new String[]{"", "\ud83d\ude00", "\uffff", RandomStringUtils.randomAlphanumeric(MAX_STRING_LENGTH)};
+    Arrays.sort(values);
+    try (SegmentDictionaryCreator dictionaryCreator = new SegmentDictionaryCreator(values,
+        new DimensionFieldSpec("unsortedBytesColumn", FieldSpec.DataType.STRING, true), TEMP_DIR, true)) {
+      dictionaryCreator.build();
+      assertFalse(dictionaryCreator.isFrontCoded());
+    }
+  }
+
   @Test
   public void testBytesDictionary()
       throws Exception {
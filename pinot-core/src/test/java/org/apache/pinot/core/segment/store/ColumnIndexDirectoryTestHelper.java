@@ -57,6 +57,12 @@ public class ColumnIndexDirectoryTestHelper {
       case BLOOM_FILTER:
         buf = columnDirectory.newBloomFilterBuffer(columnName, size);
         break;
+      case RANGE_INDEX:
+        buf = columnDirectory.newRangeIndexBuffer(columnName, size);
+        break;
+      case TEXT_INDEX:
+        buf = columnDirectory.newTextIndexBuffer(columnName, size);
+        break;
     }
     return buf;
   }
@@ -80,6 +86,12 @@ public class ColumnIndexDirectoryTestHelper {
       case BLOOM_FILTER:
         buf = columnDirectory.getBloomFilterBufferFor(columnName);
         break;
+      case RANGE_INDEX:
+        buf = columnDirectory.getRangeIndexBufferFor(columnName);
+        break;
+      case TEXT_INDEX:
+        buf = columnDirectory.getTextIndexBufferFor(columnName);
+        break;
     }
     return buf;
   }
@@ -143,6 +155,20 @@ public class ColumnIndexDirectoryTestHelper {
         return invocationOnMock.getArguments()[0] + ".bloom";
       }
     });
+    when(meta.getBitmapRangeIndexFileName(anyString())).thenAnswer(new Answer<String>() {
+      @Override
+      public String answer(InvocationOnMock invocationOnMock)
+          throws Throwable {
+        return invocationOnMock.getArguments()[0] + ".range";
+      }
+    });
+    when(meta.getNgramTextIndexFileName(anyString())).thenAnswer(new Answer<String>() {
+      @Override
+      public String answer(InvocationOnMock invocationOnMock)
+          throws Throwable {
+        return invocationOnMock.getArguments()[0] + ".text";
+      }
+    });
     return meta;
   }
 }
@@ -21,6 +21,7 @@ package org.apache.pinot.core.transport;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.pinot.common.metrics.BrokerMetrics;
 import org.apache.pinot.common.request.BrokerRequest;
 import org.apache.pinot.common.utils.CommonConstants.Helix.TableType;
@@ -38,6 +39,9 @@ public class QueryRouterTest {
   private static final String SERVER_INSTANCE_NAME = "Server_localhost_" + TEST_PORT;
   private static final Server OFFLINE_SERVER = new Server(SERVER_INSTANCE_NAME, TableType.OFFLINE);
   private static final Server REALTIME_SERVER = new Server(SERVER_INSTANCE_NAME, TableType.REALTIME);
+  private static final int BACKUP_TEST_PORT = 12346;
+  private static final Server BACKUP_OFFLINE_SERVER =
+      new Server("Server_localhost_" + BACKUP_TEST_PORT, TableType.OFFLINE);
   private static final BrokerRequest BROKER_REQUEST = new BrokerRequest();
   private static final Map<String, List<String>> ROUTING_TABLE =
       Collections.singletonMap(SERVER_INSTANCE_NAME, Collections.emptyList());
@@ -223,6 +227,176 @@ public class QueryRouterTest {
     Assert.assertTrue(System.currentTimeMillis() - startTimeMs < 1000);
   }
 
+  @Test
+  public void testHedgedRequest()
+      throws Exception {
+    long requestId = 123;
+    DataTable dataTable = new DataTableImplV2();
+    dataTable.getMetadata().put(DataTable.REQUEST_ID_METADATA_KEY, Long.toString(requestId));
+    byte[] responseBytes = dataTable.toBytes();
+    // The first hedged request id generated by a new query router is -1
+    DataTable hedgedDataTable = new DataTableImplV2();
+    hedgedDataTable.getMetadata().put(DataTable.REQUEST_ID_METADATA_KEY, "-1");
+    byte[] hedgedResponseBytes = hedgedDataTable.toBytes();
+
+    // Start a slow primary server and a fast backup server
+    DummyServer dummyServer = new DummyServer(TEST_PORT, 2_000L, responseBytes);
+    Thread thread = new Thread(dummyServer);
+    thread.start();
+    DummyServer backupDummyServer = new DummyServer(BACKUP_TEST_PORT, 0L, hedgedResponseBytes);
+    Thread backupThread = new Thread(backupDummyServer);
+    backupThread.start();
+    while (!dummyServer.isReady() || !backupDummyServer.isReady()) {
+      Thread.sleep(100L);
+    }
+
+    QueryRouter queryRouter = new QueryRouter("testBroker", Mockito.mock(BrokerMetrics.class));
+    TestHedgedRequestListener hedgedRequestListener = new TestHedgedRequestListener();
+    try {
+      long startTimeMs = System.currentTimeMillis();
+      AsyncQueryResponse asyncQueryResponse = queryRouter
+          .submitQuery(requestId, "testTable", BROKER_REQUEST, ROUTING_TABLE, null, null, 3_000L,
+              Collections.singletonMap(OFFLINE_SERVER, new HedgedRequest(BACKUP_OFFLINE_SERVER, 100L)),
+              hedgedRequestListener);
+      Map<Server, ServerResponse> response = asyncQueryResponse.getResponse();
+      Assert.assertEquals(response.size(), 1);
+      Assert.assertTrue(response.containsKey(OFFLINE_SERVER));
+      ServerResponse serverResponse = response.get(OFFLINE_SERVER);
+      Assert.assertNotNull(serverResponse.getDataTable());
+      Assert.assertEquals(serverResponse.getRespondingServer(), BACKUP_OFFLINE_SERVER);
+      Assert.assertEquals(serverResponse.getResponseSize(), hedgedResponseBytes.length);
+      Assert.assertEquals(asyncQueryResponse.getNumHedgedRequests(), 1);
+      // Query should finish with the response from the backup server without waiting for the primary server
+      Assert.assertTrue(System.currentTimeMillis() - startTimeMs < 1000);
+      // The hedged request should be tracked on the backup server
+      Assert.assertEquals(hedgedRequestListener._numSent.get(), 1);
+      Assert.assertEquals(hedgedRequestListener._numCompleted.get(), 1);
+      Assert.assertEquals(hedgedRequestListener._backupServer, BACKUP_OFFLINE_SERVER);
+    } finally {
+      queryRouter.shutDown();
+    }
+
+    // Shut down the servers
+    dummyServer.shutDown();
+    thread.join();
+    backupDummyServer.shutDown();
+    backupThread.join();
+  }
+
+  @Test
+  public void testPrimaryServerDownWithPendingHedgedRequest()
+      throws Exception {
+    long requestId = 123;
+    DataTable dataTable = new DataTableImplV2();
+    dataTable.getMetadata().put(DataTable.REQUEST_ID_METADATA_KEY, Long.toString(requestId));
+    byte[] responseBytes = dataTable.toBytes();
+    // The first hedged request id generated by a new query router is -1
+    DataTable hedgedDataTable = new DataTableImplV2();
+    hedgedDataTable.getMetadata().put(DataTable.REQUEST_ID_METADATA_KEY, "-1");
+    byte[] hedgedResponseBytes = hedgedDataTable.toBytes();
+
+    // Start a slow primary server and a fast backup server
+    DummyServer dummyServer = new DummyServer(TEST_PORT, 2_000L, responseBytes);
+    Thread thread = new Thread(dummyServer);
+    thread.start();
+    DummyServer backupDummyServer = new DummyServer(BACKUP_TEST_PORT, 0L, hedgedResponseBytes);
+    Thread backupThread = new Thread(backupDummyServer);
+    backupThread.start();
+    while (!dummyServer.isReady() || !backupDummyServer.isReady()) {
+      Thread.sleep(100L);
+    }
+
+    QueryRouter queryRouter = new QueryRouter("testBroker", Mockito.mock(BrokerMetrics.class));
+    try {
+      AsyncQueryResponse asyncQueryResponse = queryRouter
+          .submitQuery(requestId, "testTable", BROKER_REQUEST, ROUTING_TABLE, null, null, 3_000L,
+              Collections.singletonMap(OFFLINE_SERVER, new HedgedRequest(BACKUP_OFFLINE_SERVER, 500L)), null);
+
+      // Shut down the primary server before the hedged request is sent, query should not fail
+      dummyServer.shutDown();
+      thread.join();
+
+      Map<Server, ServerResponse> response = asyncQueryResponse.getResponse();
+      ServerResponse serverResponse = response.get(OFFLINE_SERVER);
+      Assert.assertNotNull(serverResponse.getDataTable());
+      Assert.assertEquals(serverResponse.getRespondingServer(), BACKUP_OFFLINE_SERVER);
+    } finally {
+      queryRouter.shutDown();
+    }
+
+    backupDummyServer.shutDown();
+    backupThread.join();
+  }
+
+  @Test
+  public void testBackupServerDownWithInFlightHedgedRequest()
+      throws Exception {
+    long requestId = 123;
+    DataTable dataTable = new DataTableImplV2();
+    dataTable.getMetadata().put(DataTable.REQUEST_ID_METADATA_KEY, Long.toString(requestId));
+    byte[] responseBytes = dataTable.toBytes();
+    // Use a non-matching request id so that the backup server never answers the hedged request
+    DataTable hedgedDataTable = new DataTableImplV2();
+    hedgedDataTable.getMetadata().put(DataTable.REQUEST_ID_METADATA_KEY, "-2");
+    byte[] hedgedResponseBytes = hedgedDataTable.toBytes();
+
+    // Start a slow primary server and a backup server that goes down after receiving the hedged request
+    DummyServer dummyServer = new DummyServer(TEST_PORT, 1_500L, responseBytes);
+    Thread thread = new Thread(dummyServer);
+    thread.start();
+    DummyServer backupDummyServer = new DummyServer(BACKUP_TEST_PORT, 300L, hedgedResponseBytes);
+    Thread backupThread = new Thread(backupDummyServer);
+    backupThread.start();
+    while (!dummyServer.isReady() || !backupDummyServer.isReady()) {
+      Thread.sleep(100L);
+    }
+
+    QueryRouter queryRouter = new QueryRouter("testBroker", Mockito.mock(BrokerMetrics.class));
+    TestHedgedRequestListener hedgedRequestListener = new TestHedgedRequestListener();
+    try {
+      AsyncQueryResponse asyncQueryResponse = queryRouter
+          .submitQuery(requestId, "testTable", BROKER_REQUEST, ROUTING_TABLE, null, null, 3_000L,
+              Collections.singletonMap(OFFLINE_SERVER, new HedgedRequest(BACKUP_OFFLINE_SERVER, 100L)),
+              hedgedRequestListener);
+
+      // Shut down the backup server after the hedged request is sent, the query should still take the response from
+      // the primary server
+      while (hedgedRequestListener._numSent.get() == 0) {
+        Thread.sleep(10L);
+      }
+      backupDummyServer.shutDown();
+      backupThread.join();
+
+      Map<Server, ServerResponse> response = asyncQueryResponse.getResponse();
+      ServerResponse serverResponse = response.get(OFFLINE_SERVER);
+      Assert.assertNotNull(serverResponse.getDataTable());
+      Assert.assertEquals(serverResponse.getRespondingServer(), OFFLINE_SERVER);
+      Assert.assertEquals(hedgedRequestListener._numCompleted.get(), 1);
+    } finally {
+      queryRouter.shutDown();
+    }
+
+    dummyServer.shutDown();
+    thread.join();
+  }
+
+  private static class TestHedgedRequestListener implements HedgedRequestListener {
+    final AtomicInteger _numSent = new AtomicInteger();
+    final AtomicInteger _numCompleted = new AtomicInteger();
+    volatile Server _backupServer;
+
+    @Override
+    public void onHedgedRequestSent(Server backupServer) {
+      _numSent.incrementAndGet();
+      _backupServer = backupServer;
+    }
+
+    @Override
+    public void onHedgedRequestCompleted(Server backupServer, long latencyMs) {
+      _numCompleted.incrementAndGet();
+    }
+  }
+
   @AfterClass
   public void tearDown() {
     _queryRouter.shutDown();
@@ -56,12 +56,16 @@ public class FixedByteChunkSingleValueReaderWriteTest {
   @Test
   public void testWithCompression()
       throws Exception {
-    ChunkCompressorFactory.CompressionType compressionType = ChunkCompressorFactory.CompressionType.SNAPPY;
-    testInt(compressionType);
-    testLong(compressionType);
-    testFloat(compressionType);
-    testDouble(compressionType);
-    testBytes(compressionType);
+    for (ChunkCompressorFactory.CompressionType compressionType : new ChunkCompressorFactory.CompressionType[]{
+        ChunkCompressorFactory.CompressionType.SNAPPY, ChunkCompressorFactory.CompressionType.LZ4,
+        ChunkCompressorFactory.CompressionType.DEFLATE
+    }) {
+      testInt(compressionType);
+      testLong(compressionType);
+      testFloat(compressionType);
+      testDouble(compressionType);
+      testBytes(compressionType);
+    }
   }
 
   @Test
@@ -0,0 +1,312 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.queries;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.data.DimensionFieldSpec;
+import org.apache.pinot.common.data.FieldSpec.DataType;
+import org.apache.pinot.common.data.Schema;
+import org.apache.pinot.common.response.broker.AggregationResult;
+import org.apache.pinot.common.response.broker.BrokerResponseNative;
+import org.apache.pinot.common.response.broker.GroupByResult;
+import org.apache.pinot.common.segment.ReadMode;
+import org.apache.pinot.core.data.GenericRow;
+import org.apache.pinot.core.data.manager.SegmentDataManager;
+import org.apache.pinot.core.data.manager.offline.ImmutableSegmentDataManager;
+import org.apache.pinot.core.data.readers.GenericRowRecordReader;
+import org.apache.pinot.core.data.readers.RecordReader;
+import org.apache.pinot.core.indexsegment.IndexSegment;
+import org.apache.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegment;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegmentLoader;
+import org.apache.pinot.core.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+
+/**
+ * Tests for DISTINCTCOUNT and DISTINCTCOUNTMV aggregation functions.
+ *
+ * <ul>
+ *   <li>
+ *     Generates multiple segments with different random values for dictionary-encoded and raw single-value columns,
+ *     and multi-value columns
+ *   </li>
+ *   <li>Runs aggregation and group-by (on single-value and multi-value columns) queries across the segments</li>
+ *   <li>Compares the results with the distinct counts computed by brute force</li>
+ * </ul>
+ * <p>The count is exact for INT and FLOAT columns. For LONG, DOUBLE and STRING columns, the values are counted by their
+ * 32-bit hashes, so the expected count is the number of distinct value hashes.
+ */
+public class DistinctCountQueriesTest extends BaseQueriesTest {
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "DistinctCountQueriesTest");
+  private static final String TABLE_NAME = "testTable";
+  private static final String SEGMENT_NAME_PREFIX = "testSegment_";
+
+  private static final int NUM_SEGMENTS = 3;
+  private static final int NUM_ROWS_PER_SEGMENT = 1000;
+  private static final String INT_COLUMN = "intColumn";
+  private static final String LONG_COLUMN = "longColumn";
+  private static final String FLOAT_COLUMN = "floatColumn";
+  private static final String DOUBLE_COLUMN = "doubleColumn";
+  private static final String STRING_COLUMN = "stringColumn";
+  private static final String RAW_INT_COLUMN = "rawIntColumn";
+  private static final String RAW_STRING_COLUMN = "rawStringColumn";
+  private static final String INT_MV_COLUMN = "intMVColumn";
+  private static final String STRING_MV_COLUMN = "stringMVColumn";
+  private static final String GROUP_BY_COLUMN = "groupByColumn";
+  private static final String GROUP_BY_MV_COLUMN = "groupByMVColumn";
+  private static final String[] SV_COLUMNS =
+      {INT_COLUMN, LONG_COLUMN, FLOAT_COLUMN, DOUBLE_COLUMN, STRING_COLUMN, RAW_INT_COLUMN, RAW_STRING_COLUMN};
+  private static final String[] MV_COLUMNS = {INT_MV_COLUMN, STRING_MV_COLUMN};
+  private static final String[] GROUPS = {"G0", "G1", "G2", "G3", "G4"};
+  private static final String DISTINCT_COUNT_BITMAP_OPTION = " OPTION(distinctCountBitmap=true)";
+  private static final long RANDOM_SEED = System.nanoTime();
+  private static final Random RANDOM = new Random(RANDOM_SEED);
+  private static final String ERROR_MESSAGE = "Random seed: " + RANDOM_SEED;
+
+  private final List<Map<String, Object>> _rows = new ArrayList<>(NUM_SEGMENTS * NUM_ROWS_PER_SEGMENT);
+  private final List<ImmutableSegment> _indexSegments = new ArrayList<>(NUM_SEGMENTS);
+  private List<SegmentDataManager> _segmentDataManagers;
+
+  @Override
+  protected String getFilter() {
+    return " WHERE " + INT_COLUMN + " < 500";
+  }
+
+  @Override
+  protected IndexSegment getIndexSegment() {
+    return _indexSegments.get(0);
+  }
+
+  @Override
+  protected List<SegmentDataManager> getSegmentDataManagers() {
+    return _segmentDataManagers;
+  }
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteQuietly(INDEX_DIR);
+
+    Schema schema = new Schema();
+    schema.addField(new DimensionFieldSpec(INT_COLUMN, DataType.INT, true));
+    schema.addField(new DimensionFieldSpec(LONG_COLUMN, DataType.LONG, true));
+    schema.addField(new DimensionFieldSpec(FLOAT_COLUMN, DataType.FLOAT, true));
+    schema.addField(new DimensionFieldSpec(DOUBLE_COLUMN, DataType.DOUBLE, true));
+    schema.addField(new DimensionFieldSpec(STRING_COLUMN, DataType.STRING, true));
+    schema.addField(new DimensionFieldSpec(RAW_INT_COLUMN, DataType.INT, true));
+    schema.addField(new DimensionFieldSpec(RAW_STRING_COLUMN, DataType.STRING, true));
+    schema.addField(new DimensionFieldSpec(INT_MV_COLUMN, DataType.INT, false));
+    schema.addField(new DimensionFieldSpec(STRING_MV_COLUMN, DataType.STRING, false));
+    schema.addField(new DimensionFieldSpec(GROUP_BY_COLUMN, DataType.STRING, true));
+    schema.addField(new DimensionFieldSpec(GROUP_BY_MV_COLUMN, DataType.STRING, false));
+
+    List<SegmentDataManager> segmentDataManagers = new ArrayList<>(NUM_SEGMENTS);
+    for (int i = 0; i < NUM_SEGMENTS; i++) {
+      String segmentName = SEGMENT_NAME_PREFIX + i;
+      buildSegment(schema, segmentName);
+      ImmutableSegment indexSegment = ImmutableSegmentLoader.load(new File(INDEX_DIR, segmentName), ReadMode.mmap);
+      _indexSegments.add(indexSegment);
+      segmentDataManagers.add(new ImmutableSegmentDataManager(indexSegment));
+    }
+    _segmentDataManagers = segmentDataManagers;
+  }
+
+  private void buildSegment(Schema schema, String segmentName)
+      throws Exception {
+    List<GenericRow> rows = new ArrayList<>(NUM_ROWS_PER_SEGMENT);
+    for (int i = 0; i < NUM_ROWS_PER_SEGMENT; i++) {
+      // Values are drawn from ranges larger than a segment so that the segments overlap partially
+      Map<String, Object> valueMap = new HashMap<>();
+      valueMap.put(INT_COLUMN, RANDOM.nextInt(1000));
+      valueMap.put(LONG_COLUMN, RANDOM.nextInt(1000) * 1_000_000_007L);
+      valueMap.put(FLOAT_COLUMN, RANDOM.nextInt(1000) / 8f);
+      valueMap.put(DOUBLE_COLUMN, RANDOM.nextInt(1000) / 3.0);
+      valueMap.put(STRING_COLUMN, "s" + RANDOM.nextInt(1000));
+      valueMap.put(RAW_INT_COLUMN, RANDOM.nextInt(1000) - 500);
+      valueMap.put(RAW_STRING_COLUMN, "r" + RANDOM.nextInt(1000));
+      valueMap.put(INT_MV_COLUMN, getRandomValues(() -> RANDOM.nextInt(1000)));
+      valueMap.put(STRING_MV_COLUMN, getRandomValues(() -> "m" + RANDOM.nextInt(1000)));
+      valueMap.put(GROUP_BY_COLUMN, GROUPS[RANDOM.nextInt(GROUPS.length)]);
+      valueMap.put(GROUP_BY_MV_COLUMN, getRandomValues(() -> GROUPS[RANDOM.nextInt(GROUPS.length)]));
+      _rows.add(valueMap);
+
+      GenericRow genericRow = new GenericRow();
+      genericRow.init(new HashMap<>(valueMap));
+      rows.add(genericRow);
+    }
+
+    SegmentGeneratorConfig config = new SegmentGeneratorConfig(schema);
+    config.setOutDir(INDEX_DIR.getPath());
+    config.setTableName(TABLE_NAME);
+    config.setSegmentName(segmentName);
+    config.setRawIndexCreationColumns(Arrays.asList(RAW_INT_COLUMN, RAW_STRING_COLUMN));
+
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    try (RecordReader recordReader = new GenericRowRecordReader(rows, schema)) {
+      driver.init(config, recordReader);
+      driver.build();
+    }
+  }
+
+  /**
+   * Returns 1 to 3 distinct random values.
+   */
+  private static Object[] getRandomValues(ValueGenerator valueGenerator) {
+    int numValues = 1 + RANDOM.nextInt(3);
+    Set<Object> values = new HashSet<>();
+    while (values.size() < numValues) {
+      values.add(valueGenerator.next());
+    }
+    return values.toArray();
+  }
+
+  private interface ValueGenerator {
+    Object next();
+  }
+
+  @Test
+  public void testAggregation() {
+    for (String option : new String[]{"", DISTINCT_COUNT_BITMAP_OPTION}) {
+      for (boolean withFilter : new boolean[]{false, true}) {
+        String query = "SELECT " + getAggregations() + " FROM " + TABLE_NAME + (withFilter ? getFilter() : "") + option;
+        BrokerResponseNative brokerResponse = getBrokerResponseForQuery(query);
+        List<AggregationResult> aggregationResults = brokerResponse.getAggregationResults();
+        List<Map<String, Object>> rows = getRows(withFilter);
+        int numColumns = SV_COLUMNS.length + MV_COLUMNS.length;
+        Assert.assertEquals(aggregationResults.size(), numColumns);
+        for (int i = 0; i < numColumns; i++) {
+          String column = getColumn(i);
+          Assert.assertEquals(getCount(aggregationResults.get(i).getValue()), getExpectedCount(rows, column),
+              ERROR_MESSAGE + ", query: " + query + ", column: " + column);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testGroupBy() {
+    for (String groupByColumn : new String[]{GROUP_BY_COLUMN, GROUP_BY_MV_COLUMN}) {
+      for (String option : new String[]{"", DISTINCT_COUNT_BITMAP_OPTION}) {
+        for (boolean withFilter : new boolean[]{false, true}) {
+          String query = "SELECT " + getAggregations() + " FROM " + TABLE_NAME + (withFilter ? getFilter() : "")
+              + " GROUP BY " + groupByColumn + " TOP " + GROUPS.length + option;
+          BrokerResponseNative brokerResponse = getBrokerResponseForQuery(query);
+          List<AggregationResult> aggregationResults = brokerResponse.getAggregationResults();
+          List<Map<String, Object>> rows = getRows(withFilter);
+          int numColumns = SV_COLUMNS.length + MV_COLUMNS.length;
+          Assert.assertEquals(aggregationResults.size(), numColumns);
+          for (int i = 0; i < numColumns; i++) {
+            String column = getColumn(i);
+            List<GroupByResult> groupByResults = aggregationResults.get(i).getGroupByResult();
+            Assert.assertEquals(groupByResults.size(), GROUPS.length, ERROR_MESSAGE + ", query: " + query);
+            for (GroupByResult groupByResult : groupByResults) {
+              String group = groupByResult.getGroup().get(0);
+              List<Map<String, Object>> groupRows = new ArrayList<>();
+              for (Map<String, Object> row : rows) {
+                if (getValues(row.get(groupByColumn)).contains(group)) {
+                  groupRows.add(row);
+                }
+              }
+              Assert.assertEquals(getCount(groupByResult.getValue()), getExpectedCount(groupRows, column),
+                  ERROR_MESSAGE + ", query: " + query + ", column: " + column + ", group: " + group);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private static String getAggregations() {
+    StringBuilder stringBuilder = new StringBuilder();
+    for (String column : SV_COLUMNS) {
+      stringBuilder.append("DISTINCTCOUNT(").append(column).append("), ");
+    }
+    for (String column : MV_COLUMNS) {
+      stringBuilder.append("DISTINCTCOUNTMV(").append(column).append("), ");
+    }
+    return stringBuilder.substring(0, stringBuilder.length() - 2);
+  }
+
+  private static String getColumn(int index) {
+    return index < SV_COLUMNS.length ? SV_COLUMNS[index] : MV_COLUMNS[index - SV_COLUMNS.length];
+  }
+
+  private List<Map<String, Object>> getRows(boolean withFilter) {
+    if (!withFilter) {
+      return _rows;
+    }
+    List<Map<String, Object>> rows = new ArrayList<>();
+    for (Map<String, Object> row : _rows) {
+      if ((Integer) row.get(INT_COLUMN) < 500) {
+        rows.add(row);
+      }
+    }
+    return rows;
+  }
+
+  private static int getCount(Object value) {
+    return (int) Double.parseDouble(value.toString());
+  }
+
+  /**
+   * Returns the distinct count of the column values computed by brute force. INT and FLOAT values are counted exactly,
+   * and the other values are counted by their 32-bit hashes.
+   */
+  private static int getExpectedCount(List<Map<String, Object>> rows, String column) {
+    Set<Object> distinctValues = new HashSet<>();
+    for (Map<String, Object> row : rows) {
+      for (Object value : getValues(row.get(column))) {
+        if (value instanceof Integer || value instanceof Float) {
+          distinctValues.add(value);
+        } else {
+          distinctValues.add(value.hashCode());
+        }
+      }
+    }
+    return distinctValues.size();
+  }
+
+  private static List<Object> getValues(Object value) {
+    if (value instanceof Object[]) {
+      return Arrays.asList((Object[]) value);
+    }
+    return Arrays.asList(value);
+  }
+
+  @AfterClass
+  public void tearDown() {
+    for (ImmutableSegment indexSegment : _indexSegments) {
+      indexSegment.destroy();
+    }
+    FileUtils.deleteQuietly(INDEX_DIR);
+  }
+}
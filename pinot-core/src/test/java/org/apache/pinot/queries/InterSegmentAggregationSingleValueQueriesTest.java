@@ -182,6 +182,29 @@ public class InterSegmentAggregationSingleValueQueriesTest extends BaseSingleVal
         new String[]{"1272", "3289"});
   }
 
+  @Test
+  public void testDistinctCountBitmap() {
+    // Servers send the intermediate results as bitmaps instead of value sets when the broker announces support
+    String query = "SELECT DISTINCTCOUNT(column1), DISTINCTCOUNT(column3) FROM testTable";
+    String option = " OPTION(distinctCountBitmap=true)";
+
+    BrokerResponseNative brokerResponse = getBrokerResponseForQuery(query + option);
+    QueriesTestUtils.testInterSegmentAggregationResult(brokerResponse, 120000L, 0L, 240000L, 120000L,
+        new String[]{"6582", "21910"});
+
+    brokerResponse = getBrokerResponseForQuery(query + getFilter() + option);
+    QueriesTestUtils.testInterSegmentAggregationResult(brokerResponse, 24516L, 336536L, 49032L, 120000L,
+        new String[]{"1872", "4556"});
+
+    brokerResponse = getBrokerResponseForQuery(query + GROUP_BY + option);
+    QueriesTestUtils.testInterSegmentAggregationResult(brokerResponse, 120000L, 0L, 360000L, 120000L,
+        new String[]{"3495", "11961"});
+
+    brokerResponse = getBrokerResponseForQuery(query + getFilter() + GROUP_BY + option);
+    QueriesTestUtils.testInterSegmentAggregationResult(brokerResponse, 24516L, 336536L, 73548L, 120000L,
+        new String[]{"1272", "3289"});
+  }
+
   @Test
   public void testDistinctCountHLL() {
     String query = "SELECT DISTINCTCOUNTHLL(column1), DISTINCTCOUNTHLL(column3) FROM testTable";
@@ -0,0 +1,333 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.queries;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.data.DimensionFieldSpec;
+import org.apache.pinot.common.data.FieldSpec.DataType;
+import org.apache.pinot.common.data.Schema;
+import org.apache.pinot.common.response.broker.BrokerResponseNative;
+import org.apache.pinot.common.response.broker.SelectionResults;
+import org.apache.pinot.common.segment.ReadMode;
+import org.apache.pinot.core.data.GenericRow;
+import org.apache.pinot.core.data.manager.SegmentDataManager;
+import org.apache.pinot.core.data.manager.offline.ImmutableSegmentDataManager;
+import org.apache.pinot.core.data.readers.GenericRowRecordReader;
+import org.apache.pinot.core.data.readers.RecordReader;
+import org.apache.pinot.core.indexsegment.IndexSegment;
+import org.apache.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegment;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegmentLoader;
+import org.apache.pinot.core.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+
+/**
+ * Tests for selection queries with <code>ORDER BY</code>.
+ *
+ * <ul>
+ *   <li>Generates multiple segments with different random values for single-value and multi-value columns</li>
+ *   <li>Runs selection ORDER BY queries across the segments with multiple sort columns in mixed order</li>
+ *   <li>Compares the results with the rows sorted by brute force, including the offset and limit</li>
+ * </ul>
+ * <p>The unique id column is always the last sort column so that the expected order is deterministic. Multi-value sort
+ * columns are not compared, the same as the selection rows comparators.
+ */
+public class SelectionOrderByQueriesTest extends BaseQueriesTest {
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "SelectionOrderByQueriesTest");
+  private static final String TABLE_NAME = "testTable";
+  private static final String SEGMENT_NAME_PREFIX = "testSegment_";
+
+  private static final int NUM_SEGMENTS = 3;
+  private static final int NUM_ROWS_PER_SEGMENT = 500;
+  // Each data table is reduced twice on the broker side (see BaseQueriesTest)
+  private static final int NUM_SERVERS = 2;
+  private static final String ID_COLUMN = "idColumn";
+  private static final String INT_COLUMN = "intColumn";
+  private static final String LONG_COLUMN = "longColumn";
+  private static final String FLOAT_COLUMN = "floatColumn";
+  private static final String DOUBLE_COLUMN = "doubleColumn";
+  private static final String STRING_COLUMN = "stringColumn";
+  private static final String RAW_STRING_COLUMN = "rawStringColumn";
+  private static final String INT_MV_COLUMN = "intMVColumn";
+  private static final String STRING_MV_COLUMN = "stringMVColumn";
+  private static final String SELECTION =
+      String.join(", ", ID_COLUMN, INT_COLUMN, STRING_COLUMN, INT_MV_COLUMN, STRING_MV_COLUMN);
+  private static final String PRESERVE_TYPE_OPTION = " OPTION(preserveType=true)";
+  private static final long RANDOM_SEED = System.nanoTime();
+  private static final Random RANDOM = new Random(RANDOM_SEED);
+  private static final String ERROR_MESSAGE = "Random seed: " + RANDOM_SEED;
+
+  private final List<Map<String, Object>> _rows = new ArrayList<>(NUM_SEGMENTS * NUM_ROWS_PER_SEGMENT);
+  private final List<ImmutableSegment> _indexSegments = new ArrayList<>(NUM_SEGMENTS);
+  private List<SegmentDataManager> _segmentDataManagers;
+
+  @Override
+  protected String getFilter() {
+    return " WHERE " + INT_COLUMN + " < 5";
+  }
+
+  @Override
+  protected IndexSegment getIndexSegment() {
+    return _indexSegments.get(0);
+  }
+
+  @Override
+  protected List<SegmentDataManager> getSegmentDataManagers() {
+    return _segmentDataManagers;
+  }
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteQuietly(INDEX_DIR);
+
+    Schema schema = new Schema();
+    schema.addField(new DimensionFieldSpec(ID_COLUMN, DataType.INT, true));
+    schema.addField(new DimensionFieldSpec(INT_COLUMN, DataType.INT, true));
+    schema.addField(new DimensionFieldSpec(LONG_COLUMN, DataType.LONG, true));
+    schema.addField(new DimensionFieldSpec(FLOAT_COLUMN, DataType.FLOAT, true));
+    schema.addField(new DimensionFieldSpec(DOUBLE_COLUMN, DataType.DOUBLE, true));
+    schema.addField(new DimensionFieldSpec(STRING_COLUMN, DataType.STRING, true));
+    schema.addField(new DimensionFieldSpec(RAW_STRING_COLUMN, DataType.STRING, true));
+    schema.addField(new DimensionFieldSpec(INT_MV_COLUMN, DataType.INT, false));
+    schema.addField(new DimensionFieldSpec(STRING_MV_COLUMN, DataType.STRING, false));
+
+    List<SegmentDataManager> segmentDataManagers = new ArrayList<>(NUM_SEGMENTS);
+    for (int i = 0; i < NUM_SEGMENTS; i++) {
+      String segmentName = SEGMENT_NAME_PREFIX + i;
+      buildSegment(schema, segmentName, i * NUM_ROWS_PER_SEGMENT);
+      ImmutableSegment indexSegment = ImmutableSegmentLoader.load(new File(INDEX_DIR, segmentName), ReadMode.mmap);
+      _indexSegments.add(indexSegment);
+      segmentDataManagers.add(new ImmutableSegmentDataManager(indexSegment));
+    }
+    _segmentDataManagers = segmentDataManagers;
+  }
+
+  private void buildSegment(Schema schema, String segmentName, int startId)
+      throws Exception {
+    List<GenericRow> rows = new ArrayList<>(NUM_ROWS_PER_SEGMENT);
+    for (int i = 0; i < NUM_ROWS_PER_SEGMENT; i++) {
+      Map<String, Object> valueMap = new HashMap<>();
+      valueMap.put(ID_COLUMN, startId + i);
+      valueMap.put(INT_COLUMN, RANDOM.nextInt(10));
+      valueMap.put(LONG_COLUMN, (long) RANDOM.nextInt(100) - 50);
+      valueMap.put(FLOAT_COLUMN, RANDOM.nextInt(20) / 4f);
+      valueMap.put(DOUBLE_COLUMN, RANDOM.nextInt(20) / 2.0);
+      valueMap.put(STRING_COLUMN, getRandomString(1));
+      valueMap.put(RAW_STRING_COLUMN, getRandomString(2));
+      int numValues = 1 + RANDOM.nextInt(3);
+      int[] intValues = new int[numValues];
+      String[] stringValues = new String[numValues];
+      for (int j = 0; j < numValues; j++) {
+        intValues[j] = RANDOM.nextInt(100);
+        stringValues[j] = getRandomString(3);
+      }
+      // Multi-value entries are stored in dictionary order
+      Arrays.sort(intValues);
+      Arrays.sort(stringValues);
+      valueMap.put(INT_MV_COLUMN, intValues);
+      valueMap.put(STRING_MV_COLUMN, stringValues);
+      _rows.add(valueMap);
+
+      HashMap<String, Object> fieldMap = new HashMap<>(valueMap);
+      fieldMap.put(INT_MV_COLUMN, Arrays.stream(intValues).boxed().toArray());
+      fieldMap.put(STRING_MV_COLUMN, Arrays.copyOf(stringValues, numValues, Object[].class));
+      GenericRow genericRow = new GenericRow();
+      genericRow.init(fieldMap);
+      rows.add(genericRow);
+    }
+
+    SegmentGeneratorConfig config = new SegmentGeneratorConfig(schema);
+    config.setOutDir(INDEX_DIR.getPath());
+    config.setTableName(TABLE_NAME);
+    config.setSegmentName(segmentName);
+    config.setRawIndexCreationColumns(Collections.singletonList(RAW_STRING_COLUMN));
+
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    try (RecordReader recordReader = new GenericRowRecordReader(rows, schema)) {
+      driver.init(config, recordReader);
+      driver.build();
+    }
+  }
+
+  private static String getRandomString(int length) {
+    char[] chars = new char[length];
+    for (int i = 0; i < length; i++) {
+      chars[i] = (char) ('a' + RANDOM.nextInt(5));
+    }
+    return new String(chars);
+  }
+
+  @Test
+  public void testMultipleSortColumns() {
+    testQuery(SELECTION, new SortColumn[]{
+        new SortColumn(INT_COLUMN, false), new SortColumn(STRING_COLUMN, true), new SortColumn(DOUBLE_COLUMN, false),
+        new SortColumn(ID_COLUMN, true)
+    }, 0, 50, false);
+    testQuery(SELECTION, new SortColumn[]{
+        new SortColumn(LONG_COLUMN, true), new SortColumn(FLOAT_COLUMN, false), new SortColumn(ID_COLUMN, false)
+    }, 0, 10, true);
+  }
+
+  @Test
+  public void testRawSortColumn() {
+    testQuery(SELECTION, new SortColumn[]{
+        new SortColumn(RAW_STRING_COLUMN, false), new SortColumn(INT_COLUMN, true), new SortColumn(ID_COLUMN, true)
+    }, 0, 40, false);
+    testQuery("*", new SortColumn[]{new SortColumn(RAW_STRING_COLUMN, true), new SortColumn(ID_COLUMN, false)}, 7, 25,
+        true);
+  }
+
+  @Test
+  public void testMultiValueSortColumn() {
+    testQuery(SELECTION, new SortColumn[]{
+        new SortColumn(INT_MV_COLUMN, true), new SortColumn(STRING_COLUMN, false), new SortColumn(ID_COLUMN, true)
+    }, 0, 30, false);
+    testQuery(SELECTION, new SortColumn[]{
+        new SortColumn(STRING_MV_COLUMN, false), new SortColumn(INT_COLUMN, true), new SortColumn(ID_COLUMN, false)
+    }, 15, 30, true);
+  }
+
+  @Test
+  public void testOffsetAndLimit() {
+    SortColumn[] sortColumns = new SortColumn[]{
+        new SortColumn(DOUBLE_COLUMN, true), new SortColumn(LONG_COLUMN, false), new SortColumn(ID_COLUMN, true)
+    };
+    testQuery(SELECTION, sortColumns, 20, 30, false);
+    testQuery(SELECTION, sortColumns, 333, 100, true);
+    // Offset close to the end of the results
+    int numRows = NUM_SEGMENTS * NUM_ROWS_PER_SEGMENT * NUM_SERVERS;
+    testQuery(SELECTION, sortColumns, numRows - 10, 100, false);
+    // Offset beyond the end of the results
+    testQuery(SELECTION, sortColumns, numRows, 100, false);
+  }
+
+  /**
+   * Runs the selection ORDER BY query across all the segments, and compares the results with the rows sorted by brute
+   * force.
+   */
+  private void testQuery(String selection, SortColumn[] sortColumns, int offset, int limit, boolean withFilter) {
+    StringBuilder queryBuilder = new StringBuilder("SELECT ").append(selection).append(" FROM ").append(TABLE_NAME);
+    if (withFilter) {
+      queryBuilder.append(getFilter());
+    }
+    queryBuilder.append(" ORDER BY ");
+    for (int i = 0; i < sortColumns.length; i++) {
+      if (i > 0) {
+        queryBuilder.append(", ");
+      }
+      queryBuilder.append(sortColumns[i]._column).append(sortColumns[i]._ascending ? " ASC" : " DESC");
+    }
+    queryBuilder.append(" LIMIT ").append(offset).append(", ").append(limit).append(PRESERVE_TYPE_OPTION);
+    String query = queryBuilder.toString();
+
+    BrokerResponseNative brokerResponse = getBrokerResponseForQuery(query);
+    Assert.assertEquals(brokerResponse.getExceptionsSize(), 0, query);
+    SelectionResults selectionResults = brokerResponse.getSelectionResults();
+    List<String> columns = selectionResults.getColumns();
+    List<Serializable[]> actualRows = selectionResults.getRows();
+
+    Predicate<Map<String, Object>> filter = withFilter ? row -> (Integer) row.get(INT_COLUMN) < 5 : row -> true;
+    List<Map<String, Object>> expectedRows = new ArrayList<>();
+    for (Map<String, Object> row : _rows) {
+      if (filter.test(row)) {
+        for (int i = 0; i < NUM_SERVERS; i++) {
+          expectedRows.add(row);
+        }
+      }
+    }
+    expectedRows.sort(getComparator(sortColumns));
+    expectedRows = expectedRows.subList(Math.min(offset, expectedRows.size()),
+        Math.min(offset + limit, expectedRows.size()));
+
+    String errorMessage = ERROR_MESSAGE + ", query: " + query;
+    Assert.assertEquals(actualRows.size(), expectedRows.size(), errorMessage);
+    for (int i = 0; i < actualRows.size(); i++) {
+      Serializable[] actualRow = actualRows.get(i);
+      Map<String, Object> expectedRow = expectedRows.get(i);
+      Assert.assertEquals(actualRow.length, columns.size(), errorMessage);
+      for (int j = 0; j < columns.size(); j++) {
+        String column = columns.get(j);
+        Assert.assertEquals(toString(actualRow[j]), toString(expectedRow.get(column)),
+            errorMessage + ", row: " + i + ", column: " + column);
+      }
+    }
+  }
+
+  private static Comparator<Map<String, Object>> getComparator(SortColumn[] sortColumns) {
+    return (row1, row2) -> {
+      for (SortColumn sortColumn : sortColumns) {
+        Object value1 = row1.get(sortColumn._column);
+        // Multi-value sort columns are not compared
+        if (!(value1 instanceof Comparable)) {
+          continue;
+        }
+        @SuppressWarnings("unchecked")
+        int result = ((Comparable<Object>) value1).compareTo(row2.get(sortColumn._column));
+        if (result != 0) {
+          return sortColumn._ascending ? result : -result;
+        }
+      }
+      return 0;
+    };
+  }
+
+  private static String toString(Object value) {
+    if (value instanceof int[]) {
+      return Arrays.toString((int[]) value);
+    }
+    if (value instanceof Object[]) {
+      return Arrays.toString((Object[]) value);
+    }
+    return String.valueOf(value);
+  }
+
+  private static class SortColumn {
+    final String _column;
+    final boolean _ascending;
+
+    SortColumn(String column, boolean ascending) {
+      _column = column;
+      _ascending = ascending;
+    }
+  }
+
+  @AfterClass
+  public void tearDown() {
+    for (ImmutableSegment indexSegment : _indexSegments) {
+      indexSegment.destroy();
+    }
+    FileUtils.deleteQuietly(INDEX_DIR);
+  }
+}
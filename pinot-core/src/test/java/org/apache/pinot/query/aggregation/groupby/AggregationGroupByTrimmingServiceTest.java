@@ -18,7 +18,6 @@
  */
 package org.apache.pinot.query.aggregation.groupby;
 
-import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -28,9 +27,11 @@ import java.util.Random;
 import java.util.Set;
 import org.apache.commons.lang.RandomStringUtils;
 import org.apache.pinot.common.response.broker.GroupByResult;
+import org.apache.pinot.core.common.ObjectSerDeUtils;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunctionFactory;
 import org.apache.pinot.core.query.aggregation.groupby.AggregationGroupByTrimmingService;
+import org.roaringbitmap.RoaringBitmap;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
@@ -84,11 +85,11 @@ public class AggregationGroupByTrimmingServiceTest {
     // Test Server side trimming
     Map<String, Object[]> intermediateResultsMap = new HashMap<>(NUM_GROUPS);
     for (int i = 0; i < NUM_GROUPS; i++) {
-      IntOpenHashSet set = new IntOpenHashSet();
+      RoaringBitmap bitmap = new RoaringBitmap();
       for (int j = 0; j <= i; j += NUM_GROUPS / MAX_SIZE_OF_SET) {
-        set.add(j);
+        bitmap.add(j);
       }
-      intermediateResultsMap.put(_groups.get(i), new Object[]{(double) i, set});
+      intermediateResultsMap.put(_groups.get(i), new Object[]{(double) i, bitmap});
     }
     List<Map<String, Object>> trimmedIntermediateResultMaps =
         _trimmingService.trimIntermediateResultsMap(intermediateResultsMap);
@@ -99,14 +100,14 @@ public class AggregationGroupByTrimmingServiceTest {
     for (int i = NUM_GROUPS - trimSize; i < NUM_GROUPS; i++) {
       String group = _groups.get(i);
       Assert.assertEquals(((Double) trimmedSumResultMap.get(group)).intValue(), i, ERROR_MESSAGE);
-      Assert.assertEquals(((IntOpenHashSet) trimmedDistinctCountResultMap.get(group)).size(),
+      Assert.assertEquals(((RoaringBitmap) trimmedDistinctCountResultMap.get(group)).getCardinality(),
           i / (NUM_GROUPS / MAX_SIZE_OF_SET) + 1, ERROR_MESSAGE);
     }
 
     // Test Broker side trimming
     Map<String, Comparable> finalDistinctCountResultMap = new HashMap<>(trimSize);
     for (Map.Entry<String, Object> entry : trimmedDistinctCountResultMap.entrySet()) {
-      finalDistinctCountResultMap.put(entry.getKey(), ((IntOpenHashSet) entry.getValue()).size());
+      finalDistinctCountResultMap.put(entry.getKey(), ((RoaringBitmap) entry.getValue()).getCardinality());
     }
     List[] groupByResultLists =
         _trimmingService.trimFinalResults(new Map[]{trimmedSumResultMap, finalDistinctCountResultMap});
@@ -129,6 +130,66 @@ public class AggregationGroupByTrimmingServiceTest {
     }
   }
 
+  @Test
+  public void testTrimIntermediateResults() {
+    String[] groupKeys = _groups.toArray(new String[NUM_GROUPS]);
+    Object[][] intermediateResults = new Object[2][NUM_GROUPS];
+    Map<String, Object[]> intermediateResultsMap = new HashMap<>(NUM_GROUPS);
+    for (int i = 0; i < NUM_GROUPS; i++) {
+      // Shuffle the values so that the group ids are not in the order of the values
+      int value = (i * 7919) % NUM_GROUPS;
+      RoaringBitmap bitmap = new RoaringBitmap();
+      for (int j = 0; j <= value; j += NUM_GROUPS / MAX_SIZE_OF_SET) {
+        bitmap.add(j);
+      }
+      intermediateResults[0][i] = (double) value;
+      intermediateResults[1][i] = bitmap;
+      intermediateResultsMap.put(groupKeys[i], new Object[]{(double) value, bitmap});
+    }
+
+    int[][] trimmedGroupIds = _trimmingService.trimIntermediateResults(intermediateResults, NUM_GROUPS);
+    Assert.assertNotNull(trimmedGroupIds);
+    List<Map<String, Object>> trimmedIntermediateResultMaps =
+        _trimmingService.trimIntermediateResultsMap(intermediateResultsMap);
+
+    // The groups should be ordered from the best to the worst
+    int[] sumGroupIds = trimmedGroupIds[0];
+    int trimSize = sumGroupIds.length;
+    Assert.assertEquals(trimSize, trimmedIntermediateResultMaps.get(0).size(), ERROR_MESSAGE);
+    for (int i = 0; i < trimSize; i++) {
+      Assert.assertEquals(intermediateResults[0][sumGroupIds[i]], (double) (NUM_GROUPS - 1 - i), ERROR_MESSAGE);
+    }
+
+    // The surviving groups should be the same as the map based trimming
+    Set<String> sumGroups = new HashSet<>(trimSize);
+    for (int groupId : sumGroupIds) {
+      sumGroups.add(groupKeys[groupId]);
+    }
+    Assert.assertTrue(sumGroups.equals(trimmedIntermediateResultMaps.get(0).keySet()), ERROR_MESSAGE);
+
+    // The serialized groups should be de-serializable as a map (random group keys might not survive UTF-8 encoding, so
+    // only check the values)
+    Map<Object, Object> sumResultMap = ObjectSerDeUtils.deserialize(
+        ObjectSerDeUtils.serializeAsMap(groupKeys, intermediateResults[0], trimSize, sumGroupIds),
+        ObjectSerDeUtils.ObjectType.Map);
+    Assert.assertEquals(sumResultMap.size(), trimSize, ERROR_MESSAGE);
+    Assert.assertTrue(
+        new HashSet<>(sumResultMap.values()).equals(new HashSet<>(trimmedIntermediateResultMaps.get(0).values())),
+        ERROR_MESSAGE);
+
+    // For distinctCount, multiple groups have the same value, so just check the values
+    int[] distinctCountGroupIds = trimmedGroupIds[1];
+    Assert.assertEquals(distinctCountGroupIds.length, trimSize, ERROR_MESSAGE);
+    for (int i = 0; i < trimSize; i++) {
+      int expectedValue = NUM_GROUPS - 1 - i;
+      Assert.assertEquals(((RoaringBitmap) intermediateResults[1][distinctCountGroupIds[i]]).getCardinality(),
+          expectedValue / (NUM_GROUPS / MAX_SIZE_OF_SET) + 1, ERROR_MESSAGE);
+    }
+
+    // No trimming below the threshold
+    Assert.assertNull(_trimmingService.trimIntermediateResults(intermediateResults, trimSize));
+  }
+
   private static String buildGroupString(List<String> group) {
     StringBuilder groupStringBuilder = new StringBuilder();
     for (int i = 0; i < NUM_GROUP_KEYS; i++) {
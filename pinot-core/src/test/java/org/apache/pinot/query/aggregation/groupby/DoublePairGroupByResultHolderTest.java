@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.query.aggregation.groupby;
+
+import java.util.Random;
+import org.apache.pinot.core.query.aggregation.groupby.DoublePairGroupByResultHolder;
+import org.apache.pinot.core.query.aggregation.groupby.GroupKeyGenerator;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ * Test for DoublePairGroupByResultHolder class.
+ */
+public class DoublePairGroupByResultHolderTest {
+  private static final long RANDOM_SEED = System.nanoTime();
+  private static final Random RANDOM = new Random(RANDOM_SEED);
+  private static final String ERROR_MESSAGE = "Random seed: " + RANDOM_SEED;
+  private static final int INITIAL_CAPACITY = 100;
+  private static final int MAX_CAPACITY = 1000;
+  private static final int NUM_VALUES = 10000;
+
+  @Test
+  public void testAddValuesForKey() {
+    DoublePairGroupByResultHolder resultHolder =
+        new DoublePairGroupByResultHolder(INITIAL_CAPACITY, MAX_CAPACITY, 0.0, 0.0);
+    double[] expectedSums = new double[MAX_CAPACITY];
+    double[] expectedCounts = new double[MAX_CAPACITY];
+
+    for (int i = 0; i < NUM_VALUES; i++) {
+      // Grow the result holder along the way
+      int capacity = Math.min(INITIAL_CAPACITY + i / 10, MAX_CAPACITY);
+      resultHolder.ensureCapacity(capacity);
+      int groupKey = RANDOM.nextInt(capacity);
+      int value = RANDOM.nextInt(100);
+      resultHolder.addValuesForKey(groupKey, value, 1);
+      expectedSums[groupKey] += value;
+      expectedCounts[groupKey] += 1;
+    }
+
+    for (int i = 0; i < MAX_CAPACITY; i++) {
+      Assert.assertEquals(resultHolder.getFirstValue(i), expectedSums[i], ERROR_MESSAGE);
+      Assert.assertEquals(resultHolder.getSecondValue(i), expectedCounts[i], ERROR_MESSAGE);
+    }
+  }
+
+  @Test
+  public void testApplyMinMaxForKey() {
+    DoublePairGroupByResultHolder resultHolder =
+        new DoublePairGroupByResultHolder(INITIAL_CAPACITY, MAX_CAPACITY, Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY);
+    for (int i = 0; i < INITIAL_CAPACITY; i++) {
+      resultHolder.applyMinMaxForKey(i, i, i);
+      resultHolder.applyMinMaxForKey(i, i - 1, i - 1);
+      resultHolder.applyMinMaxForKey(i, i + 1, i + 1);
+    }
+
+    // The expanded portion of the result holder should contain the default values
+    resultHolder.ensureCapacity(MAX_CAPACITY);
+    for (int i = 0; i < MAX_CAPACITY; i++) {
+      if (i < INITIAL_CAPACITY) {
+        Assert.assertEquals(resultHolder.getFirstValue(i), (double) (i - 1));
+        Assert.assertEquals(resultHolder.getSecondValue(i), (double) (i + 1));
+      } else {
+        Assert.assertEquals(resultHolder.getFirstValue(i), Double.POSITIVE_INFINITY);
+        Assert.assertEquals(resultHolder.getSecondValue(i), Double.NEGATIVE_INFINITY);
+      }
+    }
+
+    // Invalid group key should be ignored and return the default values
+    resultHolder.applyMinMaxForKey(GroupKeyGenerator.INVALID_ID, 0, 0);
+    Assert.assertEquals(resultHolder.getFirstValue(GroupKeyGenerator.INVALID_ID), Double.POSITIVE_INFINITY);
+    Assert.assertEquals(resultHolder.getSecondValue(GroupKeyGenerator.INVALID_ID), Double.NEGATIVE_INFINITY);
+  }
+}
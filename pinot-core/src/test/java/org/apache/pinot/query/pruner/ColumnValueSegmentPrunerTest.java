@@ -18,20 +18,35 @@
  */
 package org.apache.pinot.query.pruner;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import junit.framework.Assert;
 import org.apache.pinot.common.data.FieldSpec;
+import org.apache.pinot.common.data.Schema;
+import org.apache.pinot.common.metrics.ServerMetrics;
 import org.apache.pinot.common.request.BrokerRequest;
+import org.apache.pinot.common.request.InstanceRequest;
 import org.apache.pinot.common.utils.request.FilterQueryTree;
 import org.apache.pinot.common.utils.request.RequestUtils;
+import org.apache.pinot.core.bloom.BloomFilter;
+import org.apache.pinot.core.bloom.OffHeapBlockedBloomFilter;
+import org.apache.pinot.core.data.GenericRow;
+import org.apache.pinot.core.indexsegment.IndexSegment;
+import org.apache.pinot.core.indexsegment.mutable.MutableSegmentImpl;
+import org.apache.pinot.core.indexsegment.mutable.MutableSegmentImplTestUtils;
 import org.apache.pinot.core.query.pruner.ColumnValueSegmentPruner;
+import org.apache.pinot.core.query.request.ServerQueryRequest;
 import org.apache.pinot.core.segment.index.ColumnMetadata;
 import org.apache.pinot.core.segment.index.readers.BloomFilterReader;
 import org.apache.pinot.pql.parsers.Pql2Compiler;
 import org.testng.annotations.Test;
 
+import static org.mockito.Mockito.mock;
+
 
 /**
  * Unit tests for {@link ColumnValueSegmentPruner} class.
@@ -48,6 +63,11 @@ public class ColumnValueSegmentPrunerTest {
     COLUMN_METADATA_MAP.put("foo",
         new ColumnMetadata.Builder().setColumnName("foo").setFieldType(FieldSpec.FieldType.DIMENSION)
             .setDataType(FieldSpec.DataType.STRING).build());
+
+    BloomFilter bloomFilter = new OffHeapBlockedBloomFilter(100, 0.05);
+    bloomFilter.add("bar");
+    bloomFilter.add("baz");
+    BLOOM_FILTER_MAP.put("foo", new BloomFilterReader(bloomFilter));
   }
 
   @Test
@@ -61,6 +81,15 @@ public class ColumnValueSegmentPrunerTest {
     Assert.assertFalse(runPruner("SELECT COUNT(*) FROM table WHERE time = 20"));
     Assert.assertTrue(runPruner("SELECT COUNT(*) FROM table WHERE time = 30"));
 
+    // In predicate
+    Assert.assertTrue(runPruner("SELECT COUNT(*) FROM table WHERE time IN (0, 30)"));
+    Assert.assertFalse(runPruner("SELECT COUNT(*) FROM table WHERE time IN (0, 15)"));
+
+    // Bloom filter
+    Assert.assertTrue(runPruner("SELECT COUNT(*) FROM table WHERE foo = 'qux'"));
+    Assert.assertTrue(runPruner("SELECT COUNT(*) FROM table WHERE foo IN ('qux', 'quux')"));
+    Assert.assertFalse(runPruner("SELECT COUNT(*) FROM table WHERE foo IN ('qux', 'baz')"));
+
     // Range predicate
     Assert.assertTrue(runPruner("SELECT COUNT(*) FROM table WHERE time < 10"));
     Assert.assertFalse(runPruner("SELECT COUNT(*) FROM table WHERE time <= 10"));
@@ -91,6 +120,41 @@ public class ColumnValueSegmentPrunerTest {
     Assert.assertTrue(runPruner("SELECT COUNT(*) FROM table WHERE time BETWEEN 0 AND 5 OR time BETWEEN 30 AND 35"));
   }
 
+  @Test
+  public void testConsumingSegment() {
+    Schema schema = new Schema.SchemaBuilder().addSingleValueDimension("foo", FieldSpec.DataType.STRING)
+        .addSingleValueDimension("bytesColumn", FieldSpec.DataType.BYTES).build();
+    MutableSegmentImpl mutableSegment = MutableSegmentImplTestUtils
+        .createMutableSegmentImpl(schema, Collections.emptySet(), Collections.emptySet(),
+            new HashSet<>(Arrays.asList("foo", "bytesColumn")), false);
+    try {
+      GenericRow row = new GenericRow();
+      row.putField("foo", "bar");
+      row.putField("bytesColumn", new byte[]{0x12, 0x34});
+      mutableSegment.index(row);
+
+      // Bloom filter should not be created for BYTES column because the pruner cannot convert the query values
+      Assert.assertNotNull(mutableSegment.getDataSource("foo").getBloomFilter());
+      Assert.assertNull(mutableSegment.getDataSource("bytesColumn").getBloomFilter());
+
+      Assert.assertTrue(runPruner(mutableSegment, "SELECT COUNT(*) FROM table WHERE foo = 'qux'"));
+      Assert.assertFalse(runPruner(mutableSegment, "SELECT COUNT(*) FROM table WHERE foo = 'bar'"));
+      Assert.assertFalse(runPruner(mutableSegment, "SELECT COUNT(*) FROM table WHERE bytesColumn = '1234'"));
+      Assert.assertFalse(runPruner(mutableSegment, "SELECT COUNT(*) FROM table WHERE bytesColumn = 'abcd'"));
+      Assert.assertTrue(
+          runPruner(mutableSegment, "SELECT COUNT(*) FROM table WHERE foo = 'qux' AND bytesColumn = 'abcd'"));
+    } finally {
+      mutableSegment.destroy();
+    }
+  }
+
+  private boolean runPruner(IndexSegment segment, String query) {
+    InstanceRequest instanceRequest = new InstanceRequest(0L, COMPILER.compileToBrokerRequest(query));
+    ServerQueryRequest serverQueryRequest =
+        new ServerQueryRequest(instanceRequest, mock(ServerMetrics.class), System.currentTimeMillis());
+    return new ColumnValueSegmentPruner().prune(segment, serverQueryRequest);
+  }
+
   private boolean runPruner(String query) {
     BrokerRequest brokerRequest = COMPILER.compileToBrokerRequest(query);
     FilterQueryTree filterQueryTree = RequestUtils.generateFilterQueryTree(brokerRequest);
@@ -23,10 +23,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.PriorityQueue;
 import org.apache.pinot.common.request.Selection;
 import org.apache.pinot.common.request.SelectionSort;
+import org.apache.pinot.common.response.ServerInstance;
 import org.apache.pinot.common.response.broker.SelectionResults;
 import org.apache.pinot.common.utils.DataSchema;
 import org.apache.pinot.common.utils.DataTable;
@@ -120,6 +123,27 @@ public class SelectionOperatorServiceTest {
     Assert.assertEquals(mergedRows.poll(), _compatibleRow2);
   }
 
+  @Test
+  public void testCompatibleRowsReduceWithOrdering()
+      throws Exception {
+    Map<ServerInstance, DataTable> dataTableMap = new HashMap<>();
+    dataTableMap.put(new ServerInstance("localhost", 1234),
+        SelectionOperatorUtils.getDataTableFromRows(Arrays.asList(_row1.clone(), _row2.clone()), _dataSchema));
+    dataTableMap.put(new ServerInstance("localhost", 5678), SelectionOperatorUtils
+        .getDataTableFromRows(Arrays.asList(_compatibleRow1.clone(), _compatibleRow2.clone()), _compatibleDataSchema));
+
+    SelectionOperatorService selectionOperatorService =
+        new SelectionOperatorService(_selectionOrderBy, _upgradedDataSchema);
+    selectionOperatorService.reduceWithOrdering(dataTableMap);
+    Assert.assertEquals(selectionOperatorService.getRows().size(), 3);
+
+    // ORDER BY int DESC LIMIT 1, 2
+    List<Serializable[]> resultRows = selectionOperatorService.renderSelectionResultsWithOrdering().getRows();
+    Assert.assertEquals(resultRows.size(), 2);
+    Assert.assertEquals(resultRows.get(0), _row2);
+    Assert.assertEquals(resultRows.get(1), _compatibleRow1);
+  }
+
   @Test
   public void testCompatibleRowsDataTableTransformation()
       throws Exception {
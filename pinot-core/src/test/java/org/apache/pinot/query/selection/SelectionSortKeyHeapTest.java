@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.query.selection;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.apache.pinot.common.data.FieldSpec.DataType;
+import org.apache.pinot.core.query.selection.SelectionSortKeyHeap;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ * Unit test for {@link SelectionSortKeyHeap}
+ */
+public class SelectionSortKeyHeapTest {
+  private static final Random RANDOM = new Random();
+  private static final int NUM_ENTRIES = 10000;
+
+  @Test
+  public void testTopN() {
+    // ORDER BY intKey ASC, longKey (not compared), stringKey DESC, doubleKey ASC
+    DataType[] sortKeyTypes = new DataType[]{DataType.INT, null, DataType.STRING, DataType.DOUBLE};
+    boolean[] ascending = new boolean[]{true, true, false, true};
+    Comparator<Object[]> comparator = (o1, o2) -> {
+      int result = Integer.compare((int) o1[0], (int) o2[0]);
+      if (result != 0) {
+        return result;
+      }
+      result = ((String) o2[1]).compareTo((String) o1[1]);
+      if (result != 0) {
+        return result;
+      }
+      return Double.compare((double) o1[2], (double) o2[2]);
+    };
+
+    for (int maxSize : new int[]{0, 1, 10, 2000, NUM_ENTRIES, 2 * NUM_ENTRIES}) {
+      SelectionSortKeyHeap sortKeyHeap = new SelectionSortKeyHeap(sortKeyTypes, ascending, maxSize);
+      List<Object[]> entries = new ArrayList<>(NUM_ENTRIES);
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+        // Small value ranges to have ties on the first sort keys, and unique payload to identify the entries
+        Object[] entry = new Object[]{RANDOM.nextInt(10), Integer.toString(RANDOM.nextInt(10)), RANDOM.nextDouble(), i};
+        entries.add(entry);
+        sortKeyHeap.setIntKey(0, (int) entry[0]);
+        sortKeyHeap.setStringKey(2, (String) entry[1]);
+        sortKeyHeap.setDoubleKey(3, (double) entry[2]);
+        sortKeyHeap.setPayload(i);
+        sortKeyHeap.offer();
+      }
+      entries.sort(comparator);
+
+      int expectedSize = Math.min(maxSize, NUM_ENTRIES);
+      Assert.assertEquals(sortKeyHeap.size(), expectedSize);
+      // Polling returns the entries ranked last first
+      for (int i = expectedSize - 1; i >= 0; i--) {
+        Assert.assertEquals(sortKeyHeap.getPayload(sortKeyHeap.poll()), (long) (int) entries.get(i)[3]);
+      }
+      Assert.assertEquals(sortKeyHeap.size(), 0);
+    }
+  }
+}
@@ -18,18 +18,56 @@
  */
 package org.apache.pinot.realtime.converter;
 
+import com.yammer.metrics.core.MetricsRegistry;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
 import org.apache.pinot.common.data.DimensionFieldSpec;
 import org.apache.pinot.common.data.FieldSpec;
+import org.apache.pinot.common.data.MetricFieldSpec;
 import org.apache.pinot.common.data.Schema;
 import org.apache.pinot.common.data.TimeFieldSpec;
+import org.apache.pinot.common.metrics.ServerMetrics;
+import org.apache.pinot.common.segment.ReadMode;
+import org.apache.pinot.core.common.DataSource;
+import org.apache.pinot.core.common.DataSourceMetadata;
+import org.apache.pinot.core.data.GenericRow;
+import org.apache.pinot.core.data.readers.RecordReader;
+import org.apache.pinot.core.data.recordtransformer.CompoundTransformer;
+import org.apache.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegment;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegmentLoader;
+import org.apache.pinot.core.indexsegment.mutable.MutableSegmentImpl;
+import org.apache.pinot.core.indexsegment.mutable.MutableSegmentImplTestUtils;
+import org.apache.pinot.core.io.reader.DataFileReader;
+import org.apache.pinot.core.io.reader.ReaderContext;
+import org.apache.pinot.core.io.reader.SingleColumnMultiValueReader;
+import org.apache.pinot.core.io.reader.SingleColumnSingleValueReader;
 import org.apache.pinot.core.realtime.converter.RealtimeSegmentConverter;
+import org.apache.pinot.core.realtime.converter.RealtimeSegmentRecordReader;
+import org.apache.pinot.core.realtime.converter.stats.RealtimeSegmentSegmentCreationDataSource;
+import org.apache.pinot.core.segment.creator.SegmentCreationDataSource;
+import org.apache.pinot.core.segment.creator.SegmentPreIndexStatsContainer;
+import org.apache.pinot.core.segment.creator.StatsCollectorConfig;
+import org.apache.pinot.core.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import org.apache.pinot.core.segment.index.loader.IndexLoadingConfig;
+import org.apache.pinot.core.segment.index.readers.Dictionary;
+import org.apache.pinot.core.segment.index.readers.InvertedIndexReader;
 import org.apache.pinot.core.segment.virtualcolumn.VirtualColumnProviderFactory;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 
 public class RealtimeSegmentConverterTest {
+  private static final File TEMP_DIR = new File(FileUtils.getTempDirectory(), "RealtimeSegmentConverterTest");
+  private static final int NUM_ROWS = 1000;
 
   @Test
   public void testNoVirtualColumnsInSchema() {
@@ -51,4 +89,264 @@ public class RealtimeSegmentConverterTest {
     Assert.assertEquals(newSchema.getColumnNames().size(), 2);
     Assert.assertEquals(newSchema.getTimeFieldSpec().getIncomingGranularitySpec().getTimeType(), TimeUnit.DAYS);
   }
+
+  @Test
+  public void testColumnarConversion()
+      throws Exception {
+    Schema schema = new Schema();
+    schema.addField(new DimensionFieldSpec("svString", FieldSpec.DataType.STRING, true));
+    schema.addField(new DimensionFieldSpec("svInt", FieldSpec.DataType.INT, true));
+    schema.addField(new DimensionFieldSpec("mvInt", FieldSpec.DataType.INT, false));
+    schema.addField(new MetricFieldSpec("metric", FieldSpec.DataType.LONG));
+    schema.addField(new TimeFieldSpec("time", FieldSpec.DataType.LONG, TimeUnit.MILLISECONDS));
+
+    // NOTE: sorted column requires inverted index in the mutable segment
+    MutableSegmentImpl mutableSegment = MutableSegmentImplTestUtils
+        .createMutableSegmentImpl(schema, Collections.singleton("metric"),
+            new HashSet<>(Arrays.asList("svString", "mvInt")), false);
+    Random random = new Random();
+    for (int i = 0; i < NUM_ROWS; i++) {
+      GenericRow row = new GenericRow();
+      row.putField("svString", "value" + random.nextInt(50));
+      row.putField("svInt", random.nextInt(100));
+      int numValues = 1 + random.nextInt(3);
+      Object[] mvValues = new Object[numValues];
+      for (int j = 0; j < numValues; j++) {
+        mvValues[j] = random.nextInt(20);
+      }
+      row.putField("mvInt", mvValues);
+      row.putField("metric", random.nextLong());
+      row.putField("time", 1500000000000L + random.nextInt(1000));
+      mutableSegment.index(row);
+    }
+
+    FileUtils.deleteQuietly(TEMP_DIR);
+    try {
+      RealtimeSegmentConverter converter =
+          new RealtimeSegmentConverter(mutableSegment, TEMP_DIR.getAbsolutePath(), schema, "testTable", "time",
+              "testSegment", "svString", Collections.singletonList("mvInt"), Collections.singletonList("metric"), null);
+      converter.build(null, new ServerMetrics(new MetricsRegistry()));
+
+      IndexLoadingConfig indexLoadingConfig = new IndexLoadingConfig();
+      indexLoadingConfig.setReadMode(ReadMode.heap);
+      indexLoadingConfig.setInvertedIndexColumns(Collections.singleton("mvInt"));
+      ImmutableSegment immutableSegment = ImmutableSegmentLoader.load(TEMP_DIR.listFiles()[0], indexLoadingConfig);
+      try {
+        Assert.assertEquals(immutableSegment.getSegmentMetadata().getTotalDocs(), NUM_ROWS);
+        Assert.assertTrue(immutableSegment.getDataSource("svString").getDataSourceMetadata().isSorted());
+
+        // Documents should be ordered on the sorted column, with the same values as the mutable segment
+        int[] sortedDocIds = mutableSegment.getSortedDocIdIterationOrderWithSortedColumn("svString");
+        Dictionary mvDictionary = immutableSegment.getDataSource("mvInt").getDictionary();
+        InvertedIndexReader mvInvertedIndex = immutableSegment.getDataSource("mvInt").getInvertedIndex();
+        GenericRow expectedRow = new GenericRow();
+        GenericRow actualRow = new GenericRow();
+        for (int i = 0; i < NUM_ROWS; i++) {
+          mutableSegment.getRecord(sortedDocIds[i], expectedRow);
+          immutableSegment.getRecord(i, actualRow);
+          for (String column : new String[]{"svString", "svInt", "metric", "time"}) {
+            Assert.assertEquals(actualRow.getValue(column), expectedRow.getValue(column), column);
+          }
+
+          // Multi-values are stored in the order of the dictionary ids
+          Object[] expectedValues = (Object[]) expectedRow.getValue("mvInt");
+          Arrays.sort(expectedValues);
+          Object[] actualValues = (Object[]) actualRow.getValue("mvInt");
+          Assert.assertEquals(actualValues, expectedValues);
+          for (Object value : actualValues) {
+            ImmutableRoaringBitmap docIds =
+                (ImmutableRoaringBitmap) mvInvertedIndex.getDocIds(mvDictionary.indexOf(value));
+            Assert.assertTrue(docIds.contains(i));
+          }
+        }
+      } finally {
+        immutableSegment.destroy();
+      }
+    } finally {
+      mutableSegment.destroy();
+      FileUtils.deleteQuietly(TEMP_DIR);
+    }
+  }
+
+  @Test
+  public void testColumnarConversionEquivalentToRowBasedConversion()
+      throws Exception {
+    Schema schema = new Schema();
+    schema.addField(new DimensionFieldSpec("sorted", FieldSpec.DataType.STRING, true));
+    schema.addField(new DimensionFieldSpec("svInt", FieldSpec.DataType.INT, true));
+    schema.addField(new DimensionFieldSpec("svRawDouble", FieldSpec.DataType.DOUBLE, true));
+    schema.addField(new DimensionFieldSpec("svRawString", FieldSpec.DataType.STRING, true));
+    schema.addField(new DimensionFieldSpec("mvInt", FieldSpec.DataType.INT, false));
+    schema.addField(new DimensionFieldSpec("mvString", FieldSpec.DataType.STRING, false));
+    schema.addField(new MetricFieldSpec("metric", FieldSpec.DataType.LONG));
+    schema.addField(new TimeFieldSpec("time", FieldSpec.DataType.LONG, TimeUnit.MILLISECONDS));
+    List<String> invertedIndexColumns = Arrays.asList("svInt", "mvInt", "mvString");
+    // NOTE: raw STRING column is dictionary-encoded in the mutable segment and raw in the immutable segment
+    List<String> noDictionaryColumns = Arrays.asList("svRawDouble", "svRawString", "metric");
+
+    // NOTE: sorted column requires inverted index in the mutable segment
+    Set<String> mutableInvertedIndexColumns = new HashSet<>(invertedIndexColumns);
+    mutableInvertedIndexColumns.add("sorted");
+    MutableSegmentImpl mutableSegment = MutableSegmentImplTestUtils
+        .createMutableSegmentImpl(schema, new HashSet<>(noDictionaryColumns), mutableInvertedIndexColumns, false);
+    Random random = new Random();
+    for (int i = 0; i < NUM_ROWS; i++) {
+      GenericRow row = new GenericRow();
+      row.putField("sorted", "value" + random.nextInt(50));
+      row.putField("svInt", random.nextInt(100));
+      row.putField("svRawDouble", random.nextDouble());
+      row.putField("svRawString", "raw" + random.nextInt(200));
+      int numValues = 1 + random.nextInt(3);
+      Object[] intValues = new Object[numValues];
+      Object[] stringValues = new Object[numValues];
+      for (int j = 0; j < numValues; j++) {
+        intValues[j] = random.nextInt(20);
+        stringValues[j] = "mv" + random.nextInt(20);
+      }
+      row.putField("mvInt", intValues);
+      row.putField("mvString", stringValues);
+      row.putField("metric", random.nextLong());
+      row.putField("time", 1500000000000L + random.nextInt(1000));
+      mutableSegment.index(row);
+    }
+
+    FileUtils.deleteQuietly(TEMP_DIR);
+    File columnarOutDir = new File(TEMP_DIR, "columnar");
+    File rowBasedOutDir = new File(TEMP_DIR, "rowBased");
+    try {
+      // Columnar conversion with the realtime data source
+      RealtimeSegmentSegmentCreationDataSource columnarDataSource = new RealtimeSegmentSegmentCreationDataSource(
+          mutableSegment, new RealtimeSegmentRecordReader(mutableSegment, schema, "sorted"), schema);
+      buildSegment(schema, invertedIndexColumns, noDictionaryColumns, columnarOutDir, columnarDataSource);
+
+      // Row-based conversion with the same data source hidden behind the row-based interface
+      RealtimeSegmentSegmentCreationDataSource realtimeDataSource = new RealtimeSegmentSegmentCreationDataSource(
+          mutableSegment, new RealtimeSegmentRecordReader(mutableSegment, schema, "sorted"), schema);
+      SegmentCreationDataSource rowBasedDataSource = new SegmentCreationDataSource() {
+        @Override
+        public SegmentPreIndexStatsContainer gatherStats(StatsCollectorConfig statsCollectorConfig) {
+          return realtimeDataSource.gatherStats(statsCollectorConfig);
+        }
+
+        @Override
+        public RecordReader getRecordReader() {
+          return realtimeDataSource.getRecordReader();
+        }
+      };
+      buildSegment(schema, invertedIndexColumns, noDictionaryColumns, rowBasedOutDir, rowBasedDataSource);
+
+      IndexLoadingConfig indexLoadingConfig = new IndexLoadingConfig();
+      indexLoadingConfig.setReadMode(ReadMode.heap);
+      indexLoadingConfig.setInvertedIndexColumns(new HashSet<>(invertedIndexColumns));
+      ImmutableSegment columnarSegment = ImmutableSegmentLoader.load(columnarOutDir.listFiles()[0], indexLoadingConfig);
+      ImmutableSegment rowBasedSegment = ImmutableSegmentLoader.load(rowBasedOutDir.listFiles()[0], indexLoadingConfig);
+      try {
+        Assert.assertEquals(columnarSegment.getSegmentMetadata().getTotalDocs(), NUM_ROWS);
+        Assert.assertEquals(rowBasedSegment.getSegmentMetadata().getTotalDocs(), NUM_ROWS);
+
+        for (String column : schema.getPhysicalColumnNames()) {
+          DataSource columnarColumn = columnarSegment.getDataSource(column);
+          DataSource rowBasedColumn = rowBasedSegment.getDataSource(column);
+          DataSourceMetadata columnarMetadata = columnarColumn.getDataSourceMetadata();
+          DataSourceMetadata rowBasedMetadata = rowBasedColumn.getDataSourceMetadata();
+          Assert.assertEquals(columnarMetadata.isSorted(), rowBasedMetadata.isSorted(), column);
+          Assert.assertEquals(columnarMetadata.hasDictionary(), rowBasedMetadata.hasDictionary(), column);
+          Assert.assertEquals(columnarMetadata.hasInvertedIndex(), rowBasedMetadata.hasInvertedIndex(), column);
+
+          // Values of every document should be identical (compare dictionary ids for dictionary-encoded columns)
+          FieldSpec fieldSpec = schema.getFieldSpecFor(column);
+          DataFileReader columnarForwardIndex = columnarSegment.getForwardIndex(column);
+          DataFileReader rowBasedForwardIndex = rowBasedSegment.getForwardIndex(column);
+          if (fieldSpec.isSingleValueField()) {
+            SingleColumnSingleValueReader columnarReader = (SingleColumnSingleValueReader) columnarForwardIndex;
+            SingleColumnSingleValueReader rowBasedReader = (SingleColumnSingleValueReader) rowBasedForwardIndex;
+            ReaderContext columnarContext = columnarReader.createContext();
+            ReaderContext rowBasedContext = rowBasedReader.createContext();
+            for (int i = 0; i < NUM_ROWS; i++) {
+              Assert.assertEquals(getValue(columnarReader, columnarContext, i, fieldSpec, rowBasedMetadata),
+                  getValue(rowBasedReader, rowBasedContext, i, fieldSpec, rowBasedMetadata), column);
+            }
+          } else {
+            SingleColumnMultiValueReader columnarReader = (SingleColumnMultiValueReader) columnarForwardIndex;
+            SingleColumnMultiValueReader rowBasedReader = (SingleColumnMultiValueReader) rowBasedForwardIndex;
+            int maxNumMultiValues = rowBasedMetadata.getMaxNumMultiValues();
+            int[] columnarDictIds = new int[maxNumMultiValues];
+            int[] rowBasedDictIds = new int[maxNumMultiValues];
+            for (int i = 0; i < NUM_ROWS; i++) {
+              int numValues = rowBasedReader.getIntArray(i, rowBasedDictIds);
+              Assert.assertEquals(columnarReader.getIntArray(i, columnarDictIds), numValues, column);
+              Assert.assertEquals(Arrays.copyOf(columnarDictIds, numValues), Arrays.copyOf(rowBasedDictIds, numValues),
+                  column);
+            }
+          }
+
+          // Dictionaries and inverted indexes (including the sorted index) should be identical
+          Dictionary columnarDictionary = columnarColumn.getDictionary();
+          Dictionary rowBasedDictionary = rowBasedColumn.getDictionary();
+          if (rowBasedDictionary == null) {
+            Assert.assertNull(columnarDictionary, column);
+            continue;
+          }
+          int cardinality = rowBasedDictionary.length();
+          Assert.assertEquals(columnarDictionary.length(), cardinality, column);
+          InvertedIndexReader columnarInvertedIndex = columnarColumn.getInvertedIndex();
+          InvertedIndexReader rowBasedInvertedIndex = rowBasedColumn.getInvertedIndex();
+          Assert.assertEquals(columnarInvertedIndex == null, rowBasedInvertedIndex == null, column);
+          for (int dictId = 0; dictId < cardinality; dictId++) {
+            Assert.assertEquals(columnarDictionary.get(dictId), rowBasedDictionary.get(dictId), column);
+            if (rowBasedInvertedIndex != null) {
+              Assert.assertEquals(columnarInvertedIndex.getDocIds(dictId), rowBasedInvertedIndex.getDocIds(dictId),
+                  column);
+            }
+          }
+        }
+        Assert.assertTrue(columnarSegment.getDataSource("sorted").getDataSourceMetadata().isSorted());
+        Assert.assertFalse(columnarSegment.getDataSource("svRawString").getDataSourceMetadata().hasDictionary());
+        Assert.assertNotNull(columnarSegment.getDataSource("mvString").getInvertedIndex());
+
+      } finally {
+        columnarSegment.destroy();
+        rowBasedSegment.destroy();
+      }
+    } finally {
+      mutableSegment.destroy();
+      FileUtils.deleteQuietly(TEMP_DIR);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Object getValue(SingleColumnSingleValueReader reader, ReaderContext context, int docId,
+      FieldSpec fieldSpec, DataSourceMetadata dataSourceMetadata) {
+    if (dataSourceMetadata.hasDictionary()) {
+      return reader.getInt(docId);
+    }
+    switch (fieldSpec.getDataType()) {
+      case LONG:
+        return reader.getLong(docId, context);
+      case DOUBLE:
+        return reader.getDouble(docId, context);
+      case STRING:
+        return reader.getString(docId, context);
+      default:
+        throw new IllegalStateException();
+    }
+  }
+
+  private static void buildSegment(Schema schema, List<String> invertedIndexColumns, List<String> noDictionaryColumns,
+      File outDir, SegmentCreationDataSource dataSource)
+      throws Exception {
+    SegmentGeneratorConfig config = new SegmentGeneratorConfig(schema);
+    for (String column : invertedIndexColumns) {
+      config.createInvertedIndexForColumn(column);
+    }
+    config.setRawIndexCreationColumns(noDictionaryColumns);
+    config.setTimeColumnName("time");
+    config.setSegmentTimeUnit(TimeUnit.MILLISECONDS);
+    config.setTableName("testTable");
+    config.setSegmentName("testSegment");
+    config.setOutDir(outDir.getAbsolutePath());
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    driver.init(config, dataSource, CompoundTransformer.getPassThroughTransformer());
+    driver.build();
+  }
 }
@@ -0,0 +1,171 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.data.DimensionFieldSpec;
+import org.apache.pinot.common.data.FieldSpec;
+import org.apache.pinot.common.data.MetricFieldSpec;
+import org.apache.pinot.common.data.Schema;
+import org.apache.pinot.common.request.BrokerRequest;
+import org.apache.pinot.common.segment.ReadMode;
+import org.apache.pinot.core.data.GenericRow;
+import org.apache.pinot.core.data.readers.GenericRowRecordReader;
+import org.apache.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegment;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegmentLoader;
+import org.apache.pinot.core.plan.DocIdSetPlanNode;
+import org.apache.pinot.core.plan.maker.InstancePlanMakerImplV2;
+import org.apache.pinot.core.plan.maker.PlanMaker;
+import org.apache.pinot.core.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import org.apache.pinot.pql.parsers.Pql2Compiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+
+/**
+ * Benchmark for the adaptive block size of {@link DocIdSetPlanNode}, which runs the segment level plan of narrow and
+ * wide aggregation queries with the adaptive block size enabled and disabled.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-server", "-Xmx4G"})
+public class BenchmarkBlockSize {
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "BenchmarkBlockSize");
+  private static final String SEGMENT_NAME = "testSegment";
+  private static final int NUM_ROWS = 1_000_000;
+  private static final int NUM_METRIC_COLUMNS = 64;
+  private static final int NUM_GROUPS = 100;
+  private static final String GROUP_BY_COLUMN = "dim";
+  private static final String METRIC_COLUMN_PREFIX = "metric";
+
+  @Param({"narrow", "wide", "wideGroupBy"})
+  public String queryType;
+
+  @Param({"true", "false"})
+  public boolean adaptiveBlockSize;
+
+  private final PlanMaker _planMaker = new InstancePlanMakerImplV2();
+  private ImmutableSegment _segment;
+  private BrokerRequest _brokerRequest;
+
+  @Setup
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteQuietly(INDEX_DIR);
+
+    Schema schema = new Schema();
+    schema.addField(new DimensionFieldSpec(GROUP_BY_COLUMN, FieldSpec.DataType.INT, true));
+    for (int i = 0; i < NUM_METRIC_COLUMNS; i++) {
+      schema.addField(new MetricFieldSpec(METRIC_COLUMN_PREFIX + i, FieldSpec.DataType.LONG));
+    }
+
+    Random random = new Random();
+    List<GenericRow> rows = new ArrayList<>(NUM_ROWS);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      Map<String, Object> map = new HashMap<>();
+      map.put(GROUP_BY_COLUMN, random.nextInt(NUM_GROUPS));
+      for (int j = 0; j < NUM_METRIC_COLUMNS; j++) {
+        map.put(METRIC_COLUMN_PREFIX + j, (long) random.nextInt(1000));
+      }
+      GenericRow row = new GenericRow();
+      row.init(map);
+      rows.add(row);
+    }
+
+    SegmentGeneratorConfig config = new SegmentGeneratorConfig(schema);
+    config.setOutDir(INDEX_DIR.getPath());
+    config.setSegmentName(SEGMENT_NAME);
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    driver.init(config, new GenericRowRecordReader(rows, schema));
+    driver.build();
+    _segment = ImmutableSegmentLoader.load(new File(INDEX_DIR, SEGMENT_NAME), ReadMode.mmap);
+
+    _brokerRequest = new Pql2Compiler().compileToBrokerRequest(getQuery());
+    if (!adaptiveBlockSize) {
+      _brokerRequest.setDebugOptions(Collections.singletonMap(DocIdSetPlanNode.USE_ADAPTIVE_BLOCK_SIZE, "false"));
+    }
+  }
+
+  private String getQuery() {
+    switch (queryType) {
+      case "narrow":
+        return "SELECT SUM(metric0) FROM testTable";
+      case "wide":
+        return "SELECT " + getSumOfAllMetrics() + " FROM testTable";
+      case "wideGroupBy":
+        return "SELECT " + getSumOfAllMetrics() + " FROM testTable GROUP BY " + GROUP_BY_COLUMN + " TOP "
+            + NUM_GROUPS;
+      default:
+        throw new IllegalStateException("Unsupported query type: " + queryType);
+    }
+  }
+
+  private static String getSumOfAllMetrics() {
+    StringBuilder stringBuilder = new StringBuilder();
+    for (int i = 0; i < NUM_METRIC_COLUMNS; i++) {
+      if (i > 0) {
+        stringBuilder.append(", ");
+      }
+      stringBuilder.append("SUM(").append(METRIC_COLUMN_PREFIX).append(i).append(')');
+    }
+    return stringBuilder.toString();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Object executeSegmentPlan() {
+    return _planMaker.makeInnerSegmentPlan(_segment, _brokerRequest).run().nextBlock();
+  }
+
+  @TearDown
+  public void tearDown() {
+    _segment.destroy();
+    FileUtils.deleteQuietly(INDEX_DIR);
+  }
+
+  public static void main(String[] args)
+      throws Exception {
+    Options opt =
+        new OptionsBuilder().include(BenchmarkBlockSize.class.getSimpleName()).warmupTime(TimeValue.seconds(5))
+            .warmupIterations(2).measurementTime(TimeValue.seconds(10)).measurementIterations(3).build();
+
+    new Runner(opt).run();
+  }
+}
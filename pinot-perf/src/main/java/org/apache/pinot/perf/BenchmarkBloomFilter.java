@@ -0,0 +1,185 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.core.bloom.BloomFilter;
+import org.apache.pinot.core.bloom.GuavaOnHeapBloomFilter;
+import org.apache.pinot.core.bloom.OffHeapBlockedBloomFilter;
+import org.apache.pinot.core.segment.index.readers.BloomFilterReader;
+import org.apache.pinot.core.segment.memory.PinotDataBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+
+/**
+ * Benchmark comparing the {@link GuavaOnHeapBloomFilter} (deserialized on heap) with the
+ * {@link OffHeapBlockedBloomFilter} (probed from the memory mapped segment file):
+ * <ul>
+ *   <li>Probe latency is measured with JMH</li>
+ *   <li>Heap footprint of loading the bloom filters of many segments is printed before running the benchmarks</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+public class BenchmarkBloomFilter {
+  private static final File TEMP_DIR = new File(FileUtils.getTempDirectory(), "BenchmarkBloomFilter");
+  private static final double MAX_FALSE_POS_PROBABILITY = 0.05;
+  private static final int NUM_PROBES = 1000;
+  private static final int NUM_SEGMENTS = 100;
+
+  @Param({"10000", "1000000"})
+  private int _cardinality;
+
+  private String[] _probeValues;
+  private PinotDataBuffer _guavaDataBuffer;
+  private PinotDataBuffer _offHeapDataBuffer;
+  private BloomFilterReader _guavaBloomFilterReader;
+  private BloomFilterReader _offHeapBloomFilterReader;
+
+  @Setup
+  public void setUp()
+      throws IOException {
+    FileUtils.forceMkdir(TEMP_DIR);
+    _guavaDataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(
+        createBloomFilterFile(new GuavaOnHeapBloomFilter(_cardinality, MAX_FALSE_POS_PROBABILITY), _cardinality));
+    _offHeapDataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(
+        createBloomFilterFile(new OffHeapBlockedBloomFilter(_cardinality, MAX_FALSE_POS_PROBABILITY), _cardinality));
+    _guavaBloomFilterReader = new BloomFilterReader(_guavaDataBuffer);
+    _offHeapBloomFilterReader = new BloomFilterReader(_offHeapDataBuffer);
+
+    // Half of the probe values exist in the bloom filter
+    _probeValues = new String[NUM_PROBES];
+    for (int i = 0; i < NUM_PROBES; i++) {
+      _probeValues[i] = Integer.toString(i % 2 == 0 ? i : _cardinality + i);
+    }
+  }
+
+  @TearDown
+  public void tearDown()
+      throws IOException {
+    _guavaDataBuffer.close();
+    _offHeapDataBuffer.close();
+    FileUtils.deleteDirectory(TEMP_DIR);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int guavaOnHeap() {
+    return probe(_guavaBloomFilterReader);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int offHeapBlocked() {
+    return probe(_offHeapBloomFilterReader);
+  }
+
+  private int probe(BloomFilterReader bloomFilterReader) {
+    int numMatches = 0;
+    for (String probeValue : _probeValues) {
+      if (bloomFilterReader.mightContain(probeValue)) {
+        numMatches++;
+      }
+    }
+    return numMatches;
+  }
+
+  private static File createBloomFilterFile(BloomFilter bloomFilter, int cardinality)
+      throws IOException {
+    for (int i = 0; i < cardinality; i++) {
+      bloomFilter.add(Integer.toString(i));
+    }
+    File bloomFilterFile = new File(TEMP_DIR, bloomFilter.getBloomFilterType() + "_" + cardinality);
+    try (DataOutputStream outputStream = new DataOutputStream(new FileOutputStream(bloomFilterFile))) {
+      outputStream.writeInt(bloomFilter.getBloomFilterType().getValue());
+      outputStream.writeInt(bloomFilter.getVersion());
+      bloomFilter.writeTo(outputStream);
+    }
+    return bloomFilterFile;
+  }
+
+  /**
+   * Prints the heap used by the bloom filter readers of {@link #NUM_SEGMENTS} segments for each bloom filter type.
+   */
+  private static void printHeapFootprint(int cardinality)
+      throws IOException {
+    FileUtils.forceMkdir(TEMP_DIR);
+    File[] bloomFilterFiles =
+        new File[]{createBloomFilterFile(new GuavaOnHeapBloomFilter(cardinality, MAX_FALSE_POS_PROBABILITY),
+            cardinality), createBloomFilterFile(
+            new OffHeapBlockedBloomFilter(cardinality, MAX_FALSE_POS_PROBABILITY), cardinality)};
+    for (File bloomFilterFile : bloomFilterFiles) {
+      List<PinotDataBuffer> dataBuffers = new ArrayList<>(NUM_SEGMENTS);
+      List<BloomFilterReader> bloomFilterReaders = new ArrayList<>(NUM_SEGMENTS);
+      long heapUsedBefore = getHeapUsed();
+      for (int i = 0; i < NUM_SEGMENTS; i++) {
+        PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(bloomFilterFile);
+        dataBuffers.add(dataBuffer);
+        bloomFilterReaders.add(new BloomFilterReader(dataBuffer));
+      }
+      long heapUsedAfter = getHeapUsed();
+      System.out.println(
+          String.format("%s (cardinality: %d): %d bytes heap for %d segments", bloomFilterFile.getName(), cardinality,
+              heapUsedAfter - heapUsedBefore, bloomFilterReaders.size()));
+      for (PinotDataBuffer dataBuffer : dataBuffers) {
+        dataBuffer.close();
+      }
+    }
+    FileUtils.deleteDirectory(TEMP_DIR);
+  }
+
+  private static long getHeapUsed() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  public static void main(String[] args)
+      throws Exception {
+    printHeapFootprint(10000);
+    printHeapFootprint(1000000);
+
+    ChainedOptionsBuilder opt = new OptionsBuilder().include(BenchmarkBloomFilter.class.getSimpleName())
+        .warmupTime(TimeValue.seconds(5)).warmupIterations(3).measurementTime(TimeValue.seconds(5))
+        .measurementIterations(5).forks(1);
+    new Runner(opt.build()).run();
+  }
+}
@@ -0,0 +1,165 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.helix.ZNRecord;
+import org.apache.helix.model.ExternalView;
+import org.apache.helix.model.InstanceConfig;
+import org.apache.helix.store.zk.ZkHelixPropertyStore;
+import org.apache.pinot.broker.routing.RoutingTableLookupRequest;
+import org.apache.pinot.broker.routing.builder.BalancedRandomRoutingTableBuilder;
+import org.apache.pinot.broker.routing.selector.SegmentSelector;
+import org.apache.pinot.common.config.TableConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+
+/**
+ * Benchmark for the routing table lookup of a table with pre-computed routing tables and a segment selector:
+ * <ul>
+ *   <li>noPruning: the segment selector does not prune any segment</li>
+ *   <li>pruneToFewSegments: the segment selector only selects {@link #NUM_SELECTED_SEGMENTS} segments</li>
+ *   <li>pruneToFewSegmentsByName: same as above, but filters the routing table by looking up every segment name in the
+ *   routing table (the approach used before filtering with the segment ids), for reference</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+public class BenchmarkRoutingTableLookup {
+  private static final String TABLE_NAME = "testTable_OFFLINE";
+  private static final int NUM_SERVERS = 30;
+  private static final int NUM_REPLICAS = 3;
+  private static final int NUM_SELECTED_SEGMENTS = 10;
+
+  @Param({"10000", "100000"})
+  private int _numSegments;
+
+  private BalancedRandomRoutingTableBuilder _routingTableBuilder;
+  private RoutingTableLookupRequest _request;
+  private Set<String> _selectedSegments;
+  private SegmentSelector _noPruningSegmentSelector;
+  private SegmentSelector _pruningSegmentSelector;
+
+  @Setup
+  public void setUp() {
+    List<InstanceConfig> instanceConfigs = new ArrayList<>(NUM_SERVERS);
+    for (int i = 0; i < NUM_SERVERS; i++) {
+      instanceConfigs.add(new InstanceConfig("Server_1.2.3.4_" + i));
+    }
+    ExternalView externalView = new ExternalView(TABLE_NAME);
+    for (int i = 0; i < _numSegments; i++) {
+      String segmentName = "segment_" + i;
+      for (int j = 0; j < NUM_REPLICAS; j++) {
+        externalView.setState(segmentName, instanceConfigs.get((i + j) % NUM_SERVERS).getInstanceName(), "ONLINE");
+      }
+    }
+    _routingTableBuilder = new BalancedRandomRoutingTableBuilder();
+    _routingTableBuilder.computeOnExternalViewChange(TABLE_NAME, externalView, instanceConfigs);
+    _request = new RoutingTableLookupRequest(TABLE_NAME);
+
+    _selectedSegments = new HashSet<>();
+    for (int i = 0; i < NUM_SELECTED_SEGMENTS; i++) {
+      _selectedSegments.add("segment_" + (i * (_numSegments / NUM_SELECTED_SEGMENTS)));
+    }
+    _noPruningSegmentSelector = new FixedSegmentSelector(null);
+    _pruningSegmentSelector = new FixedSegmentSelector(_selectedSegments);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Map<String, List<String>> noPruning() {
+    return _routingTableBuilder.getRoutingTable(_request, _noPruningSegmentSelector);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Map<String, List<String>> pruneToFewSegments() {
+    return _routingTableBuilder.getRoutingTable(_request, _pruningSegmentSelector);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Map<String, List<String>> pruneToFewSegmentsByName() {
+    Map<String, List<String>> routingTable = _routingTableBuilder.getRoutingTable(_request, null);
+    Map<String, List<String>> filteredRoutingTable = new HashMap<>();
+    for (Map.Entry<String, List<String>> entry : routingTable.entrySet()) {
+      List<String> segments = new ArrayList<>();
+      for (String segment : entry.getValue()) {
+        if (_selectedSegments.contains(segment)) {
+          segments.add(segment);
+        }
+      }
+      if (!segments.isEmpty()) {
+        filteredRoutingTable.put(entry.getKey(), segments);
+      }
+    }
+    return filteredRoutingTable;
+  }
+
+  /**
+   * Segment selector returning a fixed set of segments, or all the segments if the fixed set is {@code null}.
+   */
+  private static class FixedSegmentSelector implements SegmentSelector {
+    private final Set<String> _selectedSegments;
+
+    FixedSegmentSelector(Set<String> selectedSegments) {
+      _selectedSegments = selectedSegments;
+    }
+
+    @Override
+    public void init(TableConfig tableConfig, ZkHelixPropertyStore<ZNRecord> propertyStore) {
+    }
+
+    @Override
+    public void computeOnExternalViewChange() {
+    }
+
+    @Override
+    public Set<String> selectSegments(RoutingTableLookupRequest request, Set<String> segmentsToQuery) {
+      return _selectedSegments != null ? _selectedSegments : segmentsToQuery;
+    }
+  }
+
+  public static void main(String[] args)
+      throws Exception {
+    ChainedOptionsBuilder opt = new OptionsBuilder().include(BenchmarkRoutingTableLookup.class.getSimpleName())
+        .warmupTime(TimeValue.seconds(5)).warmupIterations(3).measurementTime(TimeValue.seconds(5))
+        .measurementIterations(5).forks(1);
+    new Runner(opt.build()).run();
+  }
+}
@@ -32,12 +32,16 @@ import org.apache.pinot.common.data.DimensionFieldSpec;
 import org.apache.pinot.common.data.FieldSpec;
 import org.apache.pinot.common.data.Schema;
 import org.apache.pinot.common.segment.ReadMode;
+import org.apache.pinot.common.utils.StringUtil;
 import org.apache.pinot.core.common.DataSource;
 import org.apache.pinot.core.data.GenericRow;
 import org.apache.pinot.core.data.readers.GenericRowRecordReader;
 import org.apache.pinot.core.indexsegment.IndexSegment;
 import org.apache.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
 import org.apache.pinot.core.indexsegment.immutable.ImmutableSegmentLoader;
+import org.apache.pinot.core.io.compression.ChunkCompressorFactory;
+import org.apache.pinot.core.io.reader.impl.ChunkReaderContext;
+import org.apache.pinot.core.io.reader.impl.v1.VarByteChunkSingleValueReader;
 import org.apache.pinot.core.operator.DocIdSetOperator;
 import org.apache.pinot.core.operator.ProjectionOperator;
 import org.apache.pinot.core.operator.blocks.ProjectionBlock;
@@ -47,6 +51,8 @@ import org.apache.pinot.core.operator.filter.TestFilterOperator;
 import org.apache.pinot.core.plan.DocIdSetPlanNode;
 import org.apache.pinot.core.segment.creator.impl.SegmentIndexCreationDriverImpl;
 import org.apache.pinot.core.segment.creator.impl.V1Constants;
+import org.apache.pinot.core.segment.creator.impl.fwd.SingleValueVarByteRawIndexCreator;
+import org.apache.pinot.core.segment.memory.PinotDataBuffer;
 import org.kohsuke.args4j.CmdLineParser;
 import org.kohsuke.args4j.Option;
 
@@ -55,6 +61,8 @@ import org.kohsuke.args4j.Option;
  * Class to perform benchmark on lookups for dictionary encoded fwd index v.s. raw index without dictionary.
  * It can take an existing segment with two columns to compare. It can also create a segment on the fly with a
  * given input file containing strings (one string per line).
+ * It also compares the compression ratio and the decompression throughput of the chunk compression types on the
+ * values of the raw index column.
  */
 @SuppressWarnings({"FieldCanBeLocal", "unused"})
 public class RawIndexBenchmark {
@@ -88,6 +96,10 @@ public class RawIndexBenchmark {
   @Option(name = "-numConsecutiveLookups", required = false, usage = "Number of consecutive docIds to lookup")
   private int _numConsecutiveLookups = DEFAULT_NUM_CONSECUTIVE_LOOKUP;
 
+  @Option(name = "-compressionTypes", required = false,
+      usage = "Comma separated compression types to compare for the raw index column")
+  private String _compressionTypes = "PASS_THROUGH,SNAPPY,LZ4,DEFLATE";
+
   @Option(name = "-help", required = false, help = true, aliases = {"-h"}, usage = "print this message")
   private boolean _help = false;
 
@@ -104,6 +116,7 @@ public class RawIndexBenchmark {
     IndexSegment segment = ImmutableSegmentLoader.load(segmentFile, ReadMode.valueOf(_loadMode));
     compareIndexSizes(segment, segmentFile, _fwdIndexColumn, _rawIndexColumn);
     compareLookups(segment);
+    compareCompressionTypes(segment);
 
     // Cleanup the temporary directory
     if (_segmentDir != null) {
@@ -222,11 +235,85 @@ public class RawIndexBenchmark {
     ProjectionBlock projectionBlock;
     while ((projectionBlock = projectionOperator.nextBlock()) != null) {
       ProjectionBlockValSet blockValueSet = (ProjectionBlockValSet) projectionBlock.getBlockValueSet(column);
-      blockValueSet.getDoubleValuesSV();
+      blockValueSet.getStringValuesSV();
     }
     return (System.currentTimeMillis() - start);
   }
 
+  /**
+   * Compares the compression ratio and the decompression throughput of {@link #_compressionTypes} on the values of the
+   * raw index column. The values are written with each compression type the same way as during segment creation, then
+   * read back sequentially.
+   *
+   * @param segment Segment containing the raw index column
+   * @throws Exception
+   */
+  private void compareCompressionTypes(IndexSegment segment)
+      throws Exception {
+    if (segment.getDataSource(_rawIndexColumn).getDataSourceMetadata().getDataType() != FieldSpec.DataType.STRING) {
+      System.out.println("Skipping compression comparison for non-STRING column: " + _rawIndexColumn);
+      return;
+    }
+
+    int numDocs = segment.getSegmentMetadata().getTotalDocs();
+    String[] values = new String[numDocs];
+    long uncompressedSize = 0;
+    int lengthOfLongestEntry = 0;
+    GenericRow reuse = new GenericRow();
+    for (int i = 0; i < numDocs; i++) {
+      values[i] = (String) segment.getRecord(i, reuse).getValue(_rawIndexColumn);
+      int length = StringUtil.encodeUtf8(values[i]).length;
+      uncompressedSize += length;
+      lengthOfLongestEntry = Math.max(lengthOfLongestEntry, length);
+    }
+
+    File indexDir = new File(SEGMENT_DIR_NAME, "compressionTypes");
+    for (String compressionTypeName : _compressionTypes.split(",")) {
+      ChunkCompressorFactory.CompressionType compressionType =
+          ChunkCompressorFactory.CompressionType.valueOf(compressionTypeName.trim());
+      FileUtils.deleteQuietly(indexDir);
+      FileUtils.forceMkdir(indexDir);
+      try (SingleValueVarByteRawIndexCreator indexCreator = new SingleValueVarByteRawIndexCreator(indexDir,
+          compressionType, _rawIndexColumn, numDocs, lengthOfLongestEntry)) {
+        for (int i = 0; i < numDocs; i++) {
+          indexCreator.index(i, values[i]);
+        }
+      }
+
+      File indexFile = new File(indexDir, _rawIndexColumn + V1Constants.Indexes.RAW_SV_FORWARD_INDEX_FILE_EXTENSION);
+      long indexSize = indexFile.length();
+      PinotDataBuffer dataBuffer = ReadMode.valueOf(_loadMode) == ReadMode.heap ? PinotDataBuffer
+          .loadBigEndianFile(indexFile) : PinotDataBuffer.mapReadOnlyBigEndianFile(indexFile);
+      long decodeTimeNs;
+      try (VarByteChunkSingleValueReader reader = new VarByteChunkSingleValueReader(dataBuffer)) {
+        // Warm up before the timed pass
+        readAllValues(reader, numDocs);
+        long start = System.nanoTime();
+        readAllValues(reader, numDocs);
+        decodeTimeNs = System.nanoTime() - start;
+      }
+
+      System.out.println(String
+          .format("%s: index size: %.2f MB, compression ratio: %.2f, decode time: %d ms, decode throughput: %.2f MB/s",
+              compressionType, indexSize / (1024.0 * 1024), (double) uncompressedSize / indexSize,
+              decodeTimeNs / 1_000_000, uncompressedSize * 1e9 / decodeTimeNs / (1024 * 1024)));
+    }
+    FileUtils.deleteQuietly(indexDir);
+  }
+
+  /**
+   * Reads all the values of the raw index sequentially.
+   *
+   * @param reader Reader for the raw index
+   * @param numDocs Number of documents to read
+   */
+  private void readAllValues(VarByteChunkSingleValueReader reader, int numDocs) {
+    ChunkReaderContext context = reader.createContext();
+    for (int i = 0; i < numDocs; i++) {
+      reader.getString(i, context);
+    }
+  }
+
   /**
    * Convert from bytes to mega-bytes.
    *